@@ -0,0 +1,74 @@
+package net.mircomacrelli.rss.benchmark;
+
+import net.mircomacrelli.rss.ParseResult;
+import net.mircomacrelli.rss.RSSFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses a corpus of feeds with {@link RSSFactory#parseAll} using pools of different sizes. On a machine with enough
+ * cores the time should go down almost linearly with the number of threads, up to the number of cores.
+ *
+ * @author Mirco Macrelli
+ * @version 2.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BatchBenchmark {
+    @Param({"1", "2", "4", "8"})
+    int threads;
+
+    @Param({"64"})
+    int feeds;
+
+    private RSSFactory factory;
+    private ExecutorService executor;
+    private byte[][] corpus;
+
+    @Setup
+    public void setup() {
+        factory = RSSFactory.newFactory();
+        executor = Executors.newFixedThreadPool(threads);
+        corpus = new byte[feeds][];
+        for (int i = 0; i < feeds; i++) {
+            // feeds of different sizes, like a real corpus
+            corpus[i] = Feeds.feed(10 + ((i * 37) % 90), (i % 2) == 0, (i % 4) * 256);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Benchmark
+    public List<ParseResult> parseAll() throws InterruptedException {
+        final List<InputStream> sources = new ArrayList<>(corpus.length);
+        for (final byte[] feed : corpus) {
+            sources.add(new ByteArrayInputStream(feed));
+        }
+        return factory.parseAll(sources, executor);
+    }
+}
@@ -0,0 +1,59 @@
+package net.mircomacrelli.rss.benchmark;
+
+import net.mircomacrelli.rss.FeedCache;
+import net.mircomacrelli.rss.ParserException;
+import net.mircomacrelli.rss.RSS;
+import net.mircomacrelli.rss.RSSFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares parsing a feed with getting it from a {@link FeedCache}, where the bytes are only read and digested.
+ *
+ * @author Mirco Macrelli
+ * @version 2.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CacheBenchmark {
+    @Param({"100"})
+    int items;
+
+    private RSSFactory factory;
+    private FeedCache cache;
+    private byte[] feed;
+
+    @Setup
+    public void setup() throws ParserException {
+        factory = RSSFactory.newFactory();
+        cache = FeedCache.newCache(factory, 64 * 1024 * 1024);
+        feed = Feeds.feed(items, true, 1024);
+        cache.parse(new ByteArrayInputStream(feed));
+    }
+
+    @Benchmark
+    public RSS parse() throws ParserException {
+        return factory.parse(new ByteArrayInputStream(feed));
+    }
+
+    @Benchmark
+    public RSS cached() throws ParserException {
+        return cache.parse(new ByteArrayInputStream(feed));
+    }
+}
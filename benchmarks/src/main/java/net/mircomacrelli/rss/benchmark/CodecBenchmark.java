@@ -0,0 +1,81 @@
+package net.mircomacrelli.rss.benchmark;
+
+import net.mircomacrelli.rss.BinaryCodec;
+import net.mircomacrelli.rss.ParserException;
+import net.mircomacrelli.rss.RSS;
+import net.mircomacrelli.rss.RSSFactory;
+import net.mircomacrelli.rss.RSSWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares parsing a feed from xml with decoding the same feed from the binary format, and writing it in xml with
+ * {@link RSSWriter} with encoding it in the binary format.
+ *
+ * @author Mirco Macrelli
+ * @version 2.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CodecBenchmark {
+    @Param({"100"})
+    int items;
+
+    private RSSFactory factory;
+    private byte[] xml;
+    private byte[] binary;
+    private RSS feed;
+
+    @Setup
+    public void setup() throws IOException, ParserException {
+        factory = RSSFactory.newFactory();
+        xml = Feeds.feed(items, true, 1024);
+        feed = factory.parse(new ByteArrayInputStream(xml));
+
+        final ByteArrayOutputStream os = new ByteArrayOutputStream(xml.length);
+        BinaryCodec.encode(feed, os);
+        binary = os.toByteArray();
+    }
+
+    @Benchmark
+    public RSS parse() throws ParserException {
+        return factory.parse(new ByteArrayInputStream(xml));
+    }
+
+    @Benchmark
+    public RSS decode() throws ParserException {
+        return BinaryCodec.decode(new ByteArrayInputStream(binary));
+    }
+
+    @Benchmark
+    public int encode() throws IOException {
+        final ByteArrayOutputStream os = new ByteArrayOutputStream(binary.length);
+        BinaryCodec.encode(feed, os);
+        return os.size();
+    }
+
+    @Benchmark
+    public int write() throws IOException {
+        final ByteArrayOutputStream os = new ByteArrayOutputStream(xml.length);
+        RSSWriter.write(feed, os);
+        return os.size();
+    }
+}
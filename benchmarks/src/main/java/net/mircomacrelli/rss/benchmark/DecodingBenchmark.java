@@ -0,0 +1,58 @@
+package net.mircomacrelli.rss.benchmark;
+
+import net.mircomacrelli.rss.Item;
+import net.mircomacrelli.rss.ParserException;
+import net.mircomacrelli.rss.RSSFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the eager and the lazy decoding of the values, for a consumer that reads only the title and the link of
+ * the items.
+ *
+ * @author Mirco Macrelli
+ * @version 2.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DecodingBenchmark {
+    @Param({"false", "true"})
+    boolean lazy;
+
+    @Param({"100"})
+    int items;
+
+    private RSSFactory factory;
+    private byte[] feed;
+
+    @Setup
+    public void setup() {
+        factory = RSSFactory.newFactory().withLazyDecoding(lazy);
+        feed = Feeds.feed(items);
+    }
+
+    @Benchmark
+    public void titlesAndLinks(final Blackhole blackhole) throws ParserException {
+        for (final Item item : factory.parse(new ByteArrayInputStream(feed)).getChannel().getItems()) {
+            blackhole.consume(item.getTitle());
+            blackhole.consume(item.getLink());
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package net.mircomacrelli.rss.benchmark;
+
+import net.mircomacrelli.rss.DedupIndex;
+import net.mircomacrelli.rss.Item;
+import net.mircomacrelli.rss.ParserException;
+import net.mircomacrelli.rss.RSS;
+import net.mircomacrelli.rss.RSSFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Finds the new items of a feed downloaded again, where all the items were already seen: {@code equals} searches
+ * every item in the previous version of the feed comparing the whole items, {@code index} uses a {@link DedupIndex}.
+ * The hash of the items is not stable between two parsings, so a HashSet of the previous items can't be used.
+ *
+ * @author Mirco Macrelli
+ * @version 2.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DedupBenchmark {
+    private static final String FEED = "http://example.com/feed.xml";
+
+    @Param({"100"})
+    int items;
+
+    private List<Item> fetched;
+    private List<Item> previous;
+    private DedupIndex index;
+
+    @Setup
+    public void setup() throws ParserException {
+        final RSSFactory factory = RSSFactory.newFactory();
+        final byte[] feed = Feeds.feed(items, true, 1024);
+        fetched = factory.parse(new ByteArrayInputStream(feed)).getChannel().getItems();
+
+        final RSS before = factory.parse(new ByteArrayInputStream(feed));
+        previous = before.getChannel().getItems();
+        index = DedupIndex.newIndex(1 << 20);
+        index.filterNew(FEED, before.getChannel().getItems());
+    }
+
+    @Benchmark
+    public List<Item> equals() {
+        final List<Item> added = new ArrayList<>();
+        for (final Item item : fetched) {
+            if (!previous.contains(item)) {
+                added.add(item);
+            }
+        }
+        return added;
+    }
+
+    @Benchmark
+    public List<Item> index() {
+        return index.filterNew(FEED, fetched);
+    }
+}
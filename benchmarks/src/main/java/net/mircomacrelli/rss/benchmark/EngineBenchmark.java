@@ -0,0 +1,55 @@
+package net.mircomacrelli.rss.benchmark;
+
+import net.mircomacrelli.rss.ParserException;
+import net.mircomacrelli.rss.RSS;
+import net.mircomacrelli.rss.RSSFactory;
+import net.mircomacrelli.rss.RSSFactory.Engine;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the event and the cursor engines. Run it with the GC profiler ({@code -prof gc}) and divide
+ * {@code gc.alloc.rate.norm} by the number of items to get the bytes allocated for each item.
+ *
+ * @author Mirco Macrelli
+ * @version 2.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EngineBenchmark {
+    @Param({"EVENT", "CURSOR"})
+    Engine engine;
+
+    @Param({"1", "100"})
+    int items;
+
+    private RSSFactory factory;
+    private byte[] feed;
+
+    @Setup
+    public void setup() {
+        factory = RSSFactory.newFactory(engine);
+        feed = Feeds.feed(items);
+    }
+
+    @Benchmark
+    public RSS parse() throws ParserException {
+        return factory.parse(new ByteArrayInputStream(feed));
+    }
+}
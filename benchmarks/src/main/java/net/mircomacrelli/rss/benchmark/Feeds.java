@@ -0,0 +1,127 @@
+package net.mircomacrelli.rss.benchmark;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.joda.time.format.DateTimeFormat;
+import org.joda.time.format.DateTimeFormatter;
+
+import java.nio.charset.Charset;
+import java.util.Locale;
+
+/**
+ * Generates synthetic feeds used by the benchmarks
+ *
+ * @author Mirco Macrelli
+ * @version 2.1
+ */
+final class Feeds {
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final String LOREM = "Lorem ipsum dolor sit amet, consectetur adipiscing elit, sed do eiusmod " +
+                                        "tempor incididunt ut labore et dolore magna aliqua. ";
+
+    private static final DateTimeFormatter RFC822 = DateTimeFormat.forPattern("EEE, dd MMM yyyy HH:mm:ss Z")
+                                                                  .withLocale(Locale.US);
+    private static final DateTime NEWEST = new DateTime(2013, 10, 19, 11, 9, 3, DateTimeZone.UTC);
+
+    private Feeds() {
+        throw new AssertionError("do not instantiate this class");
+    }
+
+    /**
+     * @param items number of items in the channel
+     * @return the bytes of a feed encoded in UTF-8
+     */
+    static byte[] feed(final int items) {
+        return feed(items, false, 0);
+    }
+
+    /**
+     * @param items number of items in the channel
+     * @param modules true if the channel and the items must contain the Syndication and Creative Commons modules
+     * @param descriptionLength minimum number of characters in the description of every item. 0 for a short one
+     * @return the bytes of a feed encoded in UTF-8
+     */
+    static byte[] feed(final int items, final boolean modules, final int descriptionLength) {
+        final String description = description(descriptionLength);
+
+        final StringBuilder sb = new StringBuilder(512 + (items * (512 + description.length())));
+        sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>")
+          .append("<rss version=\"2.0\"");
+        if (modules) {
+            sb.append(" xmlns:sy=\"http://purl.org/rss/1.0/modules/syndication/\"")
+              .append(" xmlns:cc=\"http://cyber.law.harvard.edu/rss/creativeCommonsRssModule.html\"");
+        }
+        sb.append('>')
+          .append("<channel>")
+          .append("<title>Benchmark feed</title>")
+          .append("<link>http://mircomacrelli.net</link>")
+          .append("<description>A feed used by the benchmarks</description>")
+          .append("<language>en-US</language>")
+          .append("<pubDate>Sat, 19 Oct 2013 11:09:03 +0000</pubDate>")
+          .append("<lastBuildDate>Sat, 19 Oct 2013 11:09:03 +0000</lastBuildDate>")
+          .append("<generator>rss-benchmarks</generator>")
+          .append("<ttl>60</ttl>");
+        if (modules) {
+            sb.append("<sy:updatePeriod>hourly</sy:updatePeriod>")
+              .append("<sy:updateFrequency>2</sy:updateFrequency>")
+              .append("<sy:updateBase>2013-10-19T11:09:03+0000</sy:updateBase>")
+              .append("<cc:license>http://www.creativecommons.org/licenses/by-nc/1.0</cc:license>");
+        }
+
+        for (int i = 0; i < items; i++) {
+            sb.append("<item>")
+              .append("<title>Item number ").append(i).append("</title>")
+              .append("<link>http://mircomacrelli.net/items/").append(i).append("</link>")
+              .append("<description>").append(description).append(i).append("</description>")
+              .append("<author>info@mircomacrelli.net</author>")
+              .append("<category domain=\"dmoz.org\">news/italian</category>")
+              .append("<comments>http://mircomacrelli.net/items/").append(i).append("#comments</comments>")
+              .append("<enclosure url=\"http://mircomacrelli.net/items/").append(i)
+              .append(".mp3\" length=\"12345\" type=\"audio/mpeg\"/>")
+              .append("<guid isPermaLink=\"false\">item-").append(i).append("</guid>")
+              .append("<pubDate>Sat, 19 Oct 2013 11:09:03 +0000</pubDate>");
+            if (modules) {
+                sb.append("<cc:license>http://www.creativecommons.org/licenses/by/1.0</cc:license>");
+            }
+            sb.append("</item>");
+        }
+
+        sb.append("</channel>").append("</rss>");
+        return sb.toString().getBytes(UTF_8);
+    }
+
+    /**
+     * @param items number of items in the channel
+     * @param seed a number that changes the dates of the items
+     * @return the bytes of a feed encoded in UTF-8, with the items published at different times in the last weeks
+     */
+    static byte[] dated(final int items, final int seed) {
+        final StringBuilder sb = new StringBuilder(256 + (items * 160));
+        sb.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>")
+          .append("<rss version=\"2.0\"><channel>")
+          .append("<title>Feed ").append(seed).append("</title>")
+          .append("<link>http://mircomacrelli.net</link>")
+          .append("<description>A feed used by the benchmarks</description>");
+        for (int i = 0; i < items; i++) {
+            final int minutes = ((i * 7919) + (seed * 104729)) % (30 * 24 * 60);
+            sb.append("<item>")
+              .append("<title>Item ").append(i).append(" of feed ").append(seed).append("</title>")
+              .append("<pubDate>").append(RFC822.print(NEWEST.minusMinutes(minutes))).append("</pubDate>")
+              .append("</item>");
+        }
+        sb.append("</channel></rss>");
+        return sb.toString().getBytes(UTF_8);
+    }
+
+    private static String description(final int length) {
+        if (length <= 0) {
+            return "The description of the item number ";
+        }
+
+        final StringBuilder sb = new StringBuilder(length + LOREM.length());
+        while (sb.length() < length) {
+            sb.append(LOREM);
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,105 @@
+package net.mircomacrelli.rss.benchmark;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import net.mircomacrelli.rss.FeedFetcher;
+import net.mircomacrelli.rss.FetchResult;
+import net.mircomacrelli.rss.RSSFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Fetches a feed from a server in the same process: {@code full} downloads and parses it every time, {@code
+ * notModified} sends the validators of the previous response and gets a 304.
+ *
+ * @author Mirco Macrelli
+ * @version 2.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+// without nodelay the small writes of the server wait for the delayed acks and hide the client
+@Fork(value = 1, jvmArgsAppend = "-Dsun.net.httpserver.nodelay=true")
+public class FetchBenchmark {
+    private static final String ETAG = "\"v1\"";
+
+    @Param({"100"})
+    int items;
+
+    private HttpServer server;
+    private FeedFetcher fetcher;
+    private URI uri;
+    private FetchResult previous;
+
+    @Setup
+    public void setup() throws Exception {
+        final byte[] body = gzip(Feeds.feed(items, true, 1024));
+
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/feed", new HttpHandler() {
+            @Override
+            public void handle(final HttpExchange exchange) throws IOException {
+                exchange.getResponseHeaders().set("ETag", ETAG);
+                if (ETAG.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                    exchange.sendResponseHeaders(304, -1);
+                } else {
+                    exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+                    exchange.sendResponseHeaders(200, body.length);
+                    try (OutputStream os = exchange.getResponseBody()) {
+                        os.write(body);
+                    }
+                }
+                exchange.close();
+            }
+        });
+        server.start();
+
+        fetcher = FeedFetcher.newFetcher(RSSFactory.newFactory());
+        uri = URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/feed");
+        previous = fetcher.fetch(uri);
+    }
+
+    @TearDown
+    public void teardown() {
+        server.stop(0);
+    }
+
+    @Benchmark
+    public FetchResult full() throws Exception {
+        return fetcher.fetch(uri);
+    }
+
+    @Benchmark
+    public FetchResult notModified() throws Exception {
+        return fetcher.fetch(previous);
+    }
+
+    private static byte[] gzip(final byte[] bytes) throws IOException {
+        final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (OutputStream os = new GZIPOutputStream(compressed)) {
+            os.write(bytes);
+        }
+        return compressed.toByteArray();
+    }
+}
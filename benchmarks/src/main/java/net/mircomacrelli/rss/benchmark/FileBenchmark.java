@@ -0,0 +1,90 @@
+package net.mircomacrelli.rss.benchmark;
+
+import net.mircomacrelli.rss.ParserException;
+import net.mircomacrelli.rss.RSSFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedInputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Re-parses a directory of archived feeds, comparing the memory-mapped files with a buffered FileInputStream.
+ *
+ * @author Mirco Macrelli
+ * @version 2.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FileBenchmark {
+    @Param({"2000"})
+    int files;
+
+    @Param({"20", "200"})
+    int items;
+
+    private RSSFactory factory;
+    private Path directory;
+    private List<Path> paths;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        factory = RSSFactory.newFactory();
+        directory = Files.createTempDirectory("rss-benchmark");
+        paths = new ArrayList<>(files);
+        final byte[] feed = Feeds.feed(items);
+        for (int i = 0; i < files; i++) {
+            paths.add(Files.write(directory.resolve("feed-" + i + ".xml"), feed));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        for (final Path path : paths) {
+            Files.delete(path);
+        }
+        Files.delete(directory);
+    }
+
+    @Benchmark
+    public int inputStream() throws IOException, ParserException {
+        int count = 0;
+        for (final Path path : paths) {
+            try (InputStream is = new BufferedInputStream(new FileInputStream(path.toFile()))) {
+                count += factory.parse(is).getChannel().getItems().size();
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int mapped() throws ParserException {
+        int count = 0;
+        for (final Path path : paths) {
+            count += factory.parse(path).getChannel().getItems().size();
+        }
+        return count;
+    }
+}
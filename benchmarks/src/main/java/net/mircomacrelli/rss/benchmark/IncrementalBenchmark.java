@@ -0,0 +1,61 @@
+package net.mircomacrelli.rss.benchmark;
+
+import net.mircomacrelli.rss.ParserException;
+import net.mircomacrelli.rss.RSS;
+import net.mircomacrelli.rss.RSSFactory;
+import net.mircomacrelli.rss.StopCondition;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the parsing of the whole feed with the parsing of only the items published after the last poll.
+ *
+ * @author Mirco Macrelli
+ * @version 2.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IncrementalBenchmark {
+    @Param({"200"})
+    int items;
+
+    @Param({"10"})
+    int newItems;
+
+    private RSSFactory factory;
+    private StopCondition condition;
+    private byte[] feed;
+
+    @Setup
+    public void setup() {
+        factory = RSSFactory.newFactory();
+        condition = StopCondition.atUniqueId("item-" + newItems);
+        feed = Feeds.feed(items);
+    }
+
+    @Benchmark
+    public RSS parse() throws ParserException {
+        return factory.parse(new ByteArrayInputStream(feed));
+    }
+
+    @Benchmark
+    public RSS parseUntil() throws ParserException {
+        return factory.parseUntil(new ByteArrayInputStream(feed), condition);
+    }
+}
@@ -0,0 +1,59 @@
+package net.mircomacrelli.rss.benchmark;
+
+import net.mircomacrelli.rss.ParserException;
+import net.mircomacrelli.rss.RSS;
+import net.mircomacrelli.rss.RSSFactory;
+import net.mircomacrelli.rss.StringPool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses a feed whose items repeat the same author, category and MIME type, creating a new string for every value or
+ * sharing them through a {@link StringPool}. Run with {@code -prof gc} to compare the bytes allocated for each feed.
+ *
+ * @author Mirco Macrelli
+ * @version 2.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class InterningBenchmark {
+    @Param({"100"})
+    int items;
+
+    private byte[] feed;
+    private RSSFactory plain;
+    private RSSFactory pooled;
+
+    @Setup
+    public void setup() {
+        feed = Feeds.feed(items, true, 64);
+        plain = RSSFactory.newFactory();
+        pooled = RSSFactory.newFactory().withStringPool(StringPool.newPool(1024));
+    }
+
+    @Benchmark
+    public RSS plain() throws ParserException {
+        return plain.parse(new ByteArrayInputStream(feed));
+    }
+
+    @Benchmark
+    public RSS pooled() throws ParserException {
+        return pooled.parse(new ByteArrayInputStream(feed));
+    }
+}
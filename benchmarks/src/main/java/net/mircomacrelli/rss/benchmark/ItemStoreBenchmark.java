@@ -0,0 +1,114 @@
+package net.mircomacrelli.rss.benchmark;
+
+import net.mircomacrelli.rss.Category;
+import net.mircomacrelli.rss.Item;
+import net.mircomacrelli.rss.ItemStore;
+import net.mircomacrelli.rss.ParserException;
+import net.mircomacrelli.rss.RSSFactory;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Counts the items of many feeds in a category and published in a day, or whose title contains a text, scanning a list
+ * of {@link Item} and the columns of an {@link ItemStore}.
+ *
+ * @author Mirco Macrelli
+ * @version 2.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ItemStoreBenchmark {
+    private static final int FEEDS = 100;
+
+    @Param({"100"})
+    int items;
+
+    private static final DateTime FROM = new DateTime(2013, 10, 19, 0, 0, DateTimeZone.UTC);
+    private static final DateTime TO = FROM.plusDays(1);
+
+    private List<Item> list;
+    private ItemStore store;
+    private ItemStore offHeap;
+
+    @Setup
+    public void setup() throws ParserException {
+        final RSSFactory factory = RSSFactory.newFactory();
+        final byte[] feed = Feeds.feed(items);
+        list = new ArrayList<>(FEEDS * items);
+        store = ItemStore.newStore();
+        offHeap = ItemStore.newOffHeapStore();
+        for (int i = 0; i < FEEDS; i++) {
+            final List<Item> parsed = factory.parse(new ByteArrayInputStream(feed)).getChannel().getItems();
+            list.addAll(parsed);
+            store.addAll("feed-" + i, parsed);
+            offHeap.addAll("feed-" + i, parsed);
+        }
+    }
+
+    @Benchmark
+    public int listByCategoryAndDate() {
+        int count = 0;
+        for (final Item item : list) {
+            final DateTime date = item.getPublishDate();
+            if ((date != null) && !date.isBefore(FROM) && date.isBefore(TO) && hasCategory(item, "news/italian")) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static boolean hasCategory(final Item item, final String location) {
+        for (final Category category : item.getCategories()) {
+            if (category.getLocation().equals(location)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Benchmark
+    public int storeByCategoryAndDate() {
+        return store.query().category("news/italian").publishedBetween(FROM, TO).count();
+    }
+
+    @Benchmark
+    public int listByTitle() {
+        int count = 0;
+        for (final Item item : list) {
+            if (item.getTitle().contains("number 42")) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int storeByTitle() {
+        return store.query().titleContains("number 42").count();
+    }
+
+    @Benchmark
+    public int offHeapByTitle() {
+        return offHeap.query().titleContains("number 42").count();
+    }
+}
@@ -0,0 +1,59 @@
+package net.mircomacrelli.rss.benchmark;
+
+import net.mircomacrelli.rss.ParseMetrics;
+import net.mircomacrelli.rss.ParserException;
+import net.mircomacrelli.rss.RSS;
+import net.mircomacrelli.rss.RSSFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses a feed with a factory without listener and with one that collects {@link ParseMetrics}, to measure the cost of
+ * the instrumentation.
+ *
+ * @author Mirco Macrelli
+ * @version 2.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ListenerBenchmark {
+    @Param({"100"})
+    int items;
+
+    private byte[] feed;
+    private RSSFactory plain;
+    private RSSFactory measured;
+
+    @Setup
+    public void setup() {
+        feed = Feeds.feed(items, true, 64);
+        plain = RSSFactory.newFactory();
+        measured = RSSFactory.newFactory().withListener(ParseMetrics.newMetrics());
+    }
+
+    @Benchmark
+    public RSS plain() throws ParserException {
+        return plain.parse(new ByteArrayInputStream(feed));
+    }
+
+    @Benchmark
+    public RSS measured() throws ParserException {
+        return measured.parse(new ByteArrayInputStream(feed));
+    }
+}
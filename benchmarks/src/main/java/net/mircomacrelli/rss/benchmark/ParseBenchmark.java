@@ -0,0 +1,58 @@
+package net.mircomacrelli.rss.benchmark;
+
+import net.mircomacrelli.rss.ParserException;
+import net.mircomacrelli.rss.RSS;
+import net.mircomacrelli.rss.RSSFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput and latency of RSSFactory.parse on small (10 items), medium (200 items) and very large (5000 items)
+ * feeds, with and without the modules and with short or long (4KB) descriptions. Add {@code -prof gc} to measure the
+ * allocation rate.
+ *
+ * @author Mirco Macrelli
+ * @version 2.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseBenchmark {
+    @Param({"10", "200", "5000"})
+    int items;
+
+    @Param({"false", "true"})
+    boolean modules;
+
+    @Param({"0", "4096"})
+    int descriptionLength;
+
+    private RSSFactory factory;
+    private byte[] feed;
+
+    @Setup
+    public void setup() {
+        factory = RSSFactory.newFactory();
+        feed = Feeds.feed(items, modules, descriptionLength);
+    }
+
+    @Benchmark
+    public RSS parse() throws ParserException {
+        return factory.parse(new ByteArrayInputStream(feed));
+    }
+}
@@ -0,0 +1,58 @@
+package net.mircomacrelli.rss.benchmark;
+
+import net.mircomacrelli.rss.ParserException;
+import net.mircomacrelli.rss.Projection;
+import net.mircomacrelli.rss.Projection.ItemField;
+import net.mircomacrelli.rss.RSS;
+import net.mircomacrelli.rss.RSSFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the parsing of the whole feed with the parsing of only the title, link, guid and publication date of the
+ * items.
+ *
+ * @author Mirco Macrelli
+ * @version 2.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProjectionBenchmark {
+    @Param({"false", "true"})
+    boolean projected;
+
+    @Param({"100"})
+    int items;
+
+    private RSSFactory factory;
+    private byte[] feed;
+
+    @Setup
+    public void setup() {
+        final Projection links = Projection.none().withItemFields(ItemField.TITLE, ItemField.LINK,
+                                                                  ItemField.UNIQUE_ID, ItemField.PUBLISH_DATE);
+        factory = RSSFactory.newFactory().withProjection(projected ? links : Projection.all());
+        feed = Feeds.feed(items, true, 1024);
+    }
+
+    @Benchmark
+    public RSS parse() throws ParserException {
+        return factory.parse(new ByteArrayInputStream(feed));
+    }
+}
@@ -0,0 +1,67 @@
+package net.mircomacrelli.rss.benchmark;
+
+import net.mircomacrelli.rss.ParserException;
+import net.mircomacrelli.rss.PushParser;
+import net.mircomacrelli.rss.RSS;
+import net.mircomacrelli.rss.RSSFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parses a feed received all at once with {@link RSSFactory#parse(java.io.InputStream)}, and received in chunks of the
+ * size of a TCP segment with a {@link PushParser}.
+ *
+ * @author Mirco Macrelli
+ * @version 2.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PushBenchmark {
+    @Param({"100"})
+    int items;
+
+    @Param({"1460", "16384"})
+    int chunkSize;
+
+    private byte[] feed;
+    private RSSFactory factory;
+
+    @Setup
+    public void setup() {
+        feed = Feeds.feed(items, true, 256);
+        factory = RSSFactory.newFactory();
+    }
+
+    @Benchmark
+    public RSS parse() throws ParserException {
+        return factory.parse(new ByteArrayInputStream(feed));
+    }
+
+    @Benchmark
+    public int push() throws ParserException {
+        final PushParser parser = factory.newPushParser();
+        int count = 0;
+        for (int offset = 0; offset < feed.length; offset += chunkSize) {
+            count += parser.feed(ByteBuffer.wrap(feed, offset, Math.min(chunkSize, feed.length - offset))).size();
+        }
+        parser.finish();
+        return count;
+    }
+}
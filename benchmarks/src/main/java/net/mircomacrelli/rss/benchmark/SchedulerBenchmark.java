@@ -0,0 +1,78 @@
+package net.mircomacrelli.rss.benchmark;
+
+import net.mircomacrelli.rss.FeedFetcher;
+import net.mircomacrelli.rss.FeedScheduler;
+import net.mircomacrelli.rss.FetchResult;
+import net.mircomacrelli.rss.ParserException;
+import net.mircomacrelli.rss.PollingPolicy;
+import net.mircomacrelli.rss.RSSFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.URI;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Adds many feeds to a {@link FeedScheduler} and dispatches all of them to workers that drop the requests, so only
+ * the cost of the heap is measured.
+ *
+ * @author Mirco Macrelli
+ * @version 2.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SchedulerBenchmark {
+    @Param({"100000", "1000000"})
+    int feeds;
+
+    private URI[] uris;
+    private FeedFetcher fetcher;
+    private final Executor drop = new Executor() {
+        @Override
+        public void execute(final Runnable command) {
+            // the request is never made
+        }
+    };
+    private final FeedScheduler.Listener listener = new FeedScheduler.Listener() {
+        @Override
+        public void polled(final int feed, final FetchResult result) {
+        }
+
+        @Override
+        public void failed(final int feed, final URI uri, final ParserException cause) {
+        }
+    };
+
+    @Setup
+    public void setup() {
+        uris = new URI[feeds];
+        for (int i = 0; i < feeds; i++) {
+            uris[i] = URI.create("http://example.com/feed/" + i);
+        }
+        fetcher = FeedFetcher.newFetcher(RSSFactory.newFactory());
+    }
+
+    @Benchmark
+    public int addAndDispatch() {
+        final FeedScheduler scheduler = FeedScheduler.newScheduler(fetcher, PollingPolicy.newPolicy(), drop,
+                                                                   listener);
+        for (final URI uri : uris) {
+            scheduler.add(uri);
+        }
+        return scheduler.dispatch();
+    }
+}
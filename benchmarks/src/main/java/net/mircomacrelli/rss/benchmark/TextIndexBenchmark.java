@@ -0,0 +1,89 @@
+package net.mircomacrelli.rss.benchmark;
+
+import net.mircomacrelli.rss.Item;
+import net.mircomacrelli.rss.ParserException;
+import net.mircomacrelli.rss.RSSFactory;
+import net.mircomacrelli.rss.TextIndex;
+import net.mircomacrelli.rss.TextQuery;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Indexes the items of a feed in a {@link TextIndex}, and finds the items of many feeds that contain a phrase with the
+ * index and by scanning their titles and descriptions.
+ *
+ * @author Mirco Macrelli
+ * @version 2.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TextIndexBenchmark {
+    private static final int FEEDS = 1000;
+
+    @Param({"100"})
+    int items;
+
+    private List<Item> feed;
+    private List<Item> list;
+    private TextIndex index;
+    private TextQuery query;
+
+    @Setup
+    public void setup() throws ParserException {
+        final RSSFactory factory = RSSFactory.newFactory();
+        final byte[] bytes = Feeds.feed(items, false, 256);
+        feed = factory.parse(new ByteArrayInputStream(bytes)).getChannel().getItems();
+        list = new ArrayList<>(FEEDS * items);
+        index = TextIndex.newIndex();
+        for (int i = 0; i < FEEDS; i++) {
+            final List<Item> parsed = factory.parse(new ByteArrayInputStream(bytes)).getChannel().getItems();
+            list.addAll(parsed);
+            index.addAll(parsed);
+        }
+        query = TextQuery.phrase("item number 42");
+    }
+
+    @Benchmark
+    public TextIndex index() {
+        final TextIndex fresh = TextIndex.newIndex();
+        fresh.addAll(feed);
+        return fresh;
+    }
+
+    @Benchmark
+    public int search() {
+        return index.search(query).length;
+    }
+
+    @Benchmark
+    public int scan() {
+        int count = 0;
+        for (final Item item : list) {
+            if (item.getTitle().toLowerCase(Locale.ROOT).contains("item number 42") ||
+                ((item.getDescription() != null) &&
+                 item.getDescription().toLowerCase(Locale.ROOT).contains("item number 42"))) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
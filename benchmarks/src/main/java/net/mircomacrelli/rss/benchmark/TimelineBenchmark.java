@@ -0,0 +1,86 @@
+package net.mircomacrelli.rss.benchmark;
+
+import net.mircomacrelli.rss.Item;
+import net.mircomacrelli.rss.ParserException;
+import net.mircomacrelli.rss.RSSFactory;
+import net.mircomacrelli.rss.Timeline;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Updates one of many feeds and reads the newest items of all of them, by sorting all the items again and with a
+ * {@link Timeline}.
+ *
+ * @author Mirco Macrelli
+ * @version 2.1
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimelineBenchmark {
+    private static final int FEEDS = 1000;
+    private static final int LATEST = 50;
+
+    private static final Comparator<Item> NEWEST_FIRST = new Comparator<Item>() {
+        @Override
+        public int compare(final Item a, final Item b) {
+            return b.getPublishDate().compareTo(a.getPublishDate());
+        }
+    };
+
+    @Param({"100"})
+    int items;
+
+    private List<List<Item>> feeds;
+    private Timeline timeline;
+    private int next;
+
+    @Setup
+    public void setup() throws ParserException {
+        final RSSFactory factory = RSSFactory.newFactory();
+        feeds = new ArrayList<>(FEEDS);
+        timeline = Timeline.newTimeline();
+        for (int i = 0; i < FEEDS; i++) {
+            final List<Item> parsed = factory.parse(new ByteArrayInputStream(Feeds.dated(items, i))).getChannel()
+                                             .getItems();
+            feeds.add(parsed);
+            timeline.update("feed-" + i, parsed);
+        }
+    }
+
+    @Benchmark
+    public List<Item> sortAll() {
+        final List<Item> all = new ArrayList<>(FEEDS * items);
+        for (final List<Item> feed : feeds) {
+            all.addAll(feed);
+        }
+        Collections.sort(all, NEWEST_FIRST);
+        return all.subList(0, LATEST);
+    }
+
+    @Benchmark
+    public List<Timeline.Entry> timeline() {
+        next = (next + 1) % FEEDS;
+        timeline.update("feed-" + next, feeds.get(next));
+        return timeline.latest(LATEST);
+    }
+}
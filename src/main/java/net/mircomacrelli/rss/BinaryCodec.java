@@ -0,0 +1,98 @@
+package net.mircomacrelli.rss;
+
+import net.mircomacrelli.rss.RSS.Version;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Compact binary format for the parsed feeds, used to keep them between the stages of a pipeline without parsing the
+ * xml again. The strings repeated in the feed, like the authors, the categories and the time zones, are written only
+ * once, the integers as varints and the dates as milliseconds from the epoch, so decoding is much faster than parsing.
+ * <p>
+ * The data starts with a magic number and the version of the format, then the channel without the items, then the
+ * items one after the other. The items can be written and read one at a time with {@link BinaryFeedWriter} and
+ * {@link BinaryFeedReader}. The links and the language of the channel and of the items were valid when they were
+ * written, so they are decoded only when they are read, like with {@link RSSFactory#withLazyDecoding}. The dates are
+ * always decoded in the ISO chronology, the one used by the default parser.
+ *
+ * @author Mirco Macrelli
+ * @version 2.1
+ */
+public final class BinaryCodec {
+    static final int MAGIC = 0x52535342; // RSSB
+    static final int FORMAT_VERSION = 1;
+
+    private BinaryCodec() {
+        throw new AssertionError("do not instantiate this class");
+    }
+
+    /**
+     * Write a feed in the binary format. The OutputStream is flushed but not closed.
+     *
+     * @param rss the feed
+     * @param os where the feed is written
+     * @throws IllegalStateException if a value decoded lazily is not valid
+     */
+    public static void encode(final RSS rss, final OutputStream os) throws IOException {
+        final Channel channel = rss.getChannel();
+        try (BinaryFeedWriter writer = new BinaryFeedWriter(os, rss.getCharset(), rss.getVersion(), channel,
+                                                            channel.hasItems())) {
+            for (final Item item : channel.getItems()) {
+                writer.write(item);
+            }
+        }
+    }
+
+    /**
+     * Read a feed written by {@link #encode}. The InputStream is not closed.
+     *
+     * @param is the bytes of the feed
+     * @return the feed
+     * @throws ParserException if the data is not valid or can't be read
+     */
+    public static RSS decode(final InputStream is) throws ParserException {
+        final BinaryFeedReader reader = newReader(is);
+
+        final List<Item> items = new ArrayList<>(25);
+        while (reader.hasNext()) {
+            items.add(reader.next());
+        }
+
+        final Channel channel = reader.getChannel();
+        return new RSS(reader.getCharset(), reader.getVersion(),
+                       channel.hasItems() ? channel.withItems(items) : channel);
+    }
+
+    /**
+     * Start writing a feed whose items are written one at a time. The items of the channel are ignored.
+     *
+     * @param os where the feed is written
+     * @param charset the charset of the feed
+     * @param version the version of the feed
+     * @param channel the channel
+     * @return the writer of the items. It must be closed to write the end of the feed
+     * @throws IllegalStateException if a value decoded lazily is not valid
+     */
+    public static BinaryFeedWriter newWriter(final OutputStream os, final Charset charset, final Version version,
+                                             final Channel channel) throws IOException {
+        return new BinaryFeedWriter(os, charset, version, channel, true);
+    }
+
+    /**
+     * Start reading a feed one item at a time
+     *
+     * @param is the bytes of the feed
+     * @return the reader of the items
+     * @throws ParserException if the data is not valid or can't be read
+     */
+    public static BinaryFeedReader newReader(final InputStream is) throws ParserException {
+        return new BinaryFeedReader(new BinaryInput(requireNonNull(is)));
+    }
+}
@@ -0,0 +1,96 @@
+package net.mircomacrelli.rss;
+
+import net.mircomacrelli.rss.RSS.Version;
+
+import java.nio.charset.Charset;
+import java.util.Collections;
+import java.util.NoSuchElementException;
+
+import static java.lang.String.format;
+
+/**
+ * Reads a feed in the binary format one item at a time. The channel is written before the items, so it's available
+ * from the start.
+ *
+ * @author Mirco Macrelli
+ * @version 2.1
+ * @see BinaryCodec
+ */
+public final class BinaryFeedReader {
+    private final BinaryInput in;
+    private final Charset charset;
+    private final Version version;
+    private final Channel channel;
+    private boolean atItem;
+    private boolean finished;
+
+    BinaryFeedReader(final BinaryInput in) throws ParserException {
+        this.in = in;
+
+        int magic = 0;
+        for (int i = 0; i < 4; i++) {
+            magic = (magic << 8) | in.readByte();
+        }
+        if (magic != BinaryCodec.MAGIC) {
+            throw new ParserException("the data is not a feed in the binary format");
+        }
+        final int formatVersion = in.readByte();
+        if (formatVersion != BinaryCodec.FORMAT_VERSION) {
+            throw new ParserException(format("unknown version of the binary format: %d", formatVersion));
+        }
+
+        try {
+            charset = Charset.forName(in.readString());
+            version = in.readEnum(Version.class);
+            final boolean hasItems = in.readBoolean();
+            channel = Channel.read(in, hasItems ? Collections.<Item>emptyList() : null);
+        } catch (final IllegalArgumentException | IllegalStateException | NullPointerException cause) {
+            throw new ParserException(cause);
+        }
+        finished = !channel.hasItems();
+    }
+
+    /** @return the charset encoding used in the feed */
+    public Charset getCharset() {
+        return charset;
+    }
+
+    /** @return the version of RSS used by this feed */
+    public Version getVersion() {
+        return version;
+    }
+
+    /** @return the channel, without the items */
+    public Channel getChannel() {
+        return channel;
+    }
+
+    /**
+     * @return true if the feed contains another item
+     * @throws ParserException if the data can't be read
+     */
+    public boolean hasNext() throws ParserException {
+        if (!atItem && !finished) {
+            atItem = in.readBoolean();
+            finished = !atItem;
+        }
+        return atItem;
+    }
+
+    /**
+     * @return the next item of the feed
+     * @throws ParserException if the data is not valid or can't be read
+     */
+    public Item next() throws ParserException {
+        if (!hasNext()) {
+            throw new NoSuchElementException("no more items");
+        }
+
+        atItem = false;
+        try {
+            return Item.read(in);
+        } catch (final IllegalArgumentException | IllegalStateException | NullPointerException cause) {
+            throw new ParserException(cause);
+        }
+    }
+}
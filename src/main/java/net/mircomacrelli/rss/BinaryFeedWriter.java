@@ -0,0 +1,61 @@
+package net.mircomacrelli.rss;
+
+import net.mircomacrelli.rss.RSS.Version;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Writes a feed in the binary format one item at a time, so the items don't need to be in memory all together.
+ *
+ * @author Mirco Macrelli
+ * @version 2.1
+ * @see BinaryCodec
+ */
+public final class BinaryFeedWriter implements Closeable {
+    private final BinaryOutput out;
+    private final boolean hasItems;
+    private boolean closed;
+
+    BinaryFeedWriter(final OutputStream os, final Charset charset, final Version version, final Channel channel,
+                     final boolean hasItems) throws IOException {
+        out = new BinaryOutput(requireNonNull(os));
+        this.hasItems = hasItems;
+
+        for (int shift = 24; shift >= 0; shift -= 8) {
+            out.writeByte(BinaryCodec.MAGIC >>> shift);
+        }
+        out.writeByte(BinaryCodec.FORMAT_VERSION);
+        out.writeString(charset.name());
+        out.writeEnum(requireNonNull(version));
+        out.writeBoolean(hasItems);
+        channel.write(out);
+    }
+
+    /**
+     * @param item the next item of the feed
+     * @throws IllegalStateException if a value decoded lazily is not valid, or if the writer is closed
+     */
+    public void write(final Item item) throws IOException {
+        if (closed || !hasItems) {
+            throw new IllegalStateException("can't write items");
+        }
+
+        out.writeBoolean(true);
+        item.write(out);
+    }
+
+    /** Write the end of the feed and flush it. The underlying OutputStream is not closed */
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            out.writeBoolean(false);
+            out.flush();
+        }
+    }
+}
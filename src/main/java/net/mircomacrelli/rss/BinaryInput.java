@@ -0,0 +1,247 @@
+package net.mircomacrelli.rss;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static java.lang.String.format;
+import static net.mircomacrelli.rss.BinaryOutput.INDEXED;
+import static net.mircomacrelli.rss.BinaryOutput.LITERAL;
+import static net.mircomacrelli.rss.BinaryOutput.NULL;
+import static net.mircomacrelli.rss.BinaryOutput.REFERENCE;
+
+/**
+ * Reads the values written by {@link BinaryOutput}. All the errors, of the InputStream or of the data, are reported
+ * with a ParserException.
+ */
+final class BinaryInput {
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final InputStream is;
+    private final byte[] buffer;
+    private int position;
+    private int limit;
+    private final List<String> strings;
+    private String lastZoneId;
+    private DateTimeZone lastZone;
+
+    BinaryInput(final InputStream is) {
+        this.is = is;
+        buffer = new byte[8192];
+        strings = new ArrayList<>(256);
+    }
+
+    int readByte() throws ParserException {
+        if (position == limit) {
+            fill(1);
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    /** The array grows while the bytes are read, so a corrupted length can't exhaust the heap */
+    byte[] readBytes(final int length) throws ParserException {
+        if (length < 0) {
+            throw new ParserException(format("negative length: %d", length));
+        }
+
+        byte[] bytes = new byte[Math.min(length, buffer.length)];
+        int copied = 0;
+        while (copied < length) {
+            if (copied == bytes.length) {
+                bytes = Arrays.copyOf(bytes, (int)Math.min(length, 2L * bytes.length));
+            }
+
+            if (position < limit) {
+                final int count = Math.min(limit - position, bytes.length - copied);
+                System.arraycopy(buffer, position, bytes, copied, count);
+                position += count;
+                copied += count;
+            } else {
+                final int read = read(bytes, copied, bytes.length - copied);
+                if (read < 0) {
+                    throw new ParserException("unexpected end of the data");
+                }
+                copied += read;
+            }
+        }
+        return bytes;
+    }
+
+    long readVarint() throws ParserException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            final int b = readByte();
+            value |= (long)(b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new ParserException("varint too long");
+    }
+
+    long readSignedVarint() throws ParserException {
+        final long value = readVarint();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    int readInt() throws ParserException {
+        final long value = readVarint();
+        if ((value < 0) || (value > Integer.MAX_VALUE)) {
+            throw new ParserException(format("value out of range: %d", value));
+        }
+        return (int)value;
+    }
+
+    boolean readBoolean() throws ParserException {
+        return readByte() != 0;
+    }
+
+    Boolean readNullableBoolean() throws ParserException {
+        final int value = readByte();
+        return (value == 0) ? null : (value == 2);
+    }
+
+    Integer readNullableInt() throws ParserException {
+        final long value = readVarint();
+        if (value == 0) {
+            return null;
+        }
+
+        final long zigzag = value - 1;
+        return (int)((zigzag >>> 1) ^ -(zigzag & 1));
+    }
+
+    String readString() throws ParserException {
+        final int tag = readInt();
+        switch (tag) {
+            case NULL:
+                return null;
+            case LITERAL:
+                return readUtf8();
+            case INDEXED:
+                final String value = readUtf8();
+                strings.add(value);
+                return value;
+            default:
+                final int index = tag - REFERENCE;
+                if (index >= strings.size()) {
+                    throw new ParserException(format("unknown string %d", index));
+                }
+                return strings.get(index);
+        }
+    }
+
+    URI readUri() throws ParserException {
+        final String uri = readString();
+        if (uri == null) {
+            return null;
+        }
+
+        try {
+            return new URI(uri);
+        } catch (final URISyntaxException cause) {
+            throw new ParserException(cause);
+        }
+    }
+
+    /**
+     * @return a link that is parsed the first time it's read, or the empty URI that can't be lazy. The text was a
+     *         valid URI when it was written, so the parsing can't fail
+     */
+    Object readLazyUri() throws ParserException {
+        final String uri = readString();
+        if (uri == null) {
+            return null;
+        }
+
+        return uri.isEmpty() ? URI.create(uri) : Lazy.uri(uri);
+    }
+
+    DateTime readDate() throws ParserException {
+        final String zoneId = readString();
+        if (zoneId == null) {
+            return null;
+        }
+
+        // the ids come from the string table, so the same zone is usually the same instance
+        if (zoneId != lastZoneId) {
+            try {
+                lastZone = DateTimeZone.forID(zoneId);
+            } catch (final IllegalArgumentException cause) {
+                throw new ParserException(cause);
+            }
+            lastZoneId = zoneId;
+        }
+        return new DateTime(readSignedVarint(), lastZone);
+    }
+
+    <E extends Enum<E>> E readEnum(final Class<E> type) throws ParserException {
+        final String name = readString();
+        if (name == null) {
+            return null;
+        }
+
+        try {
+            return Enum.valueOf(type, name);
+        } catch (final IllegalArgumentException cause) {
+            throw new ParserException(cause);
+        }
+    }
+
+    /** @return the size of a collection, or -1 if the collection is null */
+    int readSize() throws ParserException {
+        return readInt() - 1;
+    }
+
+    /** @return the capacity of a collection of this size, limited so that a corrupted size can't exhaust the heap */
+    static int initialCapacity(final int size) {
+        return Math.min(Math.max(size, 0), 64);
+    }
+
+    private String readUtf8() throws ParserException {
+        // readInt rejects the negative lengths, and readBytes doesn't trust the long ones
+        final int length = readInt();
+        if (length <= buffer.length) {
+            if ((limit - position) < length) {
+                fill(length);
+            }
+            final String value = new String(buffer, position, length, UTF_8);
+            position += length;
+            return value;
+        }
+
+        return new String(readBytes(length), UTF_8);
+    }
+
+    /** Make at least count bytes available in the buffer */
+    private void fill(final int count) throws ParserException {
+        final int remaining = limit - position;
+        System.arraycopy(buffer, position, buffer, 0, remaining);
+        position = 0;
+        limit = remaining;
+
+        while (limit < count) {
+            final int read = read(buffer, limit, buffer.length - limit);
+            if (read < 0) {
+                throw new ParserException("unexpected end of the data");
+            }
+            limit += read;
+        }
+    }
+
+    private int read(final byte[] bytes, final int offset, final int length) throws ParserException {
+        try {
+            return is.read(bytes, offset, length);
+        } catch (final IOException cause) {
+            throw new ParserException(cause);
+        }
+    }
+}
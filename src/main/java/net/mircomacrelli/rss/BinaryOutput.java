@@ -0,0 +1,152 @@
+package net.mircomacrelli.rss;
+
+import org.joda.time.DateTime;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writes the values of the binary format. The integers are written as varints, the signed ones after a zig-zag
+ * encoding, the dates as milliseconds since the epoch plus the id of their time zone. The short strings are written
+ * only the first time: the following times they are replaced by their index in a table shared with the reader.
+ * <p>
+ * Every string starts with a varint tag: {@link #NULL}, {@link #LITERAL} or {@link #INDEXED} followed by the length
+ * in bytes and the UTF-8 bytes, or {@link #REFERENCE} plus the index of a string already seen.
+ */
+final class BinaryOutput {
+    static final int NULL = 0;
+    static final int LITERAL = 1;
+    static final int INDEXED = 2;
+    static final int REFERENCE = 3;
+
+    /** strings longer than this, like the descriptions, are rarely repeated and are not added to the table */
+    static final int MAX_INDEXED_LENGTH = 128;
+    static final int MAX_TABLE_SIZE = 1 << 16;
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final OutputStream os;
+    private final byte[] buffer;
+    private int count;
+    private final Map<String, Integer> strings;
+
+    BinaryOutput(final OutputStream os) {
+        this.os = os;
+        buffer = new byte[8192];
+        strings = new HashMap<>(256);
+    }
+
+    void writeByte(final int b) throws IOException {
+        if (count == buffer.length) {
+            flushBuffer();
+        }
+        buffer[count++] = (byte)b;
+    }
+
+    void writeBytes(final byte[] bytes) throws IOException {
+        if (bytes.length > (buffer.length - count)) {
+            flushBuffer();
+            if (bytes.length > buffer.length) {
+                os.write(bytes);
+                return;
+            }
+        }
+        System.arraycopy(bytes, 0, buffer, count, bytes.length);
+        count += bytes.length;
+    }
+
+    /** write a non negative value in 7 bits groups, the least significant first */
+    void writeVarint(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            writeByte((int)((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        writeByte((int)value);
+    }
+
+    void writeSignedVarint(final long value) throws IOException {
+        writeVarint((value << 1) ^ (value >> 63));
+    }
+
+    void writeBoolean(final boolean value) throws IOException {
+        writeByte(value ? 1 : 0);
+    }
+
+    void writeNullableBoolean(final Boolean value) throws IOException {
+        writeByte((value == null) ? 0 : (value ? 2 : 1));
+    }
+
+    void writeNullableInt(final Integer value) throws IOException {
+        if (value == null) {
+            writeVarint(0);
+        } else {
+            final long zigzag = (((long)value) << 1) ^ (value >> 31);
+            writeVarint(zigzag + 1);
+        }
+    }
+
+    void writeString(final String value) throws IOException {
+        if (value == null) {
+            writeVarint(NULL);
+            return;
+        }
+
+        final Integer index = strings.get(value);
+        if (index != null) {
+            writeVarint(REFERENCE + index);
+            return;
+        }
+
+        if ((value.length() <= MAX_INDEXED_LENGTH) && (strings.size() < MAX_TABLE_SIZE)) {
+            strings.put(value, strings.size());
+            writeVarint(INDEXED);
+        } else {
+            writeVarint(LITERAL);
+        }
+
+        final byte[] bytes = value.getBytes(UTF_8);
+        writeVarint(bytes.length);
+        writeBytes(bytes);
+    }
+
+    void writeUri(final URI uri) throws IOException {
+        writeString((uri == null) ? null : uri.toString());
+    }
+
+    /** a null date is written as a null time zone */
+    void writeDate(final DateTime date) throws IOException {
+        if (date == null) {
+            writeString(null);
+            return;
+        }
+
+        writeString(date.getZone().getID());
+        writeSignedVarint(date.getMillis());
+    }
+
+    void writeEnum(final Enum<?> value) throws IOException {
+        writeString((value == null) ? null : value.name());
+    }
+
+    /** write the size of a collection that can be null. 0 means null */
+    void writeSize(final Collection<?> collection) throws IOException {
+        writeVarint((collection == null) ? 0 : (collection.size() + 1));
+    }
+
+    void flush() throws IOException {
+        flushBuffer();
+        os.flush();
+    }
+
+    private void flushBuffer() throws IOException {
+        if (count > 0) {
+            os.write(buffer, 0, count);
+            count = 0;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package net.mircomacrelli.rss;
 import org.joda.time.format.DateTimeFormatter;
 
 import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.stream.events.StartElement;
 
 abstract class BuilderBase<T> {
@@ -22,7 +23,21 @@ abstract class BuilderBase<T> {
         try {
             parseElement(reader, element);
         } catch (final RuntimeException cause) {
-            throw new ParserException(cause);
+            throw new ParserException(cause.toString(), cause, false);
+        }
+    }
+
+    /**
+     * Parse the element using the cursor API. The reader is positioned on the start of the element and must be left
+     * on its end.
+     */
+    abstract void parseElement(final XMLStreamReader reader) throws ParserException;
+
+    public final void parse(final XMLStreamReader reader) throws ParserException {
+        try {
+            parseElement(reader);
+        } catch (final RuntimeException cause) {
+            throw new ParserException(cause.toString(), cause, false);
         }
     }
 
@@ -32,7 +47,7 @@ abstract class BuilderBase<T> {
         try {
             return buildElement();
         } catch (final RuntimeException cause) {
-            throw new ParserException(cause);
+            throw new ParserException(cause.toString(), cause, false);
         }
     }
 }
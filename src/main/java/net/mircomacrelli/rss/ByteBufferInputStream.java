@@ -0,0 +1,72 @@
+package net.mircomacrelli.rss;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * InputStream that reads the remaining bytes of a buffer. The StAX parsers accept only streams and readers, so this
+ * is how a memory-mapped file reaches the tokenizer: the bytes are copied once, from the mapped pages straight into
+ * the buffer of the parser, without a FileInputStream or a BufferedInputStream in between.
+ * <p>
+ * The stream reads a duplicate of the buffer, so the position of the original buffer is not changed.
+ */
+final class ByteBufferInputStream extends InputStream {
+    private final ByteBuffer buffer;
+
+    ByteBufferInputStream(final ByteBuffer buffer) {
+        this.buffer = buffer.duplicate();
+    }
+
+    @Override
+    public int read() {
+        return buffer.hasRemaining() ? (buffer.get() & 0xFF) : -1;
+    }
+
+    @Override
+    public int read(final byte[] bytes, final int offset, final int length) {
+        if ((offset < 0) || (length < 0) || (length > (bytes.length - offset))) {
+            throw new IndexOutOfBoundsException();
+        }
+        if (length == 0) {
+            return 0;
+        }
+        if (!buffer.hasRemaining()) {
+            return -1;
+        }
+
+        final int count = Math.min(length, buffer.remaining());
+        buffer.get(bytes, offset, count);
+        return count;
+    }
+
+    @Override
+    public long skip(final long n) {
+        if (n <= 0) {
+            return 0;
+        }
+
+        final int count = (int)Math.min(n, buffer.remaining());
+        buffer.position(buffer.position() + count);
+        return count;
+    }
+
+    @Override
+    public int available() {
+        return buffer.remaining();
+    }
+
+    @Override
+    public boolean markSupported() {
+        return true;
+    }
+
+    @Override
+    public synchronized void mark(final int readLimit) {
+        buffer.mark();
+    }
+
+    @Override
+    public synchronized void reset() {
+        buffer.reset();
+    }
+}
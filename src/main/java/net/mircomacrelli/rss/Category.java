@@ -1,13 +1,17 @@
 package net.mircomacrelli.rss;
 
 import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.stream.events.StartElement;
+import java.io.IOException;
 import java.util.Objects;
 
 import static java.util.Objects.hash;
 import static java.util.Objects.requireNonNull;
+import static net.mircomacrelli.rss.Utils.getAttributeValue;
 import static net.mircomacrelli.rss.Utils.getAttributesValues;
 import static net.mircomacrelli.rss.Utils.getText;
+import static net.mircomacrelli.rss.Utils.intern;
 
 /**
  * One category of an Item
@@ -41,6 +45,22 @@ public final class Category {
         return location;
     }
 
+    void write(final BinaryOutput out) throws IOException {
+        out.writeString(domain);
+        out.writeString(location);
+    }
+
+    void write(final XmlOutput out) throws IOException {
+        out.startElement("category");
+        out.attribute("domain", domain);
+        out.text(location);
+        out.endElement();
+    }
+
+    static Category read(final BinaryInput in) throws ParserException {
+        return new Category(in.readString(), in.readString());
+    }
+
     @Override
     public int hashCode() {
         return hash(domain, location);
@@ -73,13 +93,29 @@ public final class Category {
     }
 
     static final class Builder extends BuilderBase<Category> {
+        private final StringPool pool;
         String domain;
         String location;
 
+        Builder() {
+            this(null);
+        }
+
+        /** @param pool the pool of the repeated values, or null */
+        Builder(final StringPool pool) {
+            this.pool = pool;
+        }
+
         @Override
         public void parseElement(final XMLEventReader reader, final StartElement element) throws ParserException {
-            domain = getAttributesValues(element).get("domain");
-            location = getText(reader);
+            domain = intern(pool, getAttributesValues(element).get("domain"));
+            location = intern(pool, getText(reader));
+        }
+
+        @Override
+        public void parseElement(final XMLStreamReader reader) throws ParserException {
+            domain = intern(pool, getAttributeValue(reader, "domain"));
+            location = getText(reader, pool);
         }
 
         @Override
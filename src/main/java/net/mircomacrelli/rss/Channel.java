@@ -1,5 +1,6 @@
 package net.mircomacrelli.rss;
 
+import net.mircomacrelli.rss.ModuleRegistry.Target;
 import org.joda.time.DateTime;
 import org.joda.time.format.DateTimeFormatter;
 
@@ -7,8 +8,10 @@ import javax.mail.internet.AddressException;
 import javax.mail.internet.InternetAddress;
 import javax.xml.stream.XMLEventReader;
 import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.stream.events.StartElement;
 import javax.xml.stream.events.XMLEvent;
+import java.io.IOException;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -16,6 +19,7 @@ import java.util.EnumSet;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Set;
 
@@ -27,14 +31,16 @@ import static java.util.Collections.unmodifiableSet;
 import static java.util.EnumSet.noneOf;
 import static java.util.Objects.hash;
 import static java.util.Objects.requireNonNull;
+import static net.mircomacrelli.rss.BinaryInput.initialCapacity;
 import static net.mircomacrelli.rss.Utils.append;
 import static net.mircomacrelli.rss.Utils.crashIfAlreadySet;
-import static net.mircomacrelli.rss.Utils.formatDate;
 import static net.mircomacrelli.rss.Utils.getText;
+import static net.mircomacrelli.rss.Utils.hasPrefix;
 import static net.mircomacrelli.rss.Utils.isEndOfTag;
 import static net.mircomacrelli.rss.Utils.isStartOfTag;
-import static net.mircomacrelli.rss.Utils.parseDate;
-import static net.mircomacrelli.rss.Utils.parseUri;
+import static net.mircomacrelli.rss.Utils.nextChild;
+import static net.mircomacrelli.rss.Utils.parseInt;
+import static net.mircomacrelli.rss.Utils.skipElement;
 
 /**
  * Contains all the information regarding the rss and all the items published in this feed.
@@ -44,17 +50,18 @@ import static net.mircomacrelli.rss.Utils.parseUri;
  */
 public final class Channel extends ExtensibleElement {
     private final String title;
-    private final URI link;
+    /** the links, the language and the dates are the decoded values, or a {@link Lazy} if they are decoded later */
+    private final Object link;
     private final String description;
-    private final Locale language;
+    private final Object language;
     private final String copyright;
     private final String editor;
     private final String webmaster;
-    private final DateTime publishDate;
-    private final DateTime buildDate;
+    private final Object publishDate;
+    private final Object buildDate;
     private final Set<Category> categories;
     private final String generator;
-    private final URI documentation;
+    private final Object documentation;
     private final Cloud cloud;
     private final Integer timeToLive;
     private final Image image;
@@ -92,6 +99,18 @@ public final class Channel extends ExtensibleElement {
             final Set<Category> categories, final String generator, final URI documentation, final Cloud cloud,
             final Integer timeToLive, final Image image, final TextInput textInput, final Set<Integer> skipHours,
             final EnumSet<Day> skipDays, final String rating, final List<Item> items) {
+        this(title, (Object)link, description, language, copyright, editor, webmaster, publishDate, buildDate,
+             categories, generator, documentation, cloud, timeToLive, image, textInput, skipHours, skipDays, rating,
+             items);
+    }
+
+    private Channel(final String title, final Object link, final String description, final Object language,
+                    final String copyright, final String editor, final String webmaster, final Object publishDate,
+                    final Object buildDate, final Set<Category> categories, final String generator,
+                    final Object documentation, final Cloud cloud,
+                    final Integer timeToLive, final Image image, final TextInput textInput,
+                    final Set<Integer> skipHours, final EnumSet<Day> skipDays, final String rating,
+                    final List<Item> items) {
         ttlInvariant(timeToLive);
 
         final Set<Integer> correctedSkipHours = correctSkipHours(skipHours);
@@ -160,9 +179,12 @@ public final class Channel extends ExtensibleElement {
         return title;
     }
 
-    /** @return a link to the web site */
+    /**
+     * @return a link to the web site
+     * @throws IllegalStateException if the link is decoded lazily and is not valid
+     */
     public URI getLink() {
-        return link;
+        return Lazy.get(link);
     }
 
     /** @return a description of this feed */
@@ -170,9 +192,12 @@ public final class Channel extends ExtensibleElement {
         return description;
     }
 
-    /** @return the language of this feed */
+    /**
+     * @return the language of this feed
+     * @throws IllegalStateException if the language is decoded lazily and is not valid
+     */
     public Locale getLanguage() {
-        return language;
+        return Lazy.get(language);
     }
 
     /** @return copyright information for the items in the feed */
@@ -206,14 +231,20 @@ public final class Channel extends ExtensibleElement {
         return new InternetAddress(webmaster);
     }
 
-    /** @return when the feed was published */
+    /**
+     * @return when the feed was published
+     * @throws IllegalStateException if the date is decoded lazily and is not valid
+     */
     public DateTime getPublishDate() {
-        return publishDate;
+        return Lazy.get(publishDate);
     }
 
-    /** @return when the feed was built */
+    /**
+     * @return when the feed was built
+     * @throws IllegalStateException if the date is decoded lazily and is not valid
+     */
     public DateTime getBuildDate() {
-        return buildDate;
+        return Lazy.get(buildDate);
     }
 
     /** @return a set of categories that contains this feed */
@@ -230,9 +261,12 @@ public final class Channel extends ExtensibleElement {
         return generator;
     }
 
-    /** @return a link to a page that contains information about this feed */
+    /**
+     * @return a link to a page that contains information about this feed
+     * @throws IllegalStateException if the link is decoded lazily and is not valid
+     */
     public URI getDocumentation() {
-        return documentation;
+        return Lazy.get(documentation);
     }
 
     /** @return information used to subscribe to this feed */
@@ -283,6 +317,192 @@ public final class Channel extends ExtensibleElement {
         return unmodifiableList(items);
     }
 
+    /** @return true if the channel has a list of items, even if empty */
+    boolean hasItems() {
+        return items != null;
+    }
+
+    /**
+     * @param items the new items
+     * @return a copy of this channel, modules included, with other items
+     */
+    Channel withItems(final List<Item> items) {
+        final Channel channel = new Channel(title, link, description, language, copyright, editor, webmaster,
+                                            publishDate, buildDate, categories, generator, documentation, cloud,
+                                            timeToLive, image, textInput, skipHours, skipDays, rating, items);
+        for (final Entry<Class<? extends Module>, Module> module : getModules().entrySet()) {
+            channel.addModule(module.getKey(), module.getValue());
+        }
+        return channel;
+    }
+
+    /**
+     * Write the channel, without the items, in the binary format
+     *
+     * @throws IllegalStateException if a value decoded lazily is not valid
+     */
+    void write(final BinaryOutput out) throws IOException {
+        out.writeString(title);
+        out.writeUri(getLink());
+        out.writeString(description);
+        final Locale locale = getLanguage();
+        out.writeString((locale == null) ? null : locale.toLanguageTag());
+        out.writeString(copyright);
+        out.writeString(editor);
+        out.writeString(webmaster);
+        out.writeDate(getPublishDate());
+        out.writeDate(getBuildDate());
+        out.writeSize(categories);
+        if (categories != null) {
+            for (final Category category : categories) {
+                category.write(out);
+            }
+        }
+        out.writeString(generator);
+        out.writeUri(getDocumentation());
+        out.writeBoolean(cloud != null);
+        if (cloud != null) {
+            cloud.write(out);
+        }
+        out.writeNullableInt(timeToLive);
+        out.writeBoolean(image != null);
+        if (image != null) {
+            image.write(out);
+        }
+        out.writeBoolean(textInput != null);
+        if (textInput != null) {
+            textInput.write(out);
+        }
+        out.writeSize(skipHours);
+        if (skipHours != null) {
+            for (final Integer hour : skipHours) {
+                out.writeVarint(hour);
+            }
+        }
+        out.writeSize(skipDays);
+        if (skipDays != null) {
+            for (final Day day : skipDays) {
+                out.writeEnum(day);
+            }
+        }
+        out.writeString(rating);
+        writeModules(out);
+    }
+
+    /**
+     * Start the channel in xml and write its fields, without the items. The element is left open, so the items can be
+     * written after it.
+     *
+     * @throws IllegalStateException if a value decoded lazily is not valid
+     */
+    void writeStart(final XmlOutput out) throws IOException {
+        out.startElement("channel");
+        out.element("title", title);
+        out.element("link", getLink());
+        out.element("description", description);
+        final Locale locale = getLanguage();
+        out.element("language", (locale == null) ? null : locale.toLanguageTag());
+        out.element("copyright", copyright);
+        out.element("managingEditor", editor);
+        out.element("webMaster", webmaster);
+        out.element("pubDate", getPublishDate());
+        out.element("lastBuildDate", getBuildDate());
+        if (categories != null) {
+            for (final Category category : categories) {
+                category.write(out);
+            }
+        }
+        out.element("generator", generator);
+        out.element("docs", getDocumentation());
+        if (cloud != null) {
+            cloud.write(out);
+        }
+        out.element("ttl", timeToLive);
+        if (image != null) {
+            image.write(out);
+        }
+        out.element("rating", rating);
+        if (textInput != null) {
+            textInput.write(out);
+        }
+        if (skipHours != null) {
+            out.startElement("skipHours");
+            for (final Integer hour : skipHours) {
+                out.element("hour", hour);
+            }
+            out.endElement();
+        }
+        if (skipDays != null) {
+            out.startElement("skipDays");
+            for (final Day day : skipDays) {
+                out.element("day", day.name().charAt(0) + day.name().substring(1).toLowerCase(Locale.ENGLISH));
+            }
+            out.endElement();
+        }
+        writeModules(out);
+    }
+
+    /**
+     * Read a channel written by {@link #write}
+     *
+     * @param items the items of the channel, that are written after it
+     */
+    static Channel read(final BinaryInput in, final List<Item> items) throws ParserException {
+        final String title = in.readString();
+        final Object link = in.readLazyUri();
+        final String description = in.readString();
+        final String language = in.readString();
+        final String copyright = in.readString();
+        final String editor = in.readString();
+        final String webmaster = in.readString();
+        final DateTime publishDate = in.readDate();
+        final DateTime buildDate = in.readDate();
+
+        final int categoriesSize = in.readSize();
+        Set<Category> categories = null;
+        if (categoriesSize >= 0) {
+            categories = new HashSet<>(initialCapacity(categoriesSize));
+            for (int i = 0; i < categoriesSize; i++) {
+                categories.add(Category.read(in));
+            }
+        }
+
+        final String generator = in.readString();
+        final Object documentation = in.readLazyUri();
+        final Cloud cloud = in.readBoolean() ? Cloud.read(in) : null;
+        final Integer timeToLive = in.readNullableInt();
+        final Image image = in.readBoolean() ? Image.read(in) : null;
+        final TextInput textInput = in.readBoolean() ? TextInput.read(in) : null;
+
+        final int skipHoursSize = in.readSize();
+        Set<Integer> skipHours = null;
+        if (skipHoursSize >= 0) {
+            skipHours = new HashSet<>(initialCapacity(skipHoursSize));
+            for (int i = 0; i < skipHoursSize; i++) {
+                skipHours.add(in.readInt());
+            }
+        }
+
+        final int skipDaysSize = in.readSize();
+        EnumSet<Day> skipDays = null;
+        if (skipDaysSize >= 0) {
+            skipDays = noneOf(Day.class);
+            for (int i = 0; i < skipDaysSize; i++) {
+                skipDays.add(in.readEnum(Day.class));
+            }
+        }
+
+        final String rating = in.readString();
+
+        final Channel channel = new Channel(title, link, description,
+                                            (language == null) ? null : Lazy.language(language), copyright, editor,
+                                            webmaster, publishDate, buildDate, categories,
+                                            generator, documentation, cloud, timeToLive, image, textInput, skipHours,
+                                            skipDays, rating, items);
+        channel.readModules(in);
+        return channel;
+    }
+
     @Override
     public int hashCode() {
         return hash(title, link, description, language, copyright, editor, webmaster, publishDate, buildDate,
@@ -297,13 +517,13 @@ public final class Channel extends ExtensibleElement {
         }
 
         final Channel other = (Channel)obj;
-        return title.equals(other.title) && link.equals(other.link) &&
-               description.equals(other.description) && Objects.equals(language, other.language) &&
+        return title.equals(other.title) && Lazy.equal(link, other.link) &&
+               description.equals(other.description) && Lazy.equal(language, other.language) &&
                Objects.equals(copyright, other.copyright) &&
                Objects.equals(editor, other.editor) &&
-               Objects.equals(webmaster, other.webmaster) && Objects.equals(publishDate, other.publishDate) &&
-               Objects.equals(buildDate, other.buildDate) && Objects.equals(categories, other.categories) &&
-               Objects.equals(generator, other.generator) && Objects.equals(documentation, other.documentation) &&
+               Objects.equals(webmaster, other.webmaster) && Lazy.equal(publishDate, other.publishDate) &&
+               Lazy.equal(buildDate, other.buildDate) && Objects.equals(categories, other.categories) &&
+               Objects.equals(generator, other.generator) && Lazy.equal(documentation, other.documentation) &&
                Objects.equals(cloud, other.cloud) && Objects.equals(timeToLive, other.timeToLive) &&
                Objects.equals(image, other.image) &&
                Objects.equals(textInput, other.textInput) && Objects.equals(skipHours, other.skipHours) &&
@@ -323,8 +543,8 @@ public final class Channel extends ExtensibleElement {
         append(sb, "copyright", copyright);
         append(sb, "editor", editor);
         append(sb, "webmaster", webmaster);
-        append(sb, "publishDate", formatDate(publishDate));
-        append(sb, "buildDate", formatDate(buildDate));
+        append(sb, "publishDate", Lazy.formatDate(publishDate));
+        append(sb, "buildDate", Lazy.formatDate(buildDate));
         append(sb, "categories", categories, false);
         append(sb, "generator", generator);
         append(sb, "documentation", documentation);
@@ -371,17 +591,17 @@ public final class Channel extends ExtensibleElement {
 
     static final class Builder extends ExtensibleElementBuilder<Channel> {
         String title;
-        URI link;
+        Object link;
         String description;
-        Locale language;
+        Object language;
         String copyright;
         String editor;
         String webmaster;
-        DateTime publishDate;
-        DateTime buildDate;
+        Object publishDate;
+        Object buildDate;
         final Set<Category> categories;
         String generator;
-        URI docs;
+        Object docs;
         Cloud cloud;
         Integer ttl;
         Image image;
@@ -390,9 +610,14 @@ public final class Channel extends ExtensibleElement {
         EnumSet<Day> skipDays;
         String rating;
         final List<Item> items;
+        private Item.Builder itemBuilder;
 
         Builder(final DateTimeFormatter parser) {
-            super("channel", parser);
+            this(parser, ParseOptions.DEFAULT);
+        }
+
+        Builder(final DateTimeFormatter parser, final ParseOptions options) {
+            super("channel", parser, options);
             categories = new HashSet<>(6);
             items = new ArrayList<>(25);
         }
@@ -414,7 +639,7 @@ public final class Channel extends ExtensibleElement {
                     break;
                 case "link":
                     crashIfAlreadySet(link);
-                    link = parseUri(getText(reader));
+                    link = decodeUri(getText(reader));
                     break;
                 case "description":
                     crashIfAlreadySet(description);
@@ -422,7 +647,7 @@ public final class Channel extends ExtensibleElement {
                     break;
                 case "language":
                     crashIfAlreadySet(language);
-                    language = Locale.forLanguageTag(getText(reader));
+                    language = decodeLanguage(getPooledText(reader));
                     break;
                 case "copyright":
                     crashIfAlreadySet(copyright);
@@ -430,30 +655,30 @@ public final class Channel extends ExtensibleElement {
                     break;
                 case "managingEditor":
                     crashIfAlreadySet(editor);
-                    editor = getText(reader);
+                    editor = getPooledText(reader);
                     break;
                 case "webMaster":
                     crashIfAlreadySet(webmaster);
-                    webmaster = getText(reader);
+                    webmaster = getPooledText(reader);
                     break;
                 case "pubDate":
                     crashIfAlreadySet(publishDate);
-                    publishDate = parseDate(getText(reader), parser);
+                    publishDate = decodeDate(getText(reader));
                     break;
                 case "lastBuildDate":
                     crashIfAlreadySet(buildDate);
-                    buildDate = parseDate(getText(reader), parser);
+                    buildDate = decodeDate(getText(reader));
                     break;
                 case "category":
                     categories.add(parseCategory(reader, element));
                     break;
                 case "generator":
                     crashIfAlreadySet(generator);
-                    generator = getText(reader);
+                    generator = getPooledText(reader);
                     break;
                 case "docs":
                     crashIfAlreadySet(docs);
-                    docs = parseUri(getText(reader));
+                    docs = decodeUri(getText(reader));
                     break;
                 case "cloud":
                     crashIfAlreadySet(cloud);
@@ -461,7 +686,7 @@ public final class Channel extends ExtensibleElement {
                     break;
                 case "ttl":
                     crashIfAlreadySet(ttl);
-                    ttl = Integer.parseInt(getText(reader));
+                    ttl = parseInt(getText(reader));
                     break;
                 case "image":
                     crashIfAlreadySet(image);
@@ -476,7 +701,7 @@ public final class Channel extends ExtensibleElement {
                     rating = getText(reader);
                     break;
                 case "item":
-                    items.add(parseItem(reader, parser));
+                    items.add(parseItem(reader, parser, options));
                     break;
                 case "skipDays":
                     crashIfAlreadySet(skipDays);
@@ -489,14 +714,136 @@ public final class Channel extends ExtensibleElement {
             }
         }
 
+        @Override
+        protected void parseTag(final XMLStreamReader reader) throws ParserException {
+            switch (Tag.of(reader)) {
+                case Tag.TITLE:
+                    crashIfAlreadySet(title);
+                    title = getText(reader);
+                    break;
+                case Tag.LINK:
+                    crashIfAlreadySet(link);
+                    link = decodeUri(getText(reader));
+                    break;
+                case Tag.DESCRIPTION:
+                    crashIfAlreadySet(description);
+                    description = getText(reader);
+                    break;
+                case Tag.LANGUAGE:
+                    crashIfAlreadySet(language);
+                    language = decodeLanguage(getPooledText(reader));
+                    break;
+                case Tag.COPYRIGHT:
+                    crashIfAlreadySet(copyright);
+                    copyright = getText(reader);
+                    break;
+                case Tag.MANAGING_EDITOR:
+                    crashIfAlreadySet(editor);
+                    editor = getPooledText(reader);
+                    break;
+                case Tag.WEB_MASTER:
+                    crashIfAlreadySet(webmaster);
+                    webmaster = getPooledText(reader);
+                    break;
+                case Tag.PUB_DATE:
+                    crashIfAlreadySet(publishDate);
+                    publishDate = decodeDate(getText(reader));
+                    break;
+                case Tag.LAST_BUILD_DATE:
+                    crashIfAlreadySet(buildDate);
+                    buildDate = decodeDate(getText(reader));
+                    break;
+                case Tag.CATEGORY:
+                    categories.add(parseCategory(reader));
+                    break;
+                case Tag.GENERATOR:
+                    crashIfAlreadySet(generator);
+                    generator = getPooledText(reader);
+                    break;
+                case Tag.DOCS:
+                    crashIfAlreadySet(docs);
+                    docs = decodeUri(getText(reader));
+                    break;
+                case Tag.CLOUD:
+                    crashIfAlreadySet(cloud);
+                    cloud = parseCloud(reader);
+                    break;
+                case Tag.TTL:
+                    crashIfAlreadySet(ttl);
+                    ttl = parseInt(getText(reader));
+                    break;
+                case Tag.IMAGE:
+                    crashIfAlreadySet(image);
+                    image = parseImage(reader);
+                    break;
+                case Tag.TEXT_INPUT:
+                    crashIfAlreadySet(textInput);
+                    textInput = parseTextInput(reader);
+                    break;
+                case Tag.RATING:
+                    crashIfAlreadySet(rating);
+                    rating = getText(reader);
+                    break;
+                case Tag.ITEM:
+                    items.add(parseItem(reader));
+                    break;
+                case Tag.SKIP_DAYS:
+                    crashIfAlreadySet(skipDays);
+                    skipDays = parseSkipDays(reader);
+                    break;
+                case Tag.SKIP_HOURS:
+                    crashIfAlreadySet(skipHours);
+                    skipHours = parseSkipHours(reader);
+                    break;
+                default:
+                    skipElement(reader);
+            }
+        }
+
         @Override
         boolean isModuleAllowed(final Class<? extends Module> module) {
-            return CreativeCommons.class.equals(module) || Syndication.class.equals(module);
+            return options.getModules().isAllowed(module, Target.CHANNEL);
+        }
+
+        @Override
+        boolean isIncluded(final int tag) {
+            return options.getProjection().includesChannelTag(tag);
+        }
+
+        /**
+         * Parse the content of the channel until the start of the next item. The items are not added to the channel.
+         *
+         * @return false when the end of the channel is reached
+         */
+        boolean parseUntilNextItem(final XMLStreamReader reader) throws ParserException {
+            try {
+                while (nextChild(reader)) {
+                    if (!hasPrefix(reader) && Tag.of(reader) == Tag.ITEM) {
+                        return true;
+                    }
+                    parseChild(reader);
+                }
+                return false;
+            } catch (final RuntimeException cause) {
+                throw new ParserException(cause);
+            }
         }
 
-        private static Item parseItem(final XMLEventReader reader, final DateTimeFormatter parser) throws
-                                                                                                   ParserException {
-            final Item.Builder builder = new Item.Builder(parser);
+        /** Parse an item reusing the same builder for all the items of the channel */
+        Item parseItem(final XMLStreamReader reader) throws ParserException {
+            if (itemBuilder == null) {
+                itemBuilder = new Item.Builder(parser, options);
+            } else {
+                itemBuilder.reset();
+            }
+
+            itemBuilder.parse(reader);
+            return itemBuilder.build();
+        }
+
+        private static Item parseItem(final XMLEventReader reader, final DateTimeFormatter parser,
+                                      final ParseOptions options) throws ParserException {
+            final Item.Builder builder = new Item.Builder(parser, options);
             builder.parse(reader, null);
             return builder.build();
         }
@@ -516,17 +863,37 @@ public final class Channel extends ExtensibleElement {
                     break;
                 }
 
-                if (isStartOfTag(event, "Hour")) {
-                    hours.add(Integer.parseInt(getText(reader)));
+                if (isStartOfTag(event, "hour") || isStartOfTag(event, "Hour")) {
+                    hours.add(parseInt(getText(reader)));
                 }
             }
 
             return hours;
         }
 
-        private static Category parseCategory(final XMLEventReader reader, final StartElement element) throws
+        private static Set<Integer> parseSkipHours(final XMLStreamReader reader) throws ParserException {
+            final Set<Integer> hours = new HashSet<>(24);
+
+            while (nextChild(reader)) {
+                if (Tag.of(reader) == Tag.HOUR) {
+                    hours.add(parseInt(getText(reader)));
+                } else {
+                    skipElement(reader);
+                }
+            }
+
+            return hours;
+        }
+
+        private Category parseCategory(final XMLStreamReader reader) throws ParserException {
+            final Category.Builder builder = new Category.Builder(options.getPool());
+            builder.parse(reader);
+            return builder.build();
+        }
+
+        private Category parseCategory(final XMLEventReader reader, final StartElement element) throws
                                                                                                        ParserException {
-            final Category.Builder builder = new Category.Builder();
+            final Category.Builder builder = new Category.Builder(options.getPool());
             builder.parse(reader, element);
             return builder.build();
         }
@@ -546,7 +913,7 @@ public final class Channel extends ExtensibleElement {
                     break;
                 }
 
-                if (isStartOfTag(event, "Day")) {
+                if (isStartOfTag(event, "day") || isStartOfTag(event, "Day")) {
                     days.add(Day.from(getText(reader)));
                 }
             }
@@ -554,18 +921,50 @@ public final class Channel extends ExtensibleElement {
             return days;
         }
 
+        private static EnumSet<Day> parseSkipDays(final XMLStreamReader reader) throws ParserException {
+            final EnumSet<Day> days = noneOf(Day.class);
+
+            while (nextChild(reader)) {
+                if (Tag.of(reader) == Tag.DAY) {
+                    days.add(Day.from(getText(reader)));
+                } else {
+                    skipElement(reader);
+                }
+            }
+
+            return days;
+        }
+
+        private static TextInput parseTextInput(final XMLStreamReader reader) throws ParserException {
+            final TextInput.Builder builder = new TextInput.Builder();
+            builder.parse(reader);
+            return builder.build();
+        }
+
         private static TextInput parseTextInput(final XMLEventReader reader) throws ParserException {
             final TextInput.Builder builder = new TextInput.Builder();
             builder.parse(reader, null);
             return builder.build();
         }
 
+        private static Cloud parseCloud(final XMLStreamReader reader) throws ParserException {
+            final Cloud.Builder builder = new Cloud.Builder();
+            builder.parse(reader);
+            return builder.build();
+        }
+
         private static Cloud parseCloud(final StartElement element) throws ParserException {
             final Cloud.Builder builder = new Cloud.Builder();
             builder.parse(null, element);
             return builder.build();
         }
 
+        private static Image parseImage(final XMLStreamReader reader) throws ParserException {
+            final Image.Builder builder = new Image.Builder();
+            builder.parse(reader);
+            return builder.build();
+        }
+
         private static Image parseImage(final XMLEventReader reader) throws ParserException {
             final Image.Builder builder = new Image.Builder();
             builder.parse(reader, null);
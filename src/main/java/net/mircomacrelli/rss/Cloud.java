@@ -1,7 +1,9 @@
 package net.mircomacrelli.rss;
 
 import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.stream.events.StartElement;
+import java.io.IOException;
 import java.net.URI;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -11,8 +13,10 @@ import java.util.Map;
 import static java.lang.String.format;
 import static java.util.Objects.hash;
 import static java.util.Objects.requireNonNull;
+import static net.mircomacrelli.rss.Utils.getAttributeValue;
 import static net.mircomacrelli.rss.Utils.getAttributesValues;
 import static net.mircomacrelli.rss.Utils.parseUri;
+import static net.mircomacrelli.rss.Utils.skipElement;
 
 /**
  * Information about the Cloud that can be used to subscribe to the push notifications for this feed
@@ -84,6 +88,28 @@ public final class Cloud {
         return protocol;
     }
 
+    void write(final BinaryOutput out) throws IOException {
+        out.writeUri(domain);
+        out.writeVarint(port);
+        out.writeString(path.toString());
+        out.writeString(procedureName);
+        out.writeEnum(protocol);
+    }
+
+    void write(final XmlOutput out) throws IOException {
+        out.emptyElement("cloud");
+        out.attribute("domain", domain);
+        out.attribute("port", port);
+        out.attribute("path", path);
+        out.attribute("registerProcedure", procedureName);
+        out.attribute("protocol", protocol.name().toLowerCase(Locale.ENGLISH).replace('_', '-'));
+    }
+
+    static Cloud read(final BinaryInput in) throws ParserException {
+        return new Cloud(in.readUri(), in.readInt(), Paths.get(in.readString()), in.readString(),
+                         in.readEnum(Protocol.class));
+    }
+
     @Override
     public int hashCode() {
         return hash(domain, port, path, procedureName, protocol);
@@ -154,6 +180,17 @@ public final class Cloud {
             protocol = Protocol.from(attributes.get("protocol"));
         }
 
+        @Override
+        public void parseElement(final XMLStreamReader reader) throws ParserException {
+            domain = parseUri(getAttributeValue(reader, "domain"));
+            path = Paths.get(getAttributeValue(reader, "path"));
+            procedureName = getAttributeValue(reader, "registerProcedure");
+            port = Integer.parseInt(getAttributeValue(reader, "port"));
+            protocol = Protocol.from(getAttributeValue(reader, "protocol"));
+
+            skipElement(reader);
+        }
+
         @Override
         public Cloud buildElement() {
             return new Cloud(domain, port, path, procedureName, protocol);
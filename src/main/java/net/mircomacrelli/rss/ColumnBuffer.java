@@ -0,0 +1,153 @@
+package net.mircomacrelli.rss;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static java.lang.String.format;
+
+/**
+ * A growable column of primitive values stored in a ByteBuffer, on the heap or outside of it. The values are appended
+ * at the end and read by their offset in bytes. When the buffer is full it's copied in one twice as big, up to 2 GB.
+ */
+final class ColumnBuffer {
+    private static final int MAX_CAPACITY = Integer.MAX_VALUE - 8;
+
+    private final boolean direct;
+    private ByteBuffer buffer;
+
+    /**
+     * @param capacity the initial capacity in bytes
+     * @param direct true to allocate the buffer outside of the heap
+     */
+    ColumnBuffer(final int capacity, final boolean direct) {
+        this.direct = direct;
+        buffer = allocate(Math.max(capacity, 16));
+    }
+
+    private ByteBuffer allocate(final int capacity) {
+        final ByteBuffer allocated = direct ? ByteBuffer.allocateDirect(capacity) : ByteBuffer.allocate(capacity);
+        return allocated.order(ByteOrder.nativeOrder());
+    }
+
+    private void ensureRemaining(final int bytes) {
+        if (buffer.remaining() >= bytes) {
+            return;
+        }
+
+        final long needed = (long)buffer.position() + bytes;
+        if (needed > MAX_CAPACITY) {
+            throw new IllegalStateException(format("the column can't grow over %d bytes", MAX_CAPACITY));
+        }
+
+        final ByteBuffer grown = allocate((int)Math.min(Math.max(needed, 2L * buffer.capacity()), MAX_CAPACITY));
+        buffer.flip();
+        grown.put(buffer);
+        buffer = grown;
+    }
+
+    void putByte(final byte value) {
+        ensureRemaining(1);
+        buffer.put(value);
+    }
+
+    void putInt(final int value) {
+        ensureRemaining(4);
+        buffer.putInt(value);
+    }
+
+    void putLong(final long value) {
+        ensureRemaining(8);
+        buffer.putLong(value);
+    }
+
+    void put(final byte[] bytes) {
+        ensureRemaining(bytes.length);
+        buffer.put(bytes);
+    }
+
+    /** Append the bytes of another column */
+    void put(final ColumnBuffer other, final int offset, final int length) {
+        ensureRemaining(length);
+        final ByteBuffer source = other.buffer.duplicate();
+        source.limit(offset + length).position(offset);
+        buffer.put(source);
+    }
+
+    byte getByte(final int offset) {
+        return buffer.get(offset);
+    }
+
+    int getInt(final int offset) {
+        return buffer.getInt(offset);
+    }
+
+    long getLong(final int offset) {
+        return buffer.getLong(offset);
+    }
+
+    /** @return true if the bytes between offset and offset + length contain the needle */
+    boolean contains(final int offset, final int length, final byte[] needle) {
+        if (needle.length == 0) {
+            return length >= 0;
+        }
+
+        if (buffer.hasArray()) {
+            return contains(buffer.array(), offset, length, needle);
+        }
+
+        final ByteBuffer bytes = buffer;
+        final byte first = needle[0];
+        final int last = (offset + length) - needle.length;
+        for (int start = offset; start <= last; start++) {
+            if (bytes.get(start) != first) {
+                continue;
+            }
+            int i = 1;
+            while ((i < needle.length) && (bytes.get(start + i) == needle[i])) {
+                i++;
+            }
+            if (i == needle.length) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** The same search on the array of a heap buffer, that is faster than reading the buffer one byte at a time */
+    private static boolean contains(final byte[] bytes, final int offset, final int length, final byte[] needle) {
+        final byte first = needle[0];
+        final int last = (offset + length) - needle.length;
+        for (int start = offset; start <= last; start++) {
+            if (bytes[start] != first) {
+                continue;
+            }
+            int i = 1;
+            while ((i < needle.length) && (bytes[start + i] == needle[i])) {
+                i++;
+            }
+            if (i == needle.length) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** @return a copy of the bytes */
+    byte[] getBytes(final int offset, final int length) {
+        final byte[] bytes = new byte[length];
+        final ByteBuffer source = buffer.duplicate();
+        source.position(offset);
+        source.get(bytes);
+        return bytes;
+    }
+
+    /** @return the number of bytes written */
+    int size() {
+        return buffer.position();
+    }
+
+    /** @return the number of bytes allocated */
+    int capacity() {
+        return buffer.capacity();
+    }
+}
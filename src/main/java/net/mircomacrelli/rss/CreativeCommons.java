@@ -1,7 +1,9 @@
 package net.mircomacrelli.rss;
 
 import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.stream.events.StartElement;
+import java.io.IOException;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
@@ -10,6 +12,7 @@ import static java.lang.String.format;
 import static java.util.Collections.unmodifiableList;
 import static java.util.Objects.hash;
 import static java.util.Objects.requireNonNull;
+import static net.mircomacrelli.rss.BinaryInput.initialCapacity;
 import static net.mircomacrelli.rss.Utils.getText;
 import static net.mircomacrelli.rss.Utils.parseUri;
 
@@ -31,6 +34,28 @@ public final class CreativeCommons implements Module {
         return unmodifiableList(licenses);
     }
 
+    void write(final BinaryOutput out) throws IOException {
+        out.writeSize(licenses);
+        for (final URI license : licenses) {
+            out.writeUri(license);
+        }
+    }
+
+    void write(final XmlOutput out) throws IOException {
+        for (final URI license : licenses) {
+            out.element(ModuleInformation.CREATIVE_COMMONS, "license", license);
+        }
+    }
+
+    static CreativeCommons read(final BinaryInput in) throws ParserException {
+        final int size = in.readSize();
+        final List<URI> licenses = new ArrayList<>(initialCapacity(size));
+        for (int i = 0; i < size; i++) {
+            licenses.add(in.readUri());
+        }
+        return new CreativeCommons(licenses);
+    }
+
     @Override
     public int hashCode() {
         return hash(licenses);
@@ -64,6 +89,11 @@ public final class CreativeCommons implements Module {
             licenses.add(parseUri(getText(reader)));
         }
 
+        @Override
+        public void parseElement(final XMLStreamReader reader) throws ParserException {
+            licenses.add(parseUri(getText(reader)));
+        }
+
         @Override
         public Module buildElement() {
             return new CreativeCommons(licenses);
@@ -0,0 +1,435 @@
+package net.mircomacrelli.rss;
+
+import org.joda.time.Chronology;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.joda.time.chrono.ISOChronology;
+import org.joda.time.format.DateTimeFormatter;
+
+/**
+ * Decoder for the RFC 822 and ISO 8601 dates that reads the characters of the string without creating intermediate
+ * objects. It understands also the common variants found in the feeds: two digits years, missing day of the week,
+ * missing seconds, full month names and named time zones like GMT or EST. The last decoded dates are cached, because
+ * usually all the items of a feed share only a few dates.
+ */
+final class DateParser {
+    private static final String[] MONTHS = {"jan", "feb", "mar", "apr", "may", "jun", "jul", "aug", "sep", "oct",
+                                            "nov", "dec"};
+    private static final String[] ZONE_NAMES = {"GMT", "UTC", "UT", "Z", "EST", "EDT", "CST", "CDT", "MST", "MDT",
+                                                "PST", "PDT"};
+    private static final int[] ZONE_OFFSETS = {0, 0, 0, 0, -5, -4, -6, -5, -7, -6, -8, -7};
+    private static final int[] DAYS_IN_MONTH = {31, 29, 31, 30, 31, 30, 31, 31, 30, 31, 30, 31};
+
+    private static final int MILLIS_PER_MINUTE = 60 * 1000;
+    private static final int MILLIS_PER_HOUR = 60 * MILLIS_PER_MINUTE;
+    private static final long MILLIS_PER_DAY = 24L * MILLIS_PER_HOUR;
+
+    private static final int CACHE_SIZE = 256;
+    private static final Entry[] CACHE = new Entry[CACHE_SIZE];
+
+    private DateParser() {
+        throw new AssertionError("do not instantiate this class");
+    }
+
+    /**
+     * Decode the date using the time zone settings of the formatter.
+     *
+     * @param text the date
+     * @param formatter the formatter configured in the factory
+     * @return the date or null if the text is not a date known by this decoder
+     */
+    static DateTime parse(final String text, final DateTimeFormatter formatter) {
+        final Chronology chronology = formatter.getChronology();
+        if ((chronology != null) && !(chronology instanceof ISOChronology)) {
+            return null;
+        }
+
+        final DateTimeZone zone = formatter.getZone();
+        final boolean offsetParsed = formatter.isOffsetParsed();
+
+        final int slot = text.hashCode() & (CACHE_SIZE - 1);
+        final Entry cached = CACHE[slot];
+        if ((cached != null) && cached.matches(text, zone, offsetParsed)) {
+            return cached.date;
+        }
+
+        final DateTime date = decode(text, zone, offsetParsed);
+        if (date != null) {
+            // entries are immutable, so a race between two threads can only lose a cached value
+            CACHE[slot] = new Entry(text, zone, offsetParsed, date);
+        }
+        return date;
+    }
+
+    private static DateTime decode(final String text, final DateTimeZone zone, final boolean offsetParsed) {
+        final int start = skipSpaces(text, 0);
+        if (start == text.length()) {
+            return null;
+        }
+
+        final int end = digitsEnd(text, start);
+        final long utc;
+        if (((end - start) == 4) && (end < text.length()) && (text.charAt(end) == '-')) {
+            utc = decodeIso(text, start);
+        } else {
+            utc = decodeRfc(text, start);
+        }
+
+        if (utc == Long.MIN_VALUE) {
+            return null;
+        }
+
+        // the offset is stored in the lowest bits. see pack()
+        final int offset = (int)(utc & 0xFFFL) - (1 << 11);
+        final long millis = utc >> 12;
+
+        final DateTimeZone resultZone;
+        if (offsetParsed) {
+            resultZone = DateTimeZone.forOffsetMillis(offset * MILLIS_PER_MINUTE);
+        } else {
+            resultZone = (zone == null) ? DateTimeZone.getDefault() : zone;
+        }
+
+        return new DateTime(millis, resultZone);
+    }
+
+    /** yyyy-MM-dd'T'HH:mm[:ss[.SSS]](Z|+hh:mm|+hhmm|+hh) */
+    private static long decodeIso(final String text, final int start) {
+        int i = start;
+        final int year = number(text, i, 4);
+        i += 5;
+
+        final int month = number(text, i, 2);
+        if ((month < 0) || !isChar(text, i + 2, '-')) {
+            return Long.MIN_VALUE;
+        }
+        i += 3;
+
+        final int day = number(text, i, 2);
+        if ((day < 0) || !(isChar(text, i + 2, 'T') || isChar(text, i + 2, 't') || isChar(text, i + 2, ' '))) {
+            return Long.MIN_VALUE;
+        }
+        i += 3;
+
+        final int hour = number(text, i, 2);
+        if ((hour < 0) || !isChar(text, i + 2, ':')) {
+            return Long.MIN_VALUE;
+        }
+        i += 3;
+
+        final int minute = number(text, i, 2);
+        if (minute < 0) {
+            return Long.MIN_VALUE;
+        }
+        i += 2;
+
+        int second = 0;
+        int millis = 0;
+        if (isChar(text, i, ':')) {
+            second = number(text, i + 1, 2);
+            if (second < 0) {
+                return Long.MIN_VALUE;
+            }
+            i += 3;
+
+            if (isChar(text, i, '.') || isChar(text, i, ',')) {
+                final int fractionEnd = digitsEnd(text, i + 1);
+                if (fractionEnd == (i + 1)) {
+                    return Long.MIN_VALUE;
+                }
+                millis = fraction(text, i + 1, fractionEnd);
+                i = fractionEnd;
+            }
+        }
+
+        if (i >= text.length()) {
+            return Long.MIN_VALUE;
+        }
+
+        final int offset;
+        final char sign = text.charAt(i);
+        if ((sign == 'Z') || (sign == 'z')) {
+            offset = 0;
+            i++;
+        } else if ((sign == '+') || (sign == '-')) {
+            final int hours = number(text, i + 1, 2);
+            if (hours < 0) {
+                return Long.MIN_VALUE;
+            }
+            i += 3;
+
+            int minutes = 0;
+            if (isChar(text, i, ':')) {
+                i++;
+            }
+            if (isDigit(text, i)) {
+                minutes = number(text, i, 2);
+                if (minutes < 0) {
+                    return Long.MIN_VALUE;
+                }
+                i += 2;
+            }
+            offset = ((sign == '-') ? -1 : 1) * ((hours * 60) + minutes);
+        } else {
+            return Long.MIN_VALUE;
+        }
+
+        if (skipSpaces(text, i) != text.length()) {
+            return Long.MIN_VALUE;
+        }
+
+        return pack(year, month, day, hour, minute, second, millis, offset);
+    }
+
+    /** [EEE,] d MMM yy[yy] HH:mm[:ss] (+hhmm|GMT|EST|...) */
+    private static long decodeRfc(final String text, final int start) {
+        int i = start;
+
+        // the day of the week is ignored, the day of the month is enough
+        if (isLetter(text, i)) {
+            i = skipSpaces(text, lettersEnd(text, i));
+            if (isChar(text, i, ',')) {
+                i = skipSpaces(text, i + 1);
+            }
+        }
+
+        int end = digitsEnd(text, i);
+        if (((end - i) < 1) || ((end - i) > 2)) {
+            return Long.MIN_VALUE;
+        }
+        final int day = number(text, i, end - i);
+        i = skipSeparator(text, end);
+
+        end = lettersEnd(text, i);
+        if ((end - i) < 3) {
+            return Long.MIN_VALUE;
+        }
+        final int month = month(text, i);
+        if (month < 0) {
+            return Long.MIN_VALUE;
+        }
+        i = skipSeparator(text, end);
+
+        end = digitsEnd(text, i);
+        int year;
+        if ((end - i) == 4) {
+            year = number(text, i, 4);
+        } else if ((end - i) == 2) {
+            // RFC 2822: 00-49 are in the 21st century, 50-99 in the 20th
+            year = number(text, i, 2);
+            year += (year < 50) ? 2000 : 1900;
+        } else {
+            return Long.MIN_VALUE;
+        }
+        i = skipSpaces(text, end);
+
+        end = digitsEnd(text, i);
+        if (((end - i) < 1) || ((end - i) > 2) || !isChar(text, end, ':')) {
+            return Long.MIN_VALUE;
+        }
+        final int hour = number(text, i, end - i);
+        i = end + 1;
+
+        final int minute = number(text, i, 2);
+        if (minute < 0) {
+            return Long.MIN_VALUE;
+        }
+        i += 2;
+
+        int second = 0;
+        if (isChar(text, i, ':')) {
+            second = number(text, i + 1, 2);
+            if (second < 0) {
+                return Long.MIN_VALUE;
+            }
+            i += 3;
+        }
+        i = skipSpaces(text, i);
+
+        if (i >= text.length()) {
+            return Long.MIN_VALUE;
+        }
+
+        final int offset;
+        final char sign = text.charAt(i);
+        if ((sign == '+') || (sign == '-')) {
+            final int hours = number(text, i + 1, 2);
+            if (hours < 0) {
+                return Long.MIN_VALUE;
+            }
+            i += 3;
+            if (isChar(text, i, ':')) {
+                i++;
+            }
+            final int minutes = number(text, i, 2);
+            if (minutes < 0) {
+                return Long.MIN_VALUE;
+            }
+            i += 2;
+            offset = ((sign == '-') ? -1 : 1) * ((hours * 60) + minutes);
+        } else {
+            end = lettersEnd(text, i);
+            final int zone = zone(text, i, end - i);
+            if (zone == Integer.MIN_VALUE) {
+                return Long.MIN_VALUE;
+            }
+            offset = zone * 60;
+            i = end;
+        }
+
+        if (skipSpaces(text, i) != text.length()) {
+            return Long.MIN_VALUE;
+        }
+
+        return pack(year, month, day, hour, minute, second, 0, offset);
+    }
+
+    /**
+     * Validate the fields and pack the instant and the offset in minutes in a long. The offset uses the lowest 12
+     * bits. Long.MIN_VALUE is returned when the fields are not valid.
+     */
+    private static long pack(final int year, final int month, final int day, final int hour, final int minute,
+                             final int second, final int millis, final int offset) {
+        if ((year < 0) || (month < 1) || (month > 12) || (day < 1) || (day > DAYS_IN_MONTH[month - 1]) ||
+            ((month == 2) && (day == 29) && !isLeapYear(year)) || (hour > 23) || (minute > 59) || (second > 59) ||
+            (Math.abs(offset) >= (24 * 60))) {
+            return Long.MIN_VALUE;
+        }
+
+        final long instant = (daysFromCivil(year, month, day) * MILLIS_PER_DAY) + (hour * MILLIS_PER_HOUR) +
+                             (minute * MILLIS_PER_MINUTE) + (second * 1000L) + millis -
+                             ((long)offset * MILLIS_PER_MINUTE);
+        return (instant << 12) | (offset + (1 << 11));
+    }
+
+    private static boolean isLeapYear(final int year) {
+        return ((year % 4) == 0) && (((year % 100) != 0) || ((year % 400) == 0));
+    }
+
+    /** Number of days from 1970-01-01 in the proleptic gregorian calendar */
+    private static long daysFromCivil(final int year, final int month, final int day) {
+        final int y = (month <= 2) ? (year - 1) : year;
+        final int era = ((y >= 0) ? y : (y - 399)) / 400;
+        final int yearOfEra = y - (era * 400);
+        final int dayOfYear = ((((153 * (month + ((month > 2) ? -3 : 9))) + 2) / 5) + day) - 1;
+        final int dayOfEra = (((yearOfEra * 365) + (yearOfEra / 4)) - (yearOfEra / 100)) + dayOfYear;
+        return ((era * 146097L) + dayOfEra) - 719468;
+    }
+
+    private static int month(final String text, final int start) {
+        for (int m = 0; m < MONTHS.length; m++) {
+            if (text.regionMatches(true, start, MONTHS[m], 0, 3)) {
+                return m + 1;
+            }
+        }
+        return -1;
+    }
+
+    private static int zone(final String text, final int start, final int length) {
+        for (int z = 0; z < ZONE_NAMES.length; z++) {
+            final String name = ZONE_NAMES[z];
+            if ((name.length() == length) && text.regionMatches(true, start, name, 0, length)) {
+                return ZONE_OFFSETS[z];
+            }
+        }
+        return Integer.MIN_VALUE;
+    }
+
+    /** @return the value of exactly length digits starting from start, or -1 */
+    private static int number(final String text, final int start, final int length) {
+        if ((start + length) > text.length()) {
+            return -1;
+        }
+
+        int value = 0;
+        for (int i = start; i < (start + length); i++) {
+            final char c = text.charAt(i);
+            if ((c < '0') || (c > '9')) {
+                return -1;
+            }
+            value = (value * 10) + (c - '0');
+        }
+        return value;
+    }
+
+    /** @return the milliseconds of a fraction of second. digits after the third are ignored */
+    private static int fraction(final String text, final int start, final int end) {
+        int value = 0;
+        for (int i = start; i < (start + 3); i++) {
+            value *= 10;
+            if (i < end) {
+                value += text.charAt(i) - '0';
+            }
+        }
+        return value;
+    }
+
+    private static int digitsEnd(final String text, final int start) {
+        int i = start;
+        while (isDigit(text, i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int lettersEnd(final String text, final int start) {
+        int i = start;
+        while (isLetter(text, i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int skipSpaces(final String text, final int start) {
+        int i = start;
+        while ((i < text.length()) && Character.isWhitespace(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int skipSeparator(final String text, final int start) {
+        if (isChar(text, start, '-')) {
+            return start + 1;
+        }
+        return skipSpaces(text, start);
+    }
+
+    private static boolean isDigit(final String text, final int index) {
+        if (index >= text.length()) {
+            return false;
+        }
+        final char c = text.charAt(index);
+        return (c >= '0') && (c <= '9');
+    }
+
+    private static boolean isLetter(final String text, final int index) {
+        if (index >= text.length()) {
+            return false;
+        }
+        final char c = text.charAt(index);
+        return ((c >= 'a') && (c <= 'z')) || ((c >= 'A') && (c <= 'Z'));
+    }
+
+    private static boolean isChar(final String text, final int index, final char expected) {
+        return (index < text.length()) && (text.charAt(index) == expected);
+    }
+
+    private static final class Entry {
+        final String text;
+        final DateTimeZone zone;
+        final boolean offsetParsed;
+        final DateTime date;
+
+        Entry(final String text, final DateTimeZone zone, final boolean offsetParsed, final DateTime date) {
+            this.text = text;
+            this.zone = zone;
+            this.offsetParsed = offsetParsed;
+            this.date = date;
+        }
+
+        boolean matches(final String other, final DateTimeZone otherZone, final boolean otherOffsetParsed) {
+            return (zone == otherZone) && (offsetParsed == otherOffsetParsed) && text.equals(other);
+        }
+    }
+}
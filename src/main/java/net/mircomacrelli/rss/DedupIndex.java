@@ -0,0 +1,232 @@
+package net.mircomacrelli.rss;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Remembers the items already seen, so that only the new ones of a feed downloaded again are processed. An item is
+ * identified by its guid, or by its link if it has no guid, or by its title and description if it has neither.
+ * <p>
+ * The index keeps only a 64 bit fingerprint of the feed and of the identity of every item, in open addressing tables of
+ * primitive longs shared by all the feeds: there are no objects for each feed or each item, and the lookups take
+ * constant time. The index has two generations: the new fingerprints are added to the current one, and when it's full
+ * it becomes the old one and the previous old one is dropped. An item still published is copied back to the current
+ * generation when it's seen again, so only the items that are no longer in their feed are forgotten. Each generation
+ * takes about 11 bytes for each fingerprint of its capacity: a million feeds of 50 items fit in about 1 GB, a million
+ * feeds of 20 items in about 430 MB.
+ * <p>
+ * A new item with the same fingerprint of one in the index would be mistaken for it, but with a billion fingerprints in
+ * the index this happens about once every 18 billion new items. All the methods are thread-safe.
+ *
+ * @author Mirco Macrelli
+ * @version 2.1
+ */
+public final class DedupIndex {
+    private static final long FNV_OFFSET = 0xCBF29CE484222325L;
+    private static final long FNV_PRIME = 0x100000001B3L;
+    /** 0 marks the empty slots of the tables */
+    private static final long EMPTY = 0;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private final int capacity;
+    private long[] current;
+    private long[] old;
+    private int currentSize;
+    private int oldSize;
+    private long rotations;
+
+    private DedupIndex(final int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException(format("capacity must be positive. was %d", capacity));
+        }
+        if (capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException(format("capacity can't be greater than %d. was %d", MAX_CAPACITY,
+                                                      capacity));
+        }
+
+        this.capacity = capacity;
+        // the load factor is at most 0.75
+        final int length = (int)((((long)capacity) * 4) / 3) + 1;
+        current = new long[length];
+        old = new long[length];
+    }
+
+    /**
+     * @param capacity the number of fingerprints kept in each generation
+     * @return a new empty index
+     */
+    public static DedupIndex newIndex(final int capacity) {
+        return new DedupIndex(capacity);
+    }
+
+    /**
+     * Record an item
+     *
+     * @param feed a stable identifier of the feed, like its address
+     * @param item the item
+     * @return true if the item was not seen before
+     */
+    public synchronized boolean add(final String feed, final Item item) {
+        return add(fingerprint(feed, item));
+    }
+
+    /**
+     * @param feed a stable identifier of the feed, like its address
+     * @param item the item
+     * @return true if the item was already seen. The item is not recorded
+     */
+    public synchronized boolean contains(final String feed, final Item item) {
+        final long fingerprint = fingerprint(feed, item);
+        return contains(current, fingerprint) || contains(old, fingerprint);
+    }
+
+    /**
+     * Record all the items of a feed and return the new ones. An item repeated in the same list is returned only once
+     *
+     * @param feed a stable identifier of the feed, like its address
+     * @param items the items of the feed
+     * @return the items not seen before, in the same order
+     */
+    public synchronized List<Item> filterNew(final String feed, final List<Item> items) {
+        requireNonNull(feed);
+        final long seed = hash(FNV_OFFSET, feed);
+
+        final List<Item> added = new ArrayList<>(items.size());
+        for (final Item item : items) {
+            if (add(fingerprint(seed, item))) {
+                added.add(item);
+            }
+        }
+        return added;
+    }
+
+    /** @return the number of fingerprints kept in each generation */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /** @return the number of fingerprints in the current generation */
+    public synchronized int size() {
+        return currentSize;
+    }
+
+    /** @return how many times the current generation became the old one */
+    public synchronized long getRotationCount() {
+        return rotations;
+    }
+
+    /** Forget all the items */
+    public synchronized void clear() {
+        Arrays.fill(current, EMPTY);
+        Arrays.fill(old, EMPTY);
+        currentSize = 0;
+        oldSize = 0;
+    }
+
+    private boolean add(final long fingerprint) {
+        if (contains(current, fingerprint)) {
+            return false;
+        }
+
+        final boolean seen = (oldSize > 0) && contains(old, fingerprint);
+        if (currentSize == capacity) {
+            rotate();
+        }
+        insert(current, fingerprint);
+        currentSize++;
+        return !seen;
+    }
+
+    private void rotate() {
+        final long[] dropped = old;
+        old = current;
+        oldSize = currentSize;
+        Arrays.fill(dropped, EMPTY);
+        current = dropped;
+        currentSize = 0;
+        rotations++;
+    }
+
+    private static boolean contains(final long[] table, final long fingerprint) {
+        for (int slot = slot(table, fingerprint); table[slot] != EMPTY; slot = nextSlot(table, slot)) {
+            if (table[slot] == fingerprint) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void insert(final long[] table, final long fingerprint) {
+        int slot = slot(table, fingerprint);
+        while (table[slot] != EMPTY) {
+            slot = nextSlot(table, slot);
+        }
+        table[slot] = fingerprint;
+    }
+
+    /** maps the high 32 bits to the length with a multiplication, so the length doesn't have to be a power of two */
+    private static int slot(final long[] table, final long fingerprint) {
+        return (int)(((fingerprint >>> 32) * table.length) >>> 32);
+    }
+
+    private static int nextSlot(final long[] table, final int slot) {
+        return (slot == (table.length - 1)) ? 0 : (slot + 1);
+    }
+
+    /** @return the fingerprint of the item in the feed. Never {@link #EMPTY} */
+    static long fingerprint(final String feed, final Item item) {
+        return fingerprint(hash(FNV_OFFSET, requireNonNull(feed)), item);
+    }
+
+    private static long fingerprint(final long seed, final Item item) {
+        long hash;
+        final UniqueId uniqueId = item.getUniqueId();
+        final String link = item.getLinkText();
+        if (uniqueId != null) {
+            hash = hash(mix(seed, 'g'), uniqueId.getId());
+        } else if (link != null) {
+            hash = hash(mix(seed, 'l'), link);
+        } else {
+            hash = hash(mix(seed, 't'), item.getTitle());
+            hash = hash(mix(hash, 0), item.getDescription());
+        }
+
+        final long fingerprint = finish(hash);
+        return (fingerprint == EMPTY) ? 1 : fingerprint;
+    }
+
+    /** FNV-1a on the chars of the text. null is different from the empty string */
+    private static long hash(long hash, final String text) {
+        if (text == null) {
+            return mix(hash, 0xFFFF);
+        }
+
+        for (int i = 0; i < text.length(); i++) {
+            hash = mix(hash, text.charAt(i));
+        }
+        return mix(hash, text.length());
+    }
+
+    private static long mix(final long hash, final int value) {
+        return (hash ^ value) * FNV_PRIME;
+    }
+
+    /** the finalizer of MurmurHash3, so that the high bits used for the slots depend on all the chars */
+    private static long finish(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return format("DedupIndex{capacity=%d, size=%d, rotations=%d}", capacity, currentSize, rotations);
+    }
+}
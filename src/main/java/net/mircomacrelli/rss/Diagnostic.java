@@ -0,0 +1,73 @@
+package net.mircomacrelli.rss;
+
+import static java.lang.String.format;
+import static java.util.Objects.hash;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * An element that was skipped by {@link RSSFactory#parseLeniently} because it was not valid. The diagnostic keeps only
+ * where the element was and why it was skipped, not the exception. The dates, the links and the numbers are checked
+ * before they are decoded, and the checks of the library don't fill the stack traces, so the common errors cost
+ * little more than the valid values. The rare errors found only by the decoding, like the 31st of February, still
+ * create the exception of the decoder.
+ *
+ * @author Mirco Macrelli
+ * @version 2.1
+ */
+public final class Diagnostic {
+    private final String element;
+    private final int line;
+    private final int column;
+    private final String message;
+
+    Diagnostic(final String element, final int line, final int column, final String message) {
+        this.element = requireNonNull(element);
+        this.line = line;
+        this.column = column;
+        this.message = requireNonNull(message);
+    }
+
+    /** @return the skipped element with its parent, like item/pubDate or channel/item */
+    public String getElement() {
+        return element;
+    }
+
+    /** @return the line where the error was found, or -1 if it's not known */
+    public int getLine() {
+        return line;
+    }
+
+    /** @return the column where the error was found, or -1 if it's not known */
+    public int getColumn() {
+        return column;
+    }
+
+    /** @return the description of the error */
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (!(other instanceof Diagnostic)) {
+            return false;
+        }
+
+        final Diagnostic that = (Diagnostic)other;
+        return (line == that.line) && (column == that.column) && element.equals(that.element) &&
+               message.equals(that.message);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash(element, line, column, message);
+    }
+
+    @Override
+    public String toString() {
+        return format("Diagnostic{element='%s', line=%d, column=%d, message='%s'}", element, line, column, message);
+    }
+}
@@ -1,9 +1,13 @@
 package net.mircomacrelli.rss;
 
+import net.mircomacrelli.rss.ParseListener.Value;
+
 import javax.activation.MimeType;
 import javax.activation.MimeTypeParseException;
 import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.stream.events.StartElement;
+import java.io.IOException;
 import java.net.URI;
 import java.util.Map;
 
@@ -11,8 +15,12 @@ import static java.lang.String.format;
 import static java.util.Objects.hash;
 import static java.util.Objects.requireNonNull;
 import static net.mircomacrelli.rss.Utils.copyMimeType;
+import static net.mircomacrelli.rss.Utils.getAttributeValue;
 import static net.mircomacrelli.rss.Utils.getAttributesValues;
+import static net.mircomacrelli.rss.Utils.parseLong;
 import static net.mircomacrelli.rss.Utils.parseUri;
+import static net.mircomacrelli.rss.Utils.parseUriLeniently;
+import static net.mircomacrelli.rss.Utils.skipElement;
 
 /**
  * An Enclosure is a way to attach a file to an Item. The file is not embedded in the feed. Only the URI to its actual
@@ -72,6 +80,30 @@ public final class Enclosure {
         return copyMimeType(type);
     }
 
+    void write(final BinaryOutput out) throws IOException {
+        out.writeUri(link);
+        out.writeVarint(length);
+        out.writeString(type.getPrimaryType());
+        out.writeString(type.getSubType());
+    }
+
+    void write(final XmlOutput out) throws IOException {
+        out.emptyElement("enclosure");
+        out.attribute("url", link);
+        out.attribute("length", length);
+        out.attribute("type", type);
+    }
+
+    static Enclosure read(final BinaryInput in) throws ParserException {
+        final URI link = in.readUri();
+        final long length = in.readVarint();
+        try {
+            return new Enclosure(link, length, new MimeType(in.readString(), in.readString()));
+        } catch (final MimeTypeParseException cause) {
+            throw new ParserException(cause);
+        }
+    }
+
     @Override
     public int hashCode() {
         return hash(link, length, type);
@@ -93,22 +125,86 @@ public final class Enclosure {
     }
 
     static final class Builder extends BuilderBase<Enclosure> {
+        private final StringPool pool;
+        private final ParseListener listener;
+        private final boolean lenient;
         URI uri;
         Long length;
         MimeType type;
 
+        Builder() {
+            this(ParseOptions.DEFAULT);
+        }
+
+        /** @param options the pool of the repeated values, the listener of the factory and the recovery, if any */
+        Builder(final ParseOptions options) {
+            pool = options.getPool();
+            listener = options.getListener();
+            lenient = options.getRecovery() != null;
+        }
+
         @Override
         public void parseElement(final XMLEventReader reader, final StartElement element) throws ParserException {
             final Map<String, String> attributes = getAttributesValues(element);
 
-            uri = parseUri(attributes.get("url"));
-            length = Long.parseLong(attributes.get("length"));
+            uri = parseUrl(attributes.get("url"));
+            length = parseLength(attributes.get("length"));
+
+            try {
+                type = parseType(attributes.get("type"));
+            } catch (final MimeTypeParseException cause) {
+                throw new ParserException(cause);
+            }
+        }
+
+        @Override
+        public void parseElement(final XMLStreamReader reader) throws ParserException {
+            uri = parseUrl(getAttributeValue(reader, "url"));
+            length = parseLength(getAttributeValue(reader, "length"));
 
             try {
-                type = new MimeType(attributes.get("type"));
+                type = parseType(getAttributeValue(reader, "type"));
             } catch (final MimeTypeParseException cause) {
                 throw new ParserException(cause);
             }
+
+            skipElement(reader);
+        }
+
+        private static long parseLength(final String text) throws ParserException {
+            final long length = parseLong(text);
+            if (length < 0) {
+                throw new ParserException(format("length can't be negative. was %d", length), null, false);
+            }
+            return length;
+        }
+
+        private URI parseUrl(final String text) throws ParserException {
+            if (listener == null) {
+                return toUri(text);
+            }
+            final long start = System.nanoTime();
+            final URI url = toUri(text);
+            listener.valueDecoded(Value.URI, System.nanoTime() - start);
+            return url;
+        }
+
+        private URI toUri(final String text) throws ParserException {
+            return lenient ? parseUriLeniently(text) : parseUri(text);
+        }
+
+        private MimeType parseType(final String text) throws MimeTypeParseException {
+            if (listener == null) {
+                return decodeType(text);
+            }
+            final long start = System.nanoTime();
+            final MimeType type = decodeType(text);
+            listener.valueDecoded(Value.MIME_TYPE, System.nanoTime() - start);
+            return type;
+        }
+
+        private MimeType decodeType(final String text) throws MimeTypeParseException {
+            return (pool == null) ? new MimeType(text) : pool.internMimeType(text);
         }
 
         @Override
@@ -1,7 +1,9 @@
 package net.mircomacrelli.rss;
 
+import java.io.IOException;
 import java.util.IdentityHashMap;
 import java.util.Map;
+import java.util.Map.Entry;
 
 import static java.util.Collections.unmodifiableMap;
 import static java.util.Objects.requireNonNull;
@@ -10,7 +12,7 @@ abstract class ExtensibleElement {
     private final Map<Class<? extends Module>, Module> modules;
 
     ExtensibleElement() {
-        modules = new IdentityHashMap<>();
+        modules = new IdentityHashMap<>(2);
     }
 
     public final boolean hasModule(final Class<? extends Module> clazz) {
@@ -28,4 +30,41 @@ abstract class ExtensibleElement {
     final Map<Class<? extends Module>, Module> getModules() {
         return unmodifiableMap(modules);
     }
+
+    /** the modules added to a {@link ModuleRegistry} by the application are not written */
+    final void writeModules(final BinaryOutput out) throws IOException {
+        int count = 0;
+        for (final Class<? extends Module> module : modules.keySet()) {
+            if (ModuleInformation.fromModule(module) != null) {
+                count++;
+            }
+        }
+
+        out.writeVarint(count);
+        for (final Entry<Class<? extends Module>, Module> module : modules.entrySet()) {
+            final ModuleInformation info = ModuleInformation.fromModule(module.getKey());
+            if (info != null) {
+                out.writeEnum(info);
+                info.write(module.getValue(), out);
+            }
+        }
+    }
+
+    /** the modules added to a {@link ModuleRegistry} by the application are not written */
+    final void writeModules(final XmlOutput out) throws IOException {
+        for (final Entry<Class<? extends Module>, Module> module : modules.entrySet()) {
+            final ModuleInformation info = ModuleInformation.fromModule(module.getKey());
+            if (info != null) {
+                info.write(module.getValue(), out);
+            }
+        }
+    }
+
+    final void readModules(final BinaryInput in) throws ParserException {
+        final int count = in.readInt();
+        for (int i = 0; i < count; i++) {
+            final ModuleInformation info = in.readEnum(ModuleInformation.class);
+            addModule(info.getModule(), info.read(in));
+        }
+    }
 }
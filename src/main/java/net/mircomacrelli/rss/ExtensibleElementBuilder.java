@@ -1,84 +1,199 @@
 package net.mircomacrelli.rss;
 
+import net.mircomacrelli.rss.ModuleRegistry.Registration;
+import net.mircomacrelli.rss.ParseListener.Value;
+import org.joda.time.DateTime;
 import org.joda.time.format.DateTimeFormatter;
 
 import javax.xml.stream.XMLEventReader;
 import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.stream.events.StartElement;
 import javax.xml.stream.events.XMLEvent;
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
+import java.net.URI;
 import java.util.IdentityHashMap;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 
 import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+import static net.mircomacrelli.rss.Utils.getText;
+import static net.mircomacrelli.rss.Utils.hasPrefix;
+import static net.mircomacrelli.rss.Utils.intern;
 import static net.mircomacrelli.rss.Utils.isEndOfTag;
+import static net.mircomacrelli.rss.Utils.nextChild;
+import static net.mircomacrelli.rss.Utils.parseDate;
+import static net.mircomacrelli.rss.Utils.parseDateLeniently;
+import static net.mircomacrelli.rss.Utils.parseUri;
+import static net.mircomacrelli.rss.Utils.parseUriLeniently;
+import static net.mircomacrelli.rss.Utils.skipElement;
 
 abstract class ExtensibleElementBuilder<T extends ExtensibleElement> extends BuilderBase<T> {
     private final Map<Class<? extends Module>, ModuleBuilder> modules;
+    final ParseOptions options;
 
     ExtensibleElementBuilder(final String tagName, final DateTimeFormatter parser) {
+        this(tagName, parser, ParseOptions.DEFAULT);
+    }
+
+    ExtensibleElementBuilder(final String tagName, final DateTimeFormatter parser, final ParseOptions options) {
         super(parser);
         this.tagName = tagName;
-        modules = new IdentityHashMap<>();
+        this.options = requireNonNull(options);
+        modules = new IdentityHashMap<>(2);
+    }
+
+    /** @return the text of the current element, shared through the pool of the factory if it has one */
+    final String getPooledText(final XMLEventReader reader) throws ParserException {
+        return intern(options.getPool(), getText(reader));
+    }
+
+    /** @return the text of the current element, shared through the pool of the factory if it has one */
+    final String getPooledText(final XMLStreamReader reader) throws ParserException {
+        return getText(reader, options.getPool());
+    }
+
+    /** @return the link, or a Lazy if it's decoded on first access */
+    final Object decodeUri(final String text) throws ParserException {
+        if (options.isLazy()) {
+            return Lazy.uri(text);
+        }
+
+        final ParseListener listener = options.getListener();
+        if (listener == null) {
+            return toUri(text);
+        }
+        final long start = System.nanoTime();
+        final URI uri = toUri(text);
+        listener.valueDecoded(Value.URI, System.nanoTime() - start);
+        return uri;
+    }
+
+    /** the lenient parsing checks the links before decoding them, because it can find many invalid ones */
+    private URI toUri(final String text) throws ParserException {
+        return (options.getRecovery() == null) ? parseUri(text) : parseUriLeniently(text);
+    }
+
+    /** @return the date, or a Lazy if it's decoded on first access */
+    final Object decodeDate(final String text) throws ParserException {
+        if (options.isLazy()) {
+            return Lazy.date(text, parser);
+        }
+
+        final ParseListener listener = options.getListener();
+        if (listener == null) {
+            return toDate(text);
+        }
+        final long start = System.nanoTime();
+        final DateTime date = toDate(text);
+        listener.valueDecoded(Value.DATE, System.nanoTime() - start);
+        return date;
+    }
+
+    /** the lenient parsing checks the dates before decoding them, because it can find many invalid ones */
+    private DateTime toDate(final String text) throws ParserException {
+        return (options.getRecovery() == null) ? parseDate(text, parser) : parseDateLeniently(text, parser);
+    }
+
+    /** @return the language, or a Lazy if it's decoded on first access */
+    final Object decodeLanguage(final String text) {
+        if (options.isLazy()) {
+            return Lazy.language(text);
+        }
+
+        final ParseListener listener = options.getListener();
+        if (listener == null) {
+            return Locale.forLanguageTag(text);
+        }
+        final long start = System.nanoTime();
+        final Locale language = Locale.forLanguageTag(text);
+        listener.valueDecoded(Value.LANGUAGE, System.nanoTime() - start);
+        return language;
+    }
+
+    /**
+     * @param tag the id of an element without prefix
+     * @return true if the element must be parsed, false if it must be skipped
+     */
+    boolean isIncluded(final int tag) {
+        return true;
+    }
+
+    /** Forget the modules already parsed, so the builder can be used for another element */
+    void reset() {
+        modules.clear();
     }
 
     private <T extends ExtensibleElement> T extend(final T element) throws ParserException {
+        final Recovery recovery = options.getRecovery();
         for (final Entry<Class<? extends Module>, ModuleBuilder> module : modules.entrySet()) {
-            element.addModule(module.getKey(), module.getValue().build());
+            if (recovery == null) {
+                element.addModule(module.getKey(), module.getValue().build());
+            } else {
+                final Module built = recovery.buildModule(module.getValue(),
+                                                          tagName + '/' + module.getKey().getSimpleName());
+                if (built != null) {
+                    element.addModule(module.getKey(), built);
+                }
+            }
         }
 
         return element;
     }
 
     final void passToModuleParser(final XMLEventReader reader, final StartElement element) throws ParserException {
-        final ModuleInformation info = ModuleInformation.fromUri(element.getName().getNamespaceURI());
-        if (info == null) {
+        final ModuleBuilder builder = getModuleBuilder(element.getName().getNamespaceURI(),
+                                                       element.getName().getLocalPart());
+        if (builder == null) {
             return; // ignore all the unknown modules
         }
 
-        final Class<? extends Module> module = info.getModule();
+        builder.parse(reader, element);
+    }
 
-        // check if this module can be here
-        if (!isModuleAllowed(module)) {
-            throw new IllegalStateException(format("the module %s can't be here", module));
+    final void passToModuleParser(final XMLStreamReader reader) throws ParserException {
+        final ModuleBuilder builder = getModuleBuilder(reader.getNamespaceURI(), reader.getLocalName());
+        if (builder == null) {
+            skipElement(reader); // ignore all the unknown modules
+            return;
         }
 
-        ModuleBuilder builder = modules.get(module);
-        if (builder == null) {
-            final Class<? extends ModuleBuilder> builderClass = info.getBuilder();
-            final Constructor<?>[] constructors = builderClass.getConstructors();
+        builder.parse(reader);
+    }
 
-            if (constructors.length != 1) {
-                throw new AssertionError("a builder must have exactly one constructor");
+    private ModuleBuilder getModuleBuilder(final String namespace, final String tag) {
+        final Registration registration = options.getModules().get(namespace);
+        if (registration == null) {
+            final ParseListener listener = options.getListener();
+            if (listener != null) {
+                listener.moduleSkipped(namespace);
             }
+            return null;
+        }
 
-            final Constructor<?> constructor = constructors[0];
-            final Class<?>[] parameters = constructor.getParameterTypes();
+        final Class<? extends Module> module = registration.getModule();
+        if (!options.getProjection().includes(module)) {
+            return null;
+        }
 
-            try {
-                if (parameters.length == 0) {
-                    // normal constructor without parameter
-                    builder = (ModuleBuilder)constructor.newInstance();
-                } else {
-                    // constructor with DateTimeFormatter;
-                    builder = (ModuleBuilder)constructor.newInstance(parser);
-                }
-            } catch (final InstantiationException | IllegalAccessException | InvocationTargetException e) {
-                throw new AssertionError("error while calling the constructor", e);
+        ModuleBuilder builder = modules.get(module);
+        if (builder == null) {
+            // check if this module can be here
+            if (!isModuleAllowed(module)) {
+                throw new IllegalStateException(format("the module %s can't be here", module));
             }
 
+            builder = registration.newBuilder(parser, options.getPool());
             modules.put(module, builder);
         }
 
-        final String tag = element.getName().getLocalPart();
         if (!isTagAllowed(module, tag)) {
             throw new IllegalStateException(format("the module %s does not allow the tag %s here", module, tag));
         }
 
-        builder.parse(reader, element);
+        return builder;
     }
 
     private final String tagName;
@@ -87,6 +202,8 @@ abstract class ExtensibleElementBuilder<T extends ExtensibleElement> extends Bui
 
     protected abstract void parseTag(XMLEventReader reader, StartElement element) throws ParserException;
 
+    protected abstract void parseTag(XMLStreamReader reader) throws ParserException;
+
     @Override
     public final T buildElement() throws ParserException {
         return extend(buildBase());
@@ -112,11 +229,38 @@ abstract class ExtensibleElementBuilder<T extends ExtensibleElement> extends Bui
         }
     }
 
+    @Override
+    final void parseElement(final XMLStreamReader reader) throws ParserException {
+        final Recovery recovery = options.getRecovery();
+        while (nextChild(reader)) {
+            if (recovery == null) {
+                parseChild(reader);
+            } else {
+                recovery.parseChild(this, tagName);
+            }
+        }
+    }
+
+    final void parseChild(final XMLStreamReader reader) throws ParserException {
+        if (hasPrefix(reader)) {
+            // parse the extensions
+            passToModuleParser(reader);
+        } else if (isIncluded(Tag.of(reader))) {
+            parseTag(reader);
+        } else {
+            skipElement(reader);
+        }
+    }
+
     private void handleEvent(final XMLEventReader reader, final XMLEvent event) throws ParserException {
         final StartElement element = event.asStartElement();
 
         if (element.getName().getPrefix().isEmpty()) {
-            parseTag(reader, element);
+            if (isIncluded(Tag.of(element.getName().getLocalPart()))) {
+                parseTag(reader, element);
+            } else {
+                skipElement(reader);
+            }
         } else {
             // parse the extensions
             passToModuleParser(reader, element);
@@ -0,0 +1,256 @@
+package net.mircomacrelli.rss;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Cache of the parsed feeds placed in front of a factory. The bytes of the feed are read while computing their SHA-256
+ * digest: if a feed with the same digest was already parsed the same RSS instance is returned, otherwise the bytes are
+ * parsed and the result is cached. The feeds are immutable, so the same instance can be returned to many threads.
+ * <p>
+ * The cache is bounded by the sum of the weights of the feeds, an approximation of the memory they retain. When the
+ * bound is exceeded the least recently used feeds are evicted. Two threads that miss the same feed at the same time
+ * parse it twice, and only one result is kept.
+ *
+ * @author Mirco Macrelli
+ * @version 2.1
+ */
+public final class FeedCache {
+    private static final int CHANNEL_WEIGHT = 512;
+    private static final int ITEM_WEIGHT = 256;
+    private static final int ELEMENT_WEIGHT = 96;
+
+    private final ThreadLocal<MessageDigest> digest = new ThreadLocal<MessageDigest>() {
+        @Override
+        protected MessageDigest initialValue() {
+            try {
+                return MessageDigest.getInstance("SHA-256");
+            } catch (final NoSuchAlgorithmException cause) {
+                throw new AssertionError("every Java platform must support SHA-256", cause);
+            }
+        }
+    };
+    // the bytes are needed only on a miss, so they are read in a buffer reused by the same thread
+    private final ThreadLocal<Content> content = new ThreadLocal<Content>() {
+        @Override
+        protected Content initialValue() {
+            return new Content();
+        }
+    };
+    private final RSSFactory factory;
+    private final long maxWeight;
+    private final LinkedHashMap<Key, Cached> feeds;
+    private long weight;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    private FeedCache(final RSSFactory factory, final long maxWeight) {
+        if (maxWeight <= 0) {
+            throw new IllegalArgumentException(format("maxWeight must be positive. was %d", maxWeight));
+        }
+
+        this.factory = requireNonNull(factory);
+        this.maxWeight = maxWeight;
+        feeds = new LinkedHashMap<>(64, 0.75f, true);
+    }
+
+    /**
+     * @param factory the factory used to parse the feeds not in the cache
+     * @param maxWeight the maximum sum of the weights of the cached feeds, roughly in bytes
+     * @return a new empty cache
+     */
+    public static FeedCache newCache(final RSSFactory factory, final long maxWeight) {
+        return new FeedCache(factory, maxWeight);
+    }
+
+    /**
+     * Return the cached feed with the same content, or parse it. The InputStream is read completely but not closed.
+     *
+     * @param is the InputStream
+     * @return the RSS
+     */
+    public RSS parse(final InputStream is) throws ParserException {
+        final MessageDigest md = digest.get();
+        md.reset();
+        final Content bytes = content.get();
+        try {
+            bytes.read(is, md);
+            final Key key = new Key(md.digest());
+
+            synchronized (feeds) {
+                final Cached cached = feeds.get(key);
+                if (cached != null) {
+                    hits.incrementAndGet();
+                    return cached.feed;
+                }
+            }
+
+            misses.incrementAndGet();
+            final RSS feed = factory.parse(new ByteArrayInputStream(bytes.bytes, 0, bytes.length));
+            put(key, feed, weigh(feed));
+            return feed;
+        } finally {
+            bytes.release();
+        }
+    }
+
+    private void put(final Key key, final RSS feed, final long feedWeight) {
+        if (feedWeight > maxWeight) {
+            return;
+        }
+
+        synchronized (feeds) {
+            final Cached previous = feeds.put(key, new Cached(feed, feedWeight));
+            if (previous != null) {
+                weight -= previous.weight;
+            }
+            weight += feedWeight;
+
+            final Iterator<Cached> eldest = feeds.values().iterator();
+            while (weight > maxWeight) {
+                weight -= eldest.next().weight;
+                eldest.remove();
+                evictions.incrementAndGet();
+            }
+        }
+    }
+
+    /** @return an approximation of the memory retained by the feed, in bytes */
+    static long weigh(final RSS feed) {
+        final Channel channel = feed.getChannel();
+        long weight = CHANNEL_WEIGHT + chars(channel.getTitle()) + chars(channel.getDescription()) +
+                      chars(channel.getCopyright()) + chars(channel.getRating()) +
+                      (ELEMENT_WEIGHT * channel.getCategories().size());
+
+        for (final Item item : channel.getItems()) {
+            weight += ITEM_WEIGHT + chars(item.getTitle()) + chars(item.getDescription()) + chars(item.getAuthor()) +
+                      (ELEMENT_WEIGHT * (item.getCategories().size() + item.getEnclosures().size()));
+        }
+
+        return weight;
+    }
+
+    private static long chars(final String text) {
+        return (text == null) ? 0 : (40 + (2L * text.length()));
+    }
+
+    /** @return the number of feeds returned from the cache */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /** @return the number of feeds that were parsed */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /** @return the number of feeds removed to stay below the maximum weight */
+    public long getEvictionCount() {
+        return evictions.get();
+    }
+
+    /** @return the number of cached feeds */
+    public int size() {
+        synchronized (feeds) {
+            return feeds.size();
+        }
+    }
+
+    /** @return the sum of the weights of the cached feeds */
+    public long getWeight() {
+        synchronized (feeds) {
+            return weight;
+        }
+    }
+
+    /** @return the maximum sum of the weights of the cached feeds */
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    /** Remove all the feeds from the cache. The counters are not reset */
+    public void clear() {
+        synchronized (feeds) {
+            feeds.clear();
+            weight = 0;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return format("FeedCache{size=%d, weight=%d, maxWeight=%d, hits=%d, misses=%d, evictions=%d}", size(),
+                      getWeight(), maxWeight, hits.get(), misses.get(), evictions.get());
+    }
+
+    private static final class Key {
+        private final byte[] digest;
+        private final int hash;
+
+        Key(final byte[] digest) {
+            this.digest = digest;
+            hash = Arrays.hashCode(digest);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            return (obj instanceof Key) && Arrays.equals(digest, ((Key)obj).digest);
+        }
+    }
+
+    private static final class Content {
+        private static final int INITIAL_SIZE = 8192;
+        private static final int MAX_RETAINED_SIZE = 1024 * 1024;
+
+        byte[] bytes = new byte[INITIAL_SIZE];
+        int length;
+
+        void read(final InputStream is, final MessageDigest md) throws ParserException {
+            length = 0;
+            try {
+                int read;
+                while ((read = is.read(bytes, length, bytes.length - length)) != -1) {
+                    md.update(bytes, length, read);
+                    length += read;
+                    if (length == bytes.length) {
+                        bytes = Arrays.copyOf(bytes, bytes.length * 2);
+                    }
+                }
+            } catch (final IOException cause) {
+                throw new ParserException(cause);
+            }
+        }
+
+        /** don't keep around the buffer used for a very big feed */
+        void release() {
+            if (bytes.length > MAX_RETAINED_SIZE) {
+                bytes = new byte[INITIAL_SIZE];
+            }
+        }
+    }
+
+    private static final class Cached {
+        final RSS feed;
+        final long weight;
+
+        Cached(final RSS feed, final long weight) {
+            this.feed = feed;
+            this.weight = weight;
+        }
+    }
+}
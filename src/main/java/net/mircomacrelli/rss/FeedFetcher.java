@@ -0,0 +1,325 @@
+package net.mircomacrelli.rss;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URLConnection;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Downloads and parses the feeds over HTTP. The validators of the previous response are sent back with the request,
+ * so a feed that didn't change is answered with a 304 and is neither downloaded nor parsed. The body is requested
+ * compressed and is parsed while it is downloaded, without copying it in memory. The redirects are followed, also
+ * from http to https, up to 5 times.
+ * <p>
+ * The fetcher is immutable and can be shared by many threads. The requests to the same host are limited, so a pool of
+ * threads polling many feeds of the same site doesn't open too many connections to it.
+ *
+ * @author Mirco Macrelli
+ * @version 2.1
+ */
+public final class FeedFetcher {
+    private static final int DEFAULT_CONNECTIONS_PER_HOST = 4;
+    private static final int DEFAULT_CONNECT_TIMEOUT = 10000;
+    private static final int DEFAULT_READ_TIMEOUT = 30000;
+    private static final int BUFFER_SIZE = 8192;
+    private static final int MAX_REDIRECTS = 5;
+    private static final int HTTP_TEMPORARY_REDIRECT = 307;
+    private static final int HTTP_PERMANENT_REDIRECT = 308;
+
+    private final RSSFactory factory;
+    private final int connectionsPerHost;
+    private final int connectTimeout;
+    private final int readTimeout;
+    // shared by the fetchers made from the same one with different timeouts
+    private final ConcurrentMap<String, Semaphore> hosts;
+
+    private FeedFetcher(final RSSFactory factory, final int connectionsPerHost, final int connectTimeout,
+                        final int readTimeout, final ConcurrentMap<String, Semaphore> hosts) {
+        if (connectionsPerHost <= 0) {
+            throw new IllegalArgumentException(format("connectionsPerHost must be positive. was %d",
+                                                      connectionsPerHost));
+        }
+        if ((connectTimeout < 0) || (readTimeout < 0)) {
+            throw new IllegalArgumentException(format("the timeouts can't be negative. were %d and %d",
+                                                      connectTimeout, readTimeout));
+        }
+
+        this.factory = requireNonNull(factory);
+        this.connectionsPerHost = connectionsPerHost;
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+        this.hosts = hosts;
+    }
+
+    /**
+     * @param factory the factory used to parse the feeds
+     * @return a new fetcher that makes at most 4 requests at the same time to each host
+     */
+    public static FeedFetcher newFetcher(final RSSFactory factory) {
+        return new FeedFetcher(factory, DEFAULT_CONNECTIONS_PER_HOST, DEFAULT_CONNECT_TIMEOUT, DEFAULT_READ_TIMEOUT,
+                               new ConcurrentHashMap<String, Semaphore>());
+    }
+
+    /**
+     * Return a fetcher with a different limit. The new fetcher doesn't share the limits with this one.
+     *
+     * @param connectionsPerHost the maximum number of requests made at the same time to the same host
+     * @return a new fetcher with the same settings of this one and the requested limit
+     */
+    public FeedFetcher withConnectionsPerHost(final int connectionsPerHost) {
+        return new FeedFetcher(factory, connectionsPerHost, connectTimeout, readTimeout,
+                               new ConcurrentHashMap<String, Semaphore>());
+    }
+
+    /**
+     * @param connectTimeout the milliseconds to wait for the connection, 0 to wait forever
+     * @param readTimeout the milliseconds to wait for the data, 0 to wait forever
+     * @return a new fetcher with the same settings of this one and the requested timeouts
+     */
+    public FeedFetcher withTimeouts(final int connectTimeout, final int readTimeout) {
+        return new FeedFetcher(factory, connectionsPerHost, connectTimeout, readTimeout, hosts);
+    }
+
+    /** @return the factory used to parse the feeds */
+    public RSSFactory getFactory() {
+        return factory;
+    }
+
+    /** @return the maximum number of requests made at the same time to the same host */
+    public int getConnectionsPerHost() {
+        return connectionsPerHost;
+    }
+
+    /**
+     * Download and parse a feed without validators
+     *
+     * @param uri the address of the feed
+     * @return the result with the feed
+     * @throws InterruptedException if the thread is interrupted while waiting for a connection to the host
+     */
+    public FetchResult fetch(final URI uri) throws ParserException, InterruptedException {
+        return fetch(uri, null, null);
+    }
+
+    /**
+     * Download and parse a feed if it was modified since the previous request. If the feed was moved permanently the
+     * new address is requested
+     *
+     * @param previous the result of the previous request of the same feed
+     * @return the result, with the feed only if it was modified
+     * @throws InterruptedException if the thread is interrupted while waiting for a connection to the host
+     */
+    public FetchResult fetch(final FetchResult previous) throws ParserException, InterruptedException {
+        final URI uri = previous.isPermanentlyRedirected() ? previous.getFinalUri() : previous.getUri();
+        return fetch(uri, previous.getETag(), previous.getLastModified());
+    }
+
+    /**
+     * Download and parse a feed if it was modified since the request that returned the validators. The errors of the
+     * connection and the responses with a status different from 200 and 304 are reported with a ParserException.
+     *
+     * @param uri the address of the feed
+     * @param eTag the ETag of the previous response, or null
+     * @param lastModified the Last-Modified of the previous response, or null
+     * @return the result, with the feed only if it was modified
+     * @throws InterruptedException if the thread is interrupted while waiting for a connection to the host
+     */
+    public FetchResult fetch(final URI uri, final String eTag, final String lastModified)
+            throws ParserException, InterruptedException {
+        if (!isFetchable(uri)) {
+            throw new IllegalArgumentException(format("only http and https feeds with a host can be fetched. was %s",
+                                                      uri));
+        }
+
+        URI current = uri;
+        boolean permanent = true;
+        for (int redirects = 0; ; redirects++) {
+            final Semaphore limit = getLimit(current.getHost().toLowerCase(Locale.ENGLISH));
+            limit.acquire();
+            final URI location;
+            try {
+                final HttpURLConnection http = connect(current, eTag, lastModified);
+                final int status = http.getResponseCode();
+                if (!isRedirect(status)) {
+                    return read(http, status, uri, current, permanent && (redirects > 0), eTag, lastModified);
+                }
+
+                location = getLocation(http, current);
+                discard(http.getInputStream());
+                permanent &= (status == HttpURLConnection.HTTP_MOVED_PERM) || (status == HTTP_PERMANENT_REDIRECT);
+            } catch (final IOException cause) {
+                throw new ParserException(cause);
+            } finally {
+                limit.release();
+            }
+
+            if (redirects == MAX_REDIRECTS) {
+                throw new ParserException(format("too many redirects from %s", uri));
+            }
+            current = location;
+        }
+    }
+
+    /** @return true if the uri is an http or https address with a host */
+    static boolean isFetchable(final URI uri) {
+        final String scheme = uri.getScheme();
+        // the hosts that are not valid, like the ones with a '_', are parsed as registry-based and have no host
+        return ("http".equalsIgnoreCase(scheme) || "https".equalsIgnoreCase(scheme)) && (uri.getHost() != null);
+    }
+
+    private static boolean isRedirect(final int status) {
+        return (status == HttpURLConnection.HTTP_MOVED_PERM) || (status == HttpURLConnection.HTTP_MOVED_TEMP) ||
+               (status == HttpURLConnection.HTTP_SEE_OTHER) || (status == HTTP_TEMPORARY_REDIRECT) ||
+               (status == HTTP_PERMANENT_REDIRECT);
+    }
+
+    private static URI getLocation(final HttpURLConnection http, final URI uri) throws ParserException {
+        final String location = http.getHeaderField("Location");
+        if (location == null) {
+            throw new ParserException(format("redirect without a location from %s", uri));
+        }
+
+        final URI resolved;
+        try {
+            resolved = uri.resolve(new URI(location.trim()));
+        } catch (final URISyntaxException cause) {
+            throw new ParserException(cause);
+        }
+        if (!isFetchable(resolved)) {
+            throw new ParserException(format("redirect from %s to an address that can't be fetched: %s", uri,
+                                             location));
+        }
+        return resolved;
+    }
+
+    private Semaphore getLimit(final String host) {
+        final Semaphore limit = hosts.get(host);
+        if (limit != null) {
+            return limit;
+        }
+
+        final Semaphore created = new Semaphore(connectionsPerHost);
+        final Semaphore previous = hosts.putIfAbsent(host, created);
+        return (previous != null) ? previous : created;
+    }
+
+    private HttpURLConnection connect(final URI uri, final String eTag, final String lastModified)
+            throws IOException {
+        final URLConnection connection = uri.toURL().openConnection();
+        connection.setConnectTimeout(connectTimeout);
+        connection.setReadTimeout(readTimeout);
+        connection.setUseCaches(false);
+        connection.setRequestProperty("Accept-Encoding", "gzip, deflate");
+        if (eTag != null) {
+            connection.setRequestProperty("If-None-Match", eTag);
+        }
+        if (lastModified != null) {
+            connection.setRequestProperty("If-Modified-Since", lastModified);
+        }
+
+        final HttpURLConnection http = (HttpURLConnection)connection;
+        // HttpURLConnection doesn't follow the redirects from http to https, and doesn't tell the final address
+        http.setInstanceFollowRedirects(false);
+        return http;
+    }
+
+    private FetchResult read(final HttpURLConnection http, final int status, final URI uri, final URI finalUri,
+                             final boolean permanentlyRedirected, final String eTag, final String lastModified)
+            throws IOException, ParserException {
+        if (status == HttpURLConnection.HTTP_NOT_MODIFIED) {
+            // the content didn't change, so the validators sent before are still valid
+            final String newETag = firstNonNull(http.getHeaderField("ETag"), eTag);
+            final String newLastModified = firstNonNull(http.getHeaderField("Last-Modified"), lastModified);
+            discard(http.getErrorStream());
+            return new FetchResult(uri, finalUri, permanentlyRedirected, status, null, newETag, newLastModified, 0,
+                                   0);
+        }
+        if (status != HttpURLConnection.HTTP_OK) {
+            discard(http.getErrorStream());
+            throw new ParserException(format("unexpected response from %s: %d %s", finalUri, status,
+                                             http.getResponseMessage()));
+        }
+
+        try (CountingInputStream body = new CountingInputStream(http.getInputStream());
+             InputStream is = decode(body, http.getContentEncoding())) {
+            final long start = System.nanoTime();
+            final RSS feed;
+            try {
+                feed = factory.parse(is);
+            } catch (final RuntimeException cause) {
+                // the bodies that are not RSS, like the html error pages, are refused with an IllegalStateException
+                throw new ParserException(cause);
+            }
+            final long parseTime = System.nanoTime() - start;
+            // the validators of the previous version don't describe the new content
+            return new FetchResult(uri, finalUri, permanentlyRedirected, status, feed, http.getHeaderField("ETag"),
+                                   http.getHeaderField("Last-Modified"), body.getCount(), parseTime);
+        }
+    }
+
+    private static InputStream decode(final InputStream is, final String encoding) throws IOException {
+        if (encoding == null) {
+            return new BufferedInputStream(is, BUFFER_SIZE);
+        }
+
+        switch (encoding.trim().toLowerCase(Locale.ENGLISH)) {
+            case "gzip":
+            case "x-gzip":
+                return new GZIPInputStream(is, BUFFER_SIZE);
+            case "deflate":
+                return inflate(new BufferedInputStream(is, BUFFER_SIZE));
+            case "identity":
+                return new BufferedInputStream(is, BUFFER_SIZE);
+            default:
+                throw new IOException(format("unsupported content encoding: %s", encoding));
+        }
+    }
+
+    /** deflate should have the zlib header, but some servers send the raw data */
+    private static InputStream inflate(final BufferedInputStream is) throws IOException {
+        is.mark(2);
+        final int first = is.read();
+        final int second = is.read();
+        is.reset();
+
+        final boolean zlib = ((first & 0x0F) == 8) && (second >= 0) && ((((first << 8) | second) % 31) == 0);
+        return new InflaterInputStream(is, new Inflater(!zlib), BUFFER_SIZE);
+    }
+
+    /** read what is left of the body so that the connection can be reused */
+    private static void discard(final InputStream is) throws IOException {
+        if (is == null) {
+            return;
+        }
+
+        try (InputStream body = is) {
+            final byte[] buffer = new byte[512];
+            while (body.read(buffer) != -1) {
+                // nothing to do
+            }
+        }
+    }
+
+    private static String firstNonNull(final String first, final String second) {
+        return (first != null) ? first : second;
+    }
+
+    @Override
+    public String toString() {
+        return format("FeedFetcher{connectionsPerHost=%d, connectTimeout=%d, readTimeout=%d}", connectionsPerHost,
+                      connectTimeout, readTimeout);
+    }
+}
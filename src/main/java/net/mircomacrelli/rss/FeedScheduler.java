@@ -0,0 +1,445 @@
+package net.mircomacrelli.rss;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeUtils;
+import org.joda.time.DateTimeUtils.MillisProvider;
+
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+import static net.mircomacrelli.rss.PollingPolicy.NO_BASE;
+
+/**
+ * Checks many feeds, each one when it's due according to the hints of its last version. The feeds are kept in a
+ * binary heap ordered by the time of the next check; {@link #dispatch} removes the feeds that are due and gives them
+ * to the workers, that fetch them and put them back in the heap with the new time. The scheduler doesn't have a
+ * thread: {@link #run} must be called periodically, for example by a ScheduledExecutorService.
+ * <p>
+ * The state of the feeds is kept in parallel arrays, about 60 bytes for each feed plus the address and the validators,
+ * so millions of feeds can be scheduled. The feeds are identified by the number returned by {@link #add}, that is
+ * reused after the feed is removed. All the methods are thread-safe.
+ *
+ * @author Mirco Macrelli
+ * @version 2.1
+ */
+public final class FeedScheduler implements Runnable {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private static final byte FREE = 0;
+    private static final byte WAITING = 1;
+    private static final byte POLLING = 2;
+    private static final byte REMOVED = 3;
+
+    private final Poller poller;
+    private final PollingPolicy policy;
+    private final Executor workers;
+    private final Listener listener;
+    private final MillisProvider clock;
+
+    private URI[] uris;
+    private String[] eTags;
+    private String[] lastModifieds;
+    private long[] nextPolls;
+    private long[] intervals;
+    private long[] bases;
+    private long[] updatePeriods;
+    private int[] skips;
+    private byte[] states;
+    /** the position of every feed in the heap */
+    private int[] positions;
+    private int[] heap;
+    private int heapSize;
+    /** the ids of the removed feeds, ready to be reused */
+    private int[] free;
+    private int freeSize;
+    private int next;
+    private int size;
+
+    FeedScheduler(final Poller poller, final PollingPolicy policy, final Executor workers, final Listener listener,
+                  final MillisProvider clock) {
+        this.poller = requireNonNull(poller);
+        this.policy = requireNonNull(policy);
+        this.workers = requireNonNull(workers);
+        this.listener = requireNonNull(listener);
+        this.clock = requireNonNull(clock);
+
+        uris = new URI[INITIAL_CAPACITY];
+        eTags = new String[INITIAL_CAPACITY];
+        lastModifieds = new String[INITIAL_CAPACITY];
+        nextPolls = new long[INITIAL_CAPACITY];
+        intervals = new long[INITIAL_CAPACITY];
+        bases = new long[INITIAL_CAPACITY];
+        updatePeriods = new long[INITIAL_CAPACITY];
+        skips = new int[INITIAL_CAPACITY];
+        states = new byte[INITIAL_CAPACITY];
+        positions = new int[INITIAL_CAPACITY];
+        heap = new int[INITIAL_CAPACITY];
+        free = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * @param fetcher the fetcher used to download the feeds
+     * @param policy the policy that computes when the feeds are checked
+     * @param workers the executor that runs the requests
+     * @param listener notified after every request, from the threads of the workers
+     * @return a new scheduler without feeds
+     */
+    public static FeedScheduler newScheduler(final FeedFetcher fetcher, final PollingPolicy policy,
+                                             final Executor workers, final Listener listener) {
+        requireNonNull(fetcher);
+        return new FeedScheduler(new Poller() {
+            @Override
+            public FetchResult poll(final URI uri, final String eTag, final String lastModified)
+                    throws ParserException, InterruptedException {
+                return fetcher.fetch(uri, eTag, lastModified);
+            }
+        }, policy, workers, listener, new MillisProvider() {
+            @Override
+            public long getMillis() {
+                return DateTimeUtils.currentTimeMillis();
+            }
+        });
+    }
+
+    /**
+     * Add a feed that is checked at the next dispatch
+     *
+     * @param uri the address of the feed
+     * @return the id of the feed
+     * @throws IllegalArgumentException if the uri is not an http or https address with a host
+     */
+    public synchronized int add(final URI uri) {
+        requireNonNull(uri);
+        if (!FeedFetcher.isFetchable(uri)) {
+            throw new IllegalArgumentException(format("only http and https feeds with a host can be checked. was %s",
+                                                      uri));
+        }
+
+        final int feed;
+        if (freeSize > 0) {
+            feed = free[--freeSize];
+        } else {
+            if (next == uris.length) {
+                grow();
+            }
+            feed = next++;
+        }
+
+        uris[feed] = uri;
+        eTags[feed] = null;
+        lastModifieds[feed] = null;
+        intervals[feed] = policy.getDefaultInterval();
+        bases[feed] = NO_BASE;
+        updatePeriods[feed] = 0;
+        skips[feed] = 0;
+        size++;
+        enqueue(feed, clock.getMillis());
+        return feed;
+    }
+
+    /**
+     * Remove a feed. If it's being checked the result of the request is not given to the listener
+     *
+     * @param feed the id of the feed
+     */
+    public synchronized void remove(final int feed) {
+        switch (getState(feed)) {
+            case WAITING:
+                removeFromHeap(feed);
+                release(feed);
+                break;
+            case POLLING:
+                // released when the request ends
+                states[feed] = REMOVED;
+                size--;
+                break;
+            default:
+                throw new IllegalArgumentException(format("unknown feed %d", feed));
+        }
+    }
+
+    /** @return the number of feeds */
+    public synchronized int size() {
+        return size;
+    }
+
+    /**
+     * @param feed the id of the feed
+     * @return the address of the feed
+     */
+    public synchronized URI getUri(final int feed) {
+        checkFeed(feed);
+        return uris[feed];
+    }
+
+    /**
+     * @param feed the id of the feed
+     * @return when the feed will be checked, or null if it's being checked now
+     */
+    public synchronized DateTime getNextPoll(final int feed) {
+        checkFeed(feed);
+        return (states[feed] == WAITING) ? new DateTime(nextPolls[feed]) : null;
+    }
+
+    /** @return when the first feed will be checked, or null if there are no feeds waiting */
+    public synchronized DateTime getNextDispatch() {
+        return (heapSize == 0) ? null : new DateTime(nextPolls[heap[0]]);
+    }
+
+    /** Dispatch the feeds that are due */
+    @Override
+    public void run() {
+        dispatch();
+    }
+
+    /**
+     * Give the feeds that are due to the workers. If the executor rejects a request the feeds not yet given to the
+     * workers are put back in the heap, with the same time, and the exception is thrown.
+     *
+     * @return the number of feeds given to the workers
+     */
+    public int dispatch() {
+        final List<Poll> due = new ArrayList<>();
+        synchronized (this) {
+            final long now = clock.getMillis();
+            while ((heapSize > 0) && (nextPolls[heap[0]] <= now)) {
+                final int feed = heap[0];
+                removeFromHeap(feed);
+                states[feed] = POLLING;
+                due.add(new Poll(feed, uris[feed], eTags[feed], lastModifieds[feed]));
+            }
+        }
+
+        for (int i = 0; i < due.size(); i++) {
+            try {
+                workers.execute(due.get(i));
+            } catch (final RejectedExecutionException e) {
+                requeue(due.subList(i, due.size()));
+                throw e;
+            }
+        }
+        return due.size();
+    }
+
+    private synchronized void requeue(final List<Poll> polls) {
+        for (final Poll poll : polls) {
+            if (states[poll.feed] == REMOVED) {
+                release(poll.feed);
+            } else {
+                enqueue(poll.feed, nextPolls[poll.feed]);
+            }
+        }
+    }
+
+    /** @return false if the feed was removed during the request */
+    private synchronized boolean completed(final int feed, final FetchResult result) {
+        if (states[feed] == REMOVED) {
+            release(feed);
+            return false;
+        }
+
+        if (result.isPermanentlyRedirected()) {
+            uris[feed] = result.getFinalUri();
+        }
+        eTags[feed] = result.getETag();
+        lastModifieds[feed] = result.getLastModified();
+        if (result.isModified()) {
+            final Channel channel = result.getFeed().getChannel();
+            final Syndication syndication = channel.getModule(Syndication.class);
+            intervals[feed] = policy.getInterval(channel);
+            bases[feed] = (syndication == null) ? NO_BASE : syndication.getBase().getMillis();
+            updatePeriods[feed] = (syndication == null) ? 0 : PollingPolicy.getUpdatePeriod(syndication);
+            skips[feed] = PollingPolicy.getSkips(channel);
+        }
+        schedule(feed);
+        return true;
+    }
+
+    /** after an error the feed is checked again with the hints of the last version */
+    private synchronized boolean failed(final int feed) {
+        if (states[feed] == REMOVED) {
+            release(feed);
+            return false;
+        }
+
+        schedule(feed);
+        return true;
+    }
+
+    private void schedule(final int feed) {
+        enqueue(feed, PollingPolicy.nextPoll(clock.getMillis(), intervals[feed], bases[feed], updatePeriods[feed],
+                                             skips[feed]));
+    }
+
+    private int getState(final int feed) {
+        return ((feed >= 0) && (feed < next)) ? states[feed] : FREE;
+    }
+
+    private void checkFeed(final int feed) {
+        final int state = getState(feed);
+        if ((state != WAITING) && (state != POLLING)) {
+            throw new IllegalArgumentException(format("unknown feed %d", feed));
+        }
+    }
+
+    private void release(final int feed) {
+        if (states[feed] != REMOVED) {
+            size--;
+        }
+        states[feed] = FREE;
+        uris[feed] = null;
+        eTags[feed] = null;
+        lastModifieds[feed] = null;
+        free[freeSize++] = feed;
+    }
+
+    private void grow() {
+        final int capacity = uris.length * 2;
+        uris = Arrays.copyOf(uris, capacity);
+        eTags = Arrays.copyOf(eTags, capacity);
+        lastModifieds = Arrays.copyOf(lastModifieds, capacity);
+        nextPolls = Arrays.copyOf(nextPolls, capacity);
+        intervals = Arrays.copyOf(intervals, capacity);
+        bases = Arrays.copyOf(bases, capacity);
+        updatePeriods = Arrays.copyOf(updatePeriods, capacity);
+        skips = Arrays.copyOf(skips, capacity);
+        states = Arrays.copyOf(states, capacity);
+        positions = Arrays.copyOf(positions, capacity);
+        heap = Arrays.copyOf(heap, capacity);
+        free = Arrays.copyOf(free, capacity);
+    }
+
+    private void enqueue(final int feed, final long time) {
+        states[feed] = WAITING;
+        nextPolls[feed] = time;
+        heap[heapSize] = feed;
+        positions[feed] = heapSize;
+        heapSize++;
+        siftUp(heapSize - 1);
+    }
+
+    private void removeFromHeap(final int feed) {
+        final int position = positions[feed];
+        heapSize--;
+        if (position != heapSize) {
+            move(heap[heapSize], position);
+            siftDown(position);
+            siftUp(position);
+        }
+    }
+
+    private void siftUp(int position) {
+        final int feed = heap[position];
+        while (position > 0) {
+            final int parent = (position - 1) >>> 1;
+            if (nextPolls[heap[parent]] <= nextPolls[feed]) {
+                break;
+            }
+            move(heap[parent], position);
+            position = parent;
+        }
+        move(feed, position);
+    }
+
+    private void siftDown(int position) {
+        final int feed = heap[position];
+        while (true) {
+            int child = (2 * position) + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (((child + 1) < heapSize) && (nextPolls[heap[child + 1]] < nextPolls[heap[child]])) {
+                child++;
+            }
+            if (nextPolls[feed] <= nextPolls[heap[child]]) {
+                break;
+            }
+            move(heap[child], position);
+            position = child;
+        }
+        move(feed, position);
+    }
+
+    private void move(final int feed, final int position) {
+        heap[position] = feed;
+        positions[feed] = position;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return format("FeedScheduler{size=%d, waiting=%d, policy=%s}", size, heapSize, policy);
+    }
+
+    /** Notified by the workers after every request */
+    public interface Listener {
+        /**
+         * Called after the feed was checked, even if it was not modified
+         *
+         * @param feed the id of the feed
+         * @param result the result of the request
+         */
+        void polled(int feed, FetchResult result);
+
+        /**
+         * Called when the feed can't be downloaded or parsed. The feed is checked again after the interval computed
+         * from its last version
+         *
+         * @param feed the id of the feed
+         * @param uri the address of the feed
+         * @param cause the error
+         */
+        void failed(int feed, URI uri, ParserException cause);
+    }
+
+    /** Makes the request of a feed. Separated from the fetcher so that the scheduler can be tested without a server */
+    interface Poller {
+        FetchResult poll(URI uri, String eTag, String lastModified) throws ParserException, InterruptedException;
+    }
+
+    private final class Poll implements Runnable {
+        final int feed;
+        private final URI uri;
+        private final String eTag;
+        private final String lastModified;
+
+        Poll(final int feed, final URI uri, final String eTag, final String lastModified) {
+            this.feed = feed;
+            this.uri = uri;
+            this.eTag = eTag;
+            this.lastModified = lastModified;
+        }
+
+        @Override
+        public void run() {
+            final FetchResult result;
+            try {
+                result = poller.poll(uri, eTag, lastModified);
+            } catch (final ParserException cause) {
+                if (failed(feed)) {
+                    listener.failed(feed, uri, cause);
+                }
+                return;
+            } catch (final InterruptedException e) {
+                failed(feed);
+                Thread.currentThread().interrupt();
+                return;
+            } catch (final RuntimeException cause) {
+                // a bug of the poller must not make the feed fail forever without telling the application
+                if (failed(feed)) {
+                    listener.failed(feed, uri, new ParserException(cause));
+                }
+                return;
+            }
+
+            if (completed(feed, result)) {
+                listener.polled(feed, result);
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package net.mircomacrelli.rss;
+
+import java.net.URI;
+
+import static java.lang.String.format;
+
+/**
+ * The result of a request made by a {@link FeedFetcher}. When the server answers that the feed is not modified there is
+ * no feed and nothing was parsed. The validators must be sent with the next request of the same feed.
+ *
+ * @author Mirco Macrelli
+ * @version 2.1
+ */
+public final class FetchResult {
+    private final URI uri;
+    private final URI finalUri;
+    private final boolean permanentlyRedirected;
+    private final int status;
+    private final RSS feed;
+    private final String eTag;
+    private final String lastModified;
+    private final long bytesDownloaded;
+    private final long parseTime;
+
+    FetchResult(final URI uri, final int status, final RSS feed, final String eTag, final String lastModified,
+                final long bytesDownloaded, final long parseTime) {
+        this(uri, uri, false, status, feed, eTag, lastModified, bytesDownloaded, parseTime);
+    }
+
+    FetchResult(final URI uri, final URI finalUri, final boolean permanentlyRedirected, final int status,
+                final RSS feed, final String eTag, final String lastModified, final long bytesDownloaded,
+                final long parseTime) {
+        this.uri = uri;
+        this.finalUri = finalUri;
+        this.permanentlyRedirected = permanentlyRedirected;
+        this.status = status;
+        this.feed = feed;
+        this.eTag = eTag;
+        this.lastModified = lastModified;
+        this.bytesDownloaded = bytesDownloaded;
+        this.parseTime = parseTime;
+    }
+
+    /** @return the address of the feed that was requested */
+    public URI getUri() {
+        return uri;
+    }
+
+    /** @return the address that answered after following the redirects, the same of {@link #getUri} without them */
+    public URI getFinalUri() {
+        return finalUri;
+    }
+
+    /**
+     * @return true if the feed was moved: all the redirects were permanent, with a 301 or a 308, so the address of the
+     *         feed should be replaced with {@link #getFinalUri}
+     */
+    public boolean isPermanentlyRedirected() {
+        return permanentlyRedirected;
+    }
+
+    /** @return the HTTP status code of the response */
+    public int getStatus() {
+        return status;
+    }
+
+    /** @return false if the server answered that the feed didn't change since the previous request */
+    public boolean isModified() {
+        return feed != null;
+    }
+
+    /** @return the feed, or null if it was not modified */
+    public RSS getFeed() {
+        return feed;
+    }
+
+    /**
+     * @return the value of the ETag header. If the feed was not modified and the server didn't send a new one, the one
+     *         sent with the request
+     */
+    public String getETag() {
+        return eTag;
+    }
+
+    /**
+     * @return the value of the Last-Modified header. If the feed was not modified and the server didn't send a new
+     *         one, the one sent with the request. The value is kept as text, so it is sent back exactly as the server
+     *         wrote it
+     */
+    public String getLastModified() {
+        return lastModified;
+    }
+
+    /** @return the number of bytes of the body read from the network, before the decompression */
+    public long getBytesDownloaded() {
+        return bytesDownloaded;
+    }
+
+    /**
+     * @return the nanoseconds spent parsing the feed. The body is parsed while it is downloaded, so this includes the
+     *         time spent waiting for the network. 0 if the feed was not modified
+     */
+    public long getParseTime() {
+        return parseTime;
+    }
+
+    @Override
+    public String toString() {
+        return format("FetchResult{uri=%s, status=%d, modified=%s, eTag=%s, lastModified=%s, bytesDownloaded=%d, " +
+                      "parseTime=%d, finalUri=%s, permanentlyRedirected=%s}", uri, status, isModified(), eTag,
+                      lastModified, bytesDownloaded, parseTime, finalUri, permanentlyRedirected);
+    }
+}
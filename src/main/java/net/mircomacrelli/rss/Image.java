@@ -1,7 +1,9 @@
 package net.mircomacrelli.rss;
 
 import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.stream.events.StartElement;
+import java.io.IOException;
 import java.net.URI;
 import java.util.Map;
 import java.util.Objects;
@@ -98,6 +100,31 @@ public final class Image {
         return (height == null) ? 31 : height;
     }
 
+    void write(final BinaryOutput out) throws IOException {
+        out.writeUri(image);
+        out.writeUri(link);
+        out.writeString(alt);
+        out.writeString(description);
+        out.writeNullableInt(width);
+        out.writeNullableInt(height);
+    }
+
+    void write(final XmlOutput out) throws IOException {
+        out.startElement("image");
+        out.element("url", image);
+        out.element("title", alt);
+        out.element("link", link);
+        out.element("description", description);
+        out.element("width", width);
+        out.element("height", height);
+        out.endElement();
+    }
+
+    static Image read(final BinaryInput in) throws ParserException {
+        return new Image(in.readUri(), in.readUri(), in.readString(), in.readString(), in.readNullableInt(),
+                         in.readNullableInt());
+    }
+
     @Override
     public int hashCode() {
         return hash(image, alt, link, width, height, description);
@@ -155,6 +182,24 @@ public final class Image {
             }
         }
 
+        @Override
+        public void parseElement(final XMLStreamReader reader) throws ParserException {
+            final Map<String, String> values = getAllTagsValuesInside(reader);
+
+            image = parseUri(values.get("url"));
+            alt = values.get("title");
+            link = parseUri(values.get("link"));
+            description = values.get("description");
+
+            if (values.containsKey("width")) {
+                width = Integer.parseInt(values.get("width"));
+            }
+
+            if (values.containsKey("height")) {
+                height = Integer.parseInt(values.get("height"));
+            }
+        }
+
         @Override
         public Image buildElement() {
             return new Image(image, link, alt, description, width, height);
@@ -1,12 +1,15 @@
 package net.mircomacrelli.rss;
 
+import net.mircomacrelli.rss.ModuleRegistry.Target;
 import org.joda.time.DateTime;
 import org.joda.time.format.DateTimeFormatter;
 
 import javax.mail.internet.AddressException;
 import javax.mail.internet.InternetAddress;
 import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.stream.events.StartElement;
+import java.io.IOException;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -19,12 +22,11 @@ import static java.util.Collections.emptySet;
 import static java.util.Collections.unmodifiableList;
 import static java.util.Collections.unmodifiableSet;
 import static java.util.Objects.hash;
+import static net.mircomacrelli.rss.BinaryInput.initialCapacity;
 import static net.mircomacrelli.rss.Utils.append;
 import static net.mircomacrelli.rss.Utils.crashIfAlreadySet;
-import static net.mircomacrelli.rss.Utils.formatDate;
 import static net.mircomacrelli.rss.Utils.getText;
-import static net.mircomacrelli.rss.Utils.parseDate;
-import static net.mircomacrelli.rss.Utils.parseUri;
+import static net.mircomacrelli.rss.Utils.skipElement;
 
 /**
  * An Item of the Feed
@@ -36,11 +38,12 @@ public final class Item extends ExtensibleElement {
     private final String author;
     private final String title;
     private final String description;
-    private final URI link;
-    private final URI commentsLink;
+    /** the links and the date are the decoded values, or a {@link Lazy} if they are decoded later */
+    private final Object link;
+    private final Object commentsLink;
     private final Set<Category> categories;
     private final UniqueId uniqueId;
-    private final DateTime publishDate;
+    private final Object publishDate;
     private final Source source;
     private final List<Enclosure> enclosures;
 
@@ -62,6 +65,20 @@ public final class Item extends ExtensibleElement {
     Item(final URI link, final String title, final String description, final String author, final DateTime publishDate,
          final Set<Category> categories, final Source source, final URI commentsLink, final List<Enclosure> enclosures,
          final UniqueId uniqueId) {
+        this((Object)link, title, description, author, publishDate, categories, source, commentsLink, enclosures,
+             uniqueId);
+    }
+
+    /** @return an item without source, comments and enclosures, whose link is decoded on first access */
+    static Item withLinkText(final String link, final String title, final String description, final String author,
+                             final DateTime publishDate, final Set<Category> categories, final UniqueId uniqueId) {
+        return new Item((link == null) ? null : Lazy.uri(link), title, description, author, publishDate, categories,
+                        null, null, null, uniqueId);
+    }
+
+    private Item(final Object link, final String title, final String description, final String author,
+                 final Object publishDate, final Set<Category> categories, final Source source,
+                 final Object commentsLink, final List<Enclosure> enclosures, final UniqueId uniqueId) {
         itemInvariant(title, description);
 
         this.author = author;
@@ -105,14 +122,25 @@ public final class Item extends ExtensibleElement {
         return description;
     }
 
-    /** @return the link to the item */
+    /**
+     * @return the link to the item
+     * @throws IllegalStateException if the link is decoded lazily and is not valid
+     */
     public URI getLink() {
-        return link;
+        return Lazy.get(link);
     }
 
-    /** @return a link to a page containing comments on this item */
+    /** @return the text of the link, without decoding it, or null if there is no link */
+    String getLinkText() {
+        return Lazy.getText(link);
+    }
+
+    /**
+     * @return a link to a page containing comments on this item
+     * @throws IllegalStateException if the link is decoded lazily and is not valid
+     */
     public URI getCommentsLink() {
-        return commentsLink;
+        return Lazy.get(commentsLink);
     }
 
     /** @return a set of categories that contains this item */
@@ -129,9 +157,12 @@ public final class Item extends ExtensibleElement {
         return uniqueId;
     }
 
-    /** @return when the item was published */
+    /**
+     * @return when the item was published
+     * @throws IllegalStateException if the date is decoded lazily and is not valid
+     */
     public DateTime getPublishDate() {
-        return publishDate;
+        return Lazy.get(publishDate);
     }
 
     /** @return the original source of the file if present */
@@ -148,6 +179,110 @@ public final class Item extends ExtensibleElement {
         return unmodifiableList(enclosures);
     }
 
+    /**
+     * Write the item in the binary format
+     *
+     * @throws IllegalStateException if a value decoded lazily is not valid
+     */
+    void write(final BinaryOutput out) throws IOException {
+        out.writeUri(getLink());
+        out.writeString(title);
+        out.writeString(description);
+        out.writeString(author);
+        out.writeDate(getPublishDate());
+        out.writeSize(categories);
+        if (categories != null) {
+            for (final Category category : categories) {
+                category.write(out);
+            }
+        }
+        out.writeBoolean(source != null);
+        if (source != null) {
+            source.write(out);
+        }
+        out.writeUri(getCommentsLink());
+        out.writeSize(enclosures);
+        if (enclosures != null) {
+            for (final Enclosure enclosure : enclosures) {
+                enclosure.write(out);
+            }
+        }
+        out.writeBoolean(uniqueId != null);
+        if (uniqueId != null) {
+            uniqueId.write(out);
+        }
+        writeModules(out);
+    }
+
+    /**
+     * Write the item in xml
+     *
+     * @throws IllegalStateException if a value decoded lazily is not valid
+     */
+    void write(final XmlOutput out) throws IOException {
+        out.startElement("item");
+        out.element("title", title);
+        out.element("link", getLink());
+        out.element("description", description);
+        out.element("author", author);
+        if (categories != null) {
+            for (final Category category : categories) {
+                category.write(out);
+            }
+        }
+        out.element("comments", getCommentsLink());
+        if (enclosures != null) {
+            for (final Enclosure enclosure : enclosures) {
+                enclosure.write(out);
+            }
+        }
+        if (uniqueId != null) {
+            uniqueId.write(out);
+        }
+        out.element("pubDate", getPublishDate());
+        if (source != null) {
+            source.write(out);
+        }
+        writeModules(out);
+        out.endElement();
+    }
+
+    static Item read(final BinaryInput in) throws ParserException {
+        final Object link = in.readLazyUri();
+        final String title = in.readString();
+        final String description = in.readString();
+        final String author = in.readString();
+        final DateTime publishDate = in.readDate();
+
+        final int categoriesSize = in.readSize();
+        Set<Category> categories = null;
+        if (categoriesSize >= 0) {
+            categories = new HashSet<>(initialCapacity(categoriesSize));
+            for (int i = 0; i < categoriesSize; i++) {
+                categories.add(Category.read(in));
+            }
+        }
+
+        final Source source = in.readBoolean() ? Source.read(in) : null;
+        final Object commentsLink = in.readLazyUri();
+
+        final int enclosuresSize = in.readSize();
+        List<Enclosure> enclosures = null;
+        if (enclosuresSize >= 0) {
+            enclosures = new ArrayList<>(initialCapacity(enclosuresSize));
+            for (int i = 0; i < enclosuresSize; i++) {
+                enclosures.add(Enclosure.read(in));
+            }
+        }
+
+        final UniqueId uniqueId = in.readBoolean() ? UniqueId.read(in) : null;
+
+        final Item item = new Item(link, title, description, author, publishDate, categories, source, commentsLink,
+                                   enclosures, uniqueId);
+        item.readModules(in);
+        return item;
+    }
+
     @Override
     public int hashCode() {
         return hash(author, title, description, link, commentsLink, categories, uniqueId, publishDate, source,
@@ -162,9 +297,9 @@ public final class Item extends ExtensibleElement {
 
         final Item other = (Item)obj;
         return Objects.equals(author, other.author) && Objects.equals(title, other.title) &&
-               Objects.equals(description, other.description) && Objects.equals(link, other.link) &&
-               Objects.equals(commentsLink, other.commentsLink) && Objects.equals(categories, other.categories) &&
-               Objects.equals(uniqueId, other.uniqueId) && Objects.equals(publishDate, other.publishDate) &&
+               Objects.equals(description, other.description) && Lazy.equal(link, other.link) &&
+               Lazy.equal(commentsLink, other.commentsLink) && Objects.equals(categories, other.categories) &&
+               Objects.equals(uniqueId, other.uniqueId) && Lazy.equal(publishDate, other.publishDate) &&
                Objects.equals(source, other.source) && Objects.equals(enclosures, other.enclosures);
     }
 
@@ -179,7 +314,7 @@ public final class Item extends ExtensibleElement {
         append(sb, "author", author);
         append(sb, "commentsLink", commentsLink);
         append(sb, "uniqueId", uniqueId, false);
-        append(sb, "publishDate", formatDate(publishDate));
+        append(sb, "publishDate", Lazy.formatDate(publishDate));
         append(sb, "categories", categories, false);
         append(sb, "source", source, false);
         append(sb, "enclosures", enclosures, false);
@@ -192,24 +327,73 @@ public final class Item extends ExtensibleElement {
         String author;
         String title;
         String description;
-        URI link;
-        URI commentsLink;
-        final Set<Category> categories;
+        Object link;
+        Object commentsLink;
+        Set<Category> categories;
         UniqueId uniqueId;
-        DateTime publishDate;
+        Object publishDate;
         Source source;
-        final List<Enclosure> enclosures;
+        List<Enclosure> enclosures;
 
         Builder(final DateTimeFormatter parser) {
-            super("item", parser);
-            categories = new HashSet<>(1);
-            enclosures = new ArrayList<>(1);
+            this(parser, ParseOptions.DEFAULT);
+        }
+
+        Builder(final DateTimeFormatter parser, final ParseOptions options) {
+            super("item", parser, options);
         }
 
         @Override
-        protected Item buildBase() {
-            return new Item(link, title, description, author, publishDate, categories, source, commentsLink, enclosures,
-                            uniqueId);
+        void reset() {
+            super.reset();
+            author = null;
+            title = null;
+            description = null;
+            link = null;
+            commentsLink = null;
+            categories = null;
+            uniqueId = null;
+            publishDate = null;
+            source = null;
+            enclosures = null;
+        }
+
+        private void addCategory(final Category category) {
+            if (categories == null) {
+                categories = new HashSet<>(2);
+            }
+            categories.add(category);
+        }
+
+        private void addEnclosure(final Enclosure enclosure) {
+            if (enclosures == null) {
+                enclosures = new ArrayList<>(1);
+            }
+            enclosures.add(enclosure);
+        }
+
+        @Override
+        protected Item buildBase() throws ParserException {
+            if ((title == null) && (description == null)) {
+                throw new ParserException("at least on of title or description must be not null", null, false);
+            }
+
+            // title and description outside of the projection were read only to satisfy the invariant
+            final Projection projection = options.getProjection();
+            if ((description != null) && !projection.includesItemTag(Tag.TITLE)) {
+                title = null;
+            }
+            if ((title != null) && !projection.includesItemTag(Tag.DESCRIPTION)) {
+                description = null;
+            }
+
+            final Item item = new Item(link, title, description, author, publishDate, categories, source, commentsLink,
+                                       enclosures, uniqueId);
+            final ParseListener listener = options.getListener();
+            if (listener != null) {
+                listener.itemParsed();
+            }
+            return item;
         }
 
         @Override
@@ -222,7 +406,7 @@ public final class Item extends ExtensibleElement {
                     break;
                 case "link":
                     crashIfAlreadySet(link);
-                    link = parseUri(getText(reader));
+                    link = decodeUri(getText(reader));
                     break;
                 case "description":
                     crashIfAlreadySet(description);
@@ -230,17 +414,17 @@ public final class Item extends ExtensibleElement {
                     break;
                 case "author":
                     crashIfAlreadySet(author);
-                    author = getText(reader);
+                    author = getPooledText(reader);
                     break;
                 case "category":
-                    categories.add(parseCategory(reader, element));
+                    addCategory(parseCategory(reader, element));
                     break;
                 case "comments":
                     crashIfAlreadySet(commentsLink);
-                    commentsLink = parseUri(getText(reader));
+                    commentsLink = decodeUri(getText(reader));
                     break;
                 case "enclosure":
-                    enclosures.add(parseEnclosure(reader, element));
+                    addEnclosure(parseEnclosure(reader, element));
                     break;
                 case "guid":
                     crashIfAlreadySet(uniqueId);
@@ -248,7 +432,7 @@ public final class Item extends ExtensibleElement {
                     break;
                 case "pubDate":
                     crashIfAlreadySet(publishDate);
-                    publishDate = parseDate(getText(reader), parser);
+                    publishDate = decodeDate(getText(reader));
                     break;
                 case "source":
                     crashIfAlreadySet(source);
@@ -257,25 +441,93 @@ public final class Item extends ExtensibleElement {
             }
         }
 
+        @Override
+        protected void parseTag(final XMLStreamReader reader) throws ParserException {
+            switch (Tag.of(reader)) {
+                case Tag.TITLE:
+                    crashIfAlreadySet(title);
+                    title = getText(reader);
+                    break;
+                case Tag.LINK:
+                    crashIfAlreadySet(link);
+                    link = decodeUri(getText(reader));
+                    break;
+                case Tag.DESCRIPTION:
+                    crashIfAlreadySet(description);
+                    description = getText(reader);
+                    break;
+                case Tag.AUTHOR:
+                    crashIfAlreadySet(author);
+                    author = getPooledText(reader);
+                    break;
+                case Tag.CATEGORY:
+                    addCategory(parseCategory(reader));
+                    break;
+                case Tag.COMMENTS:
+                    crashIfAlreadySet(commentsLink);
+                    commentsLink = decodeUri(getText(reader));
+                    break;
+                case Tag.ENCLOSURE:
+                    addEnclosure(parseEnclosure(reader));
+                    break;
+                case Tag.GUID:
+                    crashIfAlreadySet(uniqueId);
+                    uniqueId = parseUniqueId(reader);
+                    break;
+                case Tag.PUB_DATE:
+                    crashIfAlreadySet(publishDate);
+                    publishDate = decodeDate(getText(reader));
+                    break;
+                case Tag.SOURCE:
+                    crashIfAlreadySet(source);
+                    source = parseSource(reader);
+                    break;
+                default:
+                    skipElement(reader);
+            }
+        }
+
         @Override
         boolean isModuleAllowed(final Class<? extends Module> module) {
-            return CreativeCommons.class.equals(module);
+            return options.getModules().isAllowed(module, Target.ITEM);
         }
 
-        private static Source parseSource(final XMLEventReader reader, final StartElement element) throws
+        @Override
+        boolean isIncluded(final int tag) {
+            if (options.getProjection().includesItemTag(tag)) {
+                return true;
+            }
+
+            // at least one of title and description is required
+            return ((tag == Tag.TITLE) && (description == null)) || ((tag == Tag.DESCRIPTION) && (title == null));
+        }
+
+        private Source parseSource(final XMLEventReader reader, final StartElement element) throws
                                                                                                    ParserException {
-            final Source.Builder builder = new Source.Builder();
+            final Source.Builder builder = new Source.Builder(options.getPool());
             builder.parse(reader, element);
             return builder.build();
         }
 
-        private static Enclosure parseEnclosure(final XMLEventReader reader, final StartElement element) throws
+        private Source parseSource(final XMLStreamReader reader) throws ParserException {
+            final Source.Builder builder = new Source.Builder(options.getPool());
+            builder.parse(reader);
+            return builder.build();
+        }
+
+        private Enclosure parseEnclosure(final XMLEventReader reader, final StartElement element) throws
                                                                                                          ParserException {
-            final Enclosure.Builder builder = new Enclosure.Builder();
+            final Enclosure.Builder builder = new Enclosure.Builder(options);
             builder.parse(reader, element);
             return builder.build();
         }
 
+        private Enclosure parseEnclosure(final XMLStreamReader reader) throws ParserException {
+            final Enclosure.Builder builder = new Enclosure.Builder(options);
+            builder.parse(reader);
+            return builder.build();
+        }
+
         private static UniqueId parseUniqueId(final XMLEventReader reader, final StartElement element) throws
                                                                                                        ParserException {
             final UniqueId.Builder builder = new UniqueId.Builder();
@@ -283,11 +535,23 @@ public final class Item extends ExtensibleElement {
             return builder.build();
         }
 
-        private static Category parseCategory(final XMLEventReader reader, final StartElement element) throws
+        private static UniqueId parseUniqueId(final XMLStreamReader reader) throws ParserException {
+            final UniqueId.Builder builder = new UniqueId.Builder();
+            builder.parse(reader);
+            return builder.build();
+        }
+
+        private Category parseCategory(final XMLEventReader reader, final StartElement element) throws
                                                                                                        ParserException {
-            final Category.Builder builder = new Category.Builder();
+            final Category.Builder builder = new Category.Builder(options.getPool());
             builder.parse(reader, element);
             return builder.build();
         }
+
+        private Category parseCategory(final XMLStreamReader reader) throws ParserException {
+            final Category.Builder builder = new Category.Builder(options.getPool());
+            builder.parse(reader);
+            return builder.build();
+        }
     }
 }
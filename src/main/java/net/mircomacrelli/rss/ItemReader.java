@@ -0,0 +1,186 @@
+package net.mircomacrelli.rss;
+
+import net.mircomacrelli.rss.RSS.Version;
+import net.mircomacrelli.rss.RSSFactory.CountingStreamReader;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.NoSuchElementException;
+
+import static java.util.Objects.requireNonNull;
+import static net.mircomacrelli.rss.Utils.skipElement;
+
+/**
+ * Reads the items of a feed one at a time, without keeping them in memory. The items are built only when requested
+ * and are not added to the channel, so the memory used does not depend on the number of items in the feed.
+ * <p>
+ * If the factory has a listener, the parsing is finished when the channel is read or when the reader is closed, and
+ * the time reported is the one spent in the methods of the reader, without the time spent by the caller between them.
+ *
+ * @author Mirco Macrelli
+ * @version 2.1
+ */
+public final class ItemReader implements Closeable {
+    private final XMLStreamReader reader;
+    private final Charset charset;
+    private final Version version;
+    private final Channel.Builder builder;
+    private final ParseListener listener;
+    private final CountingInputStream bytes;
+    private final CountingStreamReader events;
+    private long nanos;
+    private boolean reported;
+    private boolean atItem;
+    private boolean finished;
+    private Channel channel;
+
+    /**
+     * @param listener told of the end of the parsing, or null
+     * @param bytes the counter of the bytes read, or null if nothing is measured
+     * @param events the reader, if it counts the events, or null if nothing is measured
+     * @param nanos the time spent before the first item
+     */
+    ItemReader(final XMLStreamReader reader, final Charset charset, final Version version,
+               final Channel.Builder builder, final ParseListener listener, final CountingInputStream bytes,
+               final CountingStreamReader events, final long nanos) {
+        this.reader = requireNonNull(reader);
+        this.charset = requireNonNull(charset);
+        this.version = requireNonNull(version);
+        this.builder = requireNonNull(builder);
+        this.listener = listener;
+        this.bytes = bytes;
+        this.events = events;
+        this.nanos = nanos;
+    }
+
+    /** @return the charset encoding used in the feed */
+    public Charset getCharset() {
+        return charset;
+    }
+
+    /** @return the version of RSS used by this feed */
+    public Version getVersion() {
+        return version;
+    }
+
+    /**
+     * @return true if the feed contains another item
+     * @throws ParserException if the content before the next item is not valid
+     */
+    public boolean hasNext() throws ParserException {
+        if (!atItem && !finished) {
+            final long start = start();
+            try {
+                atItem = builder.parseUntilNextItem(reader);
+            } catch (final ParserException | RuntimeException cause) {
+                failed(cause, start);
+                throw cause;
+            }
+            stop(start);
+            finished = !atItem;
+        }
+        return atItem;
+    }
+
+    /**
+     * @return the next item of the feed
+     * @throws ParserException if the item is not valid
+     */
+    public Item next() throws ParserException {
+        if (!hasNext()) {
+            throw new NoSuchElementException("no more items");
+        }
+
+        atItem = false;
+        final long start = start();
+        try {
+            final Item item = builder.parseItem(reader);
+            stop(start);
+            return item;
+        } catch (final ParserException | RuntimeException cause) {
+            failed(cause, start);
+            throw cause;
+        }
+    }
+
+    /**
+     * Return the channel without the items. If the feed was not completely read, the items that were not returned by
+     * {@link #next()} are skipped, because some elements of the channel could be after them.
+     *
+     * @return the channel, without the items
+     * @throws ParserException if the rest of the channel is not valid
+     */
+    public Channel getChannel() throws ParserException {
+        if (channel == null) {
+            while (hasNext()) {
+                final long start = start();
+                try {
+                    skipElement(reader);
+                } catch (final ParserException | RuntimeException cause) {
+                    failed(cause, start);
+                    throw cause;
+                }
+                stop(start);
+                atItem = false;
+            }
+
+            final long start = start();
+            try {
+                channel = builder.build();
+            } catch (final ParserException | RuntimeException cause) {
+                failed(cause, start);
+                throw cause;
+            }
+            stop(start);
+            finished();
+        }
+        return channel;
+    }
+
+    /** @return the xml events read so far, or 0 if they are not counted */
+    long getEventCount() {
+        return (events == null) ? 0 : events.events;
+    }
+
+    private long start() {
+        return (events == null) ? 0 : System.nanoTime();
+    }
+
+    private void stop(final long start) {
+        if (events != null) {
+            nanos += System.nanoTime() - start;
+        }
+    }
+
+    private void finished() {
+        if ((listener != null) && !reported) {
+            reported = true;
+            listener.parseFinished(bytes.getCount(), events.events, nanos);
+        }
+    }
+
+    private void failed(final Exception cause, final long start) {
+        stop(start);
+        if ((listener != null) && !reported) {
+            reported = true;
+            listener.parseFailed(cause, nanos);
+        }
+    }
+
+    /**
+     * Free the resources used by the xml reader. The underlying InputStream is not closed. If the channel was not read
+     * the parsing is reported as finished, with the bytes and the events read so far
+     */
+    @Override
+    public void close() throws IOException {
+        finished();
+        try {
+            reader.close();
+        } catch (final XMLStreamException cause) {
+            throw new IOException(cause);
+        }
+    }
+}
@@ -0,0 +1,496 @@
+package net.mircomacrelli.rss;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Keeps many items in memory in columns of primitive values instead of objects, to scan and filter them quickly and
+ * with little memory. The dates are kept as milliseconds, the feeds, the authors and the categories are replaced by
+ * the ids of their dictionaries, and the titles, the descriptions, the links and the guids are kept in UTF-8 in a
+ * single array of bytes for each field. An item takes about 40 bytes besides its texts, against the several hundred
+ * bytes of the objects of an Item, and the texts in ASCII take half the memory of a String.
+ * <p>
+ * The columns can be kept outside of the heap, so the garbage collector doesn't have to scan them. Each column can
+ * grow up to 2 GB. The items are added at the end and the old ones are removed with {@link #retainPublishedSince}.
+ * The items rebuilt by the store have only the fields kept in the columns: the source, the comments, the enclosures
+ * and the modules are not kept, and the dates are in UTC. All the methods are thread-safe.
+ *
+ * @author Mirco Macrelli
+ * @version 2.1
+ */
+public final class ItemStore {
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    /** the date of the items without one */
+    private static final long NO_DATE = Long.MIN_VALUE;
+    /** the id of the values not set */
+    private static final int NONE = 0;
+    /** the id of a filter that matches all the items */
+    private static final int ANY = -1;
+    /** the id of a filter on a value that is not in the store */
+    private static final int MISSING = -2;
+    private static final int INITIAL_ROWS = 1024;
+    private static final byte GUID_IS_LINK = 1;
+
+    private final boolean offHeap;
+    private final Dictionary<String> feeds = new Dictionary<>();
+    private final Dictionary<String> authors = new Dictionary<>();
+    private final Dictionary<Category> categories = new Dictionary<>();
+    private Columns columns;
+
+    private ItemStore(final boolean offHeap) {
+        this.offHeap = offHeap;
+        columns = new Columns(INITIAL_ROWS, offHeap);
+    }
+
+    /** @return a new empty store that keeps the columns in the heap */
+    public static ItemStore newStore() {
+        return new ItemStore(false);
+    }
+
+    /** @return a new empty store that keeps the columns in direct buffers, outside of the heap */
+    public static ItemStore newOffHeapStore() {
+        return new ItemStore(true);
+    }
+
+    /**
+     * @param feed a stable identifier of the feed, like its address
+     * @param item the item
+     * @return the row of the item
+     * @throws IllegalStateException if the date is decoded lazily and is not valid
+     */
+    public synchronized int add(final String feed, final Item item) {
+        final int feedId = feeds.idOf(requireNonNull(feed));
+        final DateTime date = item.getPublishDate();
+        final UniqueId guid = item.getUniqueId();
+
+        final Columns c = columns;
+        c.feeds.putInt(feedId);
+        c.dates.putLong((date == null) ? NO_DATE : date.getMillis());
+        c.authors.putInt(authors.idOf(item.getAuthor()));
+        c.flags.putByte(((guid != null) && guid.isLink()) ? GUID_IS_LINK : 0);
+        for (final Category category : item.getCategories()) {
+            c.categoryIds.putInt(categories.idOf(category));
+        }
+        c.categoryEnds.putInt(c.categoryIds.size() / 4);
+        c.titles.add(item.getTitle());
+        c.descriptions.add(item.getDescription());
+        c.links.add(item.getLinkText());
+        c.guids.add((guid == null) ? null : guid.getId());
+        return c.rows++;
+    }
+
+    /**
+     * @param feed a stable identifier of the feed, like its address
+     * @param items the items of the feed
+     * @throws IllegalStateException if a date is decoded lazily and is not valid
+     */
+    public synchronized void addAll(final String feed, final List<Item> items) {
+        for (final Item item : items) {
+            add(feed, item);
+        }
+    }
+
+    /** @return the number of items in the store */
+    public synchronized int size() {
+        return columns.rows;
+    }
+
+    /** @return the bytes allocated for the columns, without the dictionaries */
+    public synchronized long getMemoryUsage() {
+        return columns.memoryUsage();
+    }
+
+    /** @return true if the columns are kept outside of the heap */
+    public boolean isOffHeap() {
+        return offHeap;
+    }
+
+    /**
+     * @param row the row of the item
+     * @return the identifier of the feed of the item
+     */
+    public synchronized String getFeed(final int row) {
+        checkRow(row);
+        return feeds.get(columns.feeds.getInt(row << 2));
+    }
+
+    /**
+     * @param row the row of the item
+     * @return the item rebuilt from the columns
+     */
+    public synchronized Item getItem(final int row) {
+        checkRow(row);
+        final Columns c = columns;
+
+        final long date = c.dates.getLong(row << 3);
+        final String guid = c.guids.get(row);
+
+        Set<Category> itemCategories = null;
+        final int start = (row == 0) ? 0 : c.categoryEnds.getInt((row - 1) << 2);
+        final int end = c.categoryEnds.getInt(row << 2);
+        if (end > start) {
+            itemCategories = new HashSet<>((end - start) * 2);
+            for (int i = start; i < end; i++) {
+                itemCategories.add(categories.get(c.categoryIds.getInt(i << 2)));
+            }
+        }
+
+        return Item.withLinkText(c.links.get(row), c.titles.get(row), c.descriptions.get(row),
+                                 authors.get(c.authors.getInt(row << 2)),
+                                 (date == NO_DATE) ? null : new DateTime(date, DateTimeZone.UTC), itemCategories,
+                                 (guid == null) ? null : new UniqueId(guid, c.flags.getByte(row) == GUID_IS_LINK));
+    }
+
+    private void checkRow(final int row) {
+        if ((row < 0) || (row >= columns.rows)) {
+            throw new IndexOutOfBoundsException(format("row must be between 0 and %d. was %d", columns.rows - 1, row));
+        }
+    }
+
+    /**
+     * Remove the items published before a date and the items without a date. The rows of the items that are kept
+     * change.
+     *
+     * @param since the date of the oldest items to keep
+     * @return the number of items removed
+     */
+    public synchronized int retainPublishedSince(final DateTime since) {
+        final long millis = since.getMillis();
+        final Columns old = columns;
+        final Columns kept = new Columns(Math.max(old.rows / 2, INITIAL_ROWS), offHeap);
+
+        for (int row = 0; row < old.rows; row++) {
+            final long date = old.dates.getLong(row << 3);
+            if ((date != NO_DATE) && (date >= millis)) {
+                kept.copy(old, row);
+            }
+        }
+
+        columns = kept;
+        return old.rows - kept.rows;
+    }
+
+    /** @return a new query that selects all the items of the store */
+    public Query query() {
+        return new Query(this);
+    }
+
+    private synchronized int[] select(final Query query) {
+        final int feed = (query.feed == null) ? ANY : feeds.find(query.feed);
+        final int author = (query.author == null) ? ANY : authors.find(query.author);
+        if ((feed == MISSING) || (author == MISSING)) {
+            return new int[0];
+        }
+
+        boolean[] matchingCategories = null;
+        if (query.category != null) {
+            matchingCategories = new boolean[categories.size() + 1];
+            for (int id = 1; id <= categories.size(); id++) {
+                matchingCategories[id] = categories.get(id).getLocation().equals(query.category);
+            }
+        }
+
+        final Columns c = columns;
+        int[] selected = new int[16];
+        int count = 0;
+        for (int row = 0; row < c.rows; row++) {
+            if ((feed != ANY) && (c.feeds.getInt(row << 2) != feed)) {
+                continue;
+            }
+            if (query.dated) {
+                final long date = c.dates.getLong(row << 3);
+                if ((date == NO_DATE) || (date < query.from) || (date >= query.to)) {
+                    continue;
+                }
+            }
+            if ((author != ANY) && (c.authors.getInt(row << 2) != author)) {
+                continue;
+            }
+            if ((matchingCategories != null) && !c.hasCategory(row, matchingCategories)) {
+                continue;
+            }
+            if ((query.title != null) && !c.titles.contains(row, query.title)) {
+                continue;
+            }
+
+            if (count == selected.length) {
+                selected = Arrays.copyOf(selected, count * 2);
+            }
+            selected[count++] = row;
+        }
+        return Arrays.copyOf(selected, count);
+    }
+
+    @Override
+    public synchronized String toString() {
+        return format("ItemStore{items=%d, feeds=%d, memoryUsage=%d, offHeap=%b}", columns.rows, feeds.size(),
+                      columns.memoryUsage(), offHeap);
+    }
+
+    /**
+     * Selects the items of a store that match all its filters. The filters are checked on the columns, without
+     * rebuilding the items. A query is not thread-safe, but many queries can run on the same store at the same time.
+     */
+    public static final class Query {
+        private final ItemStore store;
+        private String feed;
+        private String author;
+        private String category;
+        private byte[] title;
+        private boolean dated;
+        private long from;
+        private long to;
+
+        private Query(final ItemStore store) {
+            this.store = store;
+        }
+
+        /**
+         * @param feed the identifier of the feed
+         * @return this query, that selects only the items of the feed
+         */
+        public Query feed(final String feed) {
+            this.feed = requireNonNull(feed);
+            return this;
+        }
+
+        /**
+         * @param author the author
+         * @return this query, that selects only the items of the author
+         */
+        public Query author(final String author) {
+            this.author = requireNonNull(author);
+            return this;
+        }
+
+        /**
+         * @param location the location of the category, in any domain
+         * @return this query, that selects only the items in the category
+         */
+        public Query category(final String location) {
+            category = requireNonNull(location);
+            return this;
+        }
+
+        /**
+         * @param text the text
+         * @return this query, that selects only the items whose title contains the text. The case is not ignored
+         */
+        public Query titleContains(final String text) {
+            title = text.getBytes(UTF_8);
+            return this;
+        }
+
+        /**
+         * @param from the first date, included
+         * @param to the last date, excluded
+         * @return this query, that selects only the items published between the dates
+         */
+        public Query publishedBetween(final DateTime from, final DateTime to) {
+            this.from = from.getMillis();
+            this.to = to.getMillis();
+            dated = true;
+            return this;
+        }
+
+        /** @return the rows of the items selected, in the order they were added */
+        public int[] rows() {
+            return store.select(this);
+        }
+
+        /** @return the number of items selected */
+        public int count() {
+            return rows().length;
+        }
+
+        /** @return the items selected, rebuilt from the columns */
+        public List<Item> items() {
+            synchronized (store) {
+                final int[] rows = rows();
+                final List<Item> items = new ArrayList<>(rows.length);
+                for (final int row : rows) {
+                    items.add(store.getItem(row));
+                }
+                return items;
+            }
+        }
+
+        /** @return the number of items selected for each feed */
+        public Map<String, Integer> countByFeed() {
+            synchronized (store) {
+                final int[] counts = new int[store.feeds.size() + 1];
+                for (final int row : rows()) {
+                    counts[store.columns.feeds.getInt(row << 2)]++;
+                }
+
+                final Map<String, Integer> byFeed = new LinkedHashMap<>(counts.length * 2);
+                for (int id = 1; id < counts.length; id++) {
+                    if (counts[id] > 0) {
+                        byFeed.put(store.feeds.get(id), counts[id]);
+                    }
+                }
+                return byFeed;
+            }
+        }
+    }
+
+    /** The columns of the items, each one with a value for every row */
+    private static final class Columns {
+        final ColumnBuffer feeds;
+        final ColumnBuffer dates;
+        final ColumnBuffer authors;
+        final ColumnBuffer flags;
+        /** the number of category ids up to the end of each row */
+        final ColumnBuffer categoryEnds;
+        final ColumnBuffer categoryIds;
+        final Text titles;
+        final Text descriptions;
+        final Text links;
+        final Text guids;
+        int rows;
+
+        Columns(final int rows, final boolean direct) {
+            feeds = new ColumnBuffer(rows * 4, direct);
+            dates = new ColumnBuffer(rows * 8, direct);
+            authors = new ColumnBuffer(rows * 4, direct);
+            flags = new ColumnBuffer(rows, direct);
+            categoryEnds = new ColumnBuffer(rows * 4, direct);
+            categoryIds = new ColumnBuffer(rows * 4, direct);
+            titles = new Text(rows, 64, direct);
+            descriptions = new Text(rows, 256, direct);
+            links = new Text(rows, 64, direct);
+            guids = new Text(rows, 32, direct);
+        }
+
+        boolean hasCategory(final int row, final boolean[] matching) {
+            final int start = (row == 0) ? 0 : categoryEnds.getInt((row - 1) << 2);
+            final int end = categoryEnds.getInt(row << 2);
+            for (int i = start; i < end; i++) {
+                if (matching[categoryIds.getInt(i << 2)]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /** Append a row of other columns, copying the bytes of the texts without decoding them */
+        void copy(final Columns other, final int row) {
+            feeds.putInt(other.feeds.getInt(row << 2));
+            dates.putLong(other.dates.getLong(row << 3));
+            authors.putInt(other.authors.getInt(row << 2));
+            flags.putByte(other.flags.getByte(row));
+            final int start = (row == 0) ? 0 : other.categoryEnds.getInt((row - 1) << 2);
+            final int end = other.categoryEnds.getInt(row << 2);
+            categoryIds.put(other.categoryIds, start << 2, (end - start) << 2);
+            categoryEnds.putInt(categoryIds.size() / 4);
+            titles.copy(other.titles, row);
+            descriptions.copy(other.descriptions, row);
+            links.copy(other.links, row);
+            guids.copy(other.guids, row);
+            rows++;
+        }
+
+        long memoryUsage() {
+            return (long)feeds.capacity() + dates.capacity() + authors.capacity() + flags.capacity() +
+                   categoryEnds.capacity() + categoryIds.capacity() + titles.memoryUsage() +
+                   descriptions.memoryUsage() + links.memoryUsage() + guids.memoryUsage();
+        }
+    }
+
+    /** A column of texts: the bytes of all the texts one after the other, and the offset and length of each row */
+    private static final class Text {
+        /** the offset and the length of each row. The length is -1 for null */
+        private final ColumnBuffer index;
+        private final ColumnBuffer bytes;
+
+        Text(final int rows, final int averageLength, final boolean direct) {
+            index = new ColumnBuffer(rows * 8, direct);
+            bytes = new ColumnBuffer(rows * averageLength, direct);
+        }
+
+        void add(final String text) {
+            index.putInt(bytes.size());
+            if (text == null) {
+                index.putInt(-1);
+            } else {
+                final byte[] encoded = text.getBytes(UTF_8);
+                index.putInt(encoded.length);
+                bytes.put(encoded);
+            }
+        }
+
+        String get(final int row) {
+            final int length = index.getInt((row << 3) + 4);
+            if (length < 0) {
+                return null;
+            }
+            return new String(bytes.getBytes(index.getInt(row << 3), length), UTF_8);
+        }
+
+        /** UTF-8 is self-synchronizing, so the bytes of a text are found only where the text starts */
+        boolean contains(final int row, final byte[] needle) {
+            return bytes.contains(index.getInt(row << 3), index.getInt((row << 3) + 4), needle);
+        }
+
+        void copy(final Text other, final int row) {
+            final int offset = other.index.getInt(row << 3);
+            final int length = other.index.getInt((row << 3) + 4);
+            index.putInt(bytes.size());
+            index.putInt(length);
+            if (length > 0) {
+                bytes.put(other.bytes, offset, length);
+            }
+        }
+
+        long memoryUsage() {
+            return (long)index.capacity() + bytes.capacity();
+        }
+    }
+
+    /** Replaces the values with small ids, starting from 1. The id of null is {@link #NONE} */
+    private static final class Dictionary<T> {
+        private final Map<T, Integer> ids = new HashMap<>();
+        private final List<T> values = new ArrayList<>();
+
+        int idOf(final T value) {
+            if (value == null) {
+                return NONE;
+            }
+
+            Integer id = ids.get(value);
+            if (id == null) {
+                values.add(value);
+                id = values.size();
+                ids.put(value, id);
+            }
+            return id;
+        }
+
+        /** @return the id of the value, or {@link #MISSING} if it's not in the dictionary */
+        int find(final T value) {
+            final Integer id = ids.get(value);
+            return (id == null) ? MISSING : id;
+        }
+
+        T get(final int id) {
+            return (id == NONE) ? null : values.get(id - 1);
+        }
+
+        int size() {
+            return values.size();
+        }
+    }
+}
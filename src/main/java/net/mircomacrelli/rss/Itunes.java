@@ -7,26 +7,34 @@ import org.joda.time.format.PeriodFormatterBuilder;
 import javax.mail.internet.AddressException;
 import javax.mail.internet.InternetAddress;
 import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.events.StartElement;
 import javax.xml.stream.events.XMLEvent;
+import java.io.IOException;
 import java.net.URI;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 
 import static java.util.Collections.emptyList;
 import static java.util.Collections.unmodifiableList;
 import static java.util.Objects.requireNonNull;
+import static net.mircomacrelli.rss.BinaryInput.initialCapacity;
 import static net.mircomacrelli.rss.Utils.append;
 import static net.mircomacrelli.rss.Utils.crashIfAlreadySet;
 import static net.mircomacrelli.rss.Utils.getAllTagsValuesInside;
+import static net.mircomacrelli.rss.Utils.getAttributeValue;
 import static net.mircomacrelli.rss.Utils.getAttributesValues;
 import static net.mircomacrelli.rss.Utils.getText;
+import static net.mircomacrelli.rss.Utils.intern;
 import static net.mircomacrelli.rss.Utils.isEndOfTag;
 import static net.mircomacrelli.rss.Utils.isStartOfTag;
+import static net.mircomacrelli.rss.Utils.nextChild;
 import static net.mircomacrelli.rss.Utils.parseUri;
+import static net.mircomacrelli.rss.Utils.skipElement;
 
 /**
  * Module used for parsing the itunes/podcast module
@@ -69,6 +77,26 @@ public final class Itunes implements Module {
             this.subCategories = subCategories;
         }
 
+        void write(final BinaryOutput out) throws IOException {
+            out.writeString(name);
+            writeCategories(out, subCategories);
+        }
+
+        void write(final XmlOutput out) throws IOException {
+            out.startElement(ModuleInformation.ITUNES, "category");
+            out.attribute("text", name);
+            if (subCategories != null) {
+                for (final Category category : subCategories) {
+                    category.write(out);
+                }
+            }
+            out.endElement();
+        }
+
+        static Category read(final BinaryInput in) throws ParserException {
+            return new Category(in.readString(), readCategories(in));
+        }
+
         @Override
         public int hashCode() {
             return Objects.hash(name, subCategories);
@@ -223,6 +251,139 @@ public final class Itunes implements Module {
         return summary;
     }
 
+    void write(final BinaryOutput out) throws IOException {
+        out.writeString(author);
+        out.writeNullableBoolean(block);
+        out.writeUri(image);
+        out.writeNullableBoolean(closedCaptioned);
+        out.writeString(summary);
+        out.writeString(subtitle);
+        out.writeUri(newFeedUrl);
+        out.writeNullableInt(order);
+        out.writeNullableBoolean(complete);
+        out.writeString(ownerName);
+        out.writeString((ownerEmail == null) ? null : ownerEmail.toString());
+        out.writeEnum(explicit);
+        writeDuration(out, duration);
+        writeCategories(out, categories);
+    }
+
+    void write(final XmlOutput out) throws IOException {
+        final ModuleInformation module = ModuleInformation.ITUNES;
+        out.element(module, "author", author);
+        out.element(module, "block", formatFlag(block));
+        if (image != null) {
+            out.emptyElement(module, "image");
+            out.attribute("href", image);
+        }
+        out.element(module, "isClosedCaptioned", formatFlag(closedCaptioned));
+        out.element(module, "summary", summary);
+        out.element(module, "subtitle", subtitle);
+        out.element(module, "new-feed-url", newFeedUrl);
+        out.element(module, "order", order);
+        out.element(module, "complete", formatFlag(complete));
+        if ((ownerName != null) || (ownerEmail != null)) {
+            out.startElement(module, "owner");
+            out.element(module, "name", ownerName);
+            out.element(module, "email", ownerEmail);
+            out.endElement();
+        }
+        out.element(module, "explicit", (explicit == null) ? null : explicit.name().toLowerCase(Locale.ENGLISH));
+        if (duration != null) {
+            out.element(module, "duration", String.format("%d:%02d:%02d", duration.getHours(), duration.getMinutes(),
+                                                          duration.getSeconds()));
+        }
+        if (categories != null) {
+            for (final Category category : categories) {
+                category.write(out);
+            }
+        }
+    }
+
+    private static String formatFlag(final Boolean flag) {
+        if (flag == null) {
+            return null;
+        }
+        return flag ? "yes" : "no";
+    }
+
+    static Itunes read(final BinaryInput in) throws ParserException {
+        final String author = in.readString();
+        final Boolean block = in.readNullableBoolean();
+        final URI image = in.readUri();
+        final Boolean closedCaptioned = in.readNullableBoolean();
+        final String summary = in.readString();
+        final String subtitle = in.readString();
+        final URI newFeedUrl = in.readUri();
+        final Integer order = in.readNullableInt();
+        final Boolean complete = in.readNullableBoolean();
+        final String ownerName = in.readString();
+        final InternetAddress ownerEmail = readEmail(in);
+        final Explicit explicit = in.readEnum(Explicit.class);
+        final Period duration = readDuration(in);
+        return new Itunes(author, block, image, closedCaptioned, summary, subtitle, newFeedUrl, order, complete,
+                          ownerName, ownerEmail, explicit, duration, readCategories(in));
+    }
+
+    private static InternetAddress readEmail(final BinaryInput in) throws ParserException {
+        final String email = in.readString();
+        if (email == null) {
+            return null;
+        }
+
+        try {
+            return new InternetAddress(email);
+        } catch (final AddressException cause) {
+            throw new ParserException(cause);
+        }
+    }
+
+    private static void writeDuration(final BinaryOutput out, final Period duration) throws IOException {
+        out.writeBoolean(duration != null);
+        if (duration != null) {
+            out.writeSignedVarint(duration.getYears());
+            out.writeSignedVarint(duration.getMonths());
+            out.writeSignedVarint(duration.getWeeks());
+            out.writeSignedVarint(duration.getDays());
+            out.writeSignedVarint(duration.getHours());
+            out.writeSignedVarint(duration.getMinutes());
+            out.writeSignedVarint(duration.getSeconds());
+            out.writeSignedVarint(duration.getMillis());
+        }
+    }
+
+    private static Period readDuration(final BinaryInput in) throws ParserException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+
+        return new Period((int)in.readSignedVarint(), (int)in.readSignedVarint(), (int)in.readSignedVarint(),
+                          (int)in.readSignedVarint(), (int)in.readSignedVarint(), (int)in.readSignedVarint(),
+                          (int)in.readSignedVarint(), (int)in.readSignedVarint());
+    }
+
+    private static void writeCategories(final BinaryOutput out, final List<Category> categories) throws IOException {
+        out.writeSize(categories);
+        if (categories != null) {
+            for (final Category category : categories) {
+                category.write(out);
+            }
+        }
+    }
+
+    private static List<Category> readCategories(final BinaryInput in) throws ParserException {
+        final int size = in.readSize();
+        if (size < 0) {
+            return null;
+        }
+
+        final List<Category> categories = new ArrayList<>(initialCapacity(size));
+        for (int i = 0; i < size; i++) {
+            categories.add(Category.read(in));
+        }
+        return categories;
+    }
+
     @Override
     public int hashCode() {
         return Objects.hash(author, block, image, closedCaptioned, summary, subtitle, newFeedUrl, order, complete, ownerName,
@@ -285,6 +446,7 @@ public final class Itunes implements Module {
         private Explicit explicit;
         private Period duration;
         private final List<Category> categories;
+        private final StringPool pool;
 
         public static final PeriodFormatter DURATION = new PeriodFormatterBuilder()
                 .append(null, new PeriodFormatterBuilder().appendHours()
@@ -297,7 +459,13 @@ public final class Itunes implements Module {
                                                           .appendSeconds().toParser()).toFormatter();
 
         Builder() {
+            this(null);
+        }
+
+        /** @param pool the pool of the author and of the name of the owner, or null */
+        Builder(final StringPool pool) {
             super(null);
+            this.pool = pool;
             categories = new ArrayList<>(1);
         }
 
@@ -308,7 +476,7 @@ public final class Itunes implements Module {
             switch (name) {
                 case "author":
                     crashIfAlreadySet(author);
-                    author = getText(reader);
+                    author = intern(pool, getText(reader));
                     break;
                 case "block":
                     crashIfAlreadySet(block);
@@ -345,7 +513,7 @@ public final class Itunes implements Module {
                 case "owner":
                     final Map<String,String> values = getAllTagsValuesInside(reader, "owner");
                     crashIfAlreadySet(ownerName);
-                    ownerName = values.get("name");
+                    ownerName = intern(pool, values.get("name"));
                     try {
                         crashIfAlreadySet(ownerEmail);
                         ownerEmail = new InternetAddress(values.get("email"));
@@ -391,6 +559,88 @@ public final class Itunes implements Module {
             return new Category(name, subCategories);
         }
 
+        @Override
+        void parseElement(final XMLStreamReader reader) throws ParserException {
+            switch (Tag.of(reader)) {
+                case Tag.AUTHOR:
+                    crashIfAlreadySet(author);
+                    author = getText(reader, pool);
+                    break;
+                case Tag.BLOCK:
+                    crashIfAlreadySet(block);
+                    block = getText(reader).equalsIgnoreCase("yes");
+                    break;
+                case Tag.IMAGE:
+                    crashIfAlreadySet(image);
+                    image = parseUri(getAttributeValue(reader, "href"));
+                    skipElement(reader);
+                    break;
+                case Tag.CLOSED_CAPTIONED:
+                    crashIfAlreadySet(closedCaptioned);
+                    closedCaptioned = getText(reader).equalsIgnoreCase("yes");
+                    break;
+                case Tag.SUMMARY:
+                    crashIfAlreadySet(summary);
+                    summary = getText(reader);
+                    break;
+                case Tag.SUBTITLE:
+                    crashIfAlreadySet(subtitle);
+                    subtitle = getText(reader);
+                    break;
+                case Tag.NEW_FEED_URL:
+                    crashIfAlreadySet(newFeedUrl);
+                    newFeedUrl = parseUri(getText(reader));
+                    break;
+                case Tag.ORDER:
+                    crashIfAlreadySet(order);
+                    order = Integer.parseInt(getText(reader));
+                    break;
+                case Tag.COMPLETE:
+                    crashIfAlreadySet(complete);
+                    complete = getText(reader).equals("yes");
+                    break;
+                case Tag.OWNER:
+                    final Map<String,String> values = getAllTagsValuesInside(reader);
+                    crashIfAlreadySet(ownerName);
+                    ownerName = intern(pool, values.get("name"));
+                    try {
+                        crashIfAlreadySet(ownerEmail);
+                        ownerEmail = new InternetAddress(values.get("email"));
+                    } catch (final AddressException cause) {
+                        throw new ParserException(cause);
+                    }
+                    break;
+                case Tag.EXPLICIT:
+                    crashIfAlreadySet(explicit);
+                    explicit = Explicit.from(getText(reader));
+                    break;
+                case Tag.DURATION:
+                    crashIfAlreadySet(duration);
+                    duration = DURATION.parsePeriod(getText(reader));
+                    break;
+                case Tag.CATEGORY:
+                    categories.add(parseCategory(reader));
+                    break;
+                default:
+                    skipElement(reader);
+            }
+        }
+
+        private static Category parseCategory(final XMLStreamReader reader) throws ParserException {
+            final String name = getAttributeValue(reader, "text");
+            final List<Category> subCategories = new ArrayList<>(0);
+
+            while (nextChild(reader)) {
+                if (Tag.of(reader) == Tag.CATEGORY) {
+                    subCategories.add(parseCategory(reader));
+                } else {
+                    skipElement(reader);
+                }
+            }
+
+            return new Category(name, subCategories);
+        }
+
         @Override
         Module buildElement() {
             return new Itunes(author, block, image, closedCaptioned, summary, subtitle, newFeedUrl, order, complete,
@@ -0,0 +1,129 @@
+package net.mircomacrelli.rss;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import static java.lang.String.format;
+
+/**
+ * A histogram of durations in nanoseconds with a bucket for every power of two. Recording a duration doesn't take any
+ * lock and doesn't allocate, so it can be updated by many threads during the parsing. The buckets are read one at a
+ * time, so a snapshot taken while the durations are recorded can be slightly inconsistent.
+ *
+ * @author Mirco Macrelli
+ * @version 2.1
+ */
+public final class LatencyHistogram {
+    /** the last bucket contains all the durations longer than 2^38 nanoseconds, more than four minutes */
+    static final int BUCKETS = 40;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+    private final AtomicLong count = new AtomicLong();
+    private final AtomicLong total = new AtomicLong();
+    private final AtomicLong max = new AtomicLong();
+
+    LatencyHistogram() {
+    }
+
+    /** @param nanos the duration. The negative ones are recorded as zero */
+    void record(final long nanos) {
+        final long duration = Math.max(nanos, 0);
+        buckets.incrementAndGet(bucketOf(duration));
+        count.incrementAndGet();
+        total.addAndGet(duration);
+
+        long current = max.get();
+        while ((duration > current) && !max.compareAndSet(current, duration)) {
+            current = max.get();
+        }
+    }
+
+    private static int bucketOf(final long nanos) {
+        return Math.min(Long.SIZE - Long.numberOfLeadingZeros(nanos), BUCKETS - 1);
+    }
+
+    /** @return the number of buckets */
+    public int getBucketCount() {
+        return BUCKETS;
+    }
+
+    /**
+     * @param bucket the index of the bucket
+     * @return the number of durations shorter than the upper bound of the bucket and not shorter than the one of the
+     *         previous bucket
+     */
+    public long getCount(final int bucket) {
+        return buckets.get(bucket);
+    }
+
+    /**
+     * @param bucket the index of the bucket
+     * @return the upper bound of the bucket in nanoseconds, excluded. Long.MAX_VALUE for the last one
+     */
+    public long getUpperBound(final int bucket) {
+        if ((bucket < 0) || (bucket >= BUCKETS)) {
+            throw new IndexOutOfBoundsException(format("bucket must be between 0 and %d. was %d", BUCKETS - 1, bucket));
+        }
+        return (bucket == (BUCKETS - 1)) ? Long.MAX_VALUE : (1L << bucket);
+    }
+
+    /** @return the number of durations recorded */
+    public long getCount() {
+        return count.get();
+    }
+
+    /** @return the sum of the durations recorded, in nanoseconds */
+    public long getTotalNanos() {
+        return total.get();
+    }
+
+    /** @return the longest duration recorded, in nanoseconds */
+    public long getMaxNanos() {
+        return max.get();
+    }
+
+    /** @return the average of the durations, in nanoseconds. 0 if nothing was recorded */
+    public long getMeanNanos() {
+        final long recorded = count.get();
+        return (recorded == 0) ? 0 : (total.get() / recorded);
+    }
+
+    /**
+     * @param quantile the quantile, between 0 and 1
+     * @return the upper bound of the bucket that contains the quantile, but never more than the longest duration. 0 if
+     *         nothing was recorded
+     */
+    public long getPercentile(final double quantile) {
+        if ((quantile < 0) || (quantile > 1)) {
+            throw new IllegalArgumentException(format("quantile must be between 0 and 1. was %f", quantile));
+        }
+
+        final long[] snapshot = new long[BUCKETS];
+        long recorded = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = buckets.get(i);
+            recorded += snapshot[i];
+        }
+        if (recorded == 0) {
+            return 0;
+        }
+
+        final long rank = Math.max((long)Math.ceil(quantile * recorded), 1);
+        long seen = 0;
+        int bucket = 0;
+        while (bucket < (BUCKETS - 1)) {
+            seen += snapshot[bucket];
+            if (seen >= rank) {
+                break;
+            }
+            bucket++;
+        }
+        return Math.min(getUpperBound(bucket), max.get());
+    }
+
+    @Override
+    public String toString() {
+        return format("LatencyHistogram{count=%d, mean=%d, p50=%d, p99=%d, max=%d}", count.get(), getMeanNanos(),
+                      getPercentile(0.5), getPercentile(0.99), max.get());
+    }
+}
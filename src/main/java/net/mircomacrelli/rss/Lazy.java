@@ -0,0 +1,190 @@
+package net.mircomacrelli.rss;
+
+import org.joda.time.DateTime;
+import org.joda.time.format.DateTimeFormatter;
+
+import java.net.URI;
+import java.util.Locale;
+import java.util.Objects;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+import static net.mircomacrelli.rss.Utils.parseDate;
+import static net.mircomacrelli.rss.Utils.parseUri;
+
+/**
+ * A value of the feed that can be decoded from its text the first time it is read. The decoded value is cached, so the
+ * text is decoded at most once for each thread that reads it. The decoders are pure, so two threads that decode the
+ * same value at the same time get equal results.
+ * <p>
+ * The fields that can be lazy hold either the decoded value or a Lazy, so the values decoded eagerly don't need a
+ * wrapper. The static methods read, compare and print both.
+ *
+ * @param <T> the type of the decoded value
+ */
+abstract class Lazy<T> {
+    private static final Object NOT_DECODED = new Object();
+
+    private final String text;
+    private volatile Object value;
+
+    private Lazy(final String text, final Object value) {
+        this.text = text;
+        this.value = value;
+    }
+
+    /** @return a link decoded on first access, or null if the text is blank like {@link Utils#parseUri} */
+    static Lazy<URI> uri(final String text) {
+        if (text.trim().isEmpty()) {
+            return null;
+        }
+
+        return new Lazy<URI>(text, NOT_DECODED) {
+            @Override
+            URI decode(final String text) throws ParserException {
+                return parseUri(text);
+            }
+        };
+    }
+
+    /** @return a date decoded on first access, or null if the text is blank like {@link Utils#parseDate} */
+    static Lazy<DateTime> date(final String text, final DateTimeFormatter parser) {
+        requireNonNull(parser);
+        if (text.trim().isEmpty()) {
+            return null;
+        }
+
+        return new Lazy<DateTime>(text, NOT_DECODED) {
+            @Override
+            DateTime decode(final String text) {
+                return parseDate(text, parser);
+            }
+        };
+    }
+
+    /** @return a language decoded on first access */
+    static Lazy<Locale> language(final String text) {
+        return new Lazy<Locale>(requireNonNull(text), NOT_DECODED) {
+            @Override
+            Locale decode(final String text) {
+                return Locale.forLanguageTag(text);
+            }
+        };
+    }
+
+    /**
+     * @param field a decoded value, a Lazy or null
+     * @return the decoded value of the field
+     * @throws IllegalStateException if the field is lazy and its text is not valid
+     */
+    @SuppressWarnings("unchecked")
+    static <T> T get(final Object field) {
+        return (field instanceof Lazy) ? ((Lazy<T>)field).get() : (T)field;
+    }
+
+    /**
+     * @param field a decoded value, a Lazy or null
+     * @return the text of the field without decoding it, or null if the field is null
+     */
+    static String getText(final Object field) {
+        if (field instanceof Lazy) {
+            return ((Lazy<?>)field).text.trim();
+        }
+        return (field == null) ? null : field.toString();
+    }
+
+    /** @return true if the two fields have the same decoded value, or the same text if they are not valid */
+    static boolean equal(final Object field, final Object other) {
+        return Objects.equals(decodedOrInvalid(field), decodedOrInvalid(other));
+    }
+
+    private static Object decodedOrInvalid(final Object field) {
+        return (field instanceof Lazy) ? ((Lazy<?>)field).decodedOrInvalid() : field;
+    }
+
+    abstract T decode(String text) throws ParserException;
+
+    /**
+     * @return the decoded value
+     * @throws IllegalStateException if the text is not valid
+     */
+    @SuppressWarnings("unchecked")
+    final T get() {
+        Object current = value;
+        if (current == NOT_DECODED) {
+            try {
+                current = decode(text);
+            } catch (final ParserException | RuntimeException cause) {
+                throw new IllegalStateException(format("the value '%s' is not valid", text), cause);
+            }
+            value = current;
+        }
+        return (T)current;
+    }
+
+    /**
+     * @return the decoded value, or the text wrapped in an {@link Invalid} if it's not valid, so that equals, hashCode
+     *         and toString can't throw
+     */
+    private Object decodedOrInvalid() {
+        Object current = value;
+        if (current == NOT_DECODED) {
+            try {
+                current = decode(text);
+            } catch (final ParserException | RuntimeException ignored) {
+                return new Invalid(text.trim());
+            }
+            value = current;
+        }
+        return current;
+    }
+
+    /** @return the date of the field in RFC 822 format, its text if it's not valid, or null if the field is null */
+    static String formatDate(final Object date) {
+        final Object current = decodedOrInvalid(date);
+        return (current instanceof Invalid) ? current.toString() : Utils.formatDate((DateTime)current);
+    }
+
+    @Override
+    public final int hashCode() {
+        return Objects.hashCode(decodedOrInvalid());
+    }
+
+    @Override
+    public final boolean equals(final Object obj) {
+        if (!(obj instanceof Lazy)) {
+            return false;
+        }
+
+        return Objects.equals(decodedOrInvalid(), ((Lazy<?>)obj).decodedOrInvalid());
+    }
+
+    @Override
+    public final String toString() {
+        return String.valueOf(decodedOrInvalid());
+    }
+
+    /** The text of a value that is not valid, that is equal only to the same text */
+    private static final class Invalid {
+        private final String text;
+
+        Invalid(final String text) {
+            this.text = text;
+        }
+
+        @Override
+        public int hashCode() {
+            return text.hashCode();
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            return (obj instanceof Invalid) && text.equals(((Invalid)obj).text);
+        }
+
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+}
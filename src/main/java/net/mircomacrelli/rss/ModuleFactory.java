@@ -0,0 +1,19 @@
+package net.mircomacrelli.rss;
+
+import org.joda.time.format.DateTimeFormatter;
+
+/**
+ * Creates the parsers of a module registered in a {@link ModuleRegistry}. The factory is shared by all the threads that
+ * parse the feeds, so it must be thread-safe.
+ *
+ * @author Mirco Macrelli
+ * @version 2.1
+ */
+public interface ModuleFactory {
+    /**
+     * @param dates the parser of the dates of the RSSFactory
+     * @param pool the pool of the repeated values of the RSSFactory, or null if it doesn't have one
+     * @return a new parser for the elements of a channel or of an item
+     */
+    ModuleParser newParser(DateTimeFormatter dates, StringPool pool);
+}
@@ -1,44 +1,123 @@
 package net.mircomacrelli.rss;
 
-import java.util.HashMap;
-import java.util.Map;
+import org.joda.time.format.DateTimeFormatter;
+
+import java.io.IOException;
 
 enum ModuleInformation {
-    CREATIVE_COMMONS("http://cyber.law.harvard.edu/rss/creativeCommonsRssModule.html", CreativeCommons.class,
-                     CreativeCommons.Builder.class),
-    SYNDICATION("http://purl.org/rss/1.0/modules/syndication/", Syndication.class, Syndication.Builder.class),
-    ITUNES("http://www.itunes.com/dtds/podcast-1.0.dtd", Itunes.class, Itunes.Builder.class);
+    CREATIVE_COMMONS("http://cyber.law.harvard.edu/rss/creativeCommonsRssModule.html", "creativeCommons",
+                     CreativeCommons.class) {
+        @Override
+        ModuleBuilder newBuilder(final DateTimeFormatter parser, final StringPool pool) {
+            return new CreativeCommons.Builder();
+        }
+
+        @Override
+        void write(final Module module, final BinaryOutput out) throws IOException {
+            ((CreativeCommons)module).write(out);
+        }
+
+        @Override
+        void write(final Module module, final XmlOutput out) throws IOException {
+            ((CreativeCommons)module).write(out);
+        }
+
+        @Override
+        Module read(final BinaryInput in) throws ParserException {
+            return CreativeCommons.read(in);
+        }
+    },
+    SYNDICATION("http://purl.org/rss/1.0/modules/syndication/", "sy", Syndication.class) {
+        @Override
+        ModuleBuilder newBuilder(final DateTimeFormatter parser, final StringPool pool) {
+            return new Syndication.Builder(parser);
+        }
+
+        @Override
+        void write(final Module module, final BinaryOutput out) throws IOException {
+            ((Syndication)module).write(out);
+        }
+
+        @Override
+        void write(final Module module, final XmlOutput out) throws IOException {
+            ((Syndication)module).write(out);
+        }
+
+        @Override
+        Module read(final BinaryInput in) throws ParserException {
+            return Syndication.read(in);
+        }
+    },
+    ITUNES("http://www.itunes.com/dtds/podcast-1.0.dtd", "itunes", Itunes.class) {
+        @Override
+        ModuleBuilder newBuilder(final DateTimeFormatter parser, final StringPool pool) {
+            return new Itunes.Builder(pool);
+        }
+
+        @Override
+        void write(final Module module, final BinaryOutput out) throws IOException {
+            ((Itunes)module).write(out);
+        }
+
+        @Override
+        void write(final Module module, final XmlOutput out) throws IOException {
+            ((Itunes)module).write(out);
+        }
+
+        @Override
+        Module read(final BinaryInput in) throws ParserException {
+            return Itunes.read(in);
+        }
+    };
 
 
     private final String uri;
+    private final String prefix;
     private final Class<? extends Module> module;
-    private final Class<? extends ModuleBuilder> builder;
 
-    ModuleInformation(final String uri, final Class<? extends Module> module,
-                      final Class<? extends ModuleBuilder> builder) {
+    ModuleInformation(final String uri, final String prefix, final Class<? extends Module> module) {
         this.uri = uri;
+        this.prefix = prefix;
         this.module = module;
-        this.builder = builder;
     }
 
-    private static final Map<String, ModuleInformation> MODULES;
+    private static final ModuleInformation[] MODULES = values();
 
-    static {
-        MODULES = new HashMap<>(2);
-        for (final ModuleInformation module : ModuleInformation.values()) {
-            MODULES.put(module.uri, module);
+    public static ModuleInformation fromModule(final Class<? extends Module> module) {
+        for (final ModuleInformation info : MODULES) {
+            if (info.module == module) {
+                return info;
+            }
         }
+        return null;
     }
 
-    public static ModuleInformation fromUri(final String uri) {
-        return MODULES.get(uri);
+    /**
+     * @return a new builder of the module. Some modules use the parser of the dates or the pool of the repeated values
+     *         of the factory, that can be null
+     */
+    abstract ModuleBuilder newBuilder(DateTimeFormatter parser, StringPool pool);
+
+    /** write the module in the binary format */
+    abstract void write(Module module, BinaryOutput out) throws IOException;
+
+    /** @return the module read from the binary format */
+    abstract Module read(BinaryInput in) throws ParserException;
+
+    /** write the elements of the module in xml */
+    abstract void write(Module module, XmlOutput out) throws IOException;
+
+    /** @return the namespace of the module */
+    String getUri() {
+        return uri;
     }
 
-    public Class<? extends Module> getModule() {
-        return module;
+    /** @return the prefix used when the module is written */
+    String getPrefix() {
+        return prefix;
     }
 
-    public Class<? extends ModuleBuilder> getBuilder() {
-        return builder;
+    public Class<? extends Module> getModule() {
+        return module;
     }
 }
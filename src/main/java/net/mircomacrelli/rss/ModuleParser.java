@@ -0,0 +1,34 @@
+package net.mircomacrelli.rss;
+
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.events.StartElement;
+
+/**
+ * Parses the elements of a module registered in a {@link ModuleRegistry}. A new parser is created for every channel
+ * and item that contains the module: it receives all the elements of the module found in that channel or item and
+ * then builds the module.
+ *
+ * @author Mirco Macrelli
+ * @version 2.1
+ */
+public interface ModuleParser {
+    /**
+     * Parse an element of the module with the cursor engine.
+     *
+     * @param reader the reader, positioned on the start of the element. It must be left on the end of the element
+     */
+    void parse(XMLStreamReader reader) throws XMLStreamException, ParserException;
+
+    /**
+     * Parse an element of the module with the event engine.
+     *
+     * @param reader the reader. The end of the element must be the last event read
+     * @param element the start of the element, already read
+     */
+    void parse(XMLEventReader reader, StartElement element) throws XMLStreamException, ParserException;
+
+    /** @return the module built from the elements parsed */
+    Module build() throws ParserException;
+}
@@ -0,0 +1,214 @@
+package net.mircomacrelli.rss;
+
+import org.joda.time.format.DateTimeFormatter;
+
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.events.StartElement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The modules that a factory can parse, found by the namespace of their elements. The standard registry contains the
+ * Creative Commons, the Syndication and the iTunes modules; other modules can be added with {@link #with}, usually
+ * when the application starts, and the registry is given to the factories with {@link RSSFactory#withModules}.
+ * <p>
+ * The registry is immutable, so it's shared by all the threads. The parsers of the modules are created by their
+ * factories, without reflection, the first time a module is found in a channel or in an item. The modules added to a
+ * registry are parsed but are not written by {@link RSSWriter} and by the binary format.
+ *
+ * @author Mirco Macrelli
+ * @version 2.1
+ */
+public final class ModuleRegistry {
+    private static final ModuleRegistry STANDARD = new ModuleRegistry(standardModules());
+
+    private final Registration[] registrations;
+    private final SymbolTable namespaces;
+
+    private ModuleRegistry(final List<Registration> registrations) {
+        this.registrations = registrations.toArray(new Registration[registrations.size()]);
+        namespaces = new SymbolTable(this.registrations.length);
+        for (int i = 0; i < this.registrations.length; i++) {
+            namespaces.put(this.registrations[i].namespace, i + 1);
+        }
+    }
+
+    private static List<Registration> standardModules() {
+        final List<Registration> modules = new ArrayList<>(3);
+        modules.add(new Registration(ModuleInformation.CREATIVE_COMMONS, EnumSet.of(Target.CHANNEL, Target.ITEM)));
+        modules.add(new Registration(ModuleInformation.SYNDICATION, EnumSet.of(Target.CHANNEL)));
+        // the iTunes module is not allowed in the channel and in the items of the standard feeds
+        modules.add(new Registration(ModuleInformation.ITUNES, EnumSet.noneOf(Target.class)));
+        return modules;
+    }
+
+    /** @return the registry with the modules supported by the library */
+    public static ModuleRegistry standard() {
+        return STANDARD;
+    }
+
+    /**
+     * @param namespace the namespace of the elements of the module
+     * @param module the class of the module, used to get it from the channel and the items
+     * @param factory the factory of the parsers of the module
+     * @param targets where the module can be found. It's an error to find it somewhere else
+     * @return a new registry with the modules of this one and the new module
+     * @throws IllegalArgumentException if the namespace or the module are already in the registry
+     */
+    public ModuleRegistry with(final String namespace, final Class<? extends Module> module,
+                               final ModuleFactory factory, final Target... targets) {
+        requireNonNull(namespace);
+        requireNonNull(module);
+        requireNonNull(factory);
+        if (targets.length == 0) {
+            throw new IllegalArgumentException("the module must be allowed somewhere");
+        }
+
+        for (final Registration registration : registrations) {
+            if (registration.namespace.equals(namespace)) {
+                throw new IllegalArgumentException(format("the namespace %s is already registered", namespace));
+            }
+            if (registration.module == module) {
+                throw new IllegalArgumentException(format("the module %s is already registered", module));
+            }
+        }
+
+        final List<Registration> modules = new ArrayList<>(Arrays.asList(registrations));
+        modules.add(new Registration(namespace, module, factory, EnumSet.copyOf(Arrays.asList(targets))));
+        return new ModuleRegistry(modules);
+    }
+
+    /**
+     * @param namespace the namespace of an element
+     * @return true if the elements of the namespace are parsed
+     */
+    public boolean isRegistered(final String namespace) {
+        return namespaces.get(namespace) != SymbolTable.UNKNOWN;
+    }
+
+    /** @return the namespaces of the modules in the registry */
+    public Set<String> getNamespaces() {
+        final Set<String> uris = new LinkedHashSet<>(registrations.length * 2);
+        for (final Registration registration : registrations) {
+            uris.add(registration.namespace);
+        }
+        return Collections.unmodifiableSet(uris);
+    }
+
+    /** @return the module of the namespace, or null if it's not in the registry */
+    Registration get(final String namespace) {
+        final int id = namespaces.get(namespace);
+        return (id == SymbolTable.UNKNOWN) ? null : registrations[id - 1];
+    }
+
+    /** @return true if the module can be found in the target */
+    boolean isAllowed(final Class<? extends Module> module, final Target target) {
+        for (final Registration registration : registrations) {
+            if (registration.module == module) {
+                return registration.targets.contains(target);
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString() {
+        return format("ModuleRegistry{namespaces=%s}", getNamespaces());
+    }
+
+    /** The elements that can contain the modules */
+    public enum Target {
+        /** the channel */
+        CHANNEL,
+        /** the items */
+        ITEM
+    }
+
+    /** A module of the registry, either one of the library or one added by the application */
+    static final class Registration {
+        private final String namespace;
+        private final Class<? extends Module> module;
+        private final ModuleInformation information;
+        private final ModuleFactory factory;
+        private final Set<Target> targets;
+
+        Registration(final ModuleInformation information, final Set<Target> targets) {
+            namespace = information.getUri();
+            module = information.getModule();
+            this.information = information;
+            factory = null;
+            this.targets = targets;
+        }
+
+        Registration(final String namespace, final Class<? extends Module> module, final ModuleFactory factory,
+                     final Set<Target> targets) {
+            this.namespace = namespace;
+            this.module = module;
+            information = null;
+            this.factory = factory;
+            this.targets = targets;
+        }
+
+        /** @return the class of the module */
+        Class<? extends Module> getModule() {
+            return module;
+        }
+
+        /** @return a new builder for the elements of a channel or of an item */
+        ModuleBuilder newBuilder(final DateTimeFormatter parser, final StringPool pool) {
+            if (information != null) {
+                return information.newBuilder(parser, pool);
+            }
+            return new ExternalBuilder(module, factory.newParser(parser, pool));
+        }
+    }
+
+    /** Adapts the parsers of the modules added by the application to the builders used by the elements */
+    private static final class ExternalBuilder extends ModuleBuilder {
+        private final Class<? extends Module> module;
+        private final ModuleParser parser;
+
+        ExternalBuilder(final Class<? extends Module> module, final ModuleParser parser) {
+            super(null);
+            this.module = module;
+            this.parser = requireNonNull(parser);
+        }
+
+        @Override
+        void parseElement(final XMLEventReader reader, final StartElement element) throws ParserException {
+            try {
+                parser.parse(reader, element);
+            } catch (final XMLStreamException cause) {
+                throw new ParserException(cause);
+            }
+        }
+
+        @Override
+        void parseElement(final XMLStreamReader reader) throws ParserException {
+            try {
+                parser.parse(reader);
+            } catch (final XMLStreamException cause) {
+                throw new ParserException(cause);
+            }
+        }
+
+        @Override
+        Module buildElement() throws ParserException {
+            final Module built = parser.build();
+            if (!module.isInstance(built)) {
+                throw new IllegalStateException(format("the parser of %s built %s", module, built));
+            }
+            return built;
+        }
+    }
+}
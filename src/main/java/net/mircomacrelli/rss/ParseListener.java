@@ -0,0 +1,64 @@
+package net.mircomacrelli.rss;
+
+/**
+ * Receives the events of the parsing of the feeds, to find out why a feed is slow to parse. A factory configured with
+ * a listener calls it from the thread that parses the feed, so a listener shared by many threads must be thread-safe.
+ * The calls must be fast and must not throw: they are made in the middle of the parsing.
+ * <p>
+ * The factories without a listener don't measure anything, so the parsing is not slowed down. {@link ParseMetrics} is
+ * an implementation that collects the events in counters and histograms.
+ *
+ * @author Mirco Macrelli
+ * @version 2.1
+ */
+public interface ParseListener {
+    /** Called when the parsing of a feed starts */
+    void parseStarted();
+
+    /**
+     * Called when a feed was parsed
+     *
+     * @param bytes the bytes read from the stream
+     * @param events the xml events read from the stream
+     * @param nanos the time spent parsing the feed, in nanoseconds
+     */
+    void parseFinished(long bytes, long events, long nanos);
+
+    /**
+     * Called when a feed can't be parsed, before the exception is thrown to the caller
+     *
+     * @param cause the exception thrown by the parser
+     * @param nanos the time spent before the error, in nanoseconds
+     */
+    void parseFailed(Exception cause, long nanos);
+
+    /** Called when an item is built */
+    void itemParsed();
+
+    /**
+     * Called when a value is decoded from its text. The values decoded lazily are not measured
+     *
+     * @param value the kind of value
+     * @param nanos the time spent decoding it, in nanoseconds
+     */
+    void valueDecoded(Value value, long nanos);
+
+    /**
+     * Called when an element of a module that is not supported is skipped
+     *
+     * @param namespace the namespace of the element
+     */
+    void moduleSkipped(String namespace);
+
+    /** The values that are decoded from the text of the feed */
+    enum Value {
+        /** the dates of the channel and the items */
+        DATE,
+        /** the links of the channel, the items and the enclosures */
+        URI,
+        /** the languages of the channel */
+        LANGUAGE,
+        /** the MIME types of the enclosures */
+        MIME_TYPE
+    }
+}
@@ -0,0 +1,175 @@
+package net.mircomacrelli.rss;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static java.lang.String.format;
+
+/**
+ * A listener that collects the events of the parsing in counters and histograms, so they can be read periodically and
+ * exported to a monitoring system. The counters never decrease and are updated without locks, so the same metrics can
+ * be shared by many factories and threads.
+ * <p>
+ * The skipped elements are counted for each namespace, up to {@value #MAX_NAMESPACES} namespaces: the elements of the
+ * other namespaces are counted only in the total, so a feed with many namespaces can't fill the memory.
+ *
+ * @author Mirco Macrelli
+ * @version 2.1
+ */
+public final class ParseMetrics implements ParseListener {
+    /** the maximum number of namespaces counted one by one */
+    static final int MAX_NAMESPACES = 64;
+
+    private final AtomicLong started = new AtomicLong();
+    private final AtomicLong parsed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final AtomicLong bytes = new AtomicLong();
+    private final AtomicLong events = new AtomicLong();
+    private final AtomicLong items = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicReference<Exception> lastFailure = new AtomicReference<>();
+    private final ConcurrentMap<String, AtomicLong> namespaces = new ConcurrentHashMap<>();
+    private final LatencyHistogram parseTime = new LatencyHistogram();
+    private final LatencyHistogram[] decodingTimes;
+
+    private ParseMetrics() {
+        final Value[] values = Value.values();
+        decodingTimes = new LatencyHistogram[values.length];
+        for (final Value value : values) {
+            decodingTimes[value.ordinal()] = new LatencyHistogram();
+        }
+    }
+
+    /** @return new metrics with all the counters at zero */
+    public static ParseMetrics newMetrics() {
+        return new ParseMetrics();
+    }
+
+    @Override
+    public void parseStarted() {
+        started.incrementAndGet();
+    }
+
+    @Override
+    public void parseFinished(final long bytes, final long events, final long nanos) {
+        parsed.incrementAndGet();
+        this.bytes.addAndGet(bytes);
+        this.events.addAndGet(events);
+        parseTime.record(nanos);
+    }
+
+    @Override
+    public void parseFailed(final Exception cause, final long nanos) {
+        failed.incrementAndGet();
+        lastFailure.set(cause);
+        parseTime.record(nanos);
+    }
+
+    @Override
+    public void itemParsed() {
+        items.incrementAndGet();
+    }
+
+    @Override
+    public void valueDecoded(final Value value, final long nanos) {
+        decodingTimes[value.ordinal()].record(nanos);
+    }
+
+    @Override
+    public void moduleSkipped(final String namespace) {
+        skipped.incrementAndGet();
+
+        final String key = (namespace == null) ? "" : namespace;
+        AtomicLong counter = namespaces.get(key);
+        if ((counter == null) && (namespaces.size() < MAX_NAMESPACES)) {
+            final AtomicLong created = new AtomicLong();
+            counter = namespaces.putIfAbsent(key, created);
+            if (counter == null) {
+                counter = created;
+            }
+        }
+        if (counter != null) {
+            counter.incrementAndGet();
+        }
+    }
+
+    /** @return the number of feeds whose parsing started */
+    public long getStartedCount() {
+        return started.get();
+    }
+
+    /** @return the number of feeds parsed */
+    public long getParsedCount() {
+        return parsed.get();
+    }
+
+    /** @return the number of feeds that could not be parsed */
+    public long getFailedCount() {
+        return failed.get();
+    }
+
+    /** @return the number of feeds still being parsed */
+    public long getInProgressCount() {
+        // read the finished ones first, so the result is never negative
+        final long finished = parsed.get() + failed.get();
+        return started.get() - finished;
+    }
+
+    /** @return the bytes read from the feeds parsed */
+    public long getBytesRead() {
+        return bytes.get();
+    }
+
+    /** @return the xml events read from the feeds parsed */
+    public long getEventCount() {
+        return events.get();
+    }
+
+    /** @return the number of items built */
+    public long getItemCount() {
+        return items.get();
+    }
+
+    /** @return the number of elements of unknown modules that were skipped */
+    public long getSkippedModuleCount() {
+        return skipped.get();
+    }
+
+    /** @return the number of elements skipped for each unknown namespace */
+    public Map<String, Long> getSkippedNamespaces() {
+        final Map<String, Long> snapshot = new HashMap<>(namespaces.size() * 2);
+        for (final Entry<String, AtomicLong> entry : namespaces.entrySet()) {
+            snapshot.put(entry.getKey(), entry.getValue().get());
+        }
+        return snapshot;
+    }
+
+    /** @return the last exception thrown by the parser, or null if no feed failed */
+    public Exception getLastFailure() {
+        return lastFailure.get();
+    }
+
+    /** @return the time spent parsing the feeds, both the parsed and the failed ones */
+    public LatencyHistogram getParseTime() {
+        return parseTime;
+    }
+
+    /**
+     * @param value the kind of value
+     * @return the time spent decoding the values of that kind
+     */
+    public LatencyHistogram getDecodingTime(final Value value) {
+        return decodingTimes[value.ordinal()];
+    }
+
+    @Override
+    public String toString() {
+        return format("ParseMetrics{parsed=%d, failed=%d, bytes=%d, events=%d, items=%d, skipped=%d, parseTime=%s}",
+                      parsed.get(), failed.get(), bytes.get(), events.get(), items.get(), skipped.get(), parseTime);
+    }
+}
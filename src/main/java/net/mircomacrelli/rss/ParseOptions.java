@@ -0,0 +1,84 @@
+package net.mircomacrelli.rss;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The settings of the factory that change how the channel and the items are built. Immutable, so the same instance is
+ * shared by all the builders of a factory.
+ */
+final class ParseOptions {
+    static final ParseOptions DEFAULT = new ParseOptions(false, Projection.all(), ModuleRegistry.standard(), null,
+                                                                  null, null);
+
+    private final boolean lazy;
+    private final Projection projection;
+    private final ModuleRegistry modules;
+    private final StringPool pool;
+    private final ParseListener listener;
+    private final Recovery recovery;
+
+    private ParseOptions(final boolean lazy, final Projection projection, final ModuleRegistry modules,
+                         final StringPool pool, final ParseListener listener, final Recovery recovery) {
+        this.lazy = lazy;
+        this.projection = requireNonNull(projection);
+        this.modules = requireNonNull(modules);
+        this.pool = pool;
+        this.listener = listener;
+        this.recovery = recovery;
+    }
+
+    /** @return true if the values are decoded when they are read */
+    boolean isLazy() {
+        return lazy;
+    }
+
+    /** @return the fields and the modules that are materialized */
+    Projection getProjection() {
+        return projection;
+    }
+
+    /** @return the modules that are parsed */
+    ModuleRegistry getModules() {
+        return modules;
+    }
+
+    /** @return the pool of the repeated values, or null if they are not pooled */
+    StringPool getPool() {
+        return pool;
+    }
+
+    /** @return the listener of the events of the parsing, or null if nothing is measured */
+    ParseListener getListener() {
+        return listener;
+    }
+
+    /** @return the reader that skips the invalid elements of a lenient parsing, or null if they are not skipped */
+    Recovery getRecovery() {
+        return recovery;
+    }
+
+    ParseOptions withLazy(final boolean lazy) {
+        return new ParseOptions(lazy, projection, modules, pool, listener, recovery);
+    }
+
+    ParseOptions withProjection(final Projection projection) {
+        return new ParseOptions(lazy, projection, modules, pool, listener, recovery);
+    }
+
+    ParseOptions withModules(final ModuleRegistry modules) {
+        return new ParseOptions(lazy, projection, modules, pool, listener, recovery);
+    }
+
+    ParseOptions withPool(final StringPool pool) {
+        return new ParseOptions(lazy, projection, modules, pool, listener, recovery);
+    }
+
+    ParseOptions withListener(final ParseListener listener) {
+        return new ParseOptions(lazy, projection, modules, pool, listener, recovery);
+    }
+
+    /** The recovery is used by a single parsing, so the options with a recovery must not be shared */
+    ParseOptions withRecovery(final Recovery recovery) {
+        return new ParseOptions(lazy, projection, modules, pool, listener, recovery);
+    }
+}
@@ -0,0 +1,44 @@
+package net.mircomacrelli.rss;
+
+import java.util.Collections;
+import java.util.List;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The result of {@link RSSFactory#parseLeniently}: the feed without the elements that were not valid, and a diagnostic
+ * for each of them.
+ *
+ * @author Mirco Macrelli
+ * @version 2.1
+ */
+public final class ParseReport {
+    private final RSS feed;
+    private final List<Diagnostic> diagnostics;
+
+    ParseReport(final RSS feed, final List<Diagnostic> diagnostics) {
+        this.feed = requireNonNull(feed);
+        this.diagnostics = Collections.unmodifiableList(diagnostics);
+    }
+
+    /** @return the feed */
+    public RSS getFeed() {
+        return feed;
+    }
+
+    /** @return the elements that were skipped, in the order they were found */
+    public List<Diagnostic> getDiagnostics() {
+        return diagnostics;
+    }
+
+    /** @return true if no element was skipped */
+    public boolean isClean() {
+        return diagnostics.isEmpty();
+    }
+
+    @Override
+    public String toString() {
+        return format("ParseReport{feed=%s, diagnostics=%s}", feed, diagnostics);
+    }
+}
@@ -0,0 +1,62 @@
+package net.mircomacrelli.rss;
+
+import static java.lang.String.format;
+
+/**
+ * The result of the parsing of one of the sources given to {@link RSSFactory#parseAll}. It contains either the feed or
+ * the exception thrown while parsing it.
+ *
+ * @author Mirco Macrelli
+ * @version 2.1
+ */
+public final class ParseResult {
+    private final int index;
+    private final RSS feed;
+    private final ParserException exception;
+
+    ParseResult(final int index, final RSS feed, final ParserException exception) {
+        if ((feed == null) == (exception == null)) {
+            throw new IllegalArgumentException("exactly one of feed or exception must be set");
+        }
+
+        this.index = index;
+        this.feed = feed;
+        this.exception = exception;
+    }
+
+    /** @return the position of the source in the list given to the factory */
+    public int getIndex() {
+        return index;
+    }
+
+    /** @return true if the source was parsed without errors */
+    public boolean isSuccessful() {
+        return feed != null;
+    }
+
+    /**
+     * @return the feed
+     * @throws ParserException the exception thrown while parsing the source
+     */
+    public RSS getFeed() throws ParserException {
+        if (exception != null) {
+            throw exception;
+        }
+
+        return feed;
+    }
+
+    /** @return the exception thrown while parsing the source, or null if the parsing was successful */
+    public ParserException getException() {
+        return exception;
+    }
+
+    @Override
+    public String toString() {
+        if (feed != null) {
+            return format("ParseResult{index=%d, feed=%s}", index, feed);
+        }
+
+        return format("ParseResult{index=%d, exception=%s}", index, exception);
+    }
+}
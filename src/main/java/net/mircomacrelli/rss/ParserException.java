@@ -22,4 +22,15 @@ public class ParserException extends Exception {
     public ParserException(final String message) {
         super(message);
     }
+
+    /**
+     * Create an exception for the checks of the library, that are frequent in the broken feeds and don't need the
+     * stack trace to be understood
+     * @param message the message associated with the exception
+     * @param cause the original exception, or null
+     * @param writableStackTrace false to not fill the stack trace
+     */
+    ParserException(final String message, final Throwable cause, final boolean writableStackTrace) {
+        super(message, cause, true, writableStackTrace);
+    }
 }
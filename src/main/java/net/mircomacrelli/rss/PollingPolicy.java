@@ -0,0 +1,213 @@
+package net.mircomacrelli.rss;
+
+import net.mircomacrelli.rss.Channel.Day;
+import org.joda.time.DateTime;
+
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.String.format;
+
+/**
+ * Computes when a feed should be checked again from the hints published in the channel:
+ * <ul>
+ *     <li>the ttl, the minutes the feed can be cached</li>
+ *     <li>the period and the frequency of the Syndication module, that are the interval between the updates, and its
+ *     base, the time the updates are aligned to</li>
+ *     <li>the hours and the days, in GMT, when the feed should not be checked</li>
+ * </ul>
+ * The hints can only make the interval longer than the default one, that is the shortest interval allowed, but never
+ * longer than the maximum one. The skipped hours and days are ignored if they skip the whole day or the whole week.
+ * The policy is immutable.
+ *
+ * @author Mirco Macrelli
+ * @version 2.1
+ */
+public final class PollingPolicy {
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+    private static final long DAY = TimeUnit.DAYS.toMillis(1);
+    private static final int ALL_HOURS = (1 << 24) - 1;
+    private static final int ALL_DAYS = ((1 << 7) - 1) << 24;
+    /** the first of January of 1970 was a Thursday */
+    private static final int EPOCH_DAY_OF_WEEK = Day.THURSDAY.ordinal();
+
+    static final long NO_BASE = Long.MIN_VALUE;
+
+    private static final PollingPolicy DEFAULT = new PollingPolicy(HOUR, DAY);
+
+    private final long defaultInterval;
+    private final long maxInterval;
+
+    private PollingPolicy(final long defaultInterval, final long maxInterval) {
+        if (defaultInterval <= 0) {
+            throw new IllegalArgumentException(format("defaultInterval must be positive. was %d", defaultInterval));
+        }
+        if (maxInterval < defaultInterval) {
+            throw new IllegalArgumentException(format("maxInterval can't be shorter than defaultInterval. was %d",
+                                                      maxInterval));
+        }
+
+        this.defaultInterval = defaultInterval;
+        this.maxInterval = maxInterval;
+    }
+
+    /** @return a policy that checks the feeds at most every hour and at least every day */
+    public static PollingPolicy newPolicy() {
+        return DEFAULT;
+    }
+
+    /**
+     * @param interval the interval used when the feed has no hints, and the shortest one allowed
+     * @param unit the unit of the interval
+     * @return a new policy with the same settings of this one and the requested default interval
+     */
+    public PollingPolicy withDefaultInterval(final long interval, final TimeUnit unit) {
+        return new PollingPolicy(unit.toMillis(interval), maxInterval);
+    }
+
+    /**
+     * @param interval the longest interval allowed, regardless of the hints
+     * @param unit the unit of the interval
+     * @return a new policy with the same settings of this one and the requested maximum interval
+     */
+    public PollingPolicy withMaxInterval(final long interval, final TimeUnit unit) {
+        return new PollingPolicy(defaultInterval, unit.toMillis(interval));
+    }
+
+    /** @return the interval used when the feed has no hints, in milliseconds */
+    public long getDefaultInterval() {
+        return defaultInterval;
+    }
+
+    /** @return the longest interval allowed, in milliseconds */
+    public long getMaxInterval() {
+        return maxInterval;
+    }
+
+    /**
+     * @param channel the channel
+     * @return the milliseconds to wait before checking the feed again, without the skipped hours and days
+     */
+    public long getInterval(final Channel channel) {
+        long interval = defaultInterval;
+
+        final Integer ttl = channel.getTimeToLive();
+        if (ttl != null) {
+            interval = Math.max(interval, TimeUnit.MINUTES.toMillis(ttl));
+        }
+
+        final Syndication syndication = channel.getModule(Syndication.class);
+        if (syndication != null) {
+            interval = Math.max(interval, getUpdatePeriod(syndication));
+        }
+
+        return Math.min(interval, maxInterval);
+    }
+
+    /**
+     * @param channel the channel read at the last check
+     * @param lastPoll when the feed was checked
+     * @return when the feed should be checked again
+     */
+    public DateTime getNextPoll(final Channel channel, final DateTime lastPoll) {
+        final Syndication syndication = channel.getModule(Syndication.class);
+        final long next = nextPoll(lastPoll.getMillis(), getInterval(channel),
+                                   (syndication == null) ? NO_BASE : syndication.getBase().getMillis(),
+                                   (syndication == null) ? 0 : getUpdatePeriod(syndication), getSkips(channel));
+        return new DateTime(next, lastPoll.getZone());
+    }
+
+    /** @return the milliseconds between two updates announced by the Syndication module */
+    static long getUpdatePeriod(final Syndication syndication) {
+        final long period;
+        switch (syndication.getPeriod()) {
+            case HOURLY:
+                period = HOUR;
+                break;
+            case DAILY:
+                period = DAY;
+                break;
+            case WEEKLY:
+                period = 7 * DAY;
+                break;
+            case MONTHLY:
+                period = 30 * DAY;
+                break;
+            default:
+                period = 365 * DAY;
+                break;
+        }
+        return period / syndication.getFrequency();
+    }
+
+    /** @return the skipped hours in the first 24 bits and the skipped days in the next 7 */
+    static int getSkips(final Channel channel) {
+        int skips = 0;
+        for (final Integer hour : channel.getSkipHours()) {
+            skips |= 1 << hour;
+        }
+        for (final Day day : channel.getSkipDays()) {
+            skips |= 1 << (24 + day.ordinal());
+        }
+        return skips;
+    }
+
+    /**
+     * @param lastPoll when the feed was checked, in milliseconds since the epoch
+     * @param interval the interval returned by {@link #getInterval}
+     * @param base the time the updates are aligned to, or {@link #NO_BASE}
+     * @param updatePeriod the milliseconds between the updates aligned to the base
+     * @param skips the hours and the days returned by {@link #getSkips}
+     * @return when the feed should be checked again, in milliseconds since the epoch
+     */
+    static long nextPoll(final long lastPoll, final long interval, final long base, final long updatePeriod,
+                         final int skips) {
+        long next = lastPoll + interval;
+        if ((base != NO_BASE) && (updatePeriod > 0) && (updatePeriod <= interval)) {
+            // the first update after the interval. not when the interval was cut to the maximum
+            next = base + (ceilDiv(next - base, updatePeriod) * updatePeriod);
+        }
+
+        int skippedHours = skips & ALL_HOURS;
+        int skippedDays = skips & ALL_DAYS;
+        if (skippedHours == ALL_HOURS) {
+            skippedHours = 0;
+        }
+        if (skippedDays == ALL_DAYS) {
+            skippedDays = 0;
+        }
+        final int effective = skippedHours | skippedDays;
+        if (effective == 0) {
+            return next;
+        }
+
+        // at worst every hour of a week is checked once
+        for (int i = 0; (i < (24 * 7)) && isSkipped(next, effective); i++) {
+            next = (next - floorMod(next, HOUR)) + HOUR;
+        }
+        return next;
+    }
+
+    private static boolean isSkipped(final long time, final int skips) {
+        final int hour = (int)(floorMod(time, DAY) / HOUR);
+        final int day = (int)((floorDiv(time, DAY) + EPOCH_DAY_OF_WEEK) % 7);
+        return ((skips & (1 << hour)) != 0) || ((skips & (1 << (24 + day))) != 0);
+    }
+
+    private static long ceilDiv(final long dividend, final long divisor) {
+        return -floorDiv(-dividend, divisor);
+    }
+
+    private static long floorDiv(final long dividend, final long divisor) {
+        final long quotient = dividend / divisor;
+        return (((dividend % divisor) != 0) && ((dividend < 0) != (divisor < 0))) ? (quotient - 1) : quotient;
+    }
+
+    private static long floorMod(final long dividend, final long divisor) {
+        return dividend - (floorDiv(dividend, divisor) * divisor);
+    }
+
+    @Override
+    public String toString() {
+        return format("PollingPolicy{defaultInterval=%d, maxInterval=%d}", defaultInterval, maxInterval);
+    }
+}
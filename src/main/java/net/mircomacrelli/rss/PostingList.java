@@ -0,0 +1,119 @@
+package net.mircomacrelli.rss;
+
+import java.util.Arrays;
+
+/**
+ * The documents that contain a term, with the positions of the term in each document. The postings are encoded as
+ * variable length integers: for each document the difference from the previous one, the number of positions and the
+ * differences between the positions.
+ */
+final class PostingList {
+    private int[] documents;
+    /** the first position of each document, and the end of the positions of the last one */
+    private int[] starts;
+    private int[] positions;
+    private int size;
+    private int positionCount;
+
+    private PostingList(final int capacity, final boolean withPositions) {
+        documents = new int[capacity];
+        starts = withPositions ? new int[capacity + 1] : null;
+        positions = withPositions ? new int[capacity * 2] : null;
+    }
+
+    /**
+     * @param bytes the encoded postings
+     * @param offset the first byte
+     * @param end the byte after the last one
+     * @param withPositions false to skip the positions, when only the documents are needed
+     * @return the decoded postings
+     */
+    static PostingList decode(final byte[] bytes, final int offset, final int end, final boolean withPositions) {
+        final PostingList list = new PostingList(Math.max(4, (end - offset) / 4), withPositions);
+        final int[] cursor = {offset};
+        int document = 0;
+        while (cursor[0] < end) {
+            document += readVarInt(bytes, cursor);
+            final int count = readVarInt(bytes, cursor);
+            list.addDocument(document);
+            int position = 0;
+            for (int i = 0; i < count; i++) {
+                position += readVarInt(bytes, cursor);
+                if (withPositions) {
+                    list.addPosition(position);
+                }
+            }
+        }
+        if (withPositions) {
+            list.starts[list.size] = list.positionCount;
+        }
+        return list;
+    }
+
+    private void addDocument(final int document) {
+        if (size == documents.length) {
+            documents = Arrays.copyOf(documents, size * 2);
+            if (starts != null) {
+                starts = Arrays.copyOf(starts, (size * 2) + 1);
+            }
+        }
+        documents[size] = document;
+        if (starts != null) {
+            starts[size] = positionCount;
+        }
+        size++;
+    }
+
+    private void addPosition(final int position) {
+        if (positionCount == positions.length) {
+            positions = Arrays.copyOf(positions, positionCount * 2);
+        }
+        positions[positionCount++] = position;
+    }
+
+    static int readVarInt(final byte[] bytes, final int[] cursor) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = bytes[cursor[0]++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    /** @return the number of documents */
+    int size() {
+        return size;
+    }
+
+    int getDocument(final int index) {
+        return documents[index];
+    }
+
+    /** @return a copy of the documents in order */
+    int[] getDocuments() {
+        return Arrays.copyOf(documents, size);
+    }
+
+    /** @return the index of the first position of the document at index */
+    int getPositionsStart(final int index) {
+        return starts[index];
+    }
+
+    /** @return the index after the last position of the document at index */
+    int getPositionsEnd(final int index) {
+        return starts[index + 1];
+    }
+
+    /** @return the array of all the positions, valid up to the end of the last document */
+    int[] getPositions() {
+        return positions;
+    }
+
+    /** @return true if the document at index contains the term at the position */
+    boolean hasPosition(final int index, final int position) {
+        return Arrays.binarySearch(positions, starts[index], starts[index + 1], position) >= 0;
+    }
+}
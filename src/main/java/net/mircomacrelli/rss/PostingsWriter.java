@@ -0,0 +1,62 @@
+package net.mircomacrelli.rss;
+
+import java.util.Arrays;
+
+/** Encodes the postings of a term, in the format read by {@link PostingList#decode} */
+final class PostingsWriter {
+    private byte[] bytes = new byte[8];
+    private int size;
+    private int lastDocument;
+
+    /**
+     * @param document the document, greater than the previous one
+     * @param positions the positions of the term in the document, in order
+     * @param from the index of the first position
+     * @param to the index after the last position
+     */
+    void add(final int document, final int[] positions, final int from, final int to) {
+        writeVarInt(document - lastDocument);
+        lastDocument = document;
+        writeVarInt(to - from);
+        int previous = 0;
+        for (int i = from; i < to; i++) {
+            writeVarInt(positions[i] - previous);
+            previous = positions[i];
+        }
+    }
+
+    /** Append all the postings of a list whose documents are greater than the ones already written */
+    void addAll(final PostingList list) {
+        for (int i = 0; i < list.size(); i++) {
+            add(list.getDocument(i), list.getPositions(), list.getPositionsStart(i), list.getPositionsEnd(i));
+        }
+    }
+
+    private void writeVarInt(final int value) {
+        if ((size + 5) > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + 5));
+        }
+
+        int remaining = value;
+        while ((remaining & ~0x7F) != 0) {
+            bytes[size++] = (byte)((remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+        bytes[size++] = (byte)remaining;
+    }
+
+    /** @return the postings written */
+    PostingList decode(final boolean withPositions) {
+        return PostingList.decode(bytes, 0, size, withPositions);
+    }
+
+    /** Copy the encoded postings in an array */
+    void copyTo(final byte[] destination, final int offset) {
+        System.arraycopy(bytes, 0, destination, offset, size);
+    }
+
+    /** @return the number of bytes written */
+    int size() {
+        return size;
+    }
+}
@@ -0,0 +1,235 @@
+package net.mircomacrelli.rss;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+
+import static java.lang.String.format;
+import static java.util.Objects.hash;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The fields of the channel and of the items, and the modules, that are materialized by the parser. The elements of
+ * the other fields are skipped without reading their text or creating their builders.
+ * <p>
+ * The title, link and description of the channel are always materialized, because they are required. For the items at
+ * least one of title or description is required: when only one of them is in the projection the other one is read
+ * only if the item doesn't contain the first one.
+ * <p>
+ * A projection is immutable and thread-safe.
+ *
+ * @author Mirco Macrelli
+ * @version 2.1
+ */
+public final class Projection {
+    private static final Projection ALL = new Projection(EnumSet.allOf(ChannelField.class),
+                                                         EnumSet.allOf(ItemField.class), null);
+    private static final Projection NONE = new Projection(EnumSet.noneOf(ChannelField.class),
+                                                          EnumSet.noneOf(ItemField.class),
+                                                          Collections.<Class<? extends Module>>emptySet());
+
+    private final EnumSet<ChannelField> channelFields;
+    private final EnumSet<ItemField> itemFields;
+    private final Set<Class<? extends Module>> modules;
+    private final boolean[] channelTags;
+    private final boolean[] itemTags;
+
+    private Projection(final EnumSet<ChannelField> channelFields, final EnumSet<ItemField> itemFields,
+                       final Set<Class<? extends Module>> modules) {
+        this.channelFields = channelFields;
+        this.itemFields = itemFields;
+        this.modules = modules;
+
+        channelTags = new boolean[Tag.COUNT];
+        channelTags[Tag.TITLE] = true;
+        channelTags[Tag.LINK] = true;
+        channelTags[Tag.DESCRIPTION] = true;
+        for (final ChannelField field : channelFields) {
+            channelTags[field.tag] = true;
+        }
+
+        itemTags = new boolean[Tag.COUNT];
+        for (final ItemField field : itemFields) {
+            itemTags[field.tag] = true;
+        }
+    }
+
+    /** @return a projection that materializes all the fields and all the modules */
+    public static Projection all() {
+        return ALL;
+    }
+
+    /** @return a projection that materializes only the required fields of the channel and no modules */
+    public static Projection none() {
+        return NONE;
+    }
+
+    /**
+     * @param fields the fields of the channel to add
+     * @return a new projection that contains also the fields
+     */
+    public Projection withChannelFields(final ChannelField... fields) {
+        final EnumSet<ChannelField> union = channelFields.clone();
+        union.addAll(Arrays.asList(fields));
+        return new Projection(union, itemFields, modules);
+    }
+
+    /**
+     * @param fields the fields of the items to add
+     * @return a new projection that contains also the fields. The items are added to the fields of the channel
+     */
+    public Projection withItemFields(final ItemField... fields) {
+        final EnumSet<ChannelField> channel = channelFields.clone();
+        channel.add(ChannelField.ITEMS);
+
+        final EnumSet<ItemField> union = itemFields.clone();
+        union.addAll(Arrays.asList(fields));
+        return new Projection(channel, union, modules);
+    }
+
+    /**
+     * @param modules the modules to add
+     * @return a new projection that contains also the modules
+     */
+    @SafeVarargs
+    public final Projection withModules(final Class<? extends Module>... modules) {
+        if (this.modules == null) {
+            return this;
+        }
+
+        final Set<Class<? extends Module>> union = new HashSet<>(this.modules);
+        for (final Class<? extends Module> module : modules) {
+            union.add(requireNonNull(module));
+        }
+        return new Projection(channelFields, itemFields, union);
+    }
+
+    /** @return true if the field is materialized */
+    public boolean includes(final ChannelField field) {
+        return channelTags[field.tag];
+    }
+
+    /** @return true if the field is materialized */
+    public boolean includes(final ItemField field) {
+        return itemTags[field.tag];
+    }
+
+    /** @return true if the module is materialized */
+    public boolean includes(final Class<? extends Module> module) {
+        return (modules == null) || modules.contains(module);
+    }
+
+    /** @return true if the element of the channel with this tag id is materialized */
+    boolean includesChannelTag(final int tag) {
+        return channelTags[tag];
+    }
+
+    /** @return true if the element of the item with this tag id is materialized */
+    boolean includesItemTag(final int tag) {
+        return itemTags[tag];
+    }
+
+    @Override
+    public int hashCode() {
+        return hash(channelFields, itemFields, modules);
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if (!(obj instanceof Projection)) {
+            return false;
+        }
+
+        final Projection other = (Projection)obj;
+        return channelFields.equals(other.channelFields) && itemFields.equals(other.itemFields) &&
+               ((modules == null) ? (other.modules == null) : modules.equals(other.modules));
+    }
+
+    @Override
+    public String toString() {
+        return format("Projection{channel=%s, item=%s, modules=%s}", channelFields, itemFields,
+                      (modules == null) ? "all" : modules);
+    }
+
+    /** Fields of the channel */
+    public enum ChannelField {
+        /** title, always materialized */
+        TITLE(Tag.TITLE),
+        /** link, always materialized */
+        LINK(Tag.LINK),
+        /** description, always materialized */
+        DESCRIPTION(Tag.DESCRIPTION),
+        /** language */
+        LANGUAGE(Tag.LANGUAGE),
+        /** copyright */
+        COPYRIGHT(Tag.COPYRIGHT),
+        /** managingEditor */
+        EDITOR(Tag.MANAGING_EDITOR),
+        /** webMaster */
+        WEBMASTER(Tag.WEB_MASTER),
+        /** pubDate */
+        PUBLISH_DATE(Tag.PUB_DATE),
+        /** lastBuildDate */
+        BUILD_DATE(Tag.LAST_BUILD_DATE),
+        /** category */
+        CATEGORIES(Tag.CATEGORY),
+        /** generator */
+        GENERATOR(Tag.GENERATOR),
+        /** docs */
+        DOCUMENTATION(Tag.DOCS),
+        /** cloud */
+        CLOUD(Tag.CLOUD),
+        /** ttl */
+        TIME_TO_LIVE(Tag.TTL),
+        /** image */
+        IMAGE(Tag.IMAGE),
+        /** textInput */
+        TEXT_INPUT(Tag.TEXT_INPUT),
+        /** rating */
+        RATING(Tag.RATING),
+        /** skipHours */
+        SKIP_HOURS(Tag.SKIP_HOURS),
+        /** skipDays */
+        SKIP_DAYS(Tag.SKIP_DAYS),
+        /** item */
+        ITEMS(Tag.ITEM);
+
+        private final int tag;
+
+        ChannelField(final int tag) {
+            this.tag = tag;
+        }
+    }
+
+    /** Fields of the items */
+    public enum ItemField {
+        /** title */
+        TITLE(Tag.TITLE),
+        /** link */
+        LINK(Tag.LINK),
+        /** description */
+        DESCRIPTION(Tag.DESCRIPTION),
+        /** author */
+        AUTHOR(Tag.AUTHOR),
+        /** category */
+        CATEGORIES(Tag.CATEGORY),
+        /** comments */
+        COMMENTS_LINK(Tag.COMMENTS),
+        /** enclosure */
+        ENCLOSURES(Tag.ENCLOSURE),
+        /** guid */
+        UNIQUE_ID(Tag.GUID),
+        /** pubDate */
+        PUBLISH_DATE(Tag.PUB_DATE),
+        /** source */
+        SOURCE(Tag.SOURCE);
+
+        private final int tag;
+
+        ItemField(final int tag) {
+            this.tag = tag;
+        }
+    }
+}
@@ -0,0 +1,453 @@
+package net.mircomacrelli.rss;
+
+import net.mircomacrelli.rss.RSS.Version;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Parses a feed from chunks of bytes pushed as they arrive, for example by a non-blocking client, without ever waiting
+ * for the next ones. The items are returned as soon as their end tag is received, and the channel as soon as its
+ * elements before the first item are received.
+ * <p>
+ * The parser finds the boundaries of the items with a small scanner of the markup, keeping only the bytes of the item
+ * being received, and parses the items of each chunk with the cursor engine of its factory, so the options of the
+ * factory are used. The scanner works on the bytes, so the feeds encoded in UTF-16 and UTF-32 are not supported. The
+ * xml is fully checked only inside the items and the channel, when they are parsed.
+ * <p>
+ * If the factory has a listener, the feed is reported as a single parsing that starts with the first chunk and finishes
+ * with {@link #finish}. The bytes are the ones pushed, and the time is the one spent in the methods of the parser.
+ * <p>
+ * A parser reads a single feed and is not thread-safe: each download has its own. After an exception the parser
+ * can't be used anymore.
+ *
+ * @author Mirco Macrelli
+ * @version 2.1
+ */
+public final class PushParser {
+    private static final Charset ASCII = Charset.forName("US-ASCII");
+    private static final byte[] CHANNEL = "channel".getBytes(ASCII);
+    private static final byte[] ITEM = "item".getBytes(ASCII);
+    private static final byte[] RSS_ELEMENT = "rss".getBytes(ASCII);
+    private static final byte[] END = "</channel></rss>".getBytes(ASCII);
+    private static final int MIN_CAPACITY = 8 * 1024;
+
+    private final RSSFactory factory;
+    private final ParseListener listener;
+    /** the xml declaration and the start tags of the root and of the channel, that precede every document parsed */
+    private final ByteArrayOutputStream head = new ByteArrayOutputStream(256);
+    /** the elements of the channel that are not items */
+    private final ByteArrayOutputStream channelBytes = new ByteArrayOutputStream(1024);
+    /** the items received completely and not yet parsed */
+    private final ByteArrayOutputStream items = new ByteArrayOutputStream(MIN_CAPACITY);
+
+    private byte[] buffer = new byte[MIN_CAPACITY];
+    private int length;
+    private int position;
+    /** the start of the item being received, or -1 */
+    private int itemStart = -1;
+    private int depth;
+    private boolean started;
+    private boolean rootFound;
+    private boolean channelFound;
+    private boolean complete;
+    private boolean itemFound;
+    private Channel channel;
+    private Charset charset;
+    private Version version;
+    /** the bytes of the channel when it was parsed at the first item */
+    private int parsedChannelSize = -1;
+    private long bytes;
+    private long events;
+    private long nanos;
+    private boolean startReported;
+    private boolean reported;
+
+    PushParser(final RSSFactory factory) {
+        this.factory = requireNonNull(factory);
+        listener = factory.getListener();
+    }
+
+    /**
+     * Parse the next bytes of the feed. All the remaining bytes of the chunk are read
+     *
+     * @param chunk the next bytes of the feed
+     * @return the items completed by the chunk, in order
+     * @throws ParserException if the feed or one of the items is not valid
+     * @throws IllegalStateException if the feed is not an RSS feed
+     */
+    public List<Item> feed(final ByteBuffer chunk) throws ParserException {
+        if (listener == null) {
+            return push(chunk);
+        }
+
+        if (!startReported) {
+            startReported = true;
+            listener.parseStarted();
+        }
+        bytes += chunk.remaining();
+        final long start = System.nanoTime();
+        try {
+            final List<Item> parsed = push(chunk);
+            nanos += System.nanoTime() - start;
+            return parsed;
+        } catch (final ParserException | RuntimeException cause) {
+            failed(cause, start);
+            throw cause;
+        }
+    }
+
+    private void failed(final Exception cause, final long start) {
+        nanos += System.nanoTime() - start;
+        if (!reported) {
+            reported = true;
+            listener.parseFailed(cause, nanos);
+        }
+    }
+
+    private List<Item> push(final ByteBuffer chunk) throws ParserException {
+        append(chunk);
+        if (!started && (length >= 2)) {
+            started = true;
+            if (((buffer[0] == (byte)0xFE) && (buffer[1] == (byte)0xFF)) ||
+                ((buffer[0] == (byte)0xFF) && (buffer[1] == (byte)0xFE)) || (buffer[0] == 0) || (buffer[1] == 0)) {
+                throw new ParserException("the feeds encoded in UTF-16 and UTF-32 can't be parsed incrementally");
+            }
+        }
+
+        while ((position < length) && scan()) {
+            // each call of scan reads a complete text or markup
+        }
+        compact();
+
+        if (items.size() == 0) {
+            return Collections.emptyList();
+        }
+        final List<Item> parsed = parseItems();
+        items.reset();
+        return parsed;
+    }
+
+    private void append(final ByteBuffer chunk) {
+        final int size = chunk.remaining();
+        if ((length + size) > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, length + size));
+        }
+        chunk.get(buffer, length, size);
+        length += size;
+    }
+
+    /** Drop the bytes already scanned that are not part of the item being received */
+    private void compact() {
+        final int keep = (itemStart >= 0) ? itemStart : position;
+        if (keep == 0) {
+            return;
+        }
+
+        System.arraycopy(buffer, keep, buffer, 0, length - keep);
+        length -= keep;
+        position -= keep;
+        if (itemStart >= 0) {
+            itemStart -= keep;
+        }
+        if ((buffer.length > MIN_CAPACITY) && (length < (buffer.length / 4))) {
+            buffer = Arrays.copyOf(buffer, Math.max(MIN_CAPACITY, buffer.length / 2));
+        }
+    }
+
+    /** @return false if the markup at the position is not complete yet */
+    private boolean scan() throws ParserException {
+        final int start = position;
+        if (buffer[start] != '<') {
+            int end = start;
+            while ((end < length) && (buffer[end] != '<')) {
+                end++;
+            }
+            text(start, end);
+            position = end;
+            return true;
+        }
+
+        final int end = markupEnd(start);
+        if (end < 0) {
+            return false;
+        }
+        position = end;
+
+        final byte next = buffer[start + 1];
+        if (next == '/') {
+            endTag(start, end);
+        } else if ((next == '?') || (next == '!')) {
+            if (startsWith(start, "<?xml") && !rootFound) {
+                head.write(buffer, start, end - start);
+            } else {
+                text(start, end);
+            }
+        } else {
+            startTag(start, end);
+        }
+        return true;
+    }
+
+    /** @return the end of the markup that starts at the position, or -1 if it's not complete */
+    private int markupEnd(final int start) {
+        if ((start + 1) >= length) {
+            return -1;
+        }
+
+        if (buffer[start + 1] == '?') {
+            return find(start + 2, "?>");
+        }
+        if (buffer[start + 1] == '!') {
+            if ((start + 9) > length) {
+                return -1;
+            }
+            if (startsWith(start, "<!--")) {
+                return find(start + 4, "-->");
+            }
+            if (startsWith(start, "<![CDATA[")) {
+                return find(start + 9, "]]>");
+            }
+            return declarationEnd(start + 2);
+        }
+
+        byte quote = 0;
+        for (int i = start + 1; i < length; i++) {
+            final byte b = buffer[i];
+            if (quote != 0) {
+                if (b == quote) {
+                    quote = 0;
+                }
+            } else if ((b == '"') || (b == '\'')) {
+                quote = b;
+            } else if (b == '>') {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    /** @return the end of a DOCTYPE, that can contain an internal subset between brackets */
+    private int declarationEnd(final int from) {
+        int brackets = 0;
+        byte quote = 0;
+        for (int i = from; i < length; i++) {
+            final byte b = buffer[i];
+            if (quote != 0) {
+                if (b == quote) {
+                    quote = 0;
+                }
+            } else if ((b == '"') || (b == '\'')) {
+                quote = b;
+            } else if (b == '[') {
+                brackets++;
+            } else if (b == ']') {
+                brackets--;
+            } else if ((b == '>') && (brackets <= 0)) {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    private int find(final int from, final String terminator) {
+        for (int i = from; i <= (length - terminator.length()); i++) {
+            if (startsWith(i, terminator)) {
+                return i + terminator.length();
+            }
+        }
+        return -1;
+    }
+
+    private boolean startsWith(final int offset, final String prefix) {
+        if ((offset + prefix.length()) > length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (buffer[offset + i] != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** @return true if the name of the tag that starts at the offset is the expected one */
+    private boolean isNamed(final int offset, final byte... name) {
+        final int first = offset + 1;
+        if ((first + name.length) >= length) {
+            return false;
+        }
+        for (int i = 0; i < name.length; i++) {
+            if (buffer[first + i] != name[i]) {
+                return false;
+            }
+        }
+        final byte after = buffer[first + name.length];
+        return (after == '>') || (after == '/') || (after == ' ') || (after == '\t') || (after == '\r') ||
+               (after == '\n');
+    }
+
+    private void text(final int start, final int end) {
+        // the spaces between the elements of the channel are dropped, so they don't change the channel after the items
+        if ((depth >= 2) && (itemStart < 0) && ((depth > 2) || !isWhitespace(start, end))) {
+            channelBytes.write(buffer, start, end - start);
+        }
+    }
+
+    private boolean isWhitespace(final int start, final int end) {
+        for (int i = start; i < end; i++) {
+            final byte b = buffer[i];
+            if ((b != ' ') && (b != '\t') && (b != '\r') && (b != '\n')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void startTag(final int start, final int end) throws ParserException {
+        final boolean empty = buffer[end - 2] == '/';
+
+        if (depth == 0) {
+            if (!isNamed(start, RSS_ELEMENT)) {
+                throw new IllegalStateException("<rss> not found");
+            }
+            rootFound = true;
+            head.write(buffer, start, end - start);
+        } else if ((depth == 1) && !channelFound) {
+            if (!isNamed(start, CHANNEL)) {
+                throw new IllegalStateException("<channel> not found");
+            }
+            channelFound = true;
+            head.write(buffer, start, end - start);
+        } else if ((depth == 2) && isNamed(start, ITEM)) {
+            if (!itemFound) {
+                itemFound = true;
+                channel = parseChannel();
+            }
+            if (empty) {
+                items.write(buffer, start, end - start);
+            } else {
+                itemStart = start;
+            }
+        } else {
+            text(start, end);
+        }
+
+        if (!empty) {
+            depth++;
+        }
+    }
+
+    private void endTag(final int start, final int end) {
+        depth--;
+        if ((depth == 2) && (itemStart >= 0)) {
+            items.write(buffer, itemStart, end - itemStart);
+            itemStart = -1;
+        } else if (depth >= 2) {
+            text(start, end);
+        } else if (depth == 0) {
+            complete = true;
+        }
+    }
+
+    private List<Item> parseItems() throws ParserException {
+        final List<Item> parsed = new ArrayList<>();
+        try (ItemReader reader = factory.stream(document(items), null)) {
+            while (reader.hasNext()) {
+                parsed.add(reader.next());
+            }
+            events += reader.getEventCount();
+        } catch (final IOException cause) {
+            throw new ParserException(cause);
+        }
+        return parsed;
+    }
+
+    /** @return the channel without the items, or null if the elements received so far are not a valid channel */
+    private Channel parseChannel() {
+        try (ItemReader reader = factory.stream(document(channelBytes), null)) {
+            final Channel parsed = reader.getChannel();
+            charset = reader.getCharset();
+            version = reader.getVersion();
+            parsedChannelSize = channelBytes.size();
+            events += reader.getEventCount();
+            return parsed;
+        } catch (final ParserException | IllegalStateException | IOException ignored) {
+            // some elements of the channel could be after the items: finish reads the whole channel
+            return null;
+        }
+    }
+
+    private ByteArrayInputStream document(final ByteArrayOutputStream body) {
+        final ByteArrayOutputStream document = new ByteArrayOutputStream(head.size() + body.size() + END.length);
+        document.write(head.toByteArray(), 0, head.size());
+        document.write(body.toByteArray(), 0, body.size());
+        document.write(END, 0, END.length);
+        return new ByteArrayInputStream(document.toByteArray());
+    }
+
+    /** @return the channel without the items, or null if its elements before the first item were not received yet */
+    public Channel getChannel() {
+        return channel;
+    }
+
+    /** @return true if the end of the feed was received */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * Signal the end of the bytes of the feed
+     *
+     * @return the feed, whose channel doesn't contain the items already returned by {@link #feed}
+     * @throws ParserException if the feed is not complete or the channel is not valid
+     * @throws IllegalStateException if the feed is not an RSS feed
+     */
+    public RSS finish() throws ParserException {
+        if (listener == null) {
+            return complete();
+        }
+
+        final long start = System.nanoTime();
+        try {
+            final RSS rss = complete();
+            nanos += System.nanoTime() - start;
+            if (!reported) {
+                reported = true;
+                listener.parseFinished(bytes, events, nanos);
+            }
+            return rss;
+        } catch (final ParserException | RuntimeException cause) {
+            failed(cause, start);
+            throw cause;
+        }
+    }
+
+    private RSS complete() throws ParserException {
+        if (!complete) {
+            throw new ParserException("the feed ended before the end of the <rss> element");
+        }
+
+        // the channel parsed at the first item is complete if there are no elements after the items
+        if ((channel == null) || (channelBytes.size() != parsedChannelSize)) {
+            try (ItemReader reader = factory.stream(document(channelBytes), null)) {
+                channel = reader.getChannel();
+                charset = reader.getCharset();
+                version = reader.getVersion();
+                events += reader.getEventCount();
+            } catch (final IOException cause) {
+                throw new ParserException(cause);
+            }
+        }
+        return new RSS(charset, version, channel);
+    }
+}
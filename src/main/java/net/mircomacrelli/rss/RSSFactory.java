@@ -6,33 +6,64 @@ import org.joda.time.format.DateTimeFormatter;
 import javax.xml.stream.XMLEventReader;
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.stream.events.StartDocument;
 import javax.xml.stream.events.StartElement;
 import javax.xml.stream.events.XMLEvent;
+import javax.xml.stream.util.EventReaderDelegate;
+import javax.xml.stream.util.StreamReaderDelegate;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
 import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import static java.util.Objects.requireNonNull;
+import static javax.xml.stream.XMLStreamConstants.START_ELEMENT;
+import static net.mircomacrelli.rss.Utils.getAttributeValue;
 import static net.mircomacrelli.rss.Utils.getAttributesValues;
+import static net.mircomacrelli.rss.Utils.next;
 
 /**
- * Factory used to Parse a RSS Feed
+ * Factory used to Parse a RSS Feed. The factory is immutable and can be shared by many threads: every thread uses its
+ * own XMLInputFactory and the DateTimeFormatter of Joda-Time is immutable and thread-safe.
  *
  * @author Mirco Macrelli
  * @version 2.0
  */
 public final class RSSFactory {
-    private final XMLInputFactory factory;
+    // the StAX specification doesn't say if a factory can be used by many threads at the same time
+    private final ThreadLocal<XMLInputFactory> factory = new ThreadLocal<XMLInputFactory>() {
+        @Override
+        protected XMLInputFactory initialValue() {
+            final XMLInputFactory factory = XMLInputFactory.newFactory();
+            factory.setProperty("javax.xml.stream.supportDTD", false);
+            return factory;
+        }
+    };
     private final DateTimeFormatter parser;
+    private final Engine engine;
+    private final ParseOptions options;
 
-    private RSSFactory(final DateTimeFormatter parser) {
-        factory = XMLInputFactory.newFactory();
-        factory.setProperty("javax.xml.stream.supportDTD", false);
+    private RSSFactory(final DateTimeFormatter parser, final Engine engine, final ParseOptions options) {
         this.parser = parser == null ? Utils.PARSER : parser;
+        this.engine = engine == null ? Engine.CURSOR : engine;
+        this.options = options;
     }
 
     /** @return a new instance of the factory */
     public static RSSFactory newFactory() {
-        return new RSSFactory(null);
+        return new RSSFactory(null, null, ParseOptions.DEFAULT);
     }
 
     /**
@@ -40,7 +71,88 @@ public final class RSSFactory {
      * @return a new instance of the factory
      */
     public static RSSFactory newFactory(final DateTimeFormatter parser) {
-        return new RSSFactory(parser);
+        return new RSSFactory(parser, null, ParseOptions.DEFAULT);
+    }
+
+    /**
+     * @param engine the engine used to read the xml
+     * @return a new instance of the factory
+     */
+    public static RSSFactory newFactory(final Engine engine) {
+        return new RSSFactory(null, engine, ParseOptions.DEFAULT);
+    }
+
+    /**
+     * @param parser the parser used for the dates
+     * @param engine the engine used to read the xml
+     * @return a new instance of the factory
+     */
+    public static RSSFactory newFactory(final DateTimeFormatter parser, final Engine engine) {
+        return new RSSFactory(parser, engine, ParseOptions.DEFAULT);
+    }
+
+    /**
+     * Return a factory that keeps the text of the links, dates and languages of the channel and the items, and decodes
+     * them only the first time they are read. The feeds whose fields are never read are parsed faster and the invalid
+     * values of the fields that are never read do not stop the parsing. The getters of the fields decoded lazily throw
+     * an IllegalStateException if the value is not valid.
+     *
+     * @param lazy true to decode the values when they are read, false to decode them during the parsing
+     * @return a new factory with the same settings of this one and the requested decoding
+     */
+    public RSSFactory withLazyDecoding(final boolean lazy) {
+        return new RSSFactory(parser, engine, options.withLazy(lazy));
+    }
+
+    /**
+     * Return a factory that materializes only the fields and the modules of the projection. The elements of the other
+     * fields are skipped without reading their text, so they are not validated. When a feed is read with
+     * {@link #stream} the items are always returned, even if they are not in the projection.
+     *
+     * @param projection the fields and the modules to materialize
+     * @return a new factory with the same settings of this one and the requested projection
+     */
+    public RSSFactory withProjection(final Projection projection) {
+        return new RSSFactory(parser, engine, options.withProjection(projection));
+    }
+
+    /**
+     * Return a factory that parses the modules of the registry. The elements of the namespaces that are not in the
+     * registry are skipped.
+     *
+     * @param modules the modules to parse
+     * @return a new factory with the same settings of this one and the requested modules
+     */
+    public RSSFactory withModules(final ModuleRegistry modules) {
+        return new RSSFactory(parser, engine, options.withModules(modules));
+    }
+
+    /**
+     * Return a factory that shares the repeated values of its feeds through a pool: the names and the domains of the
+     * categories, the authors, also of the iTunes module with the names of its owners, the titles of the sources, the
+     * generators, the editors, the webmasters, the languages and the MIME types of the enclosures. The equal values
+     * read from the feeds are the same instance, so the items kept in memory take less space. The pool can be shared
+     * by many factories.
+     *
+     * @param pool the pool, or null to create a new string for every value
+     * @return a new factory with the same settings of this one and the requested pool
+     */
+    public RSSFactory withStringPool(final StringPool pool) {
+        return new RSSFactory(parser, engine, options.withPool(pool));
+    }
+
+    /**
+     * Return a factory that reports the events of the parsing to a listener: the start and the end of every feed with
+     * the bytes and the xml events read, the items built, the time spent decoding the dates, the links, the languages
+     * and the MIME types, the elements of the unknown modules and the exceptions. The factories without a listener
+     * don't measure anything. The feeds read with {@link #stream} report only the items and the values decoded.
+     *
+     * @param listener the listener, or null to stop measuring the parsing
+     * @return a new factory with the same settings of this one and the requested listener
+     * @see ParseMetrics
+     */
+    public RSSFactory withListener(final ParseListener listener) {
+        return new RSSFactory(parser, engine, options.withListener(listener));
     }
 
     /** @return the DateTimeFormatter used in this factory */
@@ -48,6 +160,36 @@ public final class RSSFactory {
         return parser;
     }
 
+    /** @return the engine used to read the xml */
+    public Engine getEngine() {
+        return engine;
+    }
+
+    /** @return true if the values are decoded when they are read */
+    public boolean isLazyDecoding() {
+        return options.isLazy();
+    }
+
+    /** @return the fields and the modules materialized by this factory */
+    public Projection getProjection() {
+        return options.getProjection();
+    }
+
+    /** @return the modules parsed by this factory */
+    public ModuleRegistry getModules() {
+        return options.getModules();
+    }
+
+    /** @return the pool of the repeated values, or null if they are not pooled */
+    public StringPool getStringPool() {
+        return options.getPool();
+    }
+
+    /** @return the listener of the events of the parsing, or null if nothing is measured */
+    public ParseListener getListener() {
+        return options.getListener();
+    }
+
     /**
      * Create a new RSS from an InputStream
      *
@@ -55,13 +197,316 @@ public final class RSSFactory {
      * @return the RSS
      */
     public RSS parse(final InputStream is) throws ParserException {
-        final XMLEventReader reader;
+        return parse(is, null, null);
+    }
+
+    /**
+     * Create a new RSS from a file. The file is mapped in memory and its pages are read directly by the parser.
+     *
+     * @param file the path of the file
+     * @return the RSS
+     */
+    public RSS parse(final Path file) throws ParserException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return parse(channel);
+        } catch (final IOException cause) {
+            throw new ParserException(cause);
+        }
+    }
+
+    /**
+     * Create a new RSS from the bytes of a channel, from its current position to its end. The bytes are mapped in
+     * memory and read directly by the parser. The position of the channel is not changed and the channel is not
+     * closed.
+     *
+     * @param channel the FileChannel
+     * @return the RSS
+     */
+    public RSS parse(final FileChannel channel) throws ParserException {
+        final ByteBuffer buffer;
+        try {
+            final long position = channel.position();
+            final long size = channel.size() - position;
+            if (size > Integer.MAX_VALUE) {
+                throw new ParserException("the file is too big to be mapped in memory");
+            }
+            buffer = channel.map(MapMode.READ_ONLY, position, Math.max(size, 0));
+        } catch (final IOException cause) {
+            throw new ParserException(cause);
+        }
+        return parse(buffer);
+    }
+
+    /**
+     * Create a new RSS from the remaining bytes of a buffer, that can be a direct or a memory-mapped one. The position
+     * of the buffer is not changed.
+     *
+     * @param buffer the bytes of the feed
+     * @return the RSS
+     */
+    public RSS parse(final ByteBuffer buffer) throws ParserException {
+        return parse(new ByteBufferInputStream(buffer));
+    }
+
+    /**
+     * Parse the feed up to the first item that matches the condition, without reading the rest of the stream. The
+     * channel contains the items before the matching one and the elements of the channel that precede it. If no item
+     * matches the whole feed is read. The cursor engine is always used, regardless of the engine of the factory.
+     *
+     * @param is the InputStream
+     * @param condition where to stop
+     * @return the RSS with only the new items
+     */
+    public RSS parseUntil(final InputStream is, final StopCondition condition) throws ParserException {
+        return parse(is, requireNonNull(condition), null);
+    }
+
+    /**
+     * Parse a feed skipping the elements that are not valid instead of failing: an item with an invalid field is kept
+     * without that field, an item or a module that can't be built is dropped, and the parsing continues from the next
+     * element. The feeds that are not valid xml, or whose channel can't be built, still throw a ParserException. The
+     * cursor engine is always used, regardless of the engine of the factory.
+     *
+     * @param is the InputStream
+     * @return the feed and the elements that were skipped
+     */
+    public ParseReport parseLeniently(final InputStream is) throws ParserException {
+        final Recovery recovery = new Recovery();
+        final RSS rss = parse(is, null, recovery);
+        return new ParseReport(rss, recovery.getDiagnostics());
+    }
+
+    /**
+     * @param condition where to stop, or null to read the whole feed
+     * @param recovery the reader that skips the invalid elements, or null to fail on the first one. The feeds parsed
+     *                 with a condition or a recovery are always read with the cursor engine
+     */
+    private RSS parse(final InputStream is, final StopCondition condition, final Recovery recovery) throws
+                                                                                                     ParserException {
+        final ParseListener listener = options.getListener();
+        if (listener != null) {
+            return parse(is, condition, recovery, listener);
+        }
+
+        if (isEventEngine(condition, recovery)) {
+            return parseWithEvents(createEventReader(is));
+        }
+        return parseWithCursor(createReader(is), condition, recovery);
+    }
+
+    private RSS parse(final InputStream is, final StopCondition condition, final Recovery recovery,
+                      final ParseListener listener) throws ParserException {
+        listener.parseStarted();
+        final long start = System.nanoTime();
+        try {
+            final CountingInputStream counter = new CountingInputStream(is);
+            final RSS rss;
+            final long events;
+            if (isEventEngine(condition, recovery)) {
+                final CountingEventReader reader = new CountingEventReader(createEventReader(counter));
+                rss = parseWithEvents(reader);
+                events = reader.events;
+            } else {
+                final CountingStreamReader reader = new CountingStreamReader(createReader(counter));
+                rss = parseWithCursor(reader, condition, recovery);
+                events = reader.events;
+            }
+            listener.parseFinished(counter.getCount(), events, System.nanoTime() - start);
+            return rss;
+        } catch (final ParserException | RuntimeException cause) {
+            listener.parseFailed(cause, System.nanoTime() - start);
+            throw cause;
+        }
+    }
+
+    private boolean isEventEngine(final StopCondition condition, final Recovery recovery) {
+        return (condition == null) && (recovery == null) && (engine == Engine.EVENT);
+    }
+
+    /**
+     * Parse many feeds at the same time with a pool of as many threads as the available processors. The pool is
+     * stopped before returning.
+     *
+     * @param sources the InputStreams of the feeds. They are not closed
+     * @return the results of the parsing, in the same order of the sources
+     * @throws InterruptedException if the thread is interrupted while waiting the results
+     * @see #parseAll(List, ExecutorService)
+     */
+    public List<ParseResult> parseAll(final List<? extends InputStream> sources) throws InterruptedException {
+        final ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors());
+        try {
+            return parseAll(sources, executor);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Parse many feeds at the same time using the threads of the executor. A feed that can't be parsed does not stop
+     * the others: its result contains the exception. The runtime exceptions thrown by the invariants of the elements
+     * are wrapped in a ParserException. If the thread is interrupted the feeds not yet parsed are cancelled.
+     *
+     * @param sources the InputStreams of the feeds. They are not closed
+     * @param executor the executor that runs the parsing. It's not shut down
+     * @return the results of the parsing, in the same order of the sources
+     * @throws InterruptedException if the thread is interrupted while waiting the results
+     */
+    public List<ParseResult> parseAll(final List<? extends InputStream> sources, final ExecutorService executor)
+            throws InterruptedException {
+        requireNonNull(executor);
+
+        final List<Future<RSS>> futures = new ArrayList<>(sources.size());
+        for (final InputStream source : sources) {
+            requireNonNull(source);
+            futures.add(executor.submit(new Callable<RSS>() {
+                @Override
+                public RSS call() throws ParserException {
+                    return parse(source);
+                }
+            }));
+        }
+
+        final List<ParseResult> results = new ArrayList<>(futures.size());
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                results.add(waitResult(i, futures.get(i)));
+            }
+        } finally {
+            if (results.size() < futures.size()) {
+                for (final Future<RSS> future : futures) {
+                    future.cancel(true);
+                }
+            }
+        }
+        return results;
+    }
+
+    private static ParseResult waitResult(final int index, final Future<RSS> future) throws InterruptedException {
+        try {
+            return new ParseResult(index, future.get(), null);
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof ParserException) {
+                return new ParseResult(index, null, (ParserException)cause);
+            }
+            if (cause instanceof Error) {
+                throw (Error)cause;
+            }
+            return new ParseResult(index, null, new ParserException(cause));
+        }
+    }
+
+    /**
+     * Read the items of a feed one at a time. The items are not kept in memory and are not added to the channel. The
+     * cursor engine is always used, regardless of the engine of the factory.
+     *
+     * @param is the InputStream
+     * @return the reader of the items
+     */
+    public ItemReader stream(final InputStream is) throws ParserException {
+        return stream(is, options.getListener());
+    }
+
+    /**
+     * @param listener told of the start and of the end of the parsing, or null if they are reported by the caller. The
+     *                 items are always reported to the listener of the factory
+     */
+    ItemReader stream(final InputStream is, final ParseListener listener) throws ParserException {
+        if (options.getListener() == null) {
+            return stream(createReader(is), null, null, null, 0);
+        }
+
+        if (listener != null) {
+            listener.parseStarted();
+        }
+        final long start = System.nanoTime();
+        try {
+            final CountingInputStream counter = new CountingInputStream(is);
+            final CountingStreamReader reader = new CountingStreamReader(createReader(counter));
+            return stream(reader, listener, counter, reader, start);
+        } catch (final ParserException | RuntimeException cause) {
+            if (listener != null) {
+                listener.parseFailed(cause, System.nanoTime() - start);
+            }
+            throw cause;
+        }
+    }
+
+    private ItemReader stream(final XMLStreamReader reader, final ParseListener listener,
+                              final CountingInputStream counter, final CountingStreamReader events, final long start)
+            throws ParserException {
+        final Charset charset = getCharset(reader);
+        final Version version = getVersion(reader);
+        findChannel(reader);
+
+        final long nanos = (events == null) ? 0 : (System.nanoTime() - start);
+        return new ItemReader(reader, charset, version, new Channel.Builder(parser, options), listener, counter,
+                              events, nanos);
+    }
+
+    /**
+     * Parse a feed from chunks of bytes pushed as they arrive, without blocking. The cursor engine is always used,
+     * regardless of the engine of the factory.
+     *
+     * @return a new parser for a single feed
+     */
+    public PushParser newPushParser() {
+        return new PushParser(this);
+    }
+
+    private XMLStreamReader createReader(final InputStream is) throws ParserException {
         try {
-            reader = factory.createXMLEventReader(is);
+            return factory.get().createXMLStreamReader(is);
         } catch (final XMLStreamException cause) {
             throw new ParserException(cause);
         }
+    }
 
+    private XMLEventReader createEventReader(final InputStream is) throws ParserException {
+        try {
+            return factory.get().createXMLEventReader(is);
+        } catch (final XMLStreamException cause) {
+            throw new ParserException(cause);
+        }
+    }
+
+    /**
+     * @param condition where to stop, or null to read the whole feed
+     * @param recovery the reader that skips the invalid elements, or null to fail on the first one
+     */
+    private RSS parseWithCursor(final XMLStreamReader reader, final StopCondition condition, final Recovery recovery)
+            throws ParserException {
+        final XMLStreamReader source;
+        final Channel.Builder builder;
+        if (recovery == null) {
+            source = reader;
+            builder = new Channel.Builder(parser, options);
+        } else {
+            recovery.setParent(reader);
+            source = recovery;
+            builder = new Channel.Builder(parser, options.withRecovery(recovery));
+        }
+
+        final Charset charset = getCharset(source);
+        final Version version = getVersion(source);
+        findChannel(source);
+
+        if (condition == null) {
+            builder.parse(source);
+        } else {
+            while (builder.parseUntilNextItem(source)) {
+                final Item item = builder.parseItem(source);
+                if (condition.matches(item)) {
+                    break;
+                }
+                builder.items.add(item);
+            }
+        }
+
+        return new RSS(charset, version, builder.build());
+    }
+
+    private RSS parseWithEvents(final XMLEventReader reader) throws ParserException {
         final Charset charset = getCharset(reader);
         final Version version = getVersion(reader);
         final Channel channel = getChannel(reader);
@@ -69,6 +514,11 @@ public final class RSSFactory {
         return new RSS(charset, version, channel);
     }
 
+    private static Charset getCharset(final XMLStreamReader reader) {
+        final String encoding = reader.getCharacterEncodingScheme();
+        return (encoding != null) ? Charset.forName(encoding) : Charset.forName("UTF-8");
+    }
+
     private static Charset getCharset(final XMLEventReader reader) throws ParserException {
         try {
             final StartDocument doc = (StartDocument)reader.nextEvent();
@@ -78,6 +528,14 @@ public final class RSSFactory {
         }
     }
 
+    private static Version getVersion(final XMLStreamReader reader) throws ParserException {
+        if (nextElement(reader) && reader.getLocalName().equals("rss")) {
+            return Version.from(getAttributeValue(reader, "version"));
+        }
+
+        throw new IllegalStateException("<rss> not found");
+    }
+
     private static Version getVersion(final XMLEventReader reader) throws ParserException {
         while (true) {
             final XMLEvent event;
@@ -102,6 +560,26 @@ public final class RSSFactory {
         throw new IllegalStateException("<rss> not found");
     }
 
+    private static void findChannel(final XMLStreamReader reader) throws ParserException {
+        if (!nextElement(reader) || !reader.getLocalName().equals("channel")) {
+            throw new IllegalStateException("<channel> not found");
+        }
+    }
+
+    private static boolean nextElement(final XMLStreamReader reader) throws ParserException {
+        try {
+            while (reader.hasNext()) {
+                if (next(reader) == START_ELEMENT) {
+                    return true;
+                }
+            }
+        } catch (final XMLStreamException cause) {
+            throw new ParserException(cause);
+        }
+
+        return false;
+    }
+
     private Channel getChannel(final XMLEventReader reader) throws ParserException {
         while (reader.hasNext()) {
             final XMLEvent event;
@@ -116,7 +594,7 @@ public final class RSSFactory {
                 final String name = element.getName().getLocalPart();
 
                 if (name.equals("channel")) {
-                    final Channel.Builder builder = new Channel.Builder(parser);
+                    final Channel.Builder builder = new Channel.Builder(parser, options);
                     builder.parse(reader, null);
                     return builder.build();
                 } else {
@@ -127,4 +605,44 @@ public final class RSSFactory {
 
         throw new IllegalStateException("<channel> not found");
     }
+
+    /** Counts the events read by the parser. The events of the cursor engine are all read with next */
+    static final class CountingStreamReader extends StreamReaderDelegate {
+        long events;
+
+        CountingStreamReader(final XMLStreamReader reader) {
+            super(reader);
+        }
+
+        @Override
+        public int next() throws XMLStreamException {
+            final int event = super.next();
+            events++;
+            return event;
+        }
+    }
+
+    /** Counts the events read by the parser. The events of the event engine are all read with nextEvent */
+    private static final class CountingEventReader extends EventReaderDelegate {
+        long events;
+
+        CountingEventReader(final XMLEventReader reader) {
+            super(reader);
+        }
+
+        @Override
+        public XMLEvent nextEvent() throws XMLStreamException {
+            final XMLEvent event = super.nextEvent();
+            events++;
+            return event;
+        }
+    }
+
+    /** The StAX API used to read the feed */
+    public enum Engine {
+        /** The XMLEventReader API. Allocates an object for every token of the document */
+        EVENT,
+        /** The XMLStreamReader API. Reads the tokens in place without allocating event objects */
+        CURSOR
+    }
 }
@@ -0,0 +1,103 @@
+package net.mircomacrelli.rss;
+
+import net.mircomacrelli.rss.RSS.Version;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.Iterator;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Writes a feed in xml, so the feeds filtered or merged can be published again. The elements are encoded directly in
+ * the OutputStream while they are written, and the items can be written one at a time, so the size of the feed is not
+ * limited by the memory. The feeds written can be read back with {@link RSSFactory}.
+ * <p>
+ * The namespaces of all the modules are declared on the root element, so the modules of the items can be written
+ * without knowing them in advance. The dates are written in the RFC 822 format, in UTC.
+ *
+ * @author Mirco Macrelli
+ * @version 2.1
+ */
+public final class RSSWriter implements Closeable {
+    private final XmlOutput out;
+    private boolean closed;
+
+    private RSSWriter(final OutputStream os, final Charset charset, final Version version, final Channel channel) throws
+                                                                                                               IOException {
+        out = new XmlOutput(requireNonNull(os), charset);
+
+        out.startElement("rss");
+        out.attribute("version", requireNonNull(version));
+        for (final ModuleInformation module : ModuleInformation.values()) {
+            out.namespace(module);
+        }
+        channel.writeStart(out);
+    }
+
+    /**
+     * Start writing a feed whose items are written one at a time. The items of the channel are ignored.
+     *
+     * @param os where the feed is written
+     * @param charset the charset of the feed
+     * @param version the version of the feed
+     * @param channel the channel
+     * @return the writer of the items. It must be closed to write the end of the feed
+     * @throws IllegalStateException if a value decoded lazily is not valid
+     */
+    public static RSSWriter newWriter(final OutputStream os, final Charset charset, final Version version,
+                                      final Channel channel) throws IOException {
+        return new RSSWriter(os, charset, version, channel);
+    }
+
+    /**
+     * Write a feed with its items. The OutputStream is flushed but not closed.
+     *
+     * @param rss the feed
+     * @param os where the feed is written
+     * @throws IllegalStateException if a value decoded lazily is not valid
+     */
+    public static void write(final RSS rss, final OutputStream os) throws IOException {
+        write(rss, rss.getChannel().getItems().iterator(), os);
+    }
+
+    /**
+     * Write a feed taking the items from an iterator, so they don't need to be in memory all together. The items of the
+     * channel are ignored. The OutputStream is flushed but not closed.
+     *
+     * @param rss the feed
+     * @param items the items of the feed
+     * @param os where the feed is written
+     * @throws IllegalStateException if a value decoded lazily is not valid
+     */
+    public static void write(final RSS rss, final Iterator<Item> items, final OutputStream os) throws IOException {
+        try (RSSWriter writer = newWriter(os, rss.getCharset(), rss.getVersion(), rss.getChannel())) {
+            while (items.hasNext()) {
+                writer.write(items.next());
+            }
+        }
+    }
+
+    /**
+     * @param item the next item of the feed
+     * @throws IllegalStateException if a value decoded lazily is not valid, or if the writer is closed
+     */
+    public void write(final Item item) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("can't write items");
+        }
+
+        item.write(out);
+    }
+
+    /** Write the end of the feed and flush it. The underlying OutputStream is not closed */
+    @Override
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            out.endDocument();
+        }
+    }
+}
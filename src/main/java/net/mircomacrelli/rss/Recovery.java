@@ -0,0 +1,102 @@
+package net.mircomacrelli.rss;
+
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.util.StreamReaderDelegate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static javax.xml.stream.XMLStreamConstants.END_ELEMENT;
+import static javax.xml.stream.XMLStreamConstants.START_ELEMENT;
+import static net.mircomacrelli.rss.Utils.hasPrefix;
+
+/**
+ * Reads a feed keeping track of the depth of the elements, so when a child of the channel or of an item is not valid
+ * the rest of the child can be skipped and the parsing can continue from the next one. The errors of the xml can't be
+ * recovered and are always thrown.
+ */
+final class Recovery extends StreamReaderDelegate {
+    private final List<Diagnostic> diagnostics = new ArrayList<>(0);
+    private int depth;
+
+    @Override
+    public int next() throws XMLStreamException {
+        final int event = super.next();
+        if (event == START_ELEMENT) {
+            depth++;
+        } else if (event == END_ELEMENT) {
+            depth--;
+        }
+        return event;
+    }
+
+    /**
+     * Parse the child whose start was just read. If it's not valid the reader is moved to its end and the child is
+     * ignored.
+     *
+     * @param builder the builder of the parent
+     * @param parent the name of the parent
+     */
+    void parseChild(final ExtensibleElementBuilder<?> builder, final String parent) throws ParserException {
+        final int start = depth;
+        final String child = hasPrefix(this) ? (getPrefix() + ':' + getLocalName()) : getLocalName();
+        try {
+            builder.parseChild(this);
+        } catch (final ParserException | RuntimeException cause) {
+            if (isMalformed(cause)) {
+                throw cause;
+            }
+
+            report(parent + '/' + child, cause);
+            // the document is well formed, so the end of the child is always found
+            while (depth >= start) {
+                Utils.next(this);
+            }
+        }
+    }
+
+    /**
+     * Build a module of an element. If it's not valid the module is ignored.
+     *
+     * @param builder the builder of the module
+     * @param element the name of the element and of the module
+     * @return the module, or null if it's not valid
+     */
+    Module buildModule(final ModuleBuilder builder, final String element) {
+        try {
+            return builder.build();
+        } catch (final ParserException cause) {
+            report(element, cause);
+            return null;
+        }
+    }
+
+    private void report(final String element, final Exception cause) {
+        Throwable root = cause;
+        while (root.getCause() != null) {
+            root = root.getCause();
+        }
+        final String message = (root.getMessage() == null) ? root.getClass().getName() : root.getMessage();
+
+        final Location location = getLocation();
+        if (location == null) {
+            diagnostics.add(new Diagnostic(element, -1, -1, message));
+        } else {
+            diagnostics.add(new Diagnostic(element, location.getLineNumber(), location.getColumnNumber(), message));
+        }
+    }
+
+    private static boolean isMalformed(final Exception cause) {
+        for (Throwable t = cause; t != null; t = t.getCause()) {
+            if (t instanceof XMLStreamException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /** @return the elements skipped until now */
+    List<Diagnostic> getDiagnostics() {
+        return diagnostics;
+    }
+}
@@ -0,0 +1,128 @@
+package net.mircomacrelli.rss;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * An immutable part of a {@link TextIndex}, with the postings of the documents in a range. The terms are sorted and
+ * the encoded postings of all the terms are kept in a single array.
+ */
+final class Segment implements TextQuery.Source {
+    private final int firstDocument;
+    private final int endDocument;
+    private final String[] terms;
+    /** the offset of the postings of each term, and the end of the last one */
+    private final int[] offsets;
+    private final byte[] postings;
+
+    private Segment(final int firstDocument, final int endDocument, final String[] terms, final int[] offsets,
+                    final byte[] postings) {
+        this.firstDocument = firstDocument;
+        this.endDocument = endDocument;
+        this.terms = terms;
+        this.offsets = offsets;
+        this.postings = postings;
+    }
+
+    /**
+     * @param writers the postings of each term
+     * @param firstDocument the first document of the segment
+     * @param endDocument the document after the last one
+     * @return a new segment with the postings
+     */
+    static Segment of(final Map<String, PostingsWriter> writers, final int firstDocument, final int endDocument) {
+        final String[] terms = writers.keySet().toArray(new String[writers.size()]);
+        Arrays.sort(terms);
+        final PostingsWriter[] sorted = new PostingsWriter[terms.length];
+        for (int i = 0; i < terms.length; i++) {
+            sorted[i] = writers.get(terms[i]);
+        }
+        return of(terms, sorted, firstDocument, endDocument);
+    }
+
+    private static Segment of(final String[] terms, final PostingsWriter[] writers, final int firstDocument,
+                              final int endDocument) {
+        final int[] offsets = new int[terms.length + 1];
+        long total = 0;
+        for (int i = 0; i < terms.length; i++) {
+            offsets[i] = (int)total;
+            total += writers[i].size();
+            if (total > Integer.MAX_VALUE) {
+                throw new IllegalStateException("the postings of a segment can't be over 2 GB");
+            }
+        }
+        offsets[terms.length] = (int)total;
+
+        final byte[] postings = new byte[(int)total];
+        for (int i = 0; i < terms.length; i++) {
+            writers[i].copyTo(postings, offsets[i]);
+        }
+        return new Segment(firstDocument, endDocument, terms, offsets, postings);
+    }
+
+    /**
+     * @param segments consecutive segments, in the order of their documents
+     * @return a new segment with the postings of all the segments
+     */
+    static Segment merge(final List<Segment> segments) {
+        final int[] next = new int[segments.size()];
+        final List<String> terms = new ArrayList<>();
+        final List<PostingsWriter> writers = new ArrayList<>();
+
+        while (true) {
+            // the segments are few, so the smallest term is found with a linear scan
+            String term = null;
+            for (int s = 0; s < next.length; s++) {
+                final Segment segment = segments.get(s);
+                if ((next[s] < segment.terms.length) &&
+                    ((term == null) || (segment.terms[next[s]].compareTo(term) < 0))) {
+                    term = segment.terms[next[s]];
+                }
+            }
+            if (term == null) {
+                break;
+            }
+
+            final PostingsWriter writer = new PostingsWriter();
+            for (int s = 0; s < next.length; s++) {
+                final Segment segment = segments.get(s);
+                if ((next[s] < segment.terms.length) && segment.terms[next[s]].equals(term)) {
+                    writer.addAll(segment.decode(next[s], true));
+                    next[s]++;
+                }
+            }
+            terms.add(term);
+            writers.add(writer);
+        }
+
+        return of(terms.toArray(new String[terms.size()]), writers.toArray(new PostingsWriter[writers.size()]),
+                  segments.get(0).firstDocument, segments.get(segments.size() - 1).endDocument);
+    }
+
+    private PostingList decode(final int term, final boolean withPositions) {
+        return PostingList.decode(postings, offsets[term], offsets[term + 1], withPositions);
+    }
+
+    @Override
+    public PostingList get(final String term, final boolean withPositions) {
+        final int index = Arrays.binarySearch(terms, term);
+        return (index < 0) ? null : decode(index, withPositions);
+    }
+
+    /** @return the number of documents in the range of the segment */
+    int getDocumentCount() {
+        return endDocument - firstDocument;
+    }
+
+    /** @return the number of distinct terms */
+    int getTermCount() {
+        return terms.length;
+    }
+
+    /** @return the bytes of the encoded postings */
+    int getPostingsSize() {
+        return postings.length;
+    }
+}
@@ -1,14 +1,18 @@
 package net.mircomacrelli.rss;
 
 import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.stream.events.StartElement;
+import java.io.IOException;
 import java.net.URI;
 
 import static java.lang.String.format;
 import static java.util.Objects.hash;
 import static java.util.Objects.requireNonNull;
+import static net.mircomacrelli.rss.Utils.getAttributeValue;
 import static net.mircomacrelli.rss.Utils.getAttributesValues;
 import static net.mircomacrelli.rss.Utils.getText;
+import static net.mircomacrelli.rss.Utils.intern;
 import static net.mircomacrelli.rss.Utils.parseUri;
 
 /**
@@ -42,6 +46,22 @@ public final class Source {
         return name;
     }
 
+    void write(final BinaryOutput out) throws IOException {
+        out.writeString(name);
+        out.writeUri(link);
+    }
+
+    void write(final XmlOutput out) throws IOException {
+        out.startElement("source");
+        out.attribute("url", link);
+        out.text(name);
+        out.endElement();
+    }
+
+    static Source read(final BinaryInput in) throws ParserException {
+        return new Source(in.readString(), in.readUri());
+    }
+
     @Override
     public int hashCode() {
         return hash(link, name);
@@ -63,13 +83,29 @@ public final class Source {
     }
 
     static final class Builder extends BuilderBase<Source> {
+        private final StringPool pool;
         URI link;
         String title;
 
+        Builder() {
+            this(null);
+        }
+
+        /** @param pool the pool of the repeated values, or null */
+        Builder(final StringPool pool) {
+            this.pool = pool;
+        }
+
         @Override
         public void parseElement(final XMLEventReader reader, final StartElement element) throws ParserException {
             link = parseUri(getAttributesValues(element).get("url"));
-            title = getText(reader);
+            title = intern(pool, getText(reader));
+        }
+
+        @Override
+        public void parseElement(final XMLStreamReader reader) throws ParserException {
+            link = parseUri(getAttributeValue(reader, "url"));
+            title = getText(reader, pool);
         }
 
         @Override
@@ -0,0 +1,115 @@
+package net.mircomacrelli.rss;
+
+import org.joda.time.DateTime;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.List;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Tells {@link RSSFactory#parseUntil} where to stop reading a feed. The feeds list the newest items first, so the
+ * parsing stops at the first item already seen in a previous poll, and the items before it are the new ones.
+ * <p>
+ * The fields checked by the condition must be materialized by the projection of the factory.
+ *
+ * @author Mirco Macrelli
+ * @version 2.1
+ */
+public abstract class StopCondition {
+    /**
+     * @param item an item of the feed
+     * @return true if the parsing must stop at this item. The item is not returned
+     */
+    public abstract boolean matches(Item item);
+
+    /**
+     * @param id the unique id of the newest item already seen
+     * @return a condition that matches the item with this unique id
+     */
+    public static StopCondition atUniqueId(final String id) {
+        requireNonNull(id);
+        return new StopCondition() {
+            @Override
+            public boolean matches(final Item item) {
+                final UniqueId uniqueId = item.getUniqueId();
+                return (uniqueId != null) && id.equals(uniqueId.getId());
+            }
+
+            @Override
+            public String toString() {
+                return format("StopCondition{uniqueId='%s'}", id);
+            }
+        };
+    }
+
+    /**
+     * @param link the link of the newest item already seen
+     * @return a condition that matches the item with this link
+     */
+    public static StopCondition atLink(final URI link) {
+        requireNonNull(link);
+        return new StopCondition() {
+            @Override
+            public boolean matches(final Item item) {
+                return link.equals(item.getLink());
+            }
+
+            @Override
+            public String toString() {
+                return format("StopCondition{link='%s'}", link);
+            }
+        };
+    }
+
+    /**
+     * @param cutoff the publication date of the newest item already seen
+     * @return a condition that matches the first item published at the cutoff or before it. The items without a
+     *         publication date don't match
+     */
+    public static StopCondition notAfter(final DateTime cutoff) {
+        requireNonNull(cutoff);
+        return new StopCondition() {
+            @Override
+            public boolean matches(final Item item) {
+                final DateTime date = item.getPublishDate();
+                return (date != null) && !date.isAfter(cutoff);
+            }
+
+            @Override
+            public String toString() {
+                return format("StopCondition{notAfter=%s}", cutoff);
+            }
+        };
+    }
+
+    /**
+     * @param conditions the conditions to check
+     * @return a condition that matches an item if at least one of the conditions matches it
+     */
+    public static StopCondition anyOf(final StopCondition... conditions) {
+        final List<StopCondition> all = Arrays.asList(conditions.clone());
+        for (final StopCondition condition : all) {
+            requireNonNull(condition);
+        }
+
+        return new StopCondition() {
+            @Override
+            public boolean matches(final Item item) {
+                for (final StopCondition condition : all) {
+                    if (condition.matches(item)) {
+                        return true;
+                    }
+                }
+                return false;
+            }
+
+            @Override
+            public String toString() {
+                return format("StopCondition{anyOf=%s}", all);
+            }
+        };
+    }
+}
@@ -0,0 +1,196 @@
+package net.mircomacrelli.rss;
+
+import javax.activation.MimeType;
+import javax.activation.MimeTypeParseException;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.lang.String.format;
+
+/**
+ * A bounded pool of the values that repeat across the items and the feeds, like the names of the categories, the
+ * authors, the generators, the languages and the MIME types of the enclosures. When a factory has a pool, the equal
+ * values read from its feeds share the same instance, so a store that keeps many items in memory doesn't keep many
+ * copies of the same strings.
+ * <p>
+ * The pool is a table with a fixed number of slots: a value that is not in its slot replaces the value that was there.
+ * The values that repeat often stay in the pool, the rare ones are replaced, and the memory of the pool never grows.
+ * The texts read with the cursor engine are compared with the pool before creating the string, so a hit doesn't
+ * allocate. The pool is thread-safe and can be shared by many factories.
+ *
+ * @author Mirco Macrelli
+ * @version 2.1
+ */
+public final class StringPool {
+    /** the longer texts are rarely repeated and are not pooled */
+    static final int MAX_LENGTH = 128;
+    /** an estimate of the memory used by a string besides its chars */
+    private static final int STRING_OVERHEAD = 40;
+    /** an estimate of the memory used by a MimeType without parameters */
+    private static final int MIME_TYPE_SIZE = 160;
+
+    private final String[] strings;
+    private final MimeTypeEntry[] mimeTypes;
+    private final int mask;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong bytesSaved = new AtomicLong();
+
+    private StringPool(final int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException(format("capacity must be positive. was %d", capacity));
+        }
+        if (capacity > (1 << 29)) {
+            throw new IllegalArgumentException(format("capacity is too big. was %d", capacity));
+        }
+
+        final int size = Integer.highestOneBit((capacity * 2) - 1);
+        // the strings are immutable, so a plain array can publish them to the other threads
+        strings = new String[size];
+        mimeTypes = new MimeTypeEntry[Math.max(size / 16, 1)];
+        mask = size - 1;
+    }
+
+    /**
+     * @param capacity the number of values kept in the pool. Rounded up to a power of two
+     * @return a new empty pool
+     */
+    public static StringPool newPool(final int capacity) {
+        return new StringPool(capacity);
+    }
+
+    /**
+     * @param text the text
+     * @return the pooled string equal to the text, or the text itself
+     */
+    public String intern(final String text) {
+        if ((text == null) || (text.length() > MAX_LENGTH)) {
+            return text;
+        }
+
+        final int slot = spread(text.hashCode()) & mask;
+        final String pooled = strings[slot];
+        if (text.equals(pooled)) {
+            hit(text.length());
+            return pooled;
+        }
+
+        misses.incrementAndGet();
+        strings[slot] = text;
+        return text;
+    }
+
+    /**
+     * @param text the text, usually the buffer where it was read
+     * @return the pooled string equal to the text, or a new string. The string is created only if it's not in the pool
+     */
+    String intern(final CharSequence text) {
+        final int length = text.length();
+        if (length > MAX_LENGTH) {
+            return text.toString();
+        }
+
+        int hash = 0;
+        for (int i = 0; i < length; i++) {
+            hash = (31 * hash) + text.charAt(i);
+        }
+
+        final int slot = spread(hash) & mask;
+        final String pooled = strings[slot];
+        if ((pooled != null) && contentEquals(pooled, text)) {
+            hit(length);
+            return pooled;
+        }
+
+        misses.incrementAndGet();
+        final String created = text.toString();
+        strings[slot] = created;
+        return created;
+    }
+
+    /**
+     * The MIME types are never changed by the enclosures, that return a copy, so the same instance can be shared
+     *
+     * @param text the MIME type
+     * @return the pooled MIME type equal to the text, or a new one
+     */
+    MimeType internMimeType(final String text) throws MimeTypeParseException {
+        final String type = intern(text);
+        final int slot = spread(type.hashCode()) & (mimeTypes.length - 1);
+        final MimeTypeEntry pooled = mimeTypes[slot];
+        if ((pooled != null) && pooled.text.equals(type)) {
+            bytesSaved.addAndGet(MIME_TYPE_SIZE);
+            return pooled.type;
+        }
+
+        final MimeType created = new MimeType(type);
+        mimeTypes[slot] = new MimeTypeEntry(type, created);
+        return created;
+    }
+
+    private static boolean contentEquals(final String pooled, final CharSequence text) {
+        final int length = text.length();
+        if (pooled.length() != length) {
+            return false;
+        }
+
+        for (int i = 0; i < length; i++) {
+            if (pooled.charAt(i) != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void hit(final int length) {
+        hits.incrementAndGet();
+        bytesSaved.addAndGet(STRING_OVERHEAD + (2L * length));
+    }
+
+    private static int spread(final int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    /** @return the number of slots of the pool */
+    public int getCapacity() {
+        return strings.length;
+    }
+
+    /** @return the number of texts found in the pool */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /** @return the number of texts not found in the pool */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /** @return the fraction of the texts found in the pool, 0 if no text was looked up */
+    public double getHitRate() {
+        final long found = hits.get();
+        final long total = found + misses.get();
+        return (total == 0) ? 0 : ((double)found / total);
+    }
+
+    /** @return an estimate of the bytes of the copies that were not kept in memory thanks to the pool */
+    public long getBytesSaved() {
+        return bytesSaved.get();
+    }
+
+    @Override
+    public String toString() {
+        return format("StringPool{capacity=%d, hits=%d, misses=%d, bytesSaved=%d}", strings.length, hits.get(),
+                      misses.get(), bytesSaved.get());
+    }
+
+    /** the fields are final, so the entries can be published to the other threads with a plain array */
+    private static final class MimeTypeEntry {
+        final String text;
+        final MimeType type;
+
+        MimeTypeEntry(final String text, final MimeType type) {
+            this.text = text;
+            this.type = type;
+        }
+    }
+}
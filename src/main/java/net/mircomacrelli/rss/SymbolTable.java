@@ -0,0 +1,77 @@
+package net.mircomacrelli.rss;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Maps a fixed set of names to small integer ids. The names returned by the xml parser are interned, like the
+ * literals used to fill the table, so most of the lookups end with an identity comparison.
+ */
+final class SymbolTable {
+    /** id returned for the names not in the table */
+    static final int UNKNOWN = 0;
+
+    private final String[] names;
+    private final int[] ids;
+    private final int mask;
+
+    /** @param capacity the maximum number of names that will be added */
+    SymbolTable(final int capacity) {
+        int size = 2;
+        while (size < (capacity * 2)) {
+            size <<= 1;
+        }
+
+        names = new String[size];
+        ids = new int[size];
+        mask = size - 1;
+    }
+
+    void put(final String name, final int id) {
+        requireNonNull(name);
+        if (id == UNKNOWN) {
+            throw new IllegalArgumentException("the id can't be the same of UNKNOWN");
+        }
+
+        int i = name.hashCode() & mask;
+        while (names[i] != null) {
+            if (names[i].equals(name)) {
+                throw new IllegalArgumentException(format("the name %s is already in the table", name));
+            }
+            i = (i + 1) & mask;
+        }
+
+        if (size() == (names.length / 2)) {
+            throw new IllegalStateException("the table is full");
+        }
+
+        names[i] = name;
+        ids[i] = id;
+    }
+
+    /** @return the id of the name or {@link #UNKNOWN} */
+    int get(final String name) {
+        if (name == null) {
+            return UNKNOWN;
+        }
+
+        int i = name.hashCode() & mask;
+        while (names[i] != null) {
+            if (name.equals(names[i])) {
+                return ids[i];
+            }
+            i = (i + 1) & mask;
+        }
+        return UNKNOWN;
+    }
+
+    private int size() {
+        int size = 0;
+        for (final String name : names) {
+            if (name != null) {
+                size++;
+            }
+        }
+        return size;
+    }
+}
@@ -4,16 +4,20 @@ import org.joda.time.DateTime;
 import org.joda.time.format.DateTimeFormatter;
 
 import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.stream.events.StartElement;
+import java.io.IOException;
 import java.util.Locale;
 
 import static java.lang.String.format;
 import static java.util.Objects.hash;
 import static java.util.Objects.requireNonNull;
+import static net.mircomacrelli.rss.Utils.ISO8601_DATE_FORMAT;
 import static net.mircomacrelli.rss.Utils.crashIfAlreadySet;
 import static net.mircomacrelli.rss.Utils.formatDate;
 import static net.mircomacrelli.rss.Utils.getText;
 import static net.mircomacrelli.rss.Utils.parseDate;
+import static net.mircomacrelli.rss.Utils.skipElement;
 
 /**
  * Implementation of the Syndication Module
@@ -60,6 +64,23 @@ public final class Syndication implements Module {
         return format("Syndication{period=%s, frequency=%d, base='%s'}", period, frequency, formatDate(base));
     }
 
+    void write(final BinaryOutput out) throws IOException {
+        out.writeEnum(period);
+        out.writeVarint(frequency);
+        out.writeDate(base);
+    }
+
+    void write(final XmlOutput out) throws IOException {
+        final ModuleInformation module = ModuleInformation.SYNDICATION;
+        out.element(module, "updatePeriod", period.name().toLowerCase(Locale.ENGLISH));
+        out.element(module, "updateFrequency", frequency);
+        out.element(module, "updateBase", ISO8601_DATE_FORMAT.print(base));
+    }
+
+    static Syndication read(final BinaryInput in) throws ParserException {
+        return new Syndication(in.readEnum(Period.class), in.readInt(), in.readDate());
+    }
+
     @Override
     public int hashCode() {
         return hash(period, frequency, base);
@@ -128,6 +149,26 @@ public final class Syndication implements Module {
             }
         }
 
+        @Override
+        public void parseElement(final XMLStreamReader reader) throws ParserException {
+            switch (Tag.of(reader)) {
+                case Tag.UPDATE_PERIOD:
+                    crashIfAlreadySet(period);
+                    period = Period.from(getText(reader));
+                    break;
+                case Tag.UPDATE_FREQUENCY:
+                    crashIfAlreadySet(frequency);
+                    frequency = Integer.parseInt(getText(reader));
+                    break;
+                case Tag.UPDATE_BASE:
+                    crashIfAlreadySet(base);
+                    base = parseDate(getText(reader), parser);
+                    break;
+                default:
+                    skipElement(reader);
+            }
+        }
+
         @Override
         public Module buildElement() {
             return new Syndication(period, frequency, base);
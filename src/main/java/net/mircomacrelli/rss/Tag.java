@@ -0,0 +1,125 @@
+package net.mircomacrelli.rss;
+
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Integer ids of the elements known by the builders, used to dispatch the elements with a switch on an int. The id
+ * depends only on the local name: every builder receives only the elements of its namespace, so the same id can be
+ * shared by the elements with the same name, like the author of an item and the author of an iTunes podcast.
+ */
+final class Tag {
+    static final int UNKNOWN = SymbolTable.UNKNOWN;
+
+    // RSS
+    static final int TITLE = 1;
+    static final int LINK = 2;
+    static final int DESCRIPTION = 3;
+    static final int LANGUAGE = 4;
+    static final int COPYRIGHT = 5;
+    static final int MANAGING_EDITOR = 6;
+    static final int WEB_MASTER = 7;
+    static final int PUB_DATE = 8;
+    static final int LAST_BUILD_DATE = 9;
+    static final int CATEGORY = 10;
+    static final int GENERATOR = 11;
+    static final int DOCS = 12;
+    static final int CLOUD = 13;
+    static final int TTL = 14;
+    static final int IMAGE = 15;
+    static final int TEXT_INPUT = 16;
+    static final int RATING = 17;
+    static final int ITEM = 18;
+    static final int SKIP_DAYS = 19;
+    static final int SKIP_HOURS = 20;
+    static final int DAY = 21;
+    static final int HOUR = 22;
+    static final int AUTHOR = 23;
+    static final int COMMENTS = 24;
+    static final int ENCLOSURE = 25;
+    static final int GUID = 26;
+    static final int SOURCE = 27;
+
+    // Syndication
+    static final int UPDATE_PERIOD = 28;
+    static final int UPDATE_FREQUENCY = 29;
+    static final int UPDATE_BASE = 30;
+
+    // iTunes
+    static final int BLOCK = 31;
+    static final int CLOSED_CAPTIONED = 32;
+    static final int SUMMARY = 33;
+    static final int SUBTITLE = 34;
+    static final int NEW_FEED_URL = 35;
+    static final int ORDER = 36;
+    static final int COMPLETE = 37;
+    static final int OWNER = 38;
+    static final int EXPLICIT = 39;
+    static final int DURATION = 40;
+
+    /** number of ids, UNKNOWN included */
+    static final int COUNT = 41;
+
+    private static final SymbolTable TAGS = new SymbolTable(42);
+
+    static {
+        TAGS.put("title", TITLE);
+        TAGS.put("link", LINK);
+        TAGS.put("description", DESCRIPTION);
+        TAGS.put("language", LANGUAGE);
+        TAGS.put("copyright", COPYRIGHT);
+        TAGS.put("managingEditor", MANAGING_EDITOR);
+        TAGS.put("webMaster", WEB_MASTER);
+        TAGS.put("pubDate", PUB_DATE);
+        TAGS.put("lastBuildDate", LAST_BUILD_DATE);
+        TAGS.put("category", CATEGORY);
+        TAGS.put("generator", GENERATOR);
+        TAGS.put("docs", DOCS);
+        TAGS.put("cloud", CLOUD);
+        TAGS.put("ttl", TTL);
+        TAGS.put("image", IMAGE);
+        TAGS.put("textInput", TEXT_INPUT);
+        TAGS.put("rating", RATING);
+        TAGS.put("item", ITEM);
+        TAGS.put("skipDays", SKIP_DAYS);
+        TAGS.put("skipHours", SKIP_HOURS);
+        TAGS.put("day", DAY);
+        TAGS.put("hour", HOUR);
+        // the capitalized names are not in the spec, but some feeds use them
+        TAGS.put("Day", DAY);
+        TAGS.put("Hour", HOUR);
+        TAGS.put("author", AUTHOR);
+        TAGS.put("comments", COMMENTS);
+        TAGS.put("enclosure", ENCLOSURE);
+        TAGS.put("guid", GUID);
+        TAGS.put("source", SOURCE);
+
+        TAGS.put("updatePeriod", UPDATE_PERIOD);
+        TAGS.put("updateFrequency", UPDATE_FREQUENCY);
+        TAGS.put("updateBase", UPDATE_BASE);
+
+        TAGS.put("block", BLOCK);
+        TAGS.put("isClosedCaptioned", CLOSED_CAPTIONED);
+        TAGS.put("summary", SUMMARY);
+        TAGS.put("subtitle", SUBTITLE);
+        TAGS.put("new-feed-url", NEW_FEED_URL);
+        TAGS.put("order", ORDER);
+        TAGS.put("complete", COMPLETE);
+        TAGS.put("owner", OWNER);
+        TAGS.put("explicit", EXPLICIT);
+        TAGS.put("duration", DURATION);
+    }
+
+    private Tag() {
+        throw new AssertionError("do not instantiate this class");
+    }
+
+    /** @return the id of the local name or {@link #UNKNOWN} */
+    static int of(final String localName) {
+        return TAGS.get(localName);
+    }
+
+    /** @return the id of the element where the reader is positioned */
+    static int of(final XMLStreamReader reader) {
+        return TAGS.get(reader.getLocalName());
+    }
+}
@@ -0,0 +1,238 @@
+package net.mircomacrelli.rss;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A full-text index of the titles and the descriptions of the items, to find them by their words without scanning
+ * them. Each item added gets a document id, starting from 0 in the order they are added, and the searches return the
+ * ids of the items found; the application keeps the items, or their rows in an {@link ItemStore}, in a list indexed
+ * by id.
+ * <p>
+ * The words are made of letters and digits and are compared in lowercase, without the html tags and entities of the
+ * descriptions. For each word the index keeps the documents that contain it and the positions in each document,
+ * encoded as differences in variable length integers, usually one or two bytes each. The new items are added to a
+ * buffer that becomes an immutable segment every {@code segmentSize} items; when there are ten segments of the same
+ * size they are merged in one ten times bigger, up to a hundred times the segment size, so a search reads a few
+ * segments and the indexing never rewrites the whole index. All the methods are thread-safe.
+ *
+ * @author Mirco Macrelli
+ * @version 2.1
+ */
+public final class TextIndex {
+    private static final int DEFAULT_SEGMENT_SIZE = 10 * 1000;
+    private static final int MERGE_FACTOR = 10;
+    /** the segments of this level are not merged anymore, to keep their postings well below 2 GB */
+    private static final int MAX_LEVEL = 2;
+
+    private final int segmentSize;
+    private final List<Segment> segments = new ArrayList<>();
+    private final BufferSource buffered = new BufferSource();
+    private Map<String, PostingsWriter> buffer = new HashMap<>();
+    private int bufferStart;
+    private int documents;
+
+    private TextIndex(final int segmentSize) {
+        if (segmentSize <= 0) {
+            throw new IllegalArgumentException(format("segmentSize must be positive. was %d", segmentSize));
+        }
+        this.segmentSize = segmentSize;
+    }
+
+    /** @return a new empty index with segments of 10000 items */
+    public static TextIndex newIndex() {
+        return new TextIndex(DEFAULT_SEGMENT_SIZE);
+    }
+
+    /**
+     * @param segmentSize the number of items of the smallest segments
+     * @return a new empty index
+     */
+    public static TextIndex newIndex(final int segmentSize) {
+        return new TextIndex(segmentSize);
+    }
+
+    /**
+     * @param item the item
+     * @return the document id of the item
+     * @throws IllegalStateException if the index already contains 2^31 - 1 items
+     */
+    public synchronized int add(final Item item) {
+        if (documents == Integer.MAX_VALUE) {
+            throw new IllegalStateException("the index is full");
+        }
+
+        final int document = documents;
+        final Map<String, Positions> terms = new HashMap<>();
+        final List<String> title = Tokenizer.tokenize(item.getTitle());
+        addPositions(terms, title, 0);
+        // the gap keeps the phrases from spanning the title and the description
+        addPositions(terms, Tokenizer.tokenizeMarkup(item.getDescription()), title.size() + 1);
+
+        for (final Map.Entry<String, Positions> term : terms.entrySet()) {
+            PostingsWriter writer = buffer.get(term.getKey());
+            if (writer == null) {
+                writer = new PostingsWriter();
+                buffer.put(term.getKey(), writer);
+            }
+            final Positions positions = term.getValue();
+            writer.add(document, positions.values, 0, positions.size);
+        }
+
+        documents++;
+        if ((documents - bufferStart) >= segmentSize) {
+            flush();
+        }
+        return document;
+    }
+
+    private static void addPositions(final Map<String, Positions> terms, final List<String> tokens, final int first) {
+        for (int i = 0; i < tokens.size(); i++) {
+            Positions positions = terms.get(tokens.get(i));
+            if (positions == null) {
+                positions = new Positions();
+                terms.put(tokens.get(i), positions);
+            }
+            positions.add(first + i);
+        }
+    }
+
+    /**
+     * @param items the items
+     * @return the document id of the first item. The others have the following ids
+     */
+    public synchronized int addAll(final List<Item> items) {
+        final int first = documents;
+        for (final Item item : items) {
+            add(item);
+        }
+        return first;
+    }
+
+    private void flush() {
+        segments.add(Segment.of(buffer, bufferStart, documents));
+        buffer = new HashMap<>();
+        bufferStart = documents;
+        merge();
+    }
+
+    /** Merge the last segments while there are enough of the same level */
+    private void merge() {
+        while (true) {
+            final int last = segments.size() - 1;
+            final int level = level(segments.get(last));
+            if (level >= MAX_LEVEL) {
+                return;
+            }
+
+            int first = last;
+            while ((first > 0) && (level(segments.get(first - 1)) == level)) {
+                first--;
+            }
+            if (((last - first) + 1) < MERGE_FACTOR) {
+                return;
+            }
+
+            final List<Segment> run = segments.subList(first, last + 1);
+            final Segment merged = Segment.merge(run);
+            run.clear();
+            segments.add(merged);
+        }
+    }
+
+    private int level(final Segment segment) {
+        int level = 0;
+        long size = (long)segmentSize * MERGE_FACTOR;
+        while (segment.getDocumentCount() >= size) {
+            level++;
+            size *= MERGE_FACTOR;
+        }
+        return level;
+    }
+
+    /**
+     * @param query the query
+     * @return the document ids of the items found, in the order they were added
+     */
+    public synchronized int[] search(final TextQuery query) {
+        final int[][] parts = new int[segments.size() + 1][];
+        int total = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            parts[i] = query.match(segments.get(i));
+            total += parts[i].length;
+        }
+        parts[segments.size()] = query.match(buffered);
+        total += parts[segments.size()].length;
+
+        // the segments contain consecutive ranges of documents, so their results are already in order
+        final int[] found = new int[total];
+        int offset = 0;
+        for (final int[] part : parts) {
+            System.arraycopy(part, 0, found, offset, part.length);
+            offset += part.length;
+        }
+        return found;
+    }
+
+    /**
+     * @param query a query written by a user, in the syntax of {@link TextQuery#parse}
+     * @return the document ids of the items found, in the order they were added
+     * @throws IllegalArgumentException if the query doesn't contain a required word
+     */
+    public int[] search(final String query) {
+        return search(TextQuery.parse(requireNonNull(query)));
+    }
+
+    /** @return the number of items in the index */
+    public synchronized int size() {
+        return documents;
+    }
+
+    /** @return the number of immutable segments */
+    public synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    /** @return the bytes of the encoded postings of the segments, without the terms and the buffer */
+    public synchronized long getPostingsSize() {
+        long size = 0;
+        for (final Segment segment : segments) {
+            size += segment.getPostingsSize();
+        }
+        return size;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return format("TextIndex{items=%d, segments=%d, buffered=%d}", documents, segments.size(),
+                      documents - bufferStart);
+    }
+
+    /** The positions of a term in the item being added */
+    private static final class Positions {
+        int[] values = new int[2];
+        int size;
+
+        void add(final int position) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = position;
+        }
+    }
+
+    /** The postings of the buffer, searched like the ones of a segment */
+    private final class BufferSource implements TextQuery.Source {
+        @Override
+        public PostingList get(final String term, final boolean withPositions) {
+            final PostingsWriter writer = buffer.get(term);
+            return (writer == null) ? null : writer.decode(withPositions);
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package net.mircomacrelli.rss;
 
 import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.stream.events.StartElement;
+import java.io.IOException;
 import java.net.URI;
 import java.util.Map;
 
@@ -58,6 +60,26 @@ public final class TextInput {
         return label;
     }
 
+    void write(final BinaryOutput out) throws IOException {
+        out.writeString(name);
+        out.writeString(description);
+        out.writeString(label);
+        out.writeUri(scriptUri);
+    }
+
+    void write(final XmlOutput out) throws IOException {
+        out.startElement("textInput");
+        out.element("title", label);
+        out.element("description", description);
+        out.element("name", name);
+        out.element("link", scriptUri);
+        out.endElement();
+    }
+
+    static TextInput read(final BinaryInput in) throws ParserException {
+        return new TextInput(in.readString(), in.readString(), in.readString(), in.readUri());
+    }
+
     @Override
     public int hashCode() {
         return hash(label, description, name, scriptUri);
@@ -96,6 +118,16 @@ public final class TextInput {
             cgiScriptUri = parseUri(values.get("link"));
         }
 
+        @Override
+        public void parseElement(final XMLStreamReader reader) throws ParserException {
+            final Map<String, String> values = getAllTagsValuesInside(reader);
+
+            label = values.get("title");
+            description = values.get("description");
+            name = values.get("name");
+            cgiScriptUri = parseUri(values.get("link"));
+        }
+
         @Override
         public TextInput buildElement() {
             return new TextInput(name, description, label, cgiScriptUri);
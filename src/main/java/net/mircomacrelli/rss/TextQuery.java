@@ -0,0 +1,337 @@
+package net.mircomacrelli.rss;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * A query on a {@link TextIndex}. The words of the queries are split and normalized like the ones of the items, so a
+ * term with more words is searched as a phrase. The queries are immutable.
+ *
+ * @author Mirco Macrelli
+ * @version 2.1
+ */
+public final class TextQuery {
+    private static final int[] NONE = new int[0];
+
+    private final Kind kind;
+    private final String[] terms;
+    private final TextQuery[] clauses;
+
+    private TextQuery(final Kind kind, final String[] terms, final TextQuery... clauses) {
+        this.kind = kind;
+        this.terms = terms;
+        this.clauses = clauses;
+    }
+
+    /**
+     * @param word a word
+     * @return a query that selects the items that contain the word
+     * @throws IllegalArgumentException if the word doesn't contain letters or digits
+     */
+    public static TextQuery term(final String word) {
+        return phrase(word);
+    }
+
+    /**
+     * @param words some words
+     * @return a query that selects the items that contain the words one after the other, in the title or in the
+     *         description
+     * @throws IllegalArgumentException if the words don't contain letters or digits
+     */
+    public static TextQuery phrase(final String words) {
+        final List<String> tokens = Tokenizer.tokenize(requireNonNull(words));
+        if (tokens.isEmpty()) {
+            throw new IllegalArgumentException(format("the query must contain a word. was \"%s\"", words));
+        }
+        final String[] terms = tokens.toArray(new String[tokens.size()]);
+        return new TextQuery((terms.length == 1) ? Kind.TERM : Kind.PHRASE, terms);
+    }
+
+    /**
+     * @param queries some queries
+     * @return a query that selects the items selected by all the queries
+     */
+    public static TextQuery all(final TextQuery... queries) {
+        return combine(Kind.ALL, queries);
+    }
+
+    /**
+     * @param queries some queries
+     * @return a query that selects the items selected by any of the queries
+     */
+    public static TextQuery any(final TextQuery... queries) {
+        return combine(Kind.ANY, queries);
+    }
+
+    private static TextQuery combine(final Kind kind, final TextQuery... queries) {
+        if (queries.length == 0) {
+            throw new IllegalArgumentException("there must be at least one query");
+        }
+        for (final TextQuery query : queries) {
+            requireNonNull(query);
+        }
+        return (queries.length == 1) ? queries[0] : new TextQuery(kind, null, queries.clone());
+    }
+
+    /**
+     * @param excluded the query of the items to exclude
+     * @return a query that selects the items selected by this query and not by the excluded one
+     */
+    public TextQuery without(final TextQuery excluded) {
+        return new TextQuery(Kind.WITHOUT, null, this, requireNonNull(excluded));
+    }
+
+    /**
+     * Parse a query written by a user. The words are all required, the words between double quotes are a phrase, OR
+     * between two words or phrases makes only one of them required, and a minus before a word or a phrase excludes the
+     * items that contain it. For example {@code java "virtual machine" OR jvm -android}.
+     *
+     * @param text the text of the query
+     * @return the query
+     * @throws IllegalArgumentException if the query contains only excluded words or none at all
+     */
+    public static TextQuery parse(final String text) {
+        final List<List<TextQuery>> required = new ArrayList<>();
+        final List<TextQuery> excluded = new ArrayList<>();
+        boolean or = false;
+
+        int i = 0;
+        while (i < text.length()) {
+            if (Character.isWhitespace(text.charAt(i))) {
+                i++;
+                continue;
+            }
+
+            final boolean exclude = text.charAt(i) == '-';
+            if (exclude) {
+                i++;
+            }
+
+            final int end;
+            final String words;
+            if ((i < text.length()) && (text.charAt(i) == '"')) {
+                final int quote = text.indexOf('"', i + 1);
+                end = (quote < 0) ? text.length() : (quote + 1);
+                words = text.substring(i + 1, (quote < 0) ? text.length() : quote);
+            } else {
+                int space = i;
+                while ((space < text.length()) && !Character.isWhitespace(text.charAt(space))) {
+                    space++;
+                }
+                end = space;
+                words = text.substring(i, end);
+                if (!exclude && words.equals("OR")) {
+                    or = !required.isEmpty();
+                    i = end;
+                    continue;
+                }
+            }
+            i = end;
+
+            if (Tokenizer.tokenize(words).isEmpty()) {
+                continue;
+            }
+            final TextQuery query = phrase(words);
+            if (exclude) {
+                excluded.add(query);
+            } else if (or) {
+                required.get(required.size() - 1).add(query);
+            } else {
+                final List<TextQuery> alternatives = new ArrayList<>(1);
+                alternatives.add(query);
+                required.add(alternatives);
+            }
+            or = false;
+        }
+
+        if (required.isEmpty()) {
+            throw new IllegalArgumentException(format("the query must contain a required word. was \"%s\"", text));
+        }
+
+        final TextQuery[] clauses = new TextQuery[required.size()];
+        for (int c = 0; c < clauses.length; c++) {
+            final List<TextQuery> alternatives = required.get(c);
+            clauses[c] = any(alternatives.toArray(new TextQuery[alternatives.size()]));
+        }
+        final TextQuery query = all(clauses);
+        return excluded.isEmpty() ? query : query.without(any(excluded.toArray(new TextQuery[excluded.size()])));
+    }
+
+    /**
+     * @param source the postings of a part of the index
+     * @return the documents selected, in order
+     */
+    int[] match(final Source source) {
+        switch (kind) {
+            case TERM:
+                final PostingList list = source.get(terms[0], false);
+                return (list == null) ? NONE : list.getDocuments();
+            case PHRASE:
+                return matchPhrase(source);
+            case ALL:
+                int[] all = clauses[0].match(source);
+                for (int i = 1; (i < clauses.length) && (all.length > 0); i++) {
+                    all = intersect(all, clauses[i].match(source));
+                }
+                return all;
+            case ANY:
+                int[] any = clauses[0].match(source);
+                for (int i = 1; i < clauses.length; i++) {
+                    any = union(any, clauses[i].match(source));
+                }
+                return any;
+            case WITHOUT:
+                final int[] selected = clauses[0].match(source);
+                return (selected.length == 0) ? selected : difference(selected, clauses[1].match(source));
+            default:
+                throw new AssertionError(kind);
+        }
+    }
+
+    private int[] matchPhrase(final Source source) {
+        final PostingList[] lists = new PostingList[terms.length];
+        for (int t = 0; t < terms.length; t++) {
+            lists[t] = source.get(terms[t], true);
+            if (lists[t] == null) {
+                return NONE;
+            }
+        }
+
+        final int[] matched = new int[lists[0].size()];
+        int count = 0;
+        final int[] next = new int[terms.length];
+        documents:
+        for (int d = 0; d < lists[0].size(); d++) {
+            final int document = lists[0].getDocument(d);
+            next[0] = d;
+            for (int t = 1; t < terms.length; t++) {
+                while ((next[t] < lists[t].size()) && (lists[t].getDocument(next[t]) < document)) {
+                    next[t]++;
+                }
+                if (next[t] == lists[t].size()) {
+                    break documents;
+                }
+                if (lists[t].getDocument(next[t]) != document) {
+                    continue documents;
+                }
+            }
+
+            if (hasPhrase(lists, next)) {
+                matched[count++] = document;
+            }
+        }
+        return Arrays.copyOf(matched, count);
+    }
+
+    /** @return true if the terms are one after the other in the documents at the indexes */
+    private static boolean hasPhrase(final PostingList[] lists, final int[] indexes) {
+        final int[] positions = lists[0].getPositions();
+        for (int p = lists[0].getPositionsStart(indexes[0]); p < lists[0].getPositionsEnd(indexes[0]); p++) {
+            int t = 1;
+            while ((t < lists.length) && lists[t].hasPosition(indexes[t], positions[p] + t)) {
+                t++;
+            }
+            if (t == lists.length) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int[] intersect(final int[] a, final int[] b) {
+        final int[] result = new int[Math.min(a.length, b.length)];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while ((i < a.length) && (j < b.length)) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                result[count++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private static int[] union(final int[] a, final int[] b) {
+        final int[] result = new int[a.length + b.length];
+        int count = 0;
+        int i = 0;
+        int j = 0;
+        while ((i < a.length) || (j < b.length)) {
+            if ((j == b.length) || ((i < a.length) && (a[i] < b[j]))) {
+                result[count++] = a[i++];
+            } else if ((i == a.length) || (a[i] > b[j])) {
+                result[count++] = b[j++];
+            } else {
+                result[count++] = a[i];
+                i++;
+                j++;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    private static int[] difference(final int[] a, final int[] b) {
+        final int[] result = new int[a.length];
+        int count = 0;
+        int j = 0;
+        for (final int document : a) {
+            while ((j < b.length) && (b[j] < document)) {
+                j++;
+            }
+            if ((j == b.length) || (b[j] != document)) {
+                result[count++] = document;
+            }
+        }
+        return Arrays.copyOf(result, count);
+    }
+
+    @Override
+    public String toString() {
+        switch (kind) {
+            case TERM:
+                return terms[0];
+            case PHRASE:
+                final StringBuilder phrase = new StringBuilder().append('"').append(terms[0]);
+                for (int i = 1; i < terms.length; i++) {
+                    phrase.append(' ').append(terms[i]);
+                }
+                return phrase.append('"').toString();
+            case WITHOUT:
+                return format("(%s NOT %s)", clauses[0], clauses[1]);
+            default:
+                final StringBuilder sb = new StringBuilder().append('(').append(clauses[0]);
+                for (int i = 1; i < clauses.length; i++) {
+                    sb.append((kind == Kind.ALL) ? " AND " : " OR ").append(clauses[i]);
+                }
+                return sb.append(')').toString();
+        }
+    }
+
+    private enum Kind {
+        TERM,
+        PHRASE,
+        ALL,
+        ANY,
+        WITHOUT
+    }
+
+    /** A part of the index that contains the postings of its terms */
+    interface Source {
+        /**
+         * @param term a normalized term
+         * @param withPositions false if only the documents are needed
+         * @return the postings of the term, or null if no document contains it
+         */
+        PostingList get(String term, boolean withPositions);
+    }
+}
@@ -0,0 +1,248 @@
+package net.mircomacrelli.rss;
+
+import org.joda.time.DateTime;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+import static java.lang.String.format;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * The items of many feeds in a single timeline, from the newest to the oldest, like the river of an aggregator. The
+ * items of each feed are sorted once, when the feed is updated, and the timeline is read by merging the sorted feeds
+ * with a heap: reading the newest n items of k feeds takes O(k + n log k), and updating a feed sorts only its items.
+ * The items without a date are at the end of their feed and of the timeline.
+ * <p>
+ * The iterators read a snapshot of the feeds taken when they are created, so they are not affected by the updates.
+ * All the methods are thread-safe.
+ *
+ * @author Mirco Macrelli
+ * @version 2.1
+ */
+public final class Timeline implements Iterable<Timeline.Entry> {
+    /** the date of the items without one, that is older than all the others */
+    private static final long NO_DATE = Long.MIN_VALUE;
+
+    private static final Comparator<Entry> NEWEST_FIRST = new Comparator<Entry>() {
+        @Override
+        public int compare(final Entry a, final Entry b) {
+            return Long.compare(b.date, a.date);
+        }
+    };
+
+    private final Map<String, Entry[]> feeds = new HashMap<>();
+    private int size;
+
+    private Timeline() {
+    }
+
+    /** @return a new empty timeline */
+    public static Timeline newTimeline() {
+        return new Timeline();
+    }
+
+    /**
+     * Replace the items of a feed
+     *
+     * @param feed a stable identifier of the feed, like its address
+     * @param items the items of the feed, in any order
+     * @throws IllegalStateException if a date is decoded lazily and is not valid
+     */
+    public void update(final String feed, final List<Item> items) {
+        requireNonNull(feed);
+        final Entry[] sorted = new Entry[items.size()];
+        for (int i = 0; i < sorted.length; i++) {
+            sorted[i] = new Entry(feed, items.get(i));
+        }
+        // the sort is stable, so the items with the same date keep the order of the feed
+        Arrays.sort(sorted, NEWEST_FIRST);
+
+        synchronized (this) {
+            final Entry[] old = feeds.put(feed, sorted);
+            size += sorted.length - ((old == null) ? 0 : old.length);
+        }
+    }
+
+    /**
+     * @param feed the identifier of the feed
+     * @return true if the feed was in the timeline
+     */
+    public synchronized boolean remove(final String feed) {
+        final Entry[] old = feeds.remove(feed);
+        if (old == null) {
+            return false;
+        }
+        size -= old.length;
+        return true;
+    }
+
+    /** @return the number of items of all the feeds */
+    public synchronized int size() {
+        return size;
+    }
+
+    /** @return the number of feeds */
+    public synchronized int getFeedCount() {
+        return feeds.size();
+    }
+
+    private synchronized List<Entry[]> snapshot() {
+        return new ArrayList<>(feeds.values());
+    }
+
+    /** @return all the items, from the newest to the oldest. The items are merged while they are read */
+    @Override
+    public Iterator<Entry> iterator() {
+        return new Merge(snapshot(), Long.MAX_VALUE, NO_DATE);
+    }
+
+    /**
+     * @param from the oldest date, included
+     * @param to the newest date, excluded
+     * @return the items published between the dates, from the newest to the oldest
+     */
+    public Iterator<Entry> between(final DateTime from, final DateTime to) {
+        return new Merge(snapshot(), to.getMillis(), from.getMillis());
+    }
+
+    /**
+     * @param count the maximum number of items
+     * @return the newest items
+     */
+    public List<Entry> latest(final int count) {
+        if (count < 0) {
+            throw new IllegalArgumentException(format("count can't be negative. was %d", count));
+        }
+
+        final List<Entry> latest = new ArrayList<>(Math.min(count, 1024));
+        final Iterator<Entry> entries = iterator();
+        while ((latest.size() < count) && entries.hasNext()) {
+            latest.add(entries.next());
+        }
+        return latest;
+    }
+
+    @Override
+    public synchronized String toString() {
+        return format("Timeline{feeds=%d, items=%d}", feeds.size(), size);
+    }
+
+    /** An item of the timeline with its feed */
+    public static final class Entry {
+        private final String feed;
+        private final Item item;
+        private final long date;
+
+        Entry(final String feed, final Item item) {
+            this.feed = feed;
+            this.item = requireNonNull(item);
+            final DateTime publishDate = item.getPublishDate();
+            date = (publishDate == null) ? NO_DATE : publishDate.getMillis();
+        }
+
+        /** @return the identifier of the feed of the item */
+        public String getFeed() {
+            return feed;
+        }
+
+        /** @return the item */
+        public Item getItem() {
+            return item;
+        }
+
+        @Override
+        public String toString() {
+            return format("Entry{feed=%s, item=%s}", feed, item);
+        }
+    }
+
+    /** The position in a sorted feed, ordered by the date of its current item in the heap */
+    private static final class Cursor implements Comparable<Cursor> {
+        private final Entry[] entries;
+        private int index;
+
+        Cursor(final Entry[] entries, final int index) {
+            this.entries = entries;
+            this.index = index;
+        }
+
+        long date() {
+            return entries[index].date;
+        }
+
+        @Override
+        public int compareTo(final Cursor other) {
+            return Long.compare(other.date(), date());
+        }
+    }
+
+    /** Merges the sorted feeds with a heap that contains the position in each feed not yet exhausted */
+    private static final class Merge implements Iterator<Entry> {
+        private final PriorityQueue<Cursor> heap;
+        private final long from;
+
+        /**
+         * @param feeds the sorted feeds
+         * @param to the newest date, excluded
+         * @param from the oldest date, included
+         */
+        Merge(final List<Entry[]> feeds, final long to, final long from) {
+            this.from = from;
+            heap = new PriorityQueue<>(Math.max(1, feeds.size()));
+            for (final Entry[] entries : feeds) {
+                final int first = firstBefore(entries, to);
+                if ((first < entries.length) && (entries[first].date >= from)) {
+                    heap.add(new Cursor(entries, first));
+                }
+            }
+        }
+
+        /** @return the index of the first entry older than the date, found with a binary search */
+        private static int firstBefore(final Entry[] entries, final long date) {
+            int low = 0;
+            int high = entries.length;
+            while (low < high) {
+                final int middle = (low + high) >>> 1;
+                if (entries[middle].date >= date) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !heap.isEmpty();
+        }
+
+        @Override
+        public Entry next() {
+            final Cursor cursor = heap.poll();
+            if (cursor == null) {
+                throw new NoSuchElementException();
+            }
+
+            final Entry entry = cursor.entries[cursor.index];
+            cursor.index++;
+            if ((cursor.index < cursor.entries.length) && (cursor.date() >= from)) {
+                heap.add(cursor);
+            }
+            return entry;
+        }
+
+        @Override
+        public void remove() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
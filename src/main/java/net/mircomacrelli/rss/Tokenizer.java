@@ -0,0 +1,108 @@
+package net.mircomacrelli.rss;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits a text in lowercase words made of letters and digits. The words longer than {@link #MAX_LENGTH} are dropped.
+ * The html tags and entities, common in the descriptions, are skipped only by {@link #tokenizeMarkup}: the titles are
+ * plain text, where a '&lt;' is just a character.
+ */
+final class Tokenizer {
+    static final int MAX_LENGTH = 64;
+    /** the length of the longest entity skipped, like &amp;hellip; */
+    private static final int MAX_ENTITY = 10;
+    /** the length of the longest tag skipped, long enough for the links with many parameters */
+    private static final int MAX_TAG = 1024;
+
+    private Tokenizer() {
+        throw new AssertionError("do not instantiate this class");
+    }
+
+    /**
+     * @param text the plain text, or null
+     * @return the words of the text in order
+     */
+    static List<String> tokenize(final String text) {
+        return tokenize(text, false);
+    }
+
+    /**
+     * @param text the html text, or null
+     * @return the words of the text in order, without the tags and the entities
+     */
+    static List<String> tokenizeMarkup(final String text) {
+        return tokenize(text, true);
+    }
+
+    private static List<String> tokenize(final String text, final boolean markup) {
+        final List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+
+        final StringBuilder token = new StringBuilder(MAX_LENGTH);
+        final int length = text.length();
+        int i = 0;
+        while (i < length) {
+            final int c = text.codePointAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                token.appendCodePoint(Character.toLowerCase(c));
+                i += Character.charCount(c);
+                continue;
+            }
+
+            add(tokens, token);
+            if (markup && (c == '<')) {
+                final int end = tagEnd(text, i);
+                i = (end < 0) ? (i + 1) : end;
+            } else if (markup && (c == '&')) {
+                final int end = entityEnd(text, i);
+                i = (end < 0) ? (i + 1) : end;
+            } else {
+                i += Character.charCount(c);
+            }
+        }
+        add(tokens, token);
+        return tokens;
+    }
+
+    /** @return the end of the tag that starts at the offset, or -1 if the '&lt;' doesn't start a tag */
+    private static int tagEnd(final String text, final int start) {
+        final int next = start + 1;
+        if ((next == text.length()) ||
+            (!Character.isLetter(text.charAt(next)) && (text.charAt(next) != '/') && (text.charAt(next) != '!'))) {
+            return -1;
+        }
+
+        final int limit = Math.min(text.length(), start + MAX_TAG);
+        for (int i = next; i < limit; i++) {
+            if (text.charAt(i) == '>') {
+                return i + 1;
+            }
+        }
+        return -1;
+    }
+
+    /** @return the end of the entity that starts at the offset, or -1 if the '&amp;' doesn't start an entity */
+    private static int entityEnd(final String text, final int start) {
+        final int limit = Math.min(text.length(), start + MAX_ENTITY + 1);
+        for (int i = start + 1; i < limit; i++) {
+            final char c = text.charAt(i);
+            if (c == ';') {
+                return (i > (start + 1)) ? (i + 1) : -1;
+            }
+            if (!Character.isLetterOrDigit(c) && (c != '#')) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private static void add(final List<String> tokens, final StringBuilder token) {
+        if ((token.length() > 0) && (token.length() <= MAX_LENGTH)) {
+            tokens.add(token.toString());
+        }
+        token.setLength(0);
+    }
+}
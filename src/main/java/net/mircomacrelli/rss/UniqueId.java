@@ -1,7 +1,9 @@
 package net.mircomacrelli.rss;
 
 import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.stream.events.StartElement;
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.Map;
@@ -9,6 +11,7 @@ import java.util.Map;
 import static java.lang.String.format;
 import static java.util.Objects.hash;
 import static java.util.Objects.requireNonNull;
+import static net.mircomacrelli.rss.Utils.getAttributeValue;
 import static net.mircomacrelli.rss.Utils.getAttributesValues;
 import static net.mircomacrelli.rss.Utils.getText;
 
@@ -54,6 +57,24 @@ public final class UniqueId {
         return new URI(id);
     }
 
+    void write(final BinaryOutput out) throws IOException {
+        out.writeString(id);
+        out.writeBoolean(isLink);
+    }
+
+    void write(final XmlOutput out) throws IOException {
+        out.startElement("guid");
+        if (!isLink) {
+            out.attribute("isPermaLink", false);
+        }
+        out.text(id);
+        out.endElement();
+    }
+
+    static UniqueId read(final BinaryInput in) throws ParserException {
+        return new UniqueId(in.readString(), in.readBoolean());
+    }
+
     @Override
     public int hashCode() {
         return hash(id, isLink);
@@ -88,6 +109,16 @@ public final class UniqueId {
             id = getText(reader);
         }
 
+        @Override
+        public void parseElement(final XMLStreamReader reader) throws ParserException {
+            final String permaLink = getAttributeValue(reader, "isPermaLink");
+            if (permaLink != null) {
+                isLink = Boolean.parseBoolean(permaLink);
+            }
+
+            id = getText(reader);
+        }
+
         @Override
         public UniqueId buildElement() {
             return new UniqueId(id, isLink);
@@ -1,15 +1,18 @@
 package net.mircomacrelli.rss;
 
 import org.joda.time.DateTime;
+import org.joda.time.DateTimeUtils;
 import org.joda.time.format.DateTimeFormat;
 import org.joda.time.format.DateTimeFormatter;
 import org.joda.time.format.DateTimeFormatterBuilder;
 import org.joda.time.format.DateTimeParser;
+import org.joda.time.format.DateTimeParserBucket;
 
 import javax.activation.MimeType;
 import javax.activation.MimeTypeParseException;
 import javax.xml.stream.XMLEventReader;
 import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.stream.events.Attribute;
 import javax.xml.stream.events.StartElement;
 import javax.xml.stream.events.XMLEvent;
@@ -27,6 +30,13 @@ import java.util.regex.Pattern;
 
 import static java.lang.String.format;
 import static java.util.Collections.unmodifiableSet;
+import static javax.xml.stream.XMLStreamConstants.CDATA;
+import static javax.xml.stream.XMLStreamConstants.CHARACTERS;
+import static javax.xml.stream.XMLStreamConstants.END_DOCUMENT;
+import static javax.xml.stream.XMLStreamConstants.END_ELEMENT;
+import static javax.xml.stream.XMLStreamConstants.ENTITY_REFERENCE;
+import static javax.xml.stream.XMLStreamConstants.SPACE;
+import static javax.xml.stream.XMLStreamConstants.START_ELEMENT;
 
 final class Utils {
     public static final DateTimeFormatter ISO8601_DATE_FORMAT = DateTimeFormat.forPattern("yyyy-MM-dd'T'HH:mm:ssZ")
@@ -37,6 +47,15 @@ final class Utils {
             .append(null, new DateTimeParser[]{ISO8601_DATE_FORMAT.getParser(), RFC822_DATE_FORMAT.getParser()})
             .toFormatter().withLocale(Locale.ENGLISH).withZoneUTC();
     private static final Pattern REPEATED_SPACES = Pattern.compile(" {2,}");
+    /** the printable ascii characters that can't be in a link, not even in the fragment */
+    private static final String ILLEGAL_URI_CHARS = "\"<>\\^`{|}";
+    private static final int MAX_TEXT_BUFFER_SIZE = 16 * 1024;
+    private static final ThreadLocal<StringBuilder> TEXT_BUFFER = new ThreadLocal<StringBuilder>() {
+        @Override
+        protected StringBuilder initialValue() {
+            return new StringBuilder(256);
+        }
+    };
 
     private Utils() {
         throw new AssertionError("do not instantiate this class");
@@ -119,6 +138,11 @@ final class Utils {
         }
     }
 
+    /** @return the pooled string equal to the text, or the text itself if there is no pool */
+    static String intern(final StringPool pool, final String text) {
+        return (pool == null) ? text : pool.intern(text);
+    }
+
     static boolean isEndOfTag(final XMLEvent event, final String tagName) {
         return event.isEndElement() && event.asEndElement().getName().getLocalPart().equals(tagName);
     }
@@ -136,14 +160,182 @@ final class Utils {
         return values;
     }
 
+    static int next(final XMLStreamReader reader) throws ParserException {
+        try {
+            return reader.next();
+        } catch (final XMLStreamException cause) {
+            throw new ParserException(cause);
+        }
+    }
+
+    /**
+     * Move the reader to the start of the next child of the current element. The reader must be positioned on the
+     * start of an element or on the end of one of its children.
+     *
+     * @return false when the end of the current element is reached
+     */
+    static boolean nextChild(final XMLStreamReader reader) throws ParserException {
+        while (true) {
+            final int event = next(reader);
+
+            if (event == START_ELEMENT) {
+                return true;
+            }
+
+            if (event == END_ELEMENT) {
+                return false;
+            }
+        }
+    }
+
+    /** Consume the events up to the end of the element whose start was just read */
+    static void skipElement(final XMLEventReader reader) throws ParserException {
+        int depth = 1;
+        while (depth > 0) {
+            final XMLEvent event;
+            try {
+                event = reader.nextEvent();
+            } catch (final XMLStreamException cause) {
+                throw new ParserException(cause);
+            }
+
+            if (event.isStartElement()) {
+                depth++;
+            } else if (event.isEndElement()) {
+                depth--;
+            }
+        }
+    }
+
+    /** Skip the current element with all its children. The reader is left on the end of the element. */
+    static void skipElement(final XMLStreamReader reader) throws ParserException {
+        int depth = 1;
+        while (depth > 0) {
+            final int event = next(reader);
+
+            if (event == START_ELEMENT) {
+                depth++;
+            } else if (event == END_ELEMENT) {
+                depth--;
+            }
+        }
+    }
+
+    /**
+     * Read the text of the current element, leaving the reader on its end. The pieces of text are collected in a
+     * buffer owned by the current thread, so only the returned string is allocated.
+     */
+    static String getText(final XMLStreamReader reader) throws ParserException {
+        return getText(reader, null);
+    }
+
+    /**
+     * Read the text of the current element like {@link #getText(XMLStreamReader)}. The text is looked up in the pool
+     * while it's still in the buffer, so a string is allocated only if it's not already in the pool.
+     *
+     * @param pool the pool, or null to always create a new string
+     */
+    static String getText(final XMLStreamReader reader, final StringPool pool) throws ParserException {
+        final StringBuilder text = TEXT_BUFFER.get();
+        text.setLength(0);
+
+        while (true) {
+            switch (next(reader)) {
+                case CHARACTERS:
+                case CDATA:
+                case SPACE:
+                    text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+                    break;
+                case ENTITY_REFERENCE:
+                    text.append(reader.getText());
+                    break;
+                case END_ELEMENT:
+                    final String value = (pool == null) ? text.toString() : pool.intern(text);
+                    if (text.capacity() > MAX_TEXT_BUFFER_SIZE) {
+                        // don't keep around the buffer used for a very long text
+                        TEXT_BUFFER.remove();
+                    }
+                    return value;
+                case START_ELEMENT:
+                case END_DOCUMENT:
+                    throw new ParserException("text not found");
+            }
+        }
+    }
+
+    static String getAttributeValue(final XMLStreamReader reader, final String name) {
+        return reader.getAttributeValue(null, name);
+    }
+
+    static Map<String, String> getAllTagsValuesInside(final XMLStreamReader reader) throws ParserException {
+        final Map<String, String> values = new HashMap<>(5);
+
+        while (nextChild(reader)) {
+            values.put(reader.getLocalName(), getText(reader));
+        }
+
+        return values;
+    }
+
+    static boolean hasPrefix(final XMLStreamReader reader) {
+        final String prefix = reader.getPrefix();
+        return (prefix != null) && !prefix.isEmpty();
+    }
+
     public static DateTime parseDate(final String date, final DateTimeFormatter parser) {
+        final DateTime decoded = DateParser.parse(date, parser);
+        if (decoded != null) {
+            return decoded;
+        }
+
+        final String normalized = normalizeDate(date);
+        return (normalized == null) ? null : parser.parseDateTime(normalized);
+    }
+
+    /**
+     * Like {@link #parseDate}, but the text is checked before it's decoded by the formatter, so a text that is not a
+     * date fails without creating the exception of the formatter and its stack trace. Used by the lenient parsing,
+     * where a broken feed can have an invalid date in every item.
+     */
+    static DateTime parseDateLeniently(final String date, final DateTimeFormatter parser) throws ParserException {
+        final DateTime decoded = DateParser.parse(date, parser);
+        if (decoded != null) {
+            return decoded;
+        }
+
+        final String normalized = normalizeDate(date);
+        if (normalized == null) {
+            return null;
+        }
+        if (!hasDateFormat(normalized, parser)) {
+            throw new ParserException(format("not a valid date: %s", normalized), null, false);
+        }
+        return parser.parseDateTime(normalized);
+    }
+
+    /** @return the date with single spaces, or null if it's blank */
+    private static String normalizeDate(final String date) {
         final String trimmed = date.replace('\n', ' ').trim();
         if (trimmed.isEmpty()) {
             return null;
         }
 
         final Matcher matcher = REPEATED_SPACES.matcher(trimmed);
-        return parser.parseDateTime(matcher.replaceAll(" "));
+        return matcher.replaceAll(" ");
+    }
+
+    /** @return true if the formatter reads the whole text. The values of the fields are checked only when decoding */
+    private static boolean hasDateFormat(final String date, final DateTimeFormatter formatter) {
+        final DateTimeParser parser = formatter.getParser();
+        if (parser == null) {
+            // the formatter can't parse, and it will tell it
+            return true;
+        }
+
+        final DateTimeParserBucket bucket = new DateTimeParserBucket(0, DateTimeUtils.getChronology(
+                formatter.getChronology()), formatter.getLocale(), formatter.getPivotYear(),
+                                                                     formatter.getDefaultYear());
+        return parser.parseInto(bucket, date, 0) == date.length();
     }
 
     public static String formatDate(final DateTime date) {
@@ -161,13 +353,131 @@ final class Utils {
         try {
             return new URI(uri.trim());
         } catch (final URISyntaxException cause) {
-            throw new ParserException(cause);
+            throw new ParserException(cause.toString(), cause, false);
+        }
+    }
+
+    /**
+     * Like {@link #parseUri}, but the characters are checked before creating the URI, so the common errors fail
+     * without creating a URISyntaxException and its stack trace. The rare errors in the structure of the link are
+     * still found by URI.
+     */
+    static URI parseUriLeniently(final String uri) throws ParserException {
+        final String trimmed = uri.trim();
+        if (trimmed.isEmpty()) {
+            return null;
+        }
+
+        final String error = uriError(trimmed);
+        if (error != null) {
+            throw new ParserException(format("%s: %s", error, trimmed), null, false);
+        }
+        return parseUri(trimmed);
+    }
+
+    /** @return why URI would refuse the text, or null if it's not known */
+    private static String uriError(final String uri) {
+        final int schemeEnd = schemeEnd(uri);
+        if (schemeEnd == 0) {
+            return "expected scheme name at index 0";
+        }
+        for (int i = 0; i < schemeEnd; i++) {
+            final char c = uri.charAt(i);
+            if (!isAsciiLetter(c) && ((i == 0) || !(isAsciiDigit(c) || (c == '+') || (c == '-') || (c == '.')))) {
+                return format("illegal character in scheme name at index %d", i);
+            }
+        }
+        if (uri.endsWith("://") && (uri.length() == (schemeEnd + 3))) {
+            return format("expected authority at index %d", uri.length());
+        }
+
+        boolean fragment = false;
+        for (int i = schemeEnd + 1; i < uri.length(); i++) {
+            final char c = uri.charAt(i);
+            if (c == '%') {
+                if (!isHexDigit(uri, i + 1) || !isHexDigit(uri, i + 2)) {
+                    return format("malformed escape pair at index %d", i);
+                }
+            } else if (c == '#') {
+                if (fragment) {
+                    return format("illegal character in fragment at index %d", i);
+                }
+                fragment = true;
+            } else if ((c <= ' ') || (c == 0x7F) || (ILLEGAL_URI_CHARS.indexOf(c) >= 0) ||
+                       ((c > 0x7F) && (Character.isISOControl(c) || Character.isSpaceChar(c)))) {
+                return format("illegal character at index %d", i);
+            }
+        }
+        return null;
+    }
+
+    /** @return the index of the ':' after the scheme, or -1 if the link is relative */
+    private static int schemeEnd(final String uri) {
+        for (int i = 0; i < uri.length(); i++) {
+            final char c = uri.charAt(i);
+            if (c == ':') {
+                return i;
+            }
+            if ((c == '/') || (c == '?') || (c == '#')) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isAsciiLetter(final char c) {
+        return ((c >= 'a') && (c <= 'z')) || ((c >= 'A') && (c <= 'Z'));
+    }
+
+    private static boolean isAsciiDigit(final char c) {
+        return (c >= '0') && (c <= '9');
+    }
+
+    private static boolean isHexDigit(final String text, final int index) {
+        if (index >= text.length()) {
+            return false;
+        }
+        final char c = text.charAt(index);
+        return isAsciiDigit(c) || ((c >= 'a') && (c <= 'f')) || ((c >= 'A') && (c <= 'F'));
+    }
+
+    /**
+     * Decode an int, checking the text before, so a text that is not a number fails without creating a
+     * NumberFormatException and its stack trace
+     */
+    static int parseInt(final String text) throws ParserException {
+        checkNumber(text);
+        return Integer.parseInt(text);
+    }
+
+    /**
+     * Decode a long, checking the text before, so a text that is not a number fails without creating a
+     * NumberFormatException and its stack trace
+     */
+    static long parseLong(final String text) throws ParserException {
+        checkNumber(text);
+        return Long.parseLong(text);
+    }
+
+    /** only the overflow is left to the decoding */
+    private static void checkNumber(final String text) throws ParserException {
+        if (text == null) {
+            throw new ParserException("the number is missing", null, false);
+        }
+
+        final int start = (text.startsWith("+") || text.startsWith("-")) ? 1 : 0;
+        boolean digits = start < text.length();
+        for (int i = start; digits && (i < text.length()); i++) {
+            digits = isAsciiDigit(text.charAt(i));
+        }
+        if (!digits) {
+            throw new ParserException(format("not a number: %s", text), null, false);
         }
     }
 
-    public static void crashIfAlreadySet(final Object obj) {
+    public static void crashIfAlreadySet(final Object obj) throws ParserException {
         if (obj != null) {
-            throw new IllegalStateException("field already set");
+            throw new ParserException("field already set", null, false);
         }
     }
 
@@ -0,0 +1,187 @@
+package net.mircomacrelli.rss;
+
+import org.joda.time.DateTime;
+
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+
+import static net.mircomacrelli.rss.Utils.formatDate;
+
+/**
+ * Writes the elements of a feed in xml. The values are passed to the XMLStreamWriter, that encodes them directly in the
+ * OutputStream: the document is never kept in memory. The optional values that are null are not written.
+ */
+final class XmlOutput {
+    private static final ThreadLocal<XMLOutputFactory> FACTORY = new ThreadLocal<XMLOutputFactory>() {
+        @Override
+        protected XMLOutputFactory initialValue() {
+            return XMLOutputFactory.newFactory();
+        }
+    };
+
+    private final XMLStreamWriter writer;
+
+    XmlOutput(final OutputStream os, final Charset charset) throws IOException {
+        try {
+            writer = FACTORY.get().createXMLStreamWriter(new Buffer(os), charset.name());
+            writer.writeStartDocument(charset.name(), "1.0");
+        } catch (final XMLStreamException cause) {
+            throw new IOException(cause);
+        }
+    }
+
+    void startElement(final String name) throws IOException {
+        try {
+            writer.writeStartElement(name);
+        } catch (final XMLStreamException cause) {
+            throw new IOException(cause);
+        }
+    }
+
+    void startElement(final ModuleInformation module, final String name) throws IOException {
+        try {
+            writer.writeStartElement(module.getPrefix(), name, module.getUri());
+        } catch (final XMLStreamException cause) {
+            throw new IOException(cause);
+        }
+    }
+
+    void emptyElement(final String name) throws IOException {
+        try {
+            writer.writeEmptyElement(name);
+        } catch (final XMLStreamException cause) {
+            throw new IOException(cause);
+        }
+    }
+
+    void emptyElement(final ModuleInformation module, final String name) throws IOException {
+        try {
+            writer.writeEmptyElement(module.getPrefix(), name, module.getUri());
+        } catch (final XMLStreamException cause) {
+            throw new IOException(cause);
+        }
+    }
+
+    void endElement() throws IOException {
+        try {
+            writer.writeEndElement();
+        } catch (final XMLStreamException cause) {
+            throw new IOException(cause);
+        }
+    }
+
+    void namespace(final ModuleInformation module) throws IOException {
+        try {
+            writer.writeNamespace(module.getPrefix(), module.getUri());
+        } catch (final XMLStreamException cause) {
+            throw new IOException(cause);
+        }
+    }
+
+    /** Write an attribute of the element just started, if the value is not null */
+    void attribute(final String name, final Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+
+        try {
+            writer.writeAttribute(name, value.toString());
+        } catch (final XMLStreamException cause) {
+            throw new IOException(cause);
+        }
+    }
+
+    void text(final String text) throws IOException {
+        try {
+            writer.writeCharacters(text);
+        } catch (final XMLStreamException cause) {
+            throw new IOException(cause);
+        }
+    }
+
+    /** Write an element that contains only the value, if it's not null */
+    void element(final String name, final Object value) throws IOException {
+        if (value != null) {
+            startElement(name);
+            text(value.toString());
+            endElement();
+        }
+    }
+
+    /** Write an element of a module that contains only the value, if it's not null */
+    void element(final ModuleInformation module, final String name, final Object value) throws IOException {
+        if (value != null) {
+            startElement(module, name);
+            text(value.toString());
+            endElement();
+        }
+    }
+
+    /** Write a date in the RFC 822 format */
+    void element(final String name, final DateTime value) throws IOException {
+        element(name, formatDate(value));
+    }
+
+    /** Close all the elements still open and flush the buffers. The OutputStream is not closed */
+    void endDocument() throws IOException {
+        try {
+            writer.writeEndDocument();
+            writer.flush();
+            writer.close();
+        } catch (final XMLStreamException cause) {
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * The writer of the JDK passes the bytes of the UTF-8 documents one at a time to the stream, so they are collected
+     * in a buffer that, unlike BufferedOutputStream, doesn't take a lock for each byte
+     */
+    private static final class Buffer extends OutputStream {
+        private final OutputStream os;
+        private final byte[] buffer = new byte[8192];
+        private int count;
+
+        Buffer(final OutputStream os) {
+            this.os = os;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            if (count == buffer.length) {
+                flushBuffer();
+            }
+            buffer[count++] = (byte)b;
+        }
+
+        @Override
+        public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+            if (length > (buffer.length - count)) {
+                flushBuffer();
+                if (length > buffer.length) {
+                    os.write(bytes, offset, length);
+                    return;
+                }
+            }
+            System.arraycopy(bytes, offset, buffer, count, length);
+            count += length;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            flushBuffer();
+            os.flush();
+        }
+
+        private void flushBuffer() throws IOException {
+            if (count > 0) {
+                os.write(buffer, 0, count);
+                count = 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package net.mircomacrelli.rss;
+
+import net.mircomacrelli.rss.RSS.Version;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+import static net.mircomacrelli.rss.RSSFactory.newFactory;
+import static net.mircomacrelli.rss.XmlTestBase.channel;
+import static net.mircomacrelli.rss.XmlTestBase.fullFeed;
+import static net.mircomacrelli.rss.XmlTestBase.itunesModule;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class BinaryCodecTest {
+    private RSS feed;
+
+    @Before
+    public void setup() throws ParserException {
+        feed = fullFeed(newFactory());
+    }
+
+    @Test
+    public void roundTrip() throws Exception {
+        final RSS decoded = roundTrip(feed);
+
+        assertEquals(feed, decoded);
+        assertEquals(feed.getCharset(), decoded.getCharset());
+        assertEquals(feed.getChannel().getImage(), decoded.getChannel().getImage());
+        assertEquals(feed.getChannel().getCloud(), decoded.getChannel().getCloud());
+        assertEquals(feed.getChannel().getItems(), decoded.getChannel().getItems());
+    }
+
+    @Test
+    public void modulesAreKept() throws Exception {
+        final Channel channel = roundTrip(feed).getChannel();
+
+        assertEquals(feed.getChannel().getModule(Syndication.class), channel.getModule(Syndication.class));
+        assertEquals(feed.getChannel().getModule(CreativeCommons.class), channel.getModule(CreativeCommons.class));
+        assertEquals(feed.getChannel().getItems().get(0).getModule(CreativeCommons.class),
+                     channel.getItems().get(0).getModule(CreativeCommons.class));
+        assertFalse(channel.getItems().get(1).hasModule(CreativeCommons.class));
+    }
+
+    @Test
+    public void itunes() throws Exception {
+        final Itunes itunes = itunesModule();
+        final Item item = new Item(null, "episode", null, null, null, null, null, null, null, null);
+        item.addModule(Itunes.class, itunes);
+        final Channel channel = channel(Arrays.asList(item));
+
+        final Item decoded = roundTrip(new RSS(Charset.forName("UTF-8"), Version.RSS_2_0, channel)).getChannel()
+                                                                                                  .getItems().get(0);
+        assertEquals(itunes, decoded.getModule(Itunes.class));
+    }
+
+    @Test
+    public void datesKeepTheirTimeZone() throws Exception {
+        final DateTime date = new DateTime(2013, 10, 19, 11, 9, 3, DateTimeZone.forOffsetHours(2));
+        final Item item = new Item(null, "title", null, null, date, null, null, null, null, null);
+
+        final Item decoded = roundTrip(new RSS(Charset.forName("UTF-8"), Version.RSS_0_91,
+                                               channel(Arrays.asList(item)))).getChannel().getItems().get(0);
+        assertEquals(date, decoded.getPublishDate());
+    }
+
+    @Test
+    public void channelWithoutItems() throws Exception {
+        final RSS rss = new RSS(Charset.forName("UTF-8"), Version.RSS_2_0, channel(null));
+        assertEquals(rss, roundTrip(rss));
+    }
+
+    @Test
+    public void lazyValuesAreDecoded() throws Exception {
+        final RSS lazy = fullFeed(newFactory().withLazyDecoding(true));
+        assertEquals(feed, roundTrip(lazy));
+    }
+
+    @Test
+    public void itemsCanBeReadOneAtATime() throws Exception {
+        final BinaryFeedReader reader = BinaryCodec.newReader(new ByteArrayInputStream(encode(feed)));
+
+        assertEquals(Version.RSS_2_0, reader.getVersion());
+        assertEquals("first", reader.getChannel().getTitle());
+        assertTrue(reader.getChannel().getItems().isEmpty());
+        assertTrue(reader.hasNext());
+        assertEquals(feed.getChannel().getItems().get(0), reader.next());
+        assertTrue(reader.hasNext());
+        assertEquals(feed.getChannel().getItems().get(1), reader.next());
+        assertFalse(reader.hasNext());
+    }
+
+    @Test
+    public void itemsCanBeWrittenOneAtATime() throws Exception {
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        try (BinaryFeedWriter writer = BinaryCodec.newWriter(os, feed.getCharset(), feed.getVersion(),
+                                                             feed.getChannel())) {
+            for (final Item item : feed.getChannel().getItems()) {
+                writer.write(item);
+            }
+        }
+
+        assertEquals(feed, BinaryCodec.decode(new ByteArrayInputStream(os.toByteArray())));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void cantWriteAfterClose() throws Exception {
+        final BinaryFeedWriter writer = BinaryCodec.newWriter(new ByteArrayOutputStream(), feed.getCharset(),
+                                                              feed.getVersion(), feed.getChannel());
+        writer.close();
+        writer.write(feed.getChannel().getItems().get(0));
+    }
+
+    @Test
+    public void repeatedStringsAreWrittenOnce() throws Exception {
+        final RSS one = newFactory().parse(new ByteArrayInputStream(feedWithItems(1)));
+        final RSS many = newFactory().parse(new ByteArrayInputStream(feedWithItems(101)));
+
+        final int itemSize = (encode(many).length - encode(one).length) / 100;
+        assertTrue(itemSize < 30);
+    }
+
+    @Test(expected = ParserException.class)
+    public void wrongMagicNumber() throws ParserException {
+        BinaryCodec.decode(new ByteArrayInputStream("<rss version=\"2.0\"></rss>".getBytes()));
+    }
+
+    @Test(expected = ParserException.class)
+    public void unknownVersion() throws Exception {
+        final byte[] bytes = encode(feed);
+        bytes[4] = 99;
+        BinaryCodec.decode(new ByteArrayInputStream(bytes));
+    }
+
+    @Test(expected = ParserException.class)
+    public void truncatedData() throws Exception {
+        final byte[] bytes = encode(feed);
+        BinaryCodec.decode(new ByteArrayInputStream(Arrays.copyOf(bytes, bytes.length - 10)));
+    }
+
+    @Test(expected = ParserException.class)
+    public void invalidValuesAreParserErrors() throws Exception {
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        final BinaryOutput out = new BinaryOutput(os);
+        for (final char c : "RSSB".toCharArray()) {
+            out.writeByte(c);
+        }
+        out.writeByte(BinaryCodec.FORMAT_VERSION);
+        out.writeString("UTF-8");
+        out.writeEnum(Version.RSS_2_0);
+        out.writeBoolean(false);
+        // the title is required, and all the other fields are missing
+        for (int i = 0; i < 32; i++) {
+            out.writeVarint(0);
+        }
+        out.flush();
+
+        BinaryCodec.decode(new ByteArrayInputStream(os.toByteArray()));
+    }
+
+    private static byte[] feedWithItems(final int items) {
+        final StringBuilder sb = new StringBuilder(1024);
+        sb.append("<rss version=\"2.0\"><channel><title>t</title><link>http://mircomacrelli.net</link>")
+          .append("<description>d</description>");
+        for (int i = 0; i < items; i++) {
+            sb.append("<item><title>title</title><author>info@mircomacrelli.net</author>")
+              .append("<category>news</category><pubDate>Sat, 19 Oct 2013 11:09:03 +0000</pubDate></item>");
+        }
+        sb.append("</channel></rss>");
+        return sb.toString().getBytes(Charset.forName("UTF-8"));
+    }
+
+    private static byte[] encode(final RSS rss) throws IOException {
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        BinaryCodec.encode(rss, os);
+        return os.toByteArray();
+    }
+
+    private static RSS roundTrip(final RSS rss) throws IOException, ParserException {
+        return BinaryCodec.decode(new ByteArrayInputStream(encode(rss)));
+    }
+}
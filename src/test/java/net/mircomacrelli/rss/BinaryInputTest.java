@@ -0,0 +1,170 @@
+package net.mircomacrelli.rss;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class BinaryInputTest {
+    private ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private BinaryOutput out = new BinaryOutput(bytes);
+
+    private BinaryInput input() throws IOException {
+        out.flush();
+        return new BinaryInput(new ByteArrayInputStream(bytes.toByteArray()));
+    }
+
+    @Test
+    public void varints() throws Exception {
+        out.writeVarint(0);
+        out.writeVarint(127);
+        out.writeVarint(128);
+        out.writeVarint(Long.MAX_VALUE);
+        out.writeSignedVarint(-1);
+        out.writeSignedVarint(Long.MIN_VALUE);
+
+        final BinaryInput in = input();
+        assertEquals(0, in.readVarint());
+        assertEquals(127, in.readVarint());
+        assertEquals(128, in.readVarint());
+        assertEquals(Long.MAX_VALUE, in.readVarint());
+        assertEquals(-1, in.readSignedVarint());
+        assertEquals(Long.MIN_VALUE, in.readSignedVarint());
+    }
+
+    @Test
+    public void smallValuesTakeOneByte() throws Exception {
+        out.writeVarint(127);
+        out.writeSignedVarint(-64);
+        out.flush();
+        assertEquals(2, bytes.size());
+    }
+
+    @Test
+    public void nullableValues() throws Exception {
+        out.writeNullableInt(null);
+        out.writeNullableInt(Integer.MIN_VALUE);
+        out.writeNullableInt(Integer.MAX_VALUE);
+        out.writeNullableBoolean(null);
+        out.writeNullableBoolean(true);
+        out.writeNullableBoolean(false);
+
+        final BinaryInput in = input();
+        assertNull(in.readNullableInt());
+        assertEquals(Integer.MIN_VALUE, (int)in.readNullableInt());
+        assertEquals(Integer.MAX_VALUE, (int)in.readNullableInt());
+        assertNull(in.readNullableBoolean());
+        assertTrue(in.readNullableBoolean());
+        assertFalse(in.readNullableBoolean());
+    }
+
+    @Test
+    public void repeatedStringsAreReferences() throws Exception {
+        out.writeString("cafè");
+        out.flush();
+        final int first = bytes.size();
+        out.writeString("cafè");
+        out.writeString(null);
+        out.flush();
+        assertEquals(first + 2, bytes.size());
+
+        final BinaryInput in = input();
+        final String value = in.readString();
+        assertEquals("cafè", value);
+        assertSame(value, in.readString());
+        assertNull(in.readString());
+    }
+
+    @Test
+    public void longStrings() throws Exception {
+        final StringBuilder sb = new StringBuilder(20000);
+        for (int i = 0; i < 20000; i++) {
+            sb.append((char)('a' + (i % 26)));
+        }
+        final String text = sb.toString();
+        out.writeString(text);
+        out.writeString(text);
+        out.writeString("end");
+
+        final BinaryInput in = input();
+        assertEquals(text, in.readString());
+        assertEquals(text, in.readString());
+        assertEquals("end", in.readString());
+    }
+
+    @Test
+    public void datesAndUris() throws Exception {
+        final DateTime date = new DateTime(1601, 1, 1, 0, 0, DateTimeZone.forOffsetHoursMinutes(-5, -30));
+        out.writeDate(date);
+        out.writeDate(null);
+        out.writeUri(new URI("http://mircomacrelli.net/a%20b"));
+        out.writeUri(null);
+
+        final BinaryInput in = input();
+        assertEquals(date, in.readDate());
+        assertNull(in.readDate());
+        assertEquals(new URI("http://mircomacrelli.net/a%20b"), in.readUri());
+        assertNull(in.readUri());
+    }
+
+    @Test(expected = ParserException.class)
+    public void unknownReference() throws Exception {
+        out.writeVarint(BinaryOutput.REFERENCE + 3);
+        input().readString();
+    }
+
+    @Test(expected = ParserException.class)
+    public void unknownEnum() throws Exception {
+        out.writeString("FOO");
+        input().readEnum(Channel.Day.class);
+    }
+
+    @Test(expected = ParserException.class)
+    public void endOfTheData() throws Exception {
+        out.writeVarint(128);
+        input().readString();
+    }
+
+    @Test(expected = ParserException.class)
+    public void negativeInt() throws Exception {
+        out.writeVarint(-4);
+        input().readInt();
+    }
+
+    @Test(expected = ParserException.class)
+    public void lengthLongerThanTheData() throws Exception {
+        out.writeVarint(BinaryOutput.LITERAL);
+        out.writeVarint(0x7FFFFFFE);
+        out.writeVarint('a');
+        input().readString();
+    }
+
+    @Test(expected = ParserException.class)
+    public void negativeLength() throws Exception {
+        input().readBytes(-1);
+    }
+
+    @Test
+    public void bytesLongerThanTheBuffer() throws Exception {
+        final byte[] data = new byte[100000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte)i;
+        }
+        final BinaryInput in = new BinaryInput(new ByteArrayInputStream(data));
+        assertEquals(0, in.readByte());
+        final byte[] read = in.readBytes(data.length - 1);
+        assertEquals(data.length - 1, read.length);
+        assertEquals((byte)1, read[0]);
+        assertEquals(data[data.length - 1], read[read.length - 1]);
+    }
+}
@@ -3,6 +3,7 @@ package net.mircomacrelli.rss;
 import org.junit.Test;
 
 import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.stream.events.StartElement;
 
 public class BuilderBaseTest {
@@ -15,6 +16,11 @@ public class BuilderBaseTest {
             throw new RuntimeException("catch me!");
         }
 
+        @Override
+        void parseElement(final XMLStreamReader reader) throws ParserException {
+            throw new RuntimeException("catch me!");
+        }
+
         @Override
         Mock buildElement() throws ParserException {
             throw new RuntimeException("catch me!");
@@ -26,6 +32,11 @@ public class BuilderBaseTest {
         new MockBuilder().parse(null, null);
     }
 
+    @Test(expected = ParserException.class)
+    public void cursorParseCatchRuntimeException() throws ParserException {
+        new MockBuilder().parse(null);
+    }
+
     @Test(expected = ParserException.class)
     public void buildCatchRuntimeException() throws ParserException {
         new MockBuilder().build();
@@ -14,4 +14,10 @@ abstract class BuilderTestBase<T, B extends BuilderBase<T>> extends XmlTestBase
         builder.parse(reader, element);
         return builder;
     }
+
+    B parseWithCursor(final String xml) throws ParserException {
+        final B builder = newBuilder();
+        builder.parse(parseStringWithCursor(xml));
+        return builder;
+    }
 }
@@ -0,0 +1,69 @@
+package net.mircomacrelli.rss;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class ByteBufferInputStreamTest {
+    private ByteBuffer buffer;
+    private ByteBufferInputStream is;
+
+    @Before
+    public void setup() {
+        buffer = ByteBuffer.wrap(new byte[]{1, 2, 3, (byte)0xFF, 5});
+        buffer.position(1);
+        is = new ByteBufferInputStream(buffer);
+    }
+
+    @Test
+    public void readsOnlyTheRemainingBytes() {
+        assertEquals(4, is.available());
+        assertEquals(2, is.read());
+        assertEquals(3, is.read());
+        assertEquals(0xFF, is.read());
+        assertEquals(5, is.read());
+        assertEquals(-1, is.read());
+    }
+
+    @Test
+    public void readArray() {
+        final byte[] bytes = new byte[6];
+        assertEquals(3, is.read(bytes, 1, 3));
+        assertArrayEquals(new byte[]{0, 2, 3, (byte)0xFF, 0, 0}, bytes);
+        assertEquals(1, is.read(bytes, 0, 6));
+        assertEquals(-1, is.read(bytes, 0, 6));
+        assertEquals(0, is.read(bytes, 0, 0));
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void readOutsideTheArray() {
+        is.read(new byte[2], 1, 2);
+    }
+
+    @Test
+    public void skip() {
+        assertEquals(2, is.skip(2));
+        assertEquals(0, is.skip(-1));
+        assertEquals(2, is.skip(10));
+        assertEquals(-1, is.read());
+    }
+
+    @Test
+    public void markAndReset() {
+        is.read();
+        is.mark(10);
+        is.read();
+        is.reset();
+        assertEquals(3, is.read());
+    }
+
+    @Test
+    public void positionOfTheBufferIsNotChanged() {
+        is.skip(3);
+        assertEquals(1, buffer.position());
+    }
+}
@@ -1,10 +1,16 @@
 package net.mircomacrelli.rss;
 
 import net.mircomacrelli.rss.Channel.Builder;
+import net.mircomacrelli.rss.Channel.Day;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashSet;
+
 import static net.mircomacrelli.rss.Utils.PARSER;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 public class ChannelBuilderTest extends BuilderTestBase<Channel, Builder> {
@@ -202,6 +208,97 @@ public class ChannelBuilderTest extends BuilderTestBase<Channel, Builder> {
         assertEquals(2, builder.build().getItems().size());
     }
 
+    @Test
+    public void moreThanOneItemWithCursor() throws ParserException {
+        final Builder builder = parseWithCursor("<channel>" +
+                                                "<title>titolo</title>" +
+                                                "<link>http://www.google.it</link>" +
+                                                "<description>descrizione</description>" +
+                                                "<item>" +
+                                                "<title>first</title>" +
+                                                "<link>http://www.google.it</link>" +
+                                                "</item>" +
+                                                "<item>" +
+                                                "<title>second</title>" +
+                                                "<link>http://mircomacrelli.net</link>" +
+                                                "</item>" +
+                                                "</channel>");
+        assertEquals(2, builder.build().getItems().size());
+    }
+
+    @Test
+    public void itemBuilderIsResetBetweenItems() throws ParserException {
+        final Channel channel = parseWithCursor("<channel>" +
+                                                "<title>titolo</title>" +
+                                                "<link>http://www.google.it</link>" +
+                                                "<description>descrizione</description>" +
+                                                "<item>" +
+                                                "<title>first</title>" +
+                                                "<category>news</category>" +
+                                                "<guid>http://www.google.it/1</guid>" +
+                                                "</item>" +
+                                                "<item>" +
+                                                "<title>second</title>" +
+                                                "</item>" +
+                                                "</channel>").build();
+        final Item second = channel.getItems().get(1);
+        assertEquals("second", second.getTitle());
+        assertTrue(second.getCategories().isEmpty());
+        assertNull(second.getUniqueId());
+        assertEquals(1, channel.getItems().get(0).getCategories().size());
+    }
+
+    @Test(expected = ParserException.class)
+    public void onlyOneTitleWithCursor() throws ParserException {
+        parseWithCursor("<channel>" +
+                        "<title>first</title>" +
+                        "<title>second</title>" +
+                        "</channel>");
+    }
+
+    @Test
+    public void unknownTagsAreSkippedWithCursor() throws ParserException {
+        final Builder builder = parseWithCursor("<channel>" +
+                                                "<unknown><title>inner</title><item/></unknown>" +
+                                                "<title>titolo</title>" +
+                                                "<link>http://www.google.it</link>" +
+                                                "<description>descrizione</description>" +
+                                                "</channel>");
+        final Channel channel = builder.build();
+        assertEquals("titolo", channel.getTitle());
+        assertTrue(channel.getItems().isEmpty());
+    }
+
+    @Test
+    public void skipDaysAndHoursWithCursor() throws ParserException {
+        final Builder builder = parseWithCursor("<channel>" +
+                                                "<title>titolo</title>" +
+                                                "<link>http://www.google.it</link>" +
+                                                "<description>descrizione</description>" +
+                                                "<skipDays><Day>Saturday</Day><Day>Sunday</Day></skipDays>" +
+                                                "<skipHours><Hour>5</Hour><Hour>6</Hour><Hour>4</Hour></skipHours>" +
+                                                "</channel>");
+        final Channel channel = builder.build();
+        assertEquals(2, channel.getSkipDays().size());
+        assertEquals(3, channel.getSkipHours().size());
+    }
+
+    @Test
+    public void skipDaysAndHoursWithTheSpecNames() throws ParserException {
+        final String xml = "<channel>" +
+                           "<title>titolo</title>" +
+                           "<link>http://www.google.it</link>" +
+                           "<description>descrizione</description>" +
+                           "<skipDays><day>Saturday</day><Day>Sunday</Day></skipDays>" +
+                           "<skipHours><hour>5</hour><Hour>6</Hour></skipHours>" +
+                           "</channel>";
+        assertEquals(parse(xml).build(), parseWithCursor(xml).build());
+
+        final Channel channel = parse(xml).build();
+        assertEquals(EnumSet.of(Day.SATURDAY, Day.SUNDAY), channel.getSkipDays());
+        assertEquals(new HashSet<>(Arrays.asList(5, 6)), channel.getSkipHours());
+    }
+
     @Test(expected = ParserException.class)
     public void onlyOneSkipDays() throws ParserException {
         parse("<channel>" +
@@ -235,6 +332,26 @@ public class ChannelBuilderTest extends BuilderTestBase<Channel, Builder> {
         assertEquals(2, builder.build().getModules().size());
     }
 
+    @Test
+    public void channelWithExtensionsWithCursor() throws ParserException {
+        final Builder builder = parseWithCursor("<channel " +
+                                                "xmlns:sy=\"http://purl.org/rss/1.0/modules/syndication/\" " +
+                                                "xmlns:cc=\"http://cyber.law.harvard.edu/rss/creativeCommonsRssModule.html\" " +
+                                                "xmlns:unk=\"http://mircomacrelli.net/unknown-module\">" +
+                                                "<title>titolo</title>" +
+                                                "<description>descrizione</description>" +
+                                                "<unk:tag><title>inner</title></unk:tag>" +
+                                                "<link>http://mircomacrelli.net</link>" +
+                                                "<cc:license>http://mircomacrelli.net/license</cc:license>" +
+                                                "<sy:updatePeriod>weekly</sy:updatePeriod>" +
+                                                "<sy:updateFrequency>1</sy:updateFrequency>" +
+                                                "<sy:updateBase>2013-12-21T12:21:00+0000</sy:updateBase>" +
+                                                "</channel>");
+        final Channel channel = builder.build();
+        assertEquals(2, channel.getModules().size());
+        assertEquals("titolo", channel.getTitle());
+    }
+
     @Test
     public void channelAllowCreativeCommonsModule() {
         assertTrue(new Builder(PARSER).isModuleAllowed(CreativeCommons.class));
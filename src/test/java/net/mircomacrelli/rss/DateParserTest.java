@@ -0,0 +1,158 @@
+package net.mircomacrelli.rss;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.joda.time.format.DateTimeFormat;
+import org.joda.time.format.DateTimeFormatter;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Locale;
+
+import static net.mircomacrelli.rss.DateParser.parse;
+import static net.mircomacrelli.rss.Utils.PARSER;
+import static net.mircomacrelli.rss.Utils.parseDate;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class DateParserTest {
+    private DateTime date;
+
+    @Before
+    public void setup() {
+        date = new DateTime(1382180943000L).withZone(DateTimeZone.UTC);
+    }
+
+    @Test
+    public void rfc822() {
+        assertEquals(date, parse("Sat, 19 Oct 2013 11:09:03 +0000", PARSER));
+    }
+
+    @Test
+    public void iso8601() {
+        assertEquals(date, parse("2013-10-19T11:09:03Z", PARSER));
+        assertEquals(date, parse("2013-10-19T13:09:03+02:00", PARSER));
+        assertEquals(date, parse("2013-10-19T06:09:03-0500", PARSER));
+    }
+
+    @Test
+    public void iso8601WithFractionOfSeconds() {
+        assertEquals(date.plusMillis(250), parse("2013-10-19T11:09:03.25Z", PARSER));
+        assertEquals(date.plusMillis(123), parse("2013-10-19T11:09:03.123456Z", PARSER));
+    }
+
+    @Test
+    public void iso8601WithoutSeconds() {
+        assertEquals(date.withSecondOfMinute(0), parse("2013-10-19T11:09Z", PARSER));
+    }
+
+    @Test
+    public void dayOfWeekIsOptional() {
+        assertEquals(date, parse("19 Oct 2013 11:09:03 +0000", PARSER));
+    }
+
+    @Test
+    public void twoDigitsYears() {
+        assertEquals(date, parse("Sat, 19 Oct 13 11:09:03 +0000", PARSER));
+        assertEquals(date.withYear(1999), parse("19 Oct 99 11:09:03 +0000", PARSER));
+    }
+
+    @Test
+    public void secondsAreOptional() {
+        assertEquals(date.withSecondOfMinute(0), parse("Sat, 19 Oct 2013 11:09 +0000", PARSER));
+    }
+
+    @Test
+    public void namedTimeZones() {
+        assertEquals(date, parse("Sat, 19 Oct 2013 11:09:03 GMT", PARSER));
+        assertEquals(date, parse("Sat, 19 Oct 2013 11:09:03 UT", PARSER));
+        assertEquals(date, parse("Sat, 19 Oct 2013 06:09:03 EST", PARSER));
+        assertEquals(date, parse("Sat, 19 Oct 2013 07:09:03 EDT", PARSER));
+        assertEquals(date, parse("Sat, 19 Oct 2013 04:09:03 PDT", PARSER));
+    }
+
+    @Test
+    public void monthNamesAreCaseInsensitiveAndCanBeComplete() {
+        assertEquals(date, parse("Saturday, 19 OCTOBER 2013 11:09:03 +0000", PARSER));
+        assertEquals(date, parse("19-oct-2013 11:09:03 +0000", PARSER));
+    }
+
+    @Test
+    public void singleDigitDayAndHour() {
+        assertEquals(date.withDayOfMonth(9).withHourOfDay(1), parse("Wed, 9 Oct 2013 1:09:03 +0000", PARSER));
+    }
+
+    @Test
+    public void unknownDatesAreNotDecoded() {
+        assertNull(parse("", PARSER));
+        assertNull(parse("yesterday", PARSER));
+        assertNull(parse("Sat, 19 Oct 2013", PARSER));
+        assertNull(parse("Sat, 19 Foo 2013 11:09:03 +0000", PARSER));
+        assertNull(parse("Sat, 19 Oct 2013 11:09:03 XYZ", PARSER));
+        assertNull(parse("2013-10-19T11:09:03", PARSER));
+        assertNull(parse("2013-10-19T11:09:03Z trailing", PARSER));
+    }
+
+    @Test
+    public void invalidFieldsAreNotDecoded() {
+        assertNull(parse("2013-02-29T11:09:03Z", PARSER));
+        assertNull(parse("2013-13-19T11:09:03Z", PARSER));
+        assertNull(parse("2013-10-19T24:09:03Z", PARSER));
+        assertNull(parse("Sat, 32 Oct 2013 11:09:03 +0000", PARSER));
+        assertNull(parse("Sat, 19 Oct 2013 11:60:03 +0000", PARSER));
+    }
+
+    @Test
+    public void leapDays() {
+        assertEquals(new DateTime(2012, 2, 29, 0, 0, DateTimeZone.UTC), parse("2012-02-29T00:00:00Z", PARSER));
+        assertEquals(new DateTime(2000, 2, 29, 0, 0, DateTimeZone.UTC), parse("2000-02-29T00:00:00Z", PARSER));
+        assertNull(parse("1900-02-29T00:00:00Z", PARSER));
+    }
+
+    @Test
+    public void sameResultOfTheFormatter() {
+        final String[] dates = {"Sat, 19 Oct 2013 11:09:03 +0000", "Thu, 01 Jan 1970 00:00:00 +0000",
+                                "Wed, 31 Dec 1969 23:59:59 -0100", "Mon, 29 Feb 2016 12:30:00 +0530",
+                                "2013-10-19T11:09:03+0000", "1969-07-20T20:17:40-07:00",
+                                "2099-12-31T23:59:59+14:00", "1601-01-01T00:00:00Z"};
+        for (final String text : dates) {
+            assertEquals(text, PARSER.parseDateTime(text), parse(text, PARSER));
+        }
+    }
+
+    @Test
+    public void zoneOfTheFormatterIsUsed() {
+        final DateTimeZone rome = DateTimeZone.forID("Europe/Rome");
+        final DateTime parsed = parse("Sat, 19 Oct 2013 11:09:03 +0000", PARSER.withZone(rome));
+        assertEquals(date.withZone(rome), parsed);
+    }
+
+    @Test
+    public void parsedOffsetIsKeptIfRequested() {
+        final DateTime parsed = parse("2013-10-19T13:09:03+02:00", PARSER.withOffsetParsed());
+        assertEquals(DateTimeZone.forOffsetHours(2), parsed.getZone());
+        assertEquals(date.getMillis(), parsed.getMillis());
+    }
+
+    @Test
+    public void sameStringReturnTheCachedDate() {
+        final DateTime first = parse("Sun, 20 Oct 2013 11:09:03 +0000", PARSER);
+        assertSame(first, parse("Sun, 20 Oct 2013 11:09:03 +0000", PARSER));
+    }
+
+    @Test
+    public void cacheDependsOnTheZone() {
+        final DateTimeZone rome = DateTimeZone.forID("Europe/Rome");
+        parse("Mon, 21 Oct 2013 11:09:03 +0000", PARSER);
+        assertEquals(rome, parse("Mon, 21 Oct 2013 11:09:03 +0000", PARSER.withZone(rome)).getZone());
+    }
+
+    @Test
+    public void formatterIsUsedWhenTheDateIsNotDecoded() {
+        final DateTimeFormatter custom = DateTimeFormat.forPattern("dd/MM/yyyy HH:mm:ss").withLocale(Locale.ENGLISH)
+                                                       .withZoneUTC();
+        assertNull(parse("19/10/2013 11:09:03", custom));
+        assertEquals(date, parseDate("19/10/2013 11:09:03", custom));
+    }
+}
@@ -0,0 +1,173 @@
+package net.mircomacrelli.rss;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.List;
+
+import static net.mircomacrelli.rss.RSSFactory.newFactory;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DedupIndexTest {
+    private static final String FEED = "http://mircomacrelli.net/feed.xml";
+
+    private DedupIndex index;
+
+    @Before
+    public void setup() {
+        index = DedupIndex.newIndex(1000);
+    }
+
+    @Test
+    public void itemsAreAddedOnce() {
+        assertTrue(index.add(FEED, withGuid("a", "title")));
+        assertFalse(index.add(FEED, withGuid("a", "title")));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    public void guidIsTheIdentity() {
+        index.add(FEED, withGuid("a", "title"));
+
+        assertTrue(index.contains(FEED, withGuid("a", "edited title")));
+        assertFalse(index.contains(FEED, withGuid("b", "title")));
+    }
+
+    @Test
+    public void linkIsTheIdentityWithoutGuid() {
+        index.add(FEED, withLink("http://mircomacrelli.net/a", "title"));
+
+        assertTrue(index.contains(FEED, withLink("http://mircomacrelli.net/a", "edited title")));
+        assertFalse(index.contains(FEED, withLink("http://mircomacrelli.net/b", "title")));
+    }
+
+    @Test
+    public void titleAndDescriptionWithoutGuidAndLink() {
+        index.add(FEED, new Item(null, "title", "description", null, null, null, null, null, null, null));
+
+        assertTrue(index.contains(FEED, new Item(null, "title", "description", null, null, null, null, null, null,
+                                                 null)));
+        assertFalse(index.contains(FEED, new Item(null, "title", "other", null, null, null, null, null, null, null)));
+        assertFalse(index.contains(FEED, new Item(null, "title", null, null, null, null, null, null, null, null)));
+        assertFalse(index.contains(FEED, new Item(null, "titled", "escription", null, null, null, null, null, null,
+                                                  null)));
+    }
+
+    @Test
+    public void feedsAreIndependent() {
+        index.add(FEED, withGuid("a", "title"));
+
+        assertFalse(index.contains("http://mircomacrelli.net/other.xml", withGuid("a", "title")));
+    }
+
+    @Test
+    public void lazyAndEagerLinksHaveTheSameFingerprint() throws ParserException {
+        final byte[] feed = ("<rss version=\"2.0\"><channel><title>t</title><link>http://mircomacrelli.net</link>" +
+                             "<description>d</description><item><title>i</title>" +
+                             "<link> http://mircomacrelli.net/a </link></item></channel></rss>")
+                .getBytes(Charset.forName("UTF-8"));
+
+        final Item eager = newFactory().parse(new ByteArrayInputStream(feed)).getChannel().getItems().get(0);
+        final Item lazy = newFactory().withLazyDecoding(true).parse(new ByteArrayInputStream(feed)).getChannel()
+                                      .getItems().get(0);
+
+        assertEquals(DedupIndex.fingerprint(FEED, eager), DedupIndex.fingerprint(FEED, lazy));
+        assertEquals(DedupIndex.fingerprint(FEED, eager),
+                     DedupIndex.fingerprint(FEED, withLink("http://mircomacrelli.net/a", "other")));
+    }
+
+    @Test
+    public void filterNew() {
+        index.add(FEED, withGuid("b", "title"));
+        final Item a = withGuid("a", "title");
+        final Item c = withGuid("c", "title");
+
+        final List<Item> added = index.filterNew(FEED, Arrays.asList(a, withGuid("b", "title"), c,
+                                                                     withGuid("a", "title")));
+
+        assertEquals(Arrays.asList(a, c), added);
+        assertTrue(index.filterNew(FEED, Arrays.asList(a, c)).isEmpty());
+    }
+
+    @Test
+    public void itemsStillPublishedAreNotForgotten() {
+        index = DedupIndex.newIndex(4);
+        index.filterNew(FEED, Arrays.asList(withGuid("a", "t"), withGuid("b", "t"), withGuid("c", "t"),
+                                            withGuid("d", "t")));
+
+        assertTrue(index.add(FEED, withGuid("e", "t")));
+        assertEquals(1, index.getRotationCount());
+        assertFalse(index.add(FEED, withGuid("a", "t")));
+        assertTrue(index.add(FEED, withGuid("f", "t")));
+        assertTrue(index.add(FEED, withGuid("g", "t")));
+        assertTrue(index.add(FEED, withGuid("h", "t")));
+
+        assertEquals(2, index.getRotationCount());
+        assertTrue(index.contains(FEED, withGuid("a", "t")));
+        assertFalse(index.contains(FEED, withGuid("b", "t")));
+        assertTrue(index.add(FEED, withGuid("b", "t")));
+    }
+
+    @Test
+    public void manyFeeds() {
+        index = DedupIndex.newIndex(100000);
+        for (int feed = 0; feed < 1000; feed++) {
+            for (int item = 0; item < 50; item++) {
+                assertTrue(index.add(Integer.toString(feed), withGuid(Integer.toString(item), "t")));
+            }
+        }
+        for (int feed = 0; feed < 1000; feed++) {
+            for (int item = 0; item < 50; item++) {
+                assertTrue(index.contains(Integer.toString(feed), withGuid(Integer.toString(item), "t")));
+            }
+            assertFalse(index.contains(Integer.toString(feed), withGuid("50", "t")));
+        }
+        assertEquals(50000, index.size());
+    }
+
+    @Test
+    public void fingerprintsAreNotEmpty() {
+        assertNotEquals(0, DedupIndex.fingerprint(FEED, withGuid("a", "t")));
+    }
+
+    @Test
+    public void clear() {
+        index.add(FEED, withGuid("a", "title"));
+        index.clear();
+
+        assertEquals(0, index.size());
+        assertTrue(index.add(FEED, withGuid("a", "title")));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void capacityMustBePositive() {
+        DedupIndex.newIndex(0);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void feedIsRequired() {
+        index.add(null, withGuid("a", "title"));
+    }
+
+    @Test
+    public void testToString() {
+        index.add(FEED, withGuid("a", "title"));
+
+        assertEquals("DedupIndex{capacity=1000, size=1, rotations=0}", index.toString());
+    }
+
+    private static Item withGuid(final String guid, final String title) {
+        return new Item(null, title, null, null, null, null, null, null, null, new UniqueId(guid, false));
+    }
+
+    private static Item withLink(final String link, final String title) {
+        return new Item(URI.create(link), title, null, null, null, null, null, null, null, null);
+    }
+}
@@ -7,6 +7,7 @@ import org.junit.Test;
 import javax.xml.stream.XMLEventReader;
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.stream.events.StartElement;
 import javax.xml.stream.events.XMLEvent;
 import java.io.StringReader;
@@ -99,6 +100,10 @@ public class ExtensibleElementBuilderTest {
             protected void parseTag(final XMLEventReader reader, final StartElement element) {
             }
 
+            @Override
+            protected void parseTag(final XMLStreamReader reader) {
+            }
+
             @Override
             boolean isModuleAllowed(final Class<? extends Module> module) {
                 return module.equals(CreativeCommons.class);
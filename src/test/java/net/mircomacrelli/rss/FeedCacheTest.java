@@ -0,0 +1,152 @@
+package net.mircomacrelli.rss;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static net.mircomacrelli.rss.RSSFactory.newFactory;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class FeedCacheTest {
+    private FeedCache cache;
+
+    @Before
+    public void setup() {
+        cache = FeedCache.newCache(newFactory(), 1024 * 1024);
+    }
+
+    @Test
+    public void sameContentIsParsedOnce() throws ParserException {
+        final RSS first = cache.parse(new ByteArrayInputStream(feed("first", 3)));
+        final RSS second = cache.parse(new ByteArrayInputStream(feed("first", 3)));
+
+        assertSame(first, second);
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(1, cache.size());
+    }
+
+    @Test
+    public void differentContentIsParsed() throws ParserException {
+        final RSS first = cache.parse(new ByteArrayInputStream(feed("first", 3)));
+        final RSS second = cache.parse(new ByteArrayInputStream(feed("second", 3)));
+
+        assertNotSame(first, second);
+        assertEquals("second", second.getChannel().getTitle());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void leastRecentlyUsedIsEvicted() throws ParserException {
+        final long weight = FeedCache.weigh(newFactory().parse(new ByteArrayInputStream(feed("a", 3))));
+        cache = FeedCache.newCache(newFactory(), (2 * weight) + (weight / 2));
+
+        final RSS a = cache.parse(new ByteArrayInputStream(feed("a", 3)));
+        cache.parse(new ByteArrayInputStream(feed("b", 3)));
+        assertSame(a, cache.parse(new ByteArrayInputStream(feed("a", 3))));
+        cache.parse(new ByteArrayInputStream(feed("c", 3)));
+
+        assertEquals(1, cache.getEvictionCount());
+        assertEquals(2, cache.size());
+        assertTrue(cache.getWeight() <= cache.getMaxWeight());
+        assertSame(a, cache.parse(new ByteArrayInputStream(feed("a", 3))));
+        assertEquals(2, cache.getHitCount());
+        cache.parse(new ByteArrayInputStream(feed("b", 3)));
+        assertEquals(4, cache.getMissCount());
+    }
+
+    @Test
+    public void heavyFeedsAreNotCached() throws ParserException {
+        cache = FeedCache.newCache(newFactory(), 100);
+        cache.parse(new ByteArrayInputStream(feed("first", 3)));
+
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getWeight());
+        assertEquals(0, cache.getEvictionCount());
+    }
+
+    @Test
+    public void weightGrowsWithTheItems() throws ParserException {
+        final RSS small = newFactory().parse(new ByteArrayInputStream(feed("first", 1)));
+        final RSS big = newFactory().parse(new ByteArrayInputStream(feed("first", 10)));
+        assertTrue(FeedCache.weigh(big) > FeedCache.weigh(small));
+    }
+
+    @Test
+    public void clear() throws ParserException {
+        cache.parse(new ByteArrayInputStream(feed("first", 3)));
+        cache.clear();
+
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.getWeight());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test(expected = ParserException.class)
+    public void invalidFeedsAreNotCached() throws ParserException {
+        try {
+            cache.parse(new ByteArrayInputStream("<rss version=\"2.0\"><channel>".getBytes()));
+        } finally {
+            assertEquals(0, cache.size());
+        }
+    }
+
+    @Test
+    public void manyThreads() throws Exception {
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Future<RSS>> results = new ArrayList<>(100);
+            for (int i = 0; i < 100; i++) {
+                final String title = "feed " + (i % 5);
+                results.add(executor.submit(new Callable<RSS>() {
+                    @Override
+                    public RSS call() throws ParserException {
+                        return cache.parse(new ByteArrayInputStream(feed(title, 3)));
+                    }
+                }));
+            }
+            for (int i = 0; i < 100; i++) {
+                assertEquals("feed " + (i % 5), results.get(i).get().getChannel().getTitle());
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(100, cache.getHitCount() + cache.getMissCount());
+        assertEquals(5, cache.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void maxWeightMustBePositive() {
+        FeedCache.newCache(newFactory(), 0);
+    }
+
+    @Test
+    public void testToString() throws ParserException {
+        cache.parse(new ByteArrayInputStream(feed("first", 3)));
+        assertTrue(cache.toString().startsWith("FeedCache{size=1, weight="));
+    }
+
+    private static byte[] feed(final String title, final int items) {
+        final StringBuilder sb = new StringBuilder(512);
+        sb.append("<rss version=\"2.0\"><channel><title>").append(title).append("</title>")
+          .append("<link>http://mircomacrelli.net</link><description>desc</description>");
+        for (int i = 0; i < items; i++) {
+            sb.append("<item><title>item ").append(i).append("</title><category>news</category></item>");
+        }
+        sb.append("</channel></rss>");
+        return sb.toString().getBytes(Charset.forName("UTF-8"));
+    }
+}
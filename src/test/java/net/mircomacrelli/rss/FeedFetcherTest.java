@@ -0,0 +1,354 @@
+package net.mircomacrelli.rss;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static net.mircomacrelli.rss.RSSFactory.newFactory;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class FeedFetcherTest {
+    private static final String FEED = "<rss version=\"2.0\"><channel><title>fetched</title>" +
+                                       "<link>http://mircomacrelli.net</link><description>desc</description>" +
+                                       "<item><title>item</title></item></channel></rss>";
+    private static final String LAST_MODIFIED = "Sat, 19 Oct 2013 11:09:03 GMT";
+
+    private HttpServer server;
+    private ExecutorService executor;
+    private FeedFetcher fetcher;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger maxActive = new AtomicInteger();
+    private final AtomicInteger redirects = new AtomicInteger();
+
+    @Before
+    public void setup() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        executor = Executors.newCachedThreadPool();
+        server.setExecutor(executor);
+        server.createContext("/feed", new FeedHandler(null));
+        server.createContext("/gzip", new FeedHandler("gzip"));
+        server.createContext("/deflate", new FeedHandler("deflate"));
+        server.createContext("/moved", new RedirectHandler(301, "/feed"));
+        server.createContext("/found", new RedirectHandler(302, "/moved"));
+        server.createContext("/loop", new RedirectHandler(307, "/loop"));
+        server.createContext("/nowhere", new RedirectHandler(308, "ftp://127.0.0.1/feed"));
+        server.createContext("/missing", new HttpHandler() {
+            @Override
+            public void handle(final HttpExchange exchange) throws IOException {
+                exchange.sendResponseHeaders(404, -1);
+                exchange.close();
+            }
+        });
+        server.createContext("/plain", new HttpHandler() {
+            @Override
+            public void handle(final HttpExchange exchange) throws IOException {
+                final byte[] body = bytes(FEED);
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream os = exchange.getResponseBody()) {
+                    os.write(body);
+                }
+            }
+        });
+        server.createContext("/page", new HttpHandler() {
+            @Override
+            public void handle(final HttpExchange exchange) throws IOException {
+                final byte[] body = "<html><body>maintenance</body></html>".getBytes(Charset.forName("UTF-8"));
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream os = exchange.getResponseBody()) {
+                    os.write(body);
+                }
+            }
+        });
+        server.start();
+
+        fetcher = FeedFetcher.newFetcher(newFactory());
+    }
+
+    @After
+    public void teardown() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void fetch() throws Exception {
+        final FetchResult result = fetcher.fetch(uri("/feed"));
+
+        assertTrue(result.isModified());
+        assertEquals(200, result.getStatus());
+        assertEquals("fetched", result.getFeed().getChannel().getTitle());
+        assertEquals("\"v1\"", result.getETag());
+        assertEquals(LAST_MODIFIED, result.getLastModified());
+        assertEquals(bytes(FEED).length, result.getBytesDownloaded());
+        assertTrue(result.getParseTime() > 0);
+    }
+
+    @Test
+    public void notModifiedWithETag() throws Exception {
+        final FetchResult first = fetcher.fetch(uri("/feed"));
+        final FetchResult second = fetcher.fetch(first);
+
+        assertFalse(second.isModified());
+        assertEquals(304, second.getStatus());
+        assertNull(second.getFeed());
+        assertEquals(0, second.getBytesDownloaded());
+        assertEquals(0, second.getParseTime());
+        assertEquals("\"v1\"", second.getETag());
+        assertEquals(LAST_MODIFIED, second.getLastModified());
+    }
+
+    @Test
+    public void notModifiedWithLastModified() throws Exception {
+        assertFalse(fetcher.fetch(uri("/feed"), null, LAST_MODIFIED).isModified());
+    }
+
+    @Test
+    public void modifiedWhenTheValidatorsDontMatch() throws Exception {
+        final FetchResult result = fetcher.fetch(uri("/feed"), "\"v0\"", null);
+
+        assertTrue(result.isModified());
+        assertEquals("\"v1\"", result.getETag());
+    }
+
+    @Test
+    public void newContentWithoutValidatorsForgetsTheOldOnes() throws Exception {
+        final FetchResult result = fetcher.fetch(uri("/plain"), "\"v0\"", LAST_MODIFIED);
+
+        assertTrue(result.isModified());
+        assertNull(result.getETag());
+        assertNull(result.getLastModified());
+    }
+
+    @Test
+    public void gzip() throws Exception {
+        final FetchResult result = fetcher.fetch(uri("/gzip"));
+
+        assertEquals("fetched", result.getFeed().getChannel().getTitle());
+        assertEquals(compress(FEED, "gzip").length, result.getBytesDownloaded());
+    }
+
+    @Test
+    public void deflate() throws Exception {
+        final FetchResult result = fetcher.fetch(uri("/deflate"));
+
+        assertEquals("fetched", result.getFeed().getChannel().getTitle());
+        assertEquals(compress(FEED, "deflate").length, result.getBytesDownloaded());
+    }
+
+    @Test(expected = ParserException.class)
+    public void unexpectedStatus() throws Exception {
+        fetcher.fetch(uri("/missing"));
+    }
+
+    @Test(expected = ParserException.class)
+    public void bodiesThatAreNotRss() throws Exception {
+        fetcher.fetch(uri("/page"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void onlyHttp() throws Exception {
+        fetcher.fetch(new URI("file:///tmp/feed.xml"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void onlyServerBasedHosts() throws Exception {
+        fetcher.fetch(new URI("http://feeds_host/feed"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void onlyWithAHost() throws Exception {
+        fetcher.fetch(new URI("http:///feed"));
+    }
+
+    @Test
+    public void permanentRedirect() throws Exception {
+        final FetchResult result = fetcher.fetch(uri("/moved"));
+
+        assertEquals("fetched", result.getFeed().getChannel().getTitle());
+        assertEquals(uri("/moved"), result.getUri());
+        assertEquals(uri("/feed"), result.getFinalUri());
+        assertTrue(result.isPermanentlyRedirected());
+
+        requests.set(0);
+        assertFalse(fetcher.fetch(result).isModified());
+        assertEquals(1, requests.get());
+        assertEquals(1, redirects.get());
+    }
+
+    @Test
+    public void temporaryRedirect() throws Exception {
+        final FetchResult result = fetcher.fetch(uri("/found"));
+
+        assertEquals("fetched", result.getFeed().getChannel().getTitle());
+        assertEquals(uri("/feed"), result.getFinalUri());
+        assertFalse(result.isPermanentlyRedirected());
+    }
+
+    @Test
+    public void withoutRedirects() throws Exception {
+        final FetchResult result = fetcher.fetch(uri("/feed"));
+
+        assertEquals(uri("/feed"), result.getFinalUri());
+        assertFalse(result.isPermanentlyRedirected());
+    }
+
+    @Test(expected = ParserException.class)
+    public void tooManyRedirects() throws Exception {
+        fetcher.fetch(uri("/loop"));
+    }
+
+    @Test(expected = ParserException.class)
+    public void redirectToAnotherScheme() throws Exception {
+        fetcher.fetch(uri("/nowhere"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void connectionsPerHostMustBePositive() {
+        fetcher.withConnectionsPerHost(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void timeoutsCantBeNegative() {
+        fetcher.withTimeouts(-1, 0);
+    }
+
+    @Test
+    public void connectionsPerHostAreLimited() throws Exception {
+        final FeedFetcher limited = fetcher.withConnectionsPerHost(2);
+        final ExecutorService pool = Executors.newFixedThreadPool(6);
+        try {
+            final List<Future<FetchResult>> results = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                results.add(pool.submit(new Callable<FetchResult>() {
+                    @Override
+                    public FetchResult call() throws Exception {
+                        return limited.fetch(uri("/feed"));
+                    }
+                }));
+            }
+            for (final Future<FetchResult> result : results) {
+                assertTrue(result.get().isModified());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(6, requests.get());
+        assertTrue(maxActive.get() <= 2);
+    }
+
+    @Test
+    public void testToString() throws Exception {
+        assertEquals("FeedFetcher{connectionsPerHost=4, connectTimeout=10000, readTimeout=30000}",
+                     fetcher.toString());
+        assertTrue(fetcher.fetch(uri("/feed")).toString().startsWith("FetchResult{uri=" + uri("/feed") +
+                                                                       ", status=200, modified=true"));
+    }
+
+    private URI uri(final String path) {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + path);
+    }
+
+    private static byte[] bytes(final String text) {
+        return text.getBytes(Charset.forName("UTF-8"));
+    }
+
+    private static byte[] compress(final String text, final String encoding) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream os = "gzip".equals(encoding) ? new GZIPOutputStream(bytes)
+                                                       : new DeflaterOutputStream(bytes)) {
+            os.write(bytes(text));
+        }
+        return bytes.toByteArray();
+    }
+
+    private final class FeedHandler implements HttpHandler {
+        private final String encoding;
+
+        FeedHandler(final String encoding) {
+            this.encoding = encoding;
+        }
+
+        @Override
+        public void handle(final HttpExchange exchange) throws IOException {
+            requests.incrementAndGet();
+            final int now = active.incrementAndGet();
+            int max;
+            while (now > (max = maxActive.get()) && !maxActive.compareAndSet(max, now)) {
+                // retry
+            }
+
+            try {
+                Thread.sleep(20);
+            } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                // before the response, so the client can't send the next request before this one ends
+                active.decrementAndGet();
+            }
+
+            try {
+                exchange.getResponseHeaders().set("ETag", "\"v1\"");
+                exchange.getResponseHeaders().set("Last-Modified", LAST_MODIFIED);
+
+                if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match")) ||
+                    LAST_MODIFIED.equals(exchange.getRequestHeaders().getFirst("If-Modified-Since"))) {
+                    exchange.sendResponseHeaders(304, -1);
+                    return;
+                }
+
+                final byte[] body = (encoding == null) ? bytes(FEED) : compress(FEED, encoding);
+                if (encoding != null) {
+                    exchange.getResponseHeaders().set("Content-Encoding", encoding);
+                }
+                exchange.sendResponseHeaders(200, body.length);
+                try (OutputStream os = exchange.getResponseBody()) {
+                    os.write(body);
+                }
+            } finally {
+                exchange.close();
+            }
+        }
+    }
+
+    private final class RedirectHandler implements HttpHandler {
+        private final int status;
+        private final String location;
+
+        RedirectHandler(final int status, final String location) {
+            this.status = status;
+            this.location = location;
+        }
+
+        @Override
+        public void handle(final HttpExchange exchange) throws IOException {
+            redirects.incrementAndGet();
+            exchange.getResponseHeaders().set("Location", location);
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+        }
+    }
+}
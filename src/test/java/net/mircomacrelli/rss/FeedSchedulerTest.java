@@ -0,0 +1,311 @@
+package net.mircomacrelli.rss;
+
+import net.mircomacrelli.rss.RSS.Version;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeUtils.MillisProvider;
+import org.joda.time.DateTimeZone;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class FeedSchedulerTest {
+    private static final long MINUTE = TimeUnit.MINUTES.toMillis(1);
+
+    private SimulatedClock clock;
+    private FakePoller poller;
+    private RecordingListener listener;
+    private FeedScheduler scheduler;
+    private final Executor direct = new Executor() {
+        @Override
+        public void execute(final Runnable command) {
+            command.run();
+        }
+    };
+
+    @Before
+    public void setup() {
+        clock = new SimulatedClock(new DateTime(2013, 10, 19, 11, 0, 0, DateTimeZone.UTC).getMillis());
+        poller = new FakePoller();
+        listener = new RecordingListener();
+        scheduler = new FeedScheduler(poller, PollingPolicy.newPolicy(), direct, listener, clock);
+    }
+
+    @Test
+    public void newFeedsAreDueImmediately() {
+        final int feed = scheduler.add(uri("a"));
+
+        assertEquals(clock.millis, scheduler.getNextPoll(feed).getMillis());
+        assertEquals(1, scheduler.dispatch());
+        assertEquals(1, listener.polled.size());
+        assertEquals(clock.millis + (60 * MINUTE), scheduler.getNextPoll(feed).getMillis());
+    }
+
+    @Test
+    public void feedsAreDispatchedWhenDue() {
+        poller.ttl.put(uri("slow"), 180);
+        scheduler.add(uri("fast"));
+        scheduler.add(uri("slow"));
+        assertEquals(2, scheduler.dispatch());
+
+        clock.advance(59 * MINUTE);
+        assertEquals(0, scheduler.dispatch());
+        clock.advance(MINUTE);
+        assertEquals(1, scheduler.dispatch());
+        assertEquals(uri("fast"), poller.requests.get(2));
+        clock.advance(120 * MINUTE);
+        assertEquals(2, scheduler.dispatch());
+        assertEquals(5, poller.requests.size());
+    }
+
+    @Test
+    public void hintsAreKeptWhenNotModified() {
+        poller.ttl.put(uri("a"), 180);
+        final int feed = scheduler.add(uri("a"));
+        scheduler.dispatch();
+
+        poller.notModified = true;
+        clock.advance(180 * MINUTE);
+        assertEquals(1, scheduler.dispatch());
+        assertEquals(clock.millis + (180 * MINUTE), scheduler.getNextPoll(feed).getMillis());
+        assertEquals("\"a\"", poller.eTags.get(1));
+    }
+
+    @Test
+    public void movedFeedsArePolledAtTheirNewAddress() {
+        poller.moved.put(uri("old"), uri("new"));
+        final int feed = scheduler.add(uri("old"));
+        scheduler.dispatch();
+
+        assertEquals(uri("new"), scheduler.getUri(feed));
+        clock.advance(60 * MINUTE);
+        scheduler.dispatch();
+        assertEquals(uri("new"), poller.requests.get(1));
+    }
+
+    @Test
+    public void failedFeedsAreRetriedAfterTheInterval() {
+        final int feed = scheduler.add(uri("a"));
+        poller.failure = new ParserException("down");
+
+        assertEquals(1, scheduler.dispatch());
+        assertEquals(1, listener.failed.size());
+        assertEquals(clock.millis + (60 * MINUTE), scheduler.getNextPoll(feed).getMillis());
+    }
+
+    @Test
+    public void unexpectedErrorsAreReported() {
+        final int feed = scheduler.add(uri("a"));
+        poller.error = new IllegalStateException("<rss> not found");
+
+        assertEquals(1, scheduler.dispatch());
+        assertEquals(1, listener.failed.size());
+        assertEquals(IllegalStateException.class, listener.failed.get(0).getCause().getClass());
+        assertEquals(clock.millis + (60 * MINUTE), scheduler.getNextPoll(feed).getMillis());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void feedsWithoutAHostAreRefused() {
+        scheduler.add(URI.create("http://bad_host/feed"));
+    }
+
+    @Test
+    public void nextDispatch() {
+        assertNull(scheduler.getNextDispatch());
+        poller.ttl.put(uri("b"), 120);
+        scheduler.add(uri("a"));
+        scheduler.add(uri("b"));
+        scheduler.dispatch();
+
+        assertEquals(clock.millis + (60 * MINUTE), scheduler.getNextDispatch().getMillis());
+    }
+
+    @Test
+    public void removedFeedsAreNotPolled() {
+        final int a = scheduler.add(uri("a"));
+        scheduler.add(uri("b"));
+        scheduler.remove(a);
+
+        assertEquals(1, scheduler.size());
+        assertEquals(1, scheduler.dispatch());
+        assertEquals(uri("b"), poller.requests.get(0));
+    }
+
+    @Test
+    public void idsAreReused() {
+        final int a = scheduler.add(uri("a"));
+        scheduler.remove(a);
+
+        assertEquals(a, scheduler.add(uri("b")));
+        assertEquals(uri("b"), scheduler.getUri(a));
+    }
+
+    @Test
+    public void removedWhilePolling() {
+        final List<Runnable> pending = new ArrayList<>();
+        scheduler = new FeedScheduler(poller, PollingPolicy.newPolicy(), new Executor() {
+            @Override
+            public void execute(final Runnable command) {
+                pending.add(command);
+            }
+        }, listener, clock);
+        final int feed = scheduler.add(uri("a"));
+        scheduler.dispatch();
+        assertNull(scheduler.getNextPoll(feed));
+
+        scheduler.remove(feed);
+        assertEquals(0, scheduler.size());
+        pending.get(0).run();
+
+        assertTrue(listener.polled.isEmpty());
+        assertEquals(0, scheduler.size());
+        assertNull(scheduler.getNextDispatch());
+        assertEquals(feed, scheduler.add(uri("b")));
+    }
+
+    @Test
+    public void rejectedFeedsAreRequeued() {
+        scheduler = new FeedScheduler(poller, PollingPolicy.newPolicy(), new Executor() {
+            @Override
+            public void execute(final Runnable command) {
+                throw new RejectedExecutionException();
+            }
+        }, listener, clock);
+        final int feed = scheduler.add(uri("a"));
+        final long due = scheduler.getNextPoll(feed).getMillis();
+
+        try {
+            scheduler.dispatch();
+        } catch (final RejectedExecutionException e) {
+            assertEquals(due, scheduler.getNextPoll(feed).getMillis());
+            return;
+        }
+        throw new AssertionError("the exception was not thrown");
+    }
+
+    @Test
+    public void manyFeedsAreDispatchedInOrder() {
+        final int count = 10000;
+        for (int i = 0; i < count; i++) {
+            poller.ttl.put(uri(Integer.toString(i)), 60 + (i % 600));
+            scheduler.add(uri(Integer.toString(i)));
+        }
+        assertEquals(count, scheduler.dispatch());
+        for (int i = 0; i < count; i += 3) {
+            scheduler.remove(i);
+        }
+
+        poller.requests.clear();
+        final long end = clock.millis + (659 * MINUTE);
+        long previous = 0;
+        while (scheduler.getNextDispatch().getMillis() <= end) {
+            final long next = scheduler.getNextDispatch().getMillis();
+            assertTrue(next >= previous);
+            previous = next;
+            clock.millis = next;
+            scheduler.dispatch();
+        }
+
+        final Set<URI> polled = new HashSet<>(poller.requests);
+        assertEquals(count - ((count + 2) / 3), polled.size());
+        for (final URI uri : polled) {
+            assertTrue((Integer.parseInt(uri.getPath().substring(1)) % 3) != 0);
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownFeed() {
+        scheduler.remove(3);
+    }
+
+    @Test
+    public void testToString() {
+        scheduler.add(uri("a"));
+
+        assertEquals("FeedScheduler{size=1, waiting=1, policy=PollingPolicy{defaultInterval=3600000, " +
+                     "maxInterval=86400000}}", scheduler.toString());
+    }
+
+    private static URI uri(final String name) {
+        return URI.create("http://mircomacrelli.net/" + name);
+    }
+
+    private static final class SimulatedClock implements MillisProvider {
+        long millis;
+
+        SimulatedClock(final long millis) {
+            this.millis = millis;
+        }
+
+        void advance(final long delta) {
+            millis += delta;
+        }
+
+        @Override
+        public long getMillis() {
+            return millis;
+        }
+    }
+
+    private static final class FakePoller implements FeedScheduler.Poller {
+        final Map<URI, Integer> ttl = new HashMap<>();
+        final List<URI> requests = new ArrayList<>();
+        final List<String> eTags = new ArrayList<>();
+        final Map<URI, URI> moved = new HashMap<>();
+        boolean notModified;
+        ParserException failure;
+        RuntimeException error;
+
+        @Override
+        public FetchResult poll(final URI uri, final String eTag, final String lastModified)
+                throws ParserException {
+            requests.add(uri);
+            eTags.add(eTag);
+            if (failure != null) {
+                throw failure;
+            }
+            if (error != null) {
+                throw error;
+            }
+            if (notModified) {
+                return new FetchResult(uri, 304, null, eTag, lastModified, 0, 0);
+            }
+
+            final Channel channel = new Channel("title", uri, "description", null, null, null, null, null, null, null,
+                                                null, null, null, ttl.get(uri), null, null, null, null, null, null);
+            final URI finalUri = moved.containsKey(uri) ? moved.get(uri) : uri;
+            return new FetchResult(uri, finalUri, !finalUri.equals(uri), 200,
+                                   new RSS(Charset.forName("UTF-8"), Version.RSS_2_0, channel),
+                                   "\"" + uri.getPath().substring(1) + "\"", null, 100, 1);
+        }
+    }
+
+    private static final class RecordingListener implements FeedScheduler.Listener {
+        final List<FetchResult> polled = new ArrayList<>();
+        final List<ParserException> failed = new ArrayList<>();
+
+        @Override
+        public void polled(final int feed, final FetchResult result) {
+            polled.add(result);
+        }
+
+        @Override
+        public void failed(final int feed, final URI uri, final ParserException cause) {
+            failed.add(cause);
+        }
+    }
+}
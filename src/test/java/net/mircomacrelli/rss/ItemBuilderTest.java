@@ -5,6 +5,7 @@ import org.junit.Test;
 
 import static net.mircomacrelli.rss.Utils.PARSER;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
 public class ItemBuilderTest extends BuilderTestBase<Item, Builder> {
@@ -71,6 +72,30 @@ public class ItemBuilderTest extends BuilderTestBase<Item, Builder> {
         assertEquals(2, builder.build().getEnclosures().size());
     }
 
+    @Test
+    public void enclosuresAndCategoriesWithCursor() throws ParserException {
+        final Item item = parseWithCursor("<item>" +
+                                          "<title>Titolo</title>" +
+                                          "<category domain=\"dmoz.org\">news/italian</category>" +
+                                          "<enclosure url=\"http://mircomacrelli.net/file.mp3\" length=\"12\" type=\"audio/mp3\"/>" +
+                                          "<enclosure url=\"http://mircomacrelli.net/other.mp3\" length=\"21\" type=\"audio/mp3\"></enclosure>" +
+                                          "<guid isPermaLink=\"false\">abcde</guid>" +
+                                          "<source url=\"http://www.google.it\">google</source>" +
+                                          "</item>").build();
+        assertEquals(2, item.getEnclosures().size());
+        assertEquals("dmoz.org", item.getCategories().iterator().next().getDomain());
+        assertFalse(item.getUniqueId().isLink());
+        assertEquals("google", item.getSource().getName());
+    }
+
+    @Test(expected = ParserException.class)
+    public void onlyOneGuidWithCursor() throws ParserException {
+        parseWithCursor("<item>" +
+                        "<guid>http://mircomacrelli.net/abcde</guid>" +
+                        "<guid>http://www.google.it/123</guid>" +
+                        "</item>");
+    }
+
     @Test(expected = ParserException.class)
     public void onlyOneGuid() throws ParserException {
         parse("<item>" +
@@ -0,0 +1,123 @@
+package net.mircomacrelli.rss;
+
+import net.mircomacrelli.rss.RSS.Version;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.NoSuchElementException;
+
+import static net.mircomacrelli.rss.RSSFactory.newFactory;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ItemReaderTest {
+    private static final String FEED = "<rss version=\"2.0\" " +
+                                       "xmlns:cc=\"http://cyber.law.harvard.edu/rss/creativeCommonsRssModule.html\">" +
+                                       "<channel>" +
+                                       "<title>first</title>" +
+                                       "<link>http://mircomacrelli.net</link>" +
+                                       "<item>" +
+                                       "<title>one</title>" +
+                                       "<cc:license>http://mircomacrelli.net/license</cc:license>" +
+                                       "</item>" +
+                                       "<item><title>two</title></item>" +
+                                       "<item><title>three</title></item>" +
+                                       "<description>desc</description>" +
+                                       "<cc:license>http://mircomacrelli.net/license</cc:license>" +
+                                       "</channel>" +
+                                       "</rss>";
+
+    @Test
+    public void itemsAreReadInOrder() throws ParserException {
+        final ItemReader reader = newFactory().stream(toInputStream(FEED));
+
+        assertTrue(reader.hasNext());
+        final Item first = reader.next();
+        assertEquals("one", first.getTitle());
+        assertNotNull(first.getModule(CreativeCommons.class));
+        assertEquals("two", reader.next().getTitle());
+        assertEquals("three", reader.next().getTitle());
+        assertFalse(reader.hasNext());
+    }
+
+    @Test
+    public void hasNextCanBeCalledMoreThanOnce() throws ParserException {
+        final ItemReader reader = newFactory().stream(toInputStream(FEED));
+
+        assertTrue(reader.hasNext());
+        assertTrue(reader.hasNext());
+        assertEquals("one", reader.next().getTitle());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void nextThrowsWhenThereAreNoMoreItems() throws ParserException {
+        final ItemReader reader = newFactory().stream(toInputStream("<rss version=\"2.0\"><channel>" +
+                                                                    "<title>first</title>" +
+                                                                    "<link>http://mircomacrelli.net</link>" +
+                                                                    "<description>desc</description>" +
+                                                                    "</channel></rss>"));
+        reader.next();
+    }
+
+    @Test
+    public void channelContainsTheElementsAfterTheItems() throws ParserException {
+        final ItemReader reader = newFactory().stream(toInputStream(FEED));
+        while (reader.hasNext()) {
+            reader.next();
+        }
+
+        final Channel channel = reader.getChannel();
+        assertEquals("first", channel.getTitle());
+        assertEquals("desc", channel.getDescription());
+        assertNotNull(channel.getModule(CreativeCommons.class));
+        assertTrue(channel.getItems().isEmpty());
+    }
+
+    @Test
+    public void channelSkipsTheItemsNotRead() throws ParserException {
+        final ItemReader reader = newFactory().stream(toInputStream(FEED));
+        assertEquals("one", reader.next().getTitle());
+
+        final Channel channel = reader.getChannel();
+        assertEquals("desc", channel.getDescription());
+        assertFalse(reader.hasNext());
+        assertSame(channel, reader.getChannel());
+    }
+
+    @Test
+    public void versionAndCharset() throws ParserException {
+        final ItemReader reader = newFactory().stream(toInputStream(FEED));
+        assertEquals(Version.RSS_2_0, reader.getVersion());
+        assertEquals(Charset.forName("UTF-8"), reader.getCharset());
+    }
+
+    @Test
+    public void itemsAreEqualToTheParsedOnes() throws ParserException {
+        final ItemReader reader = newFactory().stream(toInputStream(FEED));
+        for (final Item item : newFactory().parse(toInputStream(FEED)).getChannel().getItems()) {
+            assertEquals(item, reader.next());
+        }
+    }
+
+    @Test(expected = ParserException.class)
+    public void invalidItemsThrowAnException() throws ParserException {
+        final ItemReader reader = newFactory().stream(toInputStream("<rss version=\"2.0\"><channel>" +
+                                                                    "<item><title>a</title><title>b</title></item>" +
+                                                                    "</channel></rss>"));
+        reader.next();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void oneChannelIsRequired() throws ParserException {
+        newFactory().stream(toInputStream("<rss version=\"2.0\"></rss>"));
+    }
+
+    private static InputStream toInputStream(final String arg) {
+        return new ByteArrayInputStream(arg.getBytes(Charset.forName("UTF-8")));
+    }
+}
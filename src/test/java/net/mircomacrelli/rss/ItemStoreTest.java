@@ -0,0 +1,178 @@
+package net.mircomacrelli.rss;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static net.mircomacrelli.rss.RSSFactory.newFactory;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ItemStoreTest {
+    private static final String BLOG = "http://mircomacrelli.net/feed.xml";
+    private static final String NEWS = "http://news.mircomacrelli.net/feed.xml";
+    private static final DateTime JANUARY = new DateTime(2014, 1, 10, 12, 0, DateTimeZone.UTC);
+    private static final DateTime FEBRUARY = new DateTime(2014, 2, 10, 12, 0, DateTimeZone.UTC);
+    private static final DateTime MARCH = new DateTime(2014, 3, 10, 12, 0, DateTimeZone.UTC);
+
+    private ItemStore store;
+
+    @Before
+    public void setup() throws Exception {
+        store = ItemStore.newStore();
+        store.add(BLOG, item("Java è lento?", "mirco", JANUARY, "java"));
+        store.add(BLOG, item("Java 8", "mirco", FEBRUARY, "java", "news"));
+        store.add(NEWS, item("Elezioni", "redazione", FEBRUARY, "news"));
+        store.add(NEWS, item("Meteo", null, null));
+    }
+
+    private static Item item(final String title, final String author, final DateTime date,
+                             final String... categories) throws Exception {
+        HashSet<Category> set = null;
+        if (categories.length > 0) {
+            set = new HashSet<>();
+            for (final String category : categories) {
+                set.add(new Category(null, category));
+            }
+        }
+        return new Item(new URI("http://mircomacrelli.net/" + title.length()), title, "description of " + title,
+                        author, date, set, null, null, null, new UniqueId("id-" + title, false));
+    }
+
+    @Test
+    public void itemsAreRebuilt() throws Exception {
+        final Item item = store.getItem(1);
+
+        assertEquals("Java 8", item.getTitle());
+        assertEquals("description of Java 8", item.getDescription());
+        assertEquals("mirco", item.getAuthor());
+        assertEquals(new URI("http://mircomacrelli.net/6"), item.getLink());
+        assertEquals(FEBRUARY, item.getPublishDate());
+        assertEquals(new HashSet<>(Arrays.asList(new Category(null, "java"), new Category(null, "news"))),
+                     item.getCategories());
+        assertEquals(new UniqueId("id-Java 8", false), item.getUniqueId());
+        assertEquals(BLOG, store.getFeed(1));
+    }
+
+    @Test
+    public void missingValuesAreKept() {
+        final Item item = store.getItem(3);
+
+        assertNull(item.getAuthor());
+        assertNull(item.getPublishDate());
+        assertTrue(item.getCategories().isEmpty());
+    }
+
+    @Test
+    public void textsAreInUtf8() {
+        assertEquals("Java è lento?", store.getItem(0).getTitle());
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void rowsMustExist() {
+        store.getItem(4);
+    }
+
+    @Test
+    public void queryWithoutFilters() {
+        assertEquals(4, store.query().count());
+    }
+
+    @Test
+    public void filters() {
+        assertArrayEquals(new int[]{2, 3}, store.query().feed(NEWS).rows());
+        assertArrayEquals(new int[]{0, 1}, store.query().author("mirco").rows());
+        assertArrayEquals(new int[]{1, 2}, store.query().category("news").rows());
+        assertArrayEquals(new int[]{1, 2}, store.query().publishedBetween(FEBRUARY, MARCH).rows());
+        assertArrayEquals(new int[]{0, 1}, store.query().titleContains("Java").rows());
+        assertArrayEquals(new int[]{0}, store.query().titleContains("è").rows());
+    }
+
+    @Test
+    public void filtersAreCombined() {
+        final List<Item> items = store.query().category("news").author("redazione").items();
+
+        assertEquals(1, items.size());
+        assertEquals("Elezioni", items.get(0).getTitle());
+    }
+
+    @Test
+    public void unknownValuesSelectNothing() {
+        assertEquals(0, store.query().feed("http://example.com").count());
+        assertEquals(0, store.query().author("nobody").count());
+        assertEquals(0, store.query().category("sport").count());
+        assertEquals(0, store.query().titleContains("Python").count());
+    }
+
+    @Test
+    public void countByFeed() {
+        final Map<String, Integer> counts = store.query().publishedBetween(JANUARY, MARCH).countByFeed();
+
+        assertEquals(2, counts.size());
+        assertEquals(Integer.valueOf(2), counts.get(BLOG));
+        assertEquals(Integer.valueOf(1), counts.get(NEWS));
+    }
+
+    @Test
+    public void oldItemsAreRemoved() {
+        assertEquals(2, store.retainPublishedSince(FEBRUARY));
+
+        assertEquals(2, store.size());
+        assertEquals("Java 8", store.getItem(0).getTitle());
+        assertEquals("Elezioni", store.getItem(1).getTitle());
+        assertEquals(new HashSet<>(Arrays.asList(new Category(null, "news"))), store.getItem(1).getCategories());
+        assertEquals(NEWS, store.getFeed(1));
+        assertArrayEquals(new int[]{0, 1}, store.query().category("news").rows());
+    }
+
+    @Test
+    public void columnsGrow() throws Exception {
+        final ItemStore offHeap = ItemStore.newOffHeapStore();
+        final long initial = offHeap.getMemoryUsage();
+        for (int i = 0; i < 5000; i++) {
+            offHeap.add(BLOG, item("item " + i, "mirco", JANUARY.plusMinutes(i), "java"));
+        }
+
+        assertTrue(offHeap.isOffHeap());
+        assertEquals(5000, offHeap.size());
+        assertTrue(offHeap.getMemoryUsage() > initial);
+        assertEquals("item 4321", offHeap.getItem(4321).getTitle());
+        assertEquals(JANUARY.plusMinutes(4321), offHeap.getItem(4321).getPublishDate());
+        assertEquals(5000, offHeap.query().category("java").count());
+    }
+
+    @Test
+    public void parsedItems() throws ParserException {
+        final RSS rss = newFactory().withLazyDecoding(true).parse(new ByteArrayInputStream(
+                RSSFactoryTest.FULL_FEED.getBytes(Charset.forName("ISO-8859-1"))));
+        final Item parsed = rss.getChannel().getItems().get(0);
+
+        final ItemStore parsedStore = ItemStore.newStore();
+        parsedStore.addAll(BLOG, rss.getChannel().getItems());
+        final Item stored = parsedStore.getItem(0);
+
+        assertEquals(parsed.getLink(), stored.getLink());
+        assertEquals(parsed.getTitle(), stored.getTitle());
+        assertEquals(parsed.getCategories(), stored.getCategories());
+        assertEquals(parsed.getUniqueId(), stored.getUniqueId());
+        assertEquals(parsed.getPublishDate().getMillis(), stored.getPublishDate().getMillis());
+        assertEquals(DateTimeZone.UTC, stored.getPublishDate().getZone());
+    }
+
+    @Test
+    public void testToString() {
+        assertTrue(store.toString().startsWith("ItemStore{items=4, feeds=2, memoryUsage="));
+        assertTrue(store.toString().endsWith(", offHeap=false}"));
+    }
+}
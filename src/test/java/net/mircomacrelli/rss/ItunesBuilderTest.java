@@ -123,4 +123,25 @@ public class ItunesBuilderTest extends ModuleBuilderTestBase {
                       "</itunes:category>");
         assertEquals(2, ((Itunes)builder.build()).getCategories().size());
     }
+
+    @Test
+    public void nestedCategoriesWithCursor() throws ParserException {
+        final Builder builder = new Builder();
+        stepWithCursor(builder, "<itunes:category text=\"Society &amp; Culture\">" +
+                                "<itunes:category text=\"History\" />" +
+                                "<itunes:category text=\"Philosophy\"></itunes:category>" +
+                                "</itunes:category>");
+        stepWithCursor(builder, "<itunes:image href=\"http://mircomacrelli.net/immagine.png\" />");
+        final Itunes itunes = (Itunes)builder.build();
+        assertEquals("Society & Culture", itunes.getCategories().get(0).getName());
+        assertEquals(2, itunes.getCategories().get(0).getSubCategories().size());
+        assertEquals("http://mircomacrelli.net/immagine.png", itunes.getImage().toString());
+    }
+
+    @Test(expected = ParserException.class)
+    public void authorCantBeRepeatedWithCursor() throws ParserException {
+        final Builder builder = new Builder();
+        stepWithCursor(builder, "<itunes:author>primo</itunes:author>");
+        stepWithCursor(builder, "<itunes:author>secondo</itunes:author>");
+    }
 }
@@ -0,0 +1,90 @@
+package net.mircomacrelli.rss;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class LatencyHistogramTest {
+    private LatencyHistogram histogram;
+
+    @Before
+    public void setup() {
+        histogram = new LatencyHistogram();
+    }
+
+    @Test
+    public void durationsAreCountedInTheirBucket() {
+        histogram.record(0);
+        histogram.record(1);
+        histogram.record(1000);
+        histogram.record(1023);
+
+        assertEquals(1, histogram.getCount(0));
+        assertEquals(1, histogram.getCount(1));
+        assertEquals(2, histogram.getCount(10));
+        assertEquals(1024, histogram.getUpperBound(10));
+    }
+
+    @Test
+    public void longDurationsAreInTheLastBucket() {
+        histogram.record(Long.MAX_VALUE);
+
+        assertEquals(1, histogram.getCount(histogram.getBucketCount() - 1));
+        assertEquals(Long.MAX_VALUE, histogram.getUpperBound(histogram.getBucketCount() - 1));
+    }
+
+    @Test
+    public void negativeDurationsAreZero() {
+        histogram.record(-5);
+
+        assertEquals(1, histogram.getCount(0));
+        assertEquals(0, histogram.getTotalNanos());
+    }
+
+    @Test
+    public void summary() {
+        histogram.record(100);
+        histogram.record(300);
+
+        assertEquals(2, histogram.getCount());
+        assertEquals(400, histogram.getTotalNanos());
+        assertEquals(200, histogram.getMeanNanos());
+        assertEquals(300, histogram.getMaxNanos());
+    }
+
+    @Test
+    public void percentiles() {
+        for (int i = 0; i < 99; i++) {
+            histogram.record(100);
+        }
+        histogram.record(5000);
+
+        assertEquals(128, histogram.getPercentile(0.5));
+        assertEquals(128, histogram.getPercentile(0.99));
+        assertEquals(5000, histogram.getPercentile(1));
+    }
+
+    @Test
+    public void emptyHistogram() {
+        assertEquals(0, histogram.getPercentile(0.5));
+        assertEquals(0, histogram.getMeanNanos());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void quantileMustBeValid() {
+        histogram.getPercentile(1.5);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void bucketMustExist() {
+        histogram.getUpperBound(histogram.getBucketCount());
+    }
+
+    @Test
+    public void testToString() {
+        histogram.record(100);
+
+        assertEquals("LatencyHistogram{count=1, mean=100, p50=100, p99=100, max=100}", histogram.toString());
+    }
+}
@@ -0,0 +1,109 @@
+package net.mircomacrelli.rss;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.Test;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.Locale;
+
+import static net.mircomacrelli.rss.Utils.PARSER;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class LazyTest {
+    @Test
+    public void nullFields() {
+        assertNull(Lazy.get(null));
+        assertNull(Lazy.getText(null));
+        assertTrue(Lazy.equal(null, null));
+    }
+
+    @Test
+    public void decodedValuesAreNotWrapped() throws URISyntaxException {
+        final URI uri = new URI("http://mircomacrelli.net");
+        assertSame(uri, Lazy.get(uri));
+    }
+
+    @Test
+    public void linksAreDecodedOnlyOnce() {
+        final Lazy<URI> lazy = Lazy.uri("http://mircomacrelli.net");
+        assertSame(lazy.get(), lazy.get());
+    }
+
+    @Test
+    public void textIsNotDecoded() throws URISyntaxException {
+        assertEquals("not a link", Lazy.getText(Lazy.uri(" not a link ")));
+        assertEquals("http://mircomacrelli.net", Lazy.getText(new URI("http://mircomacrelli.net")));
+    }
+
+    @Test
+    public void dates() {
+        final DateTime date = new DateTime(1382180943000L).withZone(DateTimeZone.UTC);
+        assertEquals(date, Lazy.date("Sat, 19 Oct 2013 11:09:03 +0000", PARSER).get());
+    }
+
+    @Test
+    public void languages() {
+        assertEquals(Locale.ITALY, Lazy.language("it-IT").get());
+    }
+
+    @Test
+    public void blankTextsAreNull() {
+        assertNull(Lazy.uri("  "));
+        assertNull(Lazy.date("\n", PARSER));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void invalidLinksThrowWhenRead() {
+        Lazy.uri("http://mircomacrelli.net/a b").get();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void invalidDatesThrowWhenRead() {
+        Lazy.date("yesterday", PARSER).get();
+    }
+
+    @Test
+    public void equalityUsesTheDecodedValue() throws URISyntaxException {
+        final URI decoded = new URI("http://mircomacrelli.net");
+        final Lazy<URI> lazy = Lazy.uri("http://mircomacrelli.net");
+
+        assertTrue(Lazy.equal(decoded, lazy));
+        assertTrue(Lazy.equal(lazy, decoded));
+        assertEquals(lazy, Lazy.uri(" http://mircomacrelli.net "));
+        assertEquals(decoded.hashCode(), lazy.hashCode());
+        assertFalse(Lazy.equal(decoded, null));
+        assertNotEquals(lazy, Lazy.uri("http://www.google.it"));
+        assertNotEquals(lazy, "http://mircomacrelli.net");
+    }
+
+    @Test
+    public void testToString() {
+        assertEquals("http://mircomacrelli.net", Lazy.uri("http://mircomacrelli.net").toString());
+    }
+
+    @Test
+    public void invalidValuesAreComparedByTheirText() {
+        final Lazy<DateTime> invalid = Lazy.date(" never ", PARSER);
+
+        assertEquals(invalid, Lazy.date("never", PARSER));
+        assertEquals(invalid.hashCode(), Lazy.date("never", PARSER).hashCode());
+        assertNotEquals(invalid, Lazy.date("later", PARSER));
+        assertNotEquals(invalid, Lazy.date("Sat, 19 Oct 2013 11:09:03 +0000", PARSER));
+        assertEquals("never", invalid.toString());
+    }
+
+    @Test
+    public void invalidDatesAreFormattedAsText() {
+        assertEquals("never", Lazy.formatDate(Lazy.date("never", PARSER)));
+        assertEquals("Sat, 19 Oct 2013 11:09:03 +0000",
+                     Lazy.formatDate(Lazy.date("Sat, 19 Oct 2013 11:09:03 +0000", PARSER)));
+        assertNull(Lazy.formatDate(null));
+    }
+}
@@ -15,6 +15,10 @@ public abstract class ModuleBuilderTestBase extends XmlTestBase {
         builder.parse(reader, element);
     }
 
+    void stepWithCursor(final ModuleBuilder builder, final String xml) throws ParserException {
+        builder.parse(parseStringWithCursor(decorate(xml)));
+    }
+
     private String decorate(final String xml) {
         if ((uri != null) && (prefix != null)) {
             return format("<rss xmlns:%s=\"%s\">%s</rss>", prefix, uri, xml);
@@ -0,0 +1,179 @@
+package net.mircomacrelli.rss;
+
+import net.mircomacrelli.rss.ModuleRegistry.Target;
+import net.mircomacrelli.rss.Projection.ItemField;
+import net.mircomacrelli.rss.RSSFactory.Engine;
+import org.joda.time.format.DateTimeFormatter;
+import org.junit.Test;
+
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.events.StartElement;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+
+import static net.mircomacrelli.rss.RSSFactory.newFactory;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ModuleRegistryTest {
+    private static final String DC = "http://purl.org/dc/elements/1.1/";
+
+    private static final String FEED = "<rss version=\"2.0\" xmlns:dc=\"" + DC + "\"><channel>" +
+                                       "<title>feed</title>" +
+                                       "<link>http://mircomacrelli.net</link>" +
+                                       "<description>desc</description>" +
+                                       "<item><title>item</title><dc:creator>Mirco</dc:creator></item>" +
+                                       "</channel></rss>";
+
+    /** a module written outside of the library, using only the public api */
+    static final class DublinCore implements Module {
+        final String creator;
+
+        DublinCore(final String creator) {
+            this.creator = creator;
+        }
+    }
+
+    static final ModuleFactory DUBLIN_CORE = new ModuleFactory() {
+        @Override
+        public ModuleParser newParser(final DateTimeFormatter dates, final StringPool pool) {
+            return new ModuleParser() {
+                private String creator;
+
+                @Override
+                public void parse(final XMLStreamReader reader) throws XMLStreamException {
+                    if (reader.getLocalName().equals("creator")) {
+                        creator = intern(reader.getElementText());
+                    } else {
+                        reader.getElementText();
+                    }
+                }
+
+                @Override
+                public void parse(final XMLEventReader reader, final StartElement element) throws
+                                                                                           XMLStreamException {
+                    if (element.getName().getLocalPart().equals("creator")) {
+                        creator = intern(reader.getElementText());
+                    } else {
+                        reader.getElementText();
+                    }
+                }
+
+                @Override
+                public Module build() {
+                    return new DublinCore(creator);
+                }
+
+                private String intern(final String text) {
+                    return (pool == null) ? text : pool.intern(text);
+                }
+            };
+        }
+    };
+
+    private static ByteArrayInputStream feed() {
+        return new ByteArrayInputStream(FEED.getBytes(Charset.forName("UTF-8")));
+    }
+
+    @Test
+    public void standardModules() {
+        final ModuleRegistry registry = ModuleRegistry.standard();
+
+        assertTrue(registry.isRegistered("http://purl.org/rss/1.0/modules/syndication/"));
+        assertFalse(registry.isRegistered(DC));
+        assertEquals(3, registry.getNamespaces().size());
+        assertSame(registry, newFactory().getModules());
+    }
+
+    @Test
+    public void registeredModulesAreParsed() throws ParserException {
+        final ModuleRegistry registry = ModuleRegistry.standard().with(DC, DublinCore.class, DUBLIN_CORE,
+                                                                       Target.ITEM);
+        for (final Engine engine : Engine.values()) {
+            final Item item = newFactory(engine).withModules(registry).parse(feed()).getChannel().getItems().get(0);
+
+            assertEquals("Mirco", item.getModule(DublinCore.class).creator);
+            assertEquals("item", item.getTitle());
+        }
+    }
+
+    @Test
+    public void registeredModulesUseThePoolOfTheFactory() throws ParserException {
+        final ModuleRegistry registry = ModuleRegistry.standard().with(DC, DublinCore.class, DUBLIN_CORE,
+                                                                       Target.ITEM);
+        final StringPool pool = StringPool.newPool(16);
+        for (final Engine engine : Engine.values()) {
+            final Item item = newFactory(engine).withModules(registry).withStringPool(pool).parse(feed()).getChannel()
+                                                .getItems().get(0);
+
+            assertSame(pool.intern(new String("Mirco")), item.getModule(DublinCore.class).creator);
+        }
+    }
+
+    @Test
+    public void unregisteredModulesAreSkipped() throws ParserException {
+        final Item item = newFactory().parse(feed()).getChannel().getItems().get(0);
+
+        assertNull(item.getModule(DublinCore.class));
+    }
+
+    @Test
+    public void projectionCanExcludeTheRegisteredModules() throws ParserException {
+        final ModuleRegistry registry = ModuleRegistry.standard().with(DC, DublinCore.class, DUBLIN_CORE,
+                                                                       Target.ITEM);
+        final Projection titles = Projection.none().withItemFields(ItemField.TITLE);
+
+        assertFalse(newFactory().withModules(registry).withProjection(titles).parse(feed()).getChannel().getItems()
+                                .get(0).hasModule(DublinCore.class));
+        assertTrue(newFactory().withModules(registry).withProjection(titles.withModules(DublinCore.class))
+                               .parse(feed()).getChannel().getItems().get(0).hasModule(DublinCore.class));
+    }
+
+    @Test(expected = ParserException.class)
+    public void modulesAreAllowedOnlyInTheirTargets() throws ParserException {
+        newFactory().withModules(ModuleRegistry.standard().with(DC, DublinCore.class, DUBLIN_CORE, Target.CHANNEL))
+                    .parse(feed());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void namespacesCantBeRegisteredTwice() {
+        ModuleRegistry.standard().with("http://purl.org/rss/1.0/modules/syndication/", DublinCore.class,
+                                       DUBLIN_CORE, Target.ITEM);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void modulesCantBeRegisteredTwice() {
+        ModuleRegistry.standard().with(DC, Syndication.class, DUBLIN_CORE, Target.ITEM);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void modulesMustHaveATarget() {
+        ModuleRegistry.standard().with(DC, DublinCore.class, DUBLIN_CORE);
+    }
+
+    @Test
+    public void registeredModulesAreNotWritten() throws ParserException, IOException {
+        final ModuleRegistry registry = ModuleRegistry.standard().with(DC, DublinCore.class, DUBLIN_CORE,
+                                                                       Target.ITEM);
+        final RSS rss = newFactory().withModules(registry).parse(feed());
+
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        RSSWriter.write(rss, os);
+
+        assertFalse(new String(os.toByteArray(), Charset.forName("UTF-8")).contains("Mirco"));
+    }
+
+    @Test
+    public void testToString() {
+        assertEquals("ModuleRegistry{namespaces=[http://cyber.law.harvard.edu/rss/creativeCommonsRssModule.html, " +
+                     "http://purl.org/rss/1.0/modules/syndication/, http://www.itunes.com/dtds/podcast-1.0.dtd]}",
+                     ModuleRegistry.standard().toString());
+    }
+}
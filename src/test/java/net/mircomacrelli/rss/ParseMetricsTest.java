@@ -0,0 +1,101 @@
+package net.mircomacrelli.rss;
+
+import net.mircomacrelli.rss.ParseListener.Value;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class ParseMetricsTest {
+    private ParseMetrics metrics;
+
+    @Before
+    public void setup() {
+        metrics = ParseMetrics.newMetrics();
+    }
+
+    @Test
+    public void finishedParsing() {
+        metrics.parseStarted();
+        metrics.parseFinished(1000, 50, 2000);
+
+        assertEquals(1, metrics.getStartedCount());
+        assertEquals(1, metrics.getParsedCount());
+        assertEquals(0, metrics.getInProgressCount());
+        assertEquals(1000, metrics.getBytesRead());
+        assertEquals(50, metrics.getEventCount());
+        assertEquals(2000, metrics.getParseTime().getTotalNanos());
+    }
+
+    @Test
+    public void failedParsing() {
+        final Exception cause = new ParserException("error");
+        metrics.parseStarted();
+        metrics.parseStarted();
+        metrics.parseFailed(cause, 100);
+
+        assertEquals(1, metrics.getFailedCount());
+        assertEquals(1, metrics.getInProgressCount());
+        assertSame(cause, metrics.getLastFailure());
+        assertEquals(1, metrics.getParseTime().getCount());
+    }
+
+    @Test
+    public void noFailures() {
+        assertNull(metrics.getLastFailure());
+    }
+
+    @Test
+    public void decodingTimesAreSeparated() {
+        metrics.valueDecoded(Value.DATE, 10);
+        metrics.valueDecoded(Value.DATE, 20);
+        metrics.valueDecoded(Value.MIME_TYPE, 30);
+
+        assertEquals(2, metrics.getDecodingTime(Value.DATE).getCount());
+        assertEquals(1, metrics.getDecodingTime(Value.MIME_TYPE).getCount());
+        assertEquals(0, metrics.getDecodingTime(Value.URI).getCount());
+    }
+
+    @Test
+    public void skippedModulesAreCountedByNamespace() {
+        metrics.moduleSkipped("http://www.w3.org/2005/Atom");
+        metrics.moduleSkipped("http://www.w3.org/2005/Atom");
+        metrics.moduleSkipped("http://purl.org/dc/elements/1.1/");
+
+        final Map<String, Long> namespaces = metrics.getSkippedNamespaces();
+        assertEquals(3, metrics.getSkippedModuleCount());
+        assertEquals(2L, (long)namespaces.get("http://www.w3.org/2005/Atom"));
+        assertEquals(1L, (long)namespaces.get("http://purl.org/dc/elements/1.1/"));
+    }
+
+    @Test
+    public void namespacesAreBounded() {
+        for (int i = 0; i < (ParseMetrics.MAX_NAMESPACES * 2); i++) {
+            metrics.moduleSkipped("http://example.com/" + i);
+        }
+
+        assertEquals(ParseMetrics.MAX_NAMESPACES * 2, metrics.getSkippedModuleCount());
+        assertEquals(ParseMetrics.MAX_NAMESPACES, metrics.getSkippedNamespaces().size());
+    }
+
+    @Test
+    public void items() {
+        metrics.itemParsed();
+        metrics.itemParsed();
+
+        assertEquals(2, metrics.getItemCount());
+    }
+
+    @Test
+    public void testToString() {
+        metrics.parseFinished(10, 5, 100);
+        metrics.itemParsed();
+
+        assertEquals("ParseMetrics{parsed=1, failed=0, bytes=10, events=5, items=1, skipped=0, " +
+                     "parseTime=LatencyHistogram{count=1, mean=100, p50=100, p99=100, max=100}}", metrics.toString());
+    }
+}
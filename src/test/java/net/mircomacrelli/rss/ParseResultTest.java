@@ -0,0 +1,72 @@
+package net.mircomacrelli.rss;
+
+import net.mircomacrelli.rss.RSS.Version;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.charset.Charset;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ParseResultTest {
+    private RSS feed;
+    private ParserException exception;
+
+    @Before
+    public void setup() throws URISyntaxException {
+        final Channel channel = new Channel("title", new URI("http://mircomacrelli.net"), "description", null, null,
+                                            null, null, null, null, null, null, null, null, null, null, null, null,
+                                            null, null, null);
+        feed = new RSS(Charset.forName("UTF-8"), Version.RSS_2_0, channel);
+        exception = new ParserException("invalid feed");
+    }
+
+    @Test
+    public void successfulResult() throws ParserException {
+        final ParseResult result = new ParseResult(3, feed, null);
+        assertTrue(result.isSuccessful());
+        assertEquals(3, result.getIndex());
+        assertSame(feed, result.getFeed());
+        assertNull(result.getException());
+    }
+
+    @Test
+    public void failedResult() {
+        final ParseResult result = new ParseResult(1, null, exception);
+        assertFalse(result.isSuccessful());
+        assertSame(exception, result.getException());
+    }
+
+    @Test
+    public void getFeedThrowsTheException() {
+        try {
+            new ParseResult(1, null, exception).getFeed();
+        } catch (final ParserException e) {
+            assertSame(exception, e);
+            return;
+        }
+        throw new AssertionError("the exception was not thrown");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void feedOrExceptionIsRequired() {
+        new ParseResult(0, null, null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void feedAndExceptionCantBeBothSet() {
+        new ParseResult(0, feed, exception);
+    }
+
+    @Test
+    public void testToString() {
+        assertEquals("ParseResult{index=1, exception=net.mircomacrelli.rss.ParserException: invalid feed}",
+                     new ParseResult(1, null, exception).toString());
+    }
+}
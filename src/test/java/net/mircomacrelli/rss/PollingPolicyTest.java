@@ -0,0 +1,136 @@
+package net.mircomacrelli.rss;
+
+import net.mircomacrelli.rss.Channel.Day;
+import net.mircomacrelli.rss.Syndication.Period;
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+
+public class PollingPolicyTest {
+    private PollingPolicy policy;
+    /** a Saturday */
+    private DateTime lastPoll;
+
+    @Before
+    public void setup() {
+        policy = PollingPolicy.newPolicy();
+        lastPoll = new DateTime(2013, 10, 19, 11, 9, 3, DateTimeZone.UTC);
+    }
+
+    @Test
+    public void defaultInterval() {
+        assertEquals(lastPoll.plusHours(1), policy.getNextPoll(channel(null, null, null), lastPoll));
+    }
+
+    @Test
+    public void shortTtlDoesNotShortenTheInterval() {
+        assertEquals(TimeUnit.HOURS.toMillis(1), policy.getInterval(channel(5, null, null)));
+    }
+
+    @Test
+    public void ttlIsInMinutes() {
+        assertEquals(TimeUnit.MINUTES.toMillis(90), policy.getInterval(channel(90, null, null)));
+    }
+
+    @Test
+    public void intervalIsLimited() {
+        assertEquals(TimeUnit.DAYS.toMillis(1), policy.getInterval(channel(10000, null, null)));
+        assertEquals(TimeUnit.HOURS.toMillis(2), policy.withMaxInterval(2, TimeUnit.HOURS)
+                                                       .getInterval(channel(10000, null, null)));
+    }
+
+    @Test
+    public void syndicationPeriod() {
+        final Channel channel = channel(null, null, null);
+        channel.addModule(Syndication.class, new Syndication(Period.DAILY, 4, lastPoll.withTimeAtStartOfDay()));
+
+        assertEquals(TimeUnit.HOURS.toMillis(6), policy.getInterval(channel));
+    }
+
+    @Test
+    public void syndicationBaseAlignsTheUpdates() {
+        final Channel channel = channel(null, null, null);
+        channel.addModule(Syndication.class, new Syndication(Period.DAILY, 4, lastPoll.withTimeAtStartOfDay()));
+
+        assertEquals(lastPoll.withTime(18, 0, 0, 0), policy.getNextPoll(channel, lastPoll));
+    }
+
+    @Test
+    public void syndicationBaseIsIgnoredWhenTheIntervalIsLimited() {
+        final Channel channel = channel(null, null, null);
+        channel.addModule(Syndication.class, new Syndication(Period.WEEKLY, 1, lastPoll.withTimeAtStartOfDay()));
+
+        assertEquals(lastPoll.plusDays(1), policy.getNextPoll(channel, lastPoll));
+    }
+
+    @Test
+    public void skipHours() {
+        final Channel channel = channel(null, new HashSet<>(Arrays.asList(12, 13, 14)), null);
+
+        assertEquals(lastPoll.withTime(15, 0, 0, 0), policy.getNextPoll(channel, lastPoll));
+    }
+
+    @Test
+    public void skipDays() {
+        final Channel channel = channel(null, null, EnumSet.of(Day.SATURDAY, Day.SUNDAY));
+
+        assertEquals(lastPoll.plusDays(2).withTimeAtStartOfDay(), policy.getNextPoll(channel, lastPoll));
+    }
+
+    @Test
+    public void skipHoursAndDays() {
+        final Channel channel = channel(null, new HashSet<>(Arrays.asList(0, 1)), EnumSet.of(Day.SUNDAY));
+
+        assertEquals(lastPoll.plusDays(2).withTime(2, 0, 0, 0), policy.getNextPoll(channel, lastPoll.plusHours(13)));
+    }
+
+    @Test
+    public void skippingEverythingIsIgnored() {
+        final Set<Integer> hours = new HashSet<>();
+        for (int hour = 0; hour < 24; hour++) {
+            hours.add(hour);
+        }
+
+        assertEquals(lastPoll.plusHours(1), policy.getNextPoll(channel(null, hours, null), lastPoll));
+        assertEquals(lastPoll.plusHours(1), policy.getNextPoll(channel(null, null, EnumSet.allOf(Day.class)),
+                                                               lastPoll));
+    }
+
+    @Test
+    public void nextPollBeforeTheEpoch() {
+        final DateTime before = new DateTime(1969, 12, 31, 22, 30, 0, 0, DateTimeZone.UTC);
+        final Channel channel = channel(null, new HashSet<>(Arrays.asList(23)), EnumSet.of(Day.THURSDAY));
+
+        assertEquals(new DateTime(1970, 1, 2, 0, 0, 0, 0, DateTimeZone.UTC), policy.getNextPoll(channel, before));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void defaultIntervalMustBePositive() {
+        policy.withDefaultInterval(0, TimeUnit.MINUTES);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void maxIntervalCantBeShorter() {
+        policy.withDefaultInterval(2, TimeUnit.HOURS).withMaxInterval(1, TimeUnit.HOURS);
+    }
+
+    @Test
+    public void testToString() {
+        assertEquals("PollingPolicy{defaultInterval=3600000, maxInterval=86400000}", policy.toString());
+    }
+
+    private static Channel channel(final Integer ttl, final Set<Integer> skipHours, final EnumSet<Day> skipDays) {
+        return new Channel("title", URI.create("http://mircomacrelli.net"), "description", null, null, null, null,
+                           null, null, null, null, null, null, ttl, null, null, skipHours, skipDays, null, null);
+    }
+}
@@ -0,0 +1,84 @@
+package net.mircomacrelli.rss;
+
+import net.mircomacrelli.rss.Projection.ChannelField;
+import net.mircomacrelli.rss.Projection.ItemField;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ProjectionTest {
+    @Test
+    public void allIncludesEverything() {
+        final Projection all = Projection.all();
+        for (final ChannelField field : ChannelField.values()) {
+            assertTrue(all.includes(field));
+        }
+        for (final ItemField field : ItemField.values()) {
+            assertTrue(all.includes(field));
+        }
+        assertTrue(all.includes(Itunes.class));
+    }
+
+    @Test
+    public void noneIncludesOnlyTheRequiredFields() {
+        final Projection none = Projection.none();
+        assertTrue(none.includes(ChannelField.TITLE));
+        assertTrue(none.includes(ChannelField.LINK));
+        assertTrue(none.includes(ChannelField.DESCRIPTION));
+        assertFalse(none.includes(ChannelField.ITEMS));
+        assertFalse(none.includes(ItemField.TITLE));
+        assertFalse(none.includes(Syndication.class));
+    }
+
+    @Test
+    public void fieldsAreAdded() {
+        final Projection projection = Projection.none().withChannelFields(ChannelField.TIME_TO_LIVE)
+                                                .withChannelFields(ChannelField.IMAGE);
+        assertTrue(projection.includes(ChannelField.TIME_TO_LIVE));
+        assertTrue(projection.includes(ChannelField.IMAGE));
+        assertFalse(projection.includes(ChannelField.CLOUD));
+    }
+
+    @Test
+    public void itemFieldsIncludeTheItems() {
+        final Projection projection = Projection.none().withItemFields(ItemField.LINK, ItemField.UNIQUE_ID);
+        assertTrue(projection.includes(ChannelField.ITEMS));
+        assertTrue(projection.includes(ItemField.LINK));
+        assertTrue(projection.includes(ItemField.UNIQUE_ID));
+        assertFalse(projection.includes(ItemField.SOURCE));
+    }
+
+    @Test
+    public void modulesAreAdded() {
+        final Projection projection = Projection.none().withModules(CreativeCommons.class);
+        assertTrue(projection.includes(CreativeCommons.class));
+        assertFalse(projection.includes(Syndication.class));
+        assertEquals(Projection.all(), Projection.all().withModules(Syndication.class));
+    }
+
+    @Test
+    public void projectionsAreImmutable() {
+        final Projection none = Projection.none();
+        none.withChannelFields(ChannelField.RATING).withItemFields(ItemField.TITLE).withModules(Syndication.class);
+        assertEquals(Projection.none(), none);
+    }
+
+    @Test
+    public void equality() {
+        assertEquals(Projection.none().withItemFields(ItemField.LINK),
+                     Projection.none().withItemFields(ItemField.LINK));
+        assertEquals(Projection.none().withItemFields(ItemField.LINK).hashCode(),
+                     Projection.none().withItemFields(ItemField.LINK).hashCode());
+        assertNotEquals(Projection.none(), Projection.all());
+        assertNotEquals(Projection.none(), "none");
+    }
+
+    @Test
+    public void testToString() {
+        assertEquals("Projection{channel=[ITEMS], item=[LINK], modules=[]}",
+                     Projection.none().withItemFields(ItemField.LINK).toString());
+    }
+}
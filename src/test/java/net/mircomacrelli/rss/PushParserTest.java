@@ -0,0 +1,198 @@
+package net.mircomacrelli.rss;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static net.mircomacrelli.rss.RSSFactory.newFactory;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class PushParserTest {
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+    private static final String HEAD = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>" +
+                                       "<rss version=\"2.0\"><channel>" +
+                                       "<title>feed</title>" +
+                                       "<link>http://mircomacrelli.net</link>" +
+                                       "<description>desc</description>";
+    private static final String FIRST = "<item><title>first</title></item>";
+    private static final String SECOND = "<item><title>second</title></item>";
+    private static final String TAIL = "</channel></rss>";
+
+    private byte[] full;
+    private RSS expected;
+
+    @Before
+    public void setup() throws ParserException {
+        full = RSSFactoryTest.FULL_FEED.getBytes(Charset.forName("ISO-8859-1"));
+        expected = newFactory().parse(new ByteArrayInputStream(full));
+    }
+
+    private static List<Item> push(final PushParser parser, final byte[] bytes, final int chunkSize) throws
+                                                                                                    ParserException {
+        final List<Item> items = new ArrayList<>();
+        for (int offset = 0; offset < bytes.length; offset += chunkSize) {
+            items.addAll(parser.feed(ByteBuffer.wrap(bytes, offset, Math.min(chunkSize, bytes.length - offset))));
+        }
+        return items;
+    }
+
+    private static ByteBuffer utf8(final String text) {
+        return ByteBuffer.wrap(text.getBytes(UTF_8));
+    }
+
+    @Test
+    public void chunksOfAnySize() throws Exception {
+        for (final int chunkSize : Arrays.asList(1, 7, 64, full.length)) {
+            final PushParser parser = newFactory().newPushParser();
+            final List<Item> items = push(parser, full, chunkSize);
+            final RSS rss = parser.finish();
+
+            assertEquals(expected.getChannel().getItems(), items);
+            assertEquals(newFactory().stream(new ByteArrayInputStream(full)).getChannel(), rss.getChannel());
+            assertEquals(expected.getCharset(), rss.getCharset());
+            assertEquals(expected.getVersion(), rss.getVersion());
+            assertTrue(parser.isComplete());
+        }
+    }
+
+    @Test
+    public void itemsAreReturnedWhenComplete() throws ParserException {
+        final PushParser parser = newFactory().newPushParser();
+
+        assertTrue(parser.feed(utf8(HEAD + "<item><title>fir")).isEmpty());
+        final List<Item> first = parser.feed(utf8("st</title></item>" + SECOND.substring(0, 10)));
+        assertEquals(1, first.size());
+        assertEquals("first", first.get(0).getTitle());
+        final List<Item> second = parser.feed(utf8(SECOND.substring(10) + TAIL));
+        assertEquals("second", second.get(0).getTitle());
+    }
+
+    @Test
+    public void channelIsAvailableAtTheFirstItem() throws ParserException {
+        final PushParser parser = newFactory().newPushParser();
+
+        parser.feed(utf8(HEAD));
+        assertNull(parser.getChannel());
+        parser.feed(utf8("<item>"));
+        assertNotNull(parser.getChannel());
+        assertEquals("feed", parser.getChannel().getTitle());
+        assertTrue(parser.getChannel().getItems().isEmpty());
+    }
+
+    @Test
+    public void channelElementsAfterTheItems() throws ParserException {
+        final PushParser parser = newFactory().newPushParser();
+        parser.feed(utf8("<rss version=\"2.0\"><channel><title>feed</title>" + FIRST +
+                         "<link>http://mircomacrelli.net</link><description>desc</description>" + TAIL));
+
+        assertNull(parser.getChannel());
+        assertEquals("desc", parser.finish().getChannel().getDescription());
+    }
+
+    @Test
+    public void spacesBetweenTheElements() throws ParserException {
+        final PushParser parser = newFactory().newPushParser();
+        final List<Item> items = parser.feed(utf8(HEAD.replace("><", ">\n  <") + "\n  " + FIRST + "\n  " + SECOND +
+                                                  "\n" + TAIL));
+
+        assertEquals(2, items.size());
+        assertEquals(parser.getChannel(), parser.finish().getChannel());
+    }
+
+    @Test
+    public void markupInsideTextIsNotAnItem() throws ParserException {
+        final PushParser parser = newFactory().newPushParser();
+        final List<Item> items = parser.feed(utf8(HEAD + "<!-- <item> -->" +
+                                                  "<item><title>a</title><description><![CDATA[</item><item>]]>" +
+                                                  "</description><category domain=\"a>b\">c</category></item>" +
+                                                  TAIL));
+
+        assertEquals(1, items.size());
+        assertEquals("</item><item>", items.get(0).getDescription());
+    }
+
+    @Test
+    public void emptyChunks() throws ParserException {
+        final PushParser parser = newFactory().newPushParser();
+
+        assertTrue(parser.feed(ByteBuffer.allocate(0)).isEmpty());
+        assertEquals(2, parser.feed(utf8(HEAD + FIRST + SECOND + TAIL)).size());
+    }
+
+    @Test
+    public void factoryOptionsAreUsed() throws ParserException {
+        final Projection titles = Projection.none().withItemFields(Projection.ItemField.TITLE);
+        final PushParser parser = newFactory().withProjection(titles).newPushParser();
+        final List<Item> items = push(parser, full, 16);
+
+        assertNull(items.get(0).getLink());
+        assertEquals("item", items.get(0).getTitle());
+    }
+
+    @Test
+    public void listenerSeesASingleParsing() throws ParserException {
+        final ParseMetrics metrics = ParseMetrics.newMetrics();
+        final PushParser parser = newFactory().withListener(metrics).newPushParser();
+        push(parser, full, 64);
+        assertEquals(1, metrics.getStartedCount());
+        assertEquals(0, metrics.getParsedCount());
+        parser.finish();
+
+        assertEquals(1, metrics.getStartedCount());
+        assertEquals(1, metrics.getParsedCount());
+        assertEquals(full.length, metrics.getBytesRead());
+        assertTrue(metrics.getEventCount() > 0);
+        assertEquals(2, metrics.getItemCount());
+        assertEquals(1, metrics.getParseTime().getCount());
+    }
+
+    @Test
+    public void listenerSeesTheFailure() {
+        final ParseMetrics metrics = ParseMetrics.newMetrics();
+        final PushParser parser = newFactory().withListener(metrics).newPushParser();
+        try {
+            parser.feed(utf8(HEAD + FIRST));
+            parser.finish();
+            fail();
+        } catch (final ParserException expected) {
+            assertEquals(1, metrics.getStartedCount());
+            assertEquals(1, metrics.getFailedCount());
+            assertEquals(0, metrics.getParsedCount());
+        }
+    }
+
+    @Test(expected = ParserException.class)
+    public void incompleteFeed() throws ParserException {
+        final PushParser parser = newFactory().newPushParser();
+        parser.feed(utf8(HEAD + FIRST));
+
+        assertFalse(parser.isComplete());
+        parser.finish();
+    }
+
+    @Test(expected = ParserException.class)
+    public void invalidItem() throws ParserException {
+        newFactory().newPushParser().feed(utf8(HEAD + "<item><title>a</title><pubDate>never</pubDate></item>"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void onlyRssFeeds() throws ParserException {
+        newFactory().newPushParser().feed(utf8("<feed xmlns=\"http://www.w3.org/2005/Atom\"></feed>"));
+    }
+
+    @Test(expected = ParserException.class)
+    public void utf16IsNotSupported() throws ParserException {
+        newFactory().newPushParser().feed(ByteBuffer.wrap((HEAD + TAIL).getBytes(Charset.forName("UTF-16"))));
+    }
+}
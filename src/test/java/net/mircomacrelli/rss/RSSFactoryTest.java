@@ -1,19 +1,101 @@
 package net.mircomacrelli.rss;
 
+import net.mircomacrelli.rss.ParseListener.Value;
 import net.mircomacrelli.rss.RSS.Version;
+import net.mircomacrelli.rss.Projection.ChannelField;
+import net.mircomacrelli.rss.Projection.ItemField;
+import net.mircomacrelli.rss.RSSFactory.Engine;
 import org.joda.time.format.DateTimeFormatter;
 import org.joda.time.format.ISODateTimeFormat;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 
 import java.io.ByteArrayInputStream;
+import java.io.File;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static net.mircomacrelli.rss.RSSFactory.newFactory;
 import static net.mircomacrelli.rss.Utils.PARSER;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 public class RSSFactoryTest {
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    static final String FULL_FEED = "<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?>" +
+                                            "<rss version=\"2.0\" " +
+                                            "xmlns:sy=\"http://purl.org/rss/1.0/modules/syndication/\" " +
+                                            "xmlns:cc=\"http://cyber.law.harvard.edu/rss/creativeCommonsRssModule.html\">" +
+                                            "<channel>" +
+                                            "<title>first</title>" +
+                                            "<link>http://mircomacrelli.net</link>" +
+                                            "<description>desc</description>" +
+                                            "<language>it-IT</language>" +
+                                            "<pubDate>Sat, 19 Oct 2013 11:09:03 +0000</pubDate>" +
+                                            "<category domain=\"dmoz.org\">news</category>" +
+                                            "<cloud domain=\"http://rpc.sys.com\" port=\"80\" path=\"/RPC2\" " +
+                                            "registerProcedure=\"pingMe\" protocol=\"soap\"/>" +
+                                            "<ttl>60</ttl>" +
+                                            "<image>" +
+                                            "<url>http://mircomacrelli.net/logo.png</url>" +
+                                            "<title>logo</title>" +
+                                            "<link>http://mircomacrelli.net</link>" +
+                                            "<width>80</width>" +
+                                            "</image>" +
+                                            "<textInput>" +
+                                            "<title>search</title>" +
+                                            "<description>search the feed</description>" +
+                                            "<name>q</name>" +
+                                            "<link>http://mircomacrelli.net/search</link>" +
+                                            "</textInput>" +
+                                            "<skipDays><Day>Sunday</Day></skipDays>" +
+                                            "<skipHours><Hour>24</Hour><Hour>1</Hour></skipHours>" +
+                                            "<cc:license>http://mircomacrelli.net/license</cc:license>" +
+                                            "<sy:updatePeriod>daily</sy:updatePeriod>" +
+                                            "<sy:updateFrequency>2</sy:updateFrequency>" +
+                                            "<sy:updateBase>2013-12-21T12:21:00+0000</sy:updateBase>" +
+                                            "<item>" +
+                                            "<title>item</title>" +
+                                            "<link>http://mircomacrelli.net/item</link>" +
+                                            "<description>caf\u00e8 e cornetto</description>" +
+                                            "<author>info@mircomacrelli.net</author>" +
+                                            "<category>news/italian</category>" +
+                                            "<comments>http://mircomacrelli.net/item#comments</comments>" +
+                                            "<enclosure url=\"http://mircomacrelli.net/file.mp3\" length=\"12\" type=\"audio/mp3\"/>" +
+                                            "<guid isPermaLink=\"false\">abcde</guid>" +
+                                            "<pubDate>Sat, 19 Oct 2013 11:09:03 +0000</pubDate>" +
+                                            "<source url=\"http://www.google.it\">google</source>" +
+                                            "<cc:license>http://mircomacrelli.net/item-license</cc:license>" +
+                                            "</item>" +
+                                            "<item>" +
+                                            "<description>second</description>" +
+                                            "</item>" +
+                                            "</channel>" +
+                                            "</rss>";
+
     @Test
     public void normalFactoryUsesTheStandardParser() {
         assertEquals(PARSER, newFactory().getDateTimeFormatter());
@@ -25,6 +107,276 @@ public class RSSFactoryTest {
         assertEquals(custom, newFactory(custom).getDateTimeFormatter());
     }
 
+    @Test
+    public void normalFactoryUsesTheCursorEngine() {
+        assertEquals(Engine.CURSOR, newFactory().getEngine());
+    }
+
+    @Test
+    public void factoryCanUseTheEventEngine() {
+        assertEquals(Engine.EVENT, newFactory(Engine.EVENT).getEngine());
+        assertEquals(Engine.EVENT, newFactory(PARSER, Engine.EVENT).getEngine());
+    }
+
+    @Test
+    public void bothEnginesProduceTheSameFeed() throws ParserException {
+        final byte[] bytes = FULL_FEED.getBytes(Charset.forName("ISO-8859-1"));
+
+        final RSS events = newFactory(Engine.EVENT).parse(new ByteArrayInputStream(bytes));
+        final RSS cursor = newFactory(Engine.CURSOR).parse(new ByteArrayInputStream(bytes));
+
+        assertEquals(events, cursor);
+        assertNotNull(cursor.getChannel().getModule(Syndication.class));
+        assertEquals(events.getChannel().getModule(Syndication.class), cursor.getChannel().getModule(Syndication.class));
+        assertEquals(events.getChannel().getModule(CreativeCommons.class),
+                     cursor.getChannel().getModule(CreativeCommons.class));
+        assertEquals(events.getChannel().getItems().get(0).getModule(CreativeCommons.class),
+                     cursor.getChannel().getItems().get(0).getModule(CreativeCommons.class));
+    }
+
+    @Test
+    public void normalFactoryDecodesDuringTheParsing() {
+        assertFalse(newFactory().isLazyDecoding());
+    }
+
+    @Test
+    public void lazyFactoryKeepsTheOtherSettings() {
+        final DateTimeFormatter parser = ISODateTimeFormat.basicDateTime();
+        final RSSFactory factory = newFactory(parser, Engine.EVENT).withLazyDecoding(true);
+        assertTrue(factory.isLazyDecoding());
+        assertEquals(parser, factory.getDateTimeFormatter());
+        assertEquals(Engine.EVENT, factory.getEngine());
+    }
+
+    @Test
+    public void lazyDecodingProducesTheSameFeed() throws ParserException {
+        final byte[] bytes = FULL_FEED.getBytes(Charset.forName("ISO-8859-1"));
+
+        final RSS eager = newFactory().parse(new ByteArrayInputStream(bytes));
+        final RSS cursor = newFactory().withLazyDecoding(true).parse(new ByteArrayInputStream(bytes));
+        final RSS events = newFactory(Engine.EVENT).withLazyDecoding(true).parse(new ByteArrayInputStream(bytes));
+
+        assertEquals(eager, cursor);
+        assertEquals(eager, events);
+        assertEquals(eager.toString(), cursor.toString());
+    }
+
+    @Test
+    public void pooledFeedIsTheSame() throws ParserException {
+        final byte[] bytes = FULL_FEED.getBytes(Charset.forName("ISO-8859-1"));
+        final StringPool pool = StringPool.newPool(64);
+
+        final RSS normal = newFactory().parse(new ByteArrayInputStream(bytes));
+        final RSS cursor = newFactory().withStringPool(pool).parse(new ByteArrayInputStream(bytes));
+        final RSS events = newFactory(Engine.EVENT).withStringPool(pool).parse(new ByteArrayInputStream(bytes));
+
+        assertEquals(normal, cursor);
+        assertEquals(normal, events);
+        assertEquals(normal.toString(), cursor.toString());
+    }
+
+    @Test
+    public void repeatedValuesAreShared() throws ParserException {
+        final String item = "<item><title>t</title><author>mirco@mircomacrelli.net</author>" +
+                            "<category domain=\"dmoz.org\">news</category>" +
+                            "<enclosure url=\"http://mircomacrelli.net/a.mp3\" length=\"1\" type=\"audio/mpeg\"/>" +
+                            "</item>";
+        final String feed = "<rss version=\"2.0\"><channel><title>t</title><link>http://mircomacrelli.net</link>" +
+                            "<description>d</description>" + item + item + "</channel></rss>";
+        final StringPool pool = StringPool.newPool(64);
+
+        for (final Engine engine : Engine.values()) {
+            final List<Item> items = newFactory(engine).withStringPool(pool).parse(toInputStream(feed)).getChannel()
+                                                       .getItems();
+            final Category first = items.get(0).getCategories().iterator().next();
+            final Category second = items.get(1).getCategories().iterator().next();
+
+            assertSame(first.getLocation(), second.getLocation());
+            assertSame(first.getDomain(), second.getDomain());
+            assertSame(items.get(0).getAuthor(), items.get(1).getAuthor());
+        }
+        assertTrue(pool.getHitCount() > 0);
+        assertTrue(pool.getBytesSaved() > 0);
+    }
+
+    @Test
+    public void factoriesHaveNoPoolByDefault() {
+        final StringPool pool = StringPool.newPool(16);
+        assertNull(newFactory().getStringPool());
+        assertSame(pool, newFactory().withStringPool(pool).getStringPool());
+        assertNull(newFactory().withStringPool(pool).withStringPool(null).getStringPool());
+    }
+
+    @Test
+    public void factoriesHaveNoListenerByDefault() {
+        final ParseMetrics metrics = ParseMetrics.newMetrics();
+        assertNull(newFactory().getListener());
+        assertSame(metrics, newFactory().withListener(metrics).getListener());
+    }
+
+    @Test
+    public void listenerMeasuresTheParsing() throws ParserException {
+        for (final Engine engine : Engine.values()) {
+            final ParseMetrics metrics = ParseMetrics.newMetrics();
+            final byte[] bytes = FULL_FEED.getBytes(Charset.forName("ISO-8859-1"));
+            final RSS rss = newFactory(engine).withListener(metrics).parse(new ByteArrayInputStream(bytes));
+
+            assertEquals(newFactory(engine).parse(new ByteArrayInputStream(bytes)), rss);
+            assertEquals(1, metrics.getParsedCount());
+            assertEquals(bytes.length, metrics.getBytesRead());
+            assertTrue(metrics.getEventCount() > 0);
+            assertEquals(2, metrics.getItemCount());
+            assertEquals(2, metrics.getDecodingTime(Value.DATE).getCount());
+            assertEquals(4, metrics.getDecodingTime(Value.URI).getCount());
+            assertEquals(1, metrics.getDecodingTime(Value.LANGUAGE).getCount());
+            assertEquals(1, metrics.getDecodingTime(Value.MIME_TYPE).getCount());
+            assertEquals(1, metrics.getParseTime().getCount());
+        }
+    }
+
+    @Test
+    public void listenerMeasuresTheStreamedFeeds() throws Exception {
+        final ParseMetrics metrics = ParseMetrics.newMetrics();
+        final byte[] bytes = FULL_FEED.getBytes(Charset.forName("ISO-8859-1"));
+        try (ItemReader reader = newFactory().withListener(metrics).stream(new ByteArrayInputStream(bytes))) {
+            assertEquals(1, metrics.getStartedCount());
+            while (reader.hasNext()) {
+                reader.next();
+            }
+            assertEquals(0, metrics.getParsedCount());
+            reader.getChannel();
+        }
+
+        assertEquals(1, metrics.getParsedCount());
+        assertEquals(0, metrics.getInProgressCount());
+        assertEquals(bytes.length, metrics.getBytesRead());
+        assertTrue(metrics.getEventCount() > 0);
+        assertEquals(2, metrics.getItemCount());
+        assertEquals(1, metrics.getParseTime().getCount());
+    }
+
+    @Test
+    public void listenerSeesTheStreamsClosedEarly() throws Exception {
+        final ParseMetrics metrics = ParseMetrics.newMetrics();
+        try (ItemReader reader = newFactory().withListener(metrics).stream(
+                new ByteArrayInputStream(feedWithItems(10)))) {
+            reader.next();
+        }
+
+        assertEquals(1, metrics.getParsedCount());
+        assertEquals(1, metrics.getItemCount());
+    }
+
+    @Test
+    public void listenerSeesTheStreamFailures() throws Exception {
+        final ParseMetrics metrics = ParseMetrics.newMetrics();
+        try (ItemReader reader = newFactory().withListener(metrics).stream(toInputStream(INVALID_ITEM))) {
+            reader.next();
+            fail();
+        } catch (final ParserException expected) {
+            assertEquals(1, metrics.getFailedCount());
+        }
+        assertEquals(0, metrics.getParsedCount());
+    }
+
+    @Test
+    public void listenerSeesTheUnknownModules() throws ParserException {
+        final ParseMetrics metrics = ParseMetrics.newMetrics();
+        newFactory().withListener(metrics).parse(new ByteArrayInputStream(
+                ("<rss version=\"2.0\" xmlns:atom=\"http://www.w3.org/2005/Atom\"><channel><title>t</title>" +
+                 "<link>http://mircomacrelli.net</link><description>d</description>" +
+                 "<atom:link href=\"http://mircomacrelli.net/feed\" rel=\"self\"/></channel></rss>").getBytes(
+                        Charset.forName("UTF-8"))));
+
+        assertEquals(1, metrics.getSkippedModuleCount());
+        assertEquals(1L, (long)metrics.getSkippedNamespaces().get("http://www.w3.org/2005/Atom"));
+    }
+
+    @Test
+    public void listenerSeesTheFailures() {
+        final ParseMetrics metrics = ParseMetrics.newMetrics();
+        final RSSFactory factory = newFactory().withListener(metrics);
+        try {
+            factory.parse(new ByteArrayInputStream("<feed/>".getBytes(Charset.forName("UTF-8"))));
+        } catch (final IllegalStateException | ParserException ignored) {
+            // expected
+        }
+        try {
+            factory.parse(new ByteArrayInputStream("<rss".getBytes(Charset.forName("UTF-8"))));
+        } catch (final IllegalStateException | ParserException ignored) {
+            // expected
+        }
+
+        assertEquals(2, metrics.getStartedCount());
+        assertEquals(2, metrics.getFailedCount());
+        assertEquals(0, metrics.getParsedCount());
+        assertTrue(metrics.getLastFailure() instanceof ParserException);
+    }
+
+    @Test
+    public void listenerMeasuresParseUntil() throws ParserException {
+        final ParseMetrics metrics = ParseMetrics.newMetrics();
+        newFactory().withListener(metrics).parseUntil(new ByteArrayInputStream(feedWithItems(10)),
+                                                      StopCondition.atUniqueId("item-3"));
+
+        assertEquals(1, metrics.getParsedCount());
+        assertEquals(4, metrics.getItemCount());
+    }
+
+    @Test
+    public void invalidFieldsThatAreNotReadDoNotStopTheLazyParsing() throws ParserException {
+        final Item item = newFactory().withLazyDecoding(true).parse(toInputStream(INVALID_ITEM))
+                                      .getChannel().getItems().get(0);
+        assertEquals("item", item.getTitle());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void invalidFieldsDecodedLazilyThrowWhenRead() throws ParserException {
+        final Item item = newFactory().withLazyDecoding(true).parse(toInputStream(INVALID_ITEM))
+                                      .getChannel().getItems().get(0);
+        item.getPublishDate();
+    }
+
+    @Test
+    public void invalidFieldsDecodedLazilyCanBePrintedAndHashed() throws ParserException {
+        final RSS rss = newFactory().withLazyDecoding(true).parse(toInputStream(INVALID_ITEM));
+        final Item item = rss.getChannel().getItems().get(0);
+
+        assertTrue(item.toString().contains("http://mircomacrelli.net/a b"));
+        assertTrue(rss.toString().contains("http://mircomacrelli.net/a b"));
+        final Set<Item> items = new HashSet<>();
+        items.add(item);
+        assertTrue(items.contains(newFactory().withLazyDecoding(true).parse(toInputStream(INVALID_ITEM))
+                                              .getChannel().getItems().get(0)));
+    }
+
+    @Test(expected = ParserException.class)
+    public void invalidFieldsStopTheNormalParsing() throws ParserException {
+        newFactory().parse(toInputStream(INVALID_ITEM));
+    }
+
+    @Test
+    public void cursorEngineReadsTheWholeTextAroundEntities() throws ParserException {
+        final RSS feed = newFactory(Engine.CURSOR).parse(toInputStream("<rss version=\"2.0\">" +
+                                                                       "<channel>" +
+                                                                       "<title>first &amp; second</title>" +
+                                                                       "<link>http://mircomacrelli.net</link>" +
+                                                                       "<description>desc</description>" +
+                                                                       "</channel>" +
+                                                                       "</rss>"));
+        assertEquals("first & second", feed.getChannel().getTitle());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void oneChannelIsRequiredWithEvents() throws ParserException {
+        newFactory(Engine.EVENT).parse(toInputStream("<rss version=\"2.0\"></rss>"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void rssMustBeTheRootWithEvents() throws ParserException {
+        newFactory(Engine.EVENT).parse(toInputStream("<feed><!-- other tags --></feed>"));
+    }
+
     @Test(expected = IllegalStateException.class)
     public void oneChannelIsRequired() throws ParserException {
         newFactory().parse(toInputStream("<rss version=\"2.0\"></rss>"));
@@ -111,9 +463,287 @@ public class RSSFactoryTest {
                                          "</rss>"));
     }
 
+    @Test
+    public void factoryCanBeSharedByManyThreads() throws Exception {
+        final RSSFactory factory = newFactory();
+        final int threads = 8;
+        final byte[][] feeds = new byte[threads][];
+        final RSS[] expected = new RSS[threads];
+        for (int i = 0; i < threads; i++) {
+            feeds[i] = feedWithItems(i + 1);
+            expected[i] = factory.parse(new ByteArrayInputStream(feeds[i]));
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        final CountDownLatch start = new CountDownLatch(1);
+        try {
+            final List<Future<Boolean>> results = new ArrayList<>(threads);
+            for (int i = 0; i < threads; i++) {
+                final int id = i;
+                results.add(executor.submit(new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() throws Exception {
+                        start.await();
+                        for (int run = 0; run < 200; run++) {
+                            final int feed = (id + run) % feeds.length;
+                            if (!expected[feed].equals(factory.parse(new ByteArrayInputStream(feeds[feed])))) {
+                                return false;
+                            }
+                        }
+                        return true;
+                    }
+                }));
+            }
+            start.countDown();
+
+            for (final Future<Boolean> result : results) {
+                assertTrue(result.get(1, TimeUnit.MINUTES));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void normalFactoryMaterializesEverything() {
+        assertEquals(Projection.all(), newFactory().getProjection());
+    }
+
+    @Test
+    public void projectedFieldsAreMaterialized() throws ParserException {
+        for (final Engine engine : Engine.values()) {
+            final Projection projection = Projection.none()
+                                                    .withChannelFields(ChannelField.PUBLISH_DATE)
+                                                    .withItemFields(ItemField.TITLE, ItemField.LINK,
+                                                                    ItemField.UNIQUE_ID, ItemField.PUBLISH_DATE);
+            final byte[] bytes = FULL_FEED.getBytes(Charset.forName("ISO-8859-1"));
+            final Channel full = newFactory().parse(new ByteArrayInputStream(bytes)).getChannel();
+            final Channel channel = newFactory(engine).withProjection(projection)
+                                                      .parse(new ByteArrayInputStream(bytes)).getChannel();
+
+            assertEquals(full.getTitle(), channel.getTitle());
+            assertEquals(full.getLink(), channel.getLink());
+            assertEquals(full.getDescription(), channel.getDescription());
+            assertEquals(full.getPublishDate(), channel.getPublishDate());
+            assertNull(channel.getLanguage());
+            assertNull(channel.getCloud());
+            assertNull(channel.getImage());
+            assertNull(channel.getTimeToLive());
+            assertTrue(channel.getCategories().isEmpty());
+            assertTrue(channel.getSkipHours().isEmpty());
+            assertTrue(channel.getModules().isEmpty());
+
+            final Item item = channel.getItems().get(0);
+            final Item fullItem = full.getItems().get(0);
+            assertEquals(fullItem.getTitle(), item.getTitle());
+            assertEquals(fullItem.getLink(), item.getLink());
+            assertEquals(fullItem.getUniqueId(), item.getUniqueId());
+            assertEquals(fullItem.getPublishDate(), item.getPublishDate());
+            assertNull(item.getDescription());
+            assertNull(item.getAuthor());
+            assertNull(item.getSource());
+            assertTrue(item.getEnclosures().isEmpty());
+            assertTrue(item.getCategories().isEmpty());
+            assertTrue(item.getModules().isEmpty());
+
+            // the second item has only the description, that is read because the title is missing
+            assertEquals("second", channel.getItems().get(1).getDescription());
+        }
+    }
+
+    @Test
+    public void skippedFieldsAreNotValidated() throws ParserException {
+        for (final Engine engine : Engine.values()) {
+            final Channel channel = newFactory(engine).withProjection(Projection.none())
+                                                      .parse(toInputStream("<rss version=\"2.0\"><channel>" +
+                                                                           "<title>first</title>" +
+                                                                           "<ttl>forever</ttl>" +
+                                                                           "<image><title>nested</title></image>" +
+                                                                           "<link>http://mircomacrelli.net</link>" +
+                                                                           "<description>desc</description>" +
+                                                                           "<item><title>a</title><title>b</title>" +
+                                                                           "</item>" +
+                                                                           "</channel></rss>")).getChannel();
+            assertEquals("first", channel.getTitle());
+            assertTrue(channel.getItems().isEmpty());
+        }
+    }
+
+    @Test
+    public void projectedModulesAreMaterialized() throws ParserException {
+        final byte[] bytes = FULL_FEED.getBytes(Charset.forName("ISO-8859-1"));
+        final Channel channel = newFactory().withProjection(Projection.none().withModules(Syndication.class))
+                                            .parse(new ByteArrayInputStream(bytes)).getChannel();
+
+        assertNotNull(channel.getModule(Syndication.class));
+        assertNull(channel.getModule(CreativeCommons.class));
+    }
+
+    @Test
+    public void parseAllKeepsTheOrderOfTheSources() throws Exception {
+        final List<InputStream> sources = new ArrayList<>(10);
+        for (int i = 0; i < 10; i++) {
+            sources.add(new ByteArrayInputStream(feedWithItems(i + 1)));
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<ParseResult> results = newFactory().parseAll(sources, executor);
+            assertEquals(10, results.size());
+            for (int i = 0; i < 10; i++) {
+                assertEquals(i, results.get(i).getIndex());
+                assertEquals(i + 1, results.get(i).getFeed().getChannel().getItems().size());
+            }
+            assertFalse(executor.isShutdown());
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void failuresDoNotStopTheBatch() throws Exception {
+        final List<InputStream> sources = new ArrayList<>(3);
+        sources.add(toInputStream(INVALID_ITEM));
+        sources.add(new ByteArrayInputStream(feedWithItems(2)));
+        sources.add(toInputStream("<rss version=\"2.0\"></rss>"));
+
+        final List<ParseResult> results = newFactory().parseAll(sources);
+
+        assertFalse(results.get(0).isSuccessful());
+        assertNotNull(results.get(0).getException());
+        assertTrue(results.get(1).isSuccessful());
+        assertEquals(2, results.get(1).getFeed().getChannel().getItems().size());
+        assertFalse(results.get(2).isSuccessful());
+        assertTrue(results.get(2).getException().getCause() instanceof IllegalStateException);
+    }
+
+    @Test
+    public void parseAllWithoutSources() throws Exception {
+        assertTrue(newFactory().parseAll(new ArrayList<InputStream>(0)).isEmpty());
+    }
+
+    @Test
+    public void parseUntilReturnsOnlyTheNewItems() throws ParserException {
+        final RSS rss = newFactory().parseUntil(new ByteArrayInputStream(feedWithItems(10)),
+                                                StopCondition.atUniqueId("item-3"));
+
+        final List<Item> items = rss.getChannel().getItems();
+        assertEquals(3, items.size());
+        assertEquals("item 0 & more", items.get(0).getTitle());
+        assertEquals("item 2 & more", items.get(2).getTitle());
+        assertEquals("feed 10", rss.getChannel().getTitle());
+        assertEquals(Version.RSS_2_0, rss.getVersion());
+    }
+
+    @Test
+    public void parseUntilReadsEverythingWhenNothingMatches() throws ParserException {
+        final RSS rss = newFactory().parseUntil(new ByteArrayInputStream(feedWithItems(10)),
+                                                StopCondition.atUniqueId("unknown"));
+        assertEquals(10, rss.getChannel().getItems().size());
+    }
+
+    @Test
+    public void parseUntilDoesNotReadTheRestOfTheStream() throws ParserException {
+        final String feed = new String(feedWithItems(2), UTF_8).replace("</channel></rss>", "<item><broken></item>");
+        final RSS rss = newFactory().parseUntil(toInputStream(feed), StopCondition.atUniqueId("item-1"));
+        assertEquals(1, rss.getChannel().getItems().size());
+    }
+
+    @Test
+    public void parseUntilStopsOnTheFirstItemAlreadySeen() throws Exception {
+        final InputStream is = new ByteArrayInputStream(feedWithItems(2000));
+        newFactory().parseUntil(is, StopCondition.atUniqueId("item-1"));
+        assertTrue(is.available() > 0);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void parseUntilRequiresTheCondition() throws ParserException {
+        newFactory().parseUntil(new ByteArrayInputStream(feedWithItems(1)), null);
+    }
+
+    @Test
+    public void parseFile() throws Exception {
+        final Path file = folder.newFile("feed.xml").toPath();
+        Files.write(file, FULL_FEED.getBytes(Charset.forName("ISO-8859-1")));
+
+        final RSS rss = newFactory().parse(file);
+        assertEquals(Charset.forName("ISO-8859-1"), rss.getCharset());
+        assertEquals(newFactory().parse(toInputStream(FULL_FEED, "ISO-8859-1")).getChannel().toString(),
+                     rss.getChannel().toString());
+    }
+
+    @Test(expected = ParserException.class)
+    public void missingFile() throws ParserException {
+        newFactory().parse(new File(folder.getRoot(), "missing.xml").toPath());
+    }
+
+    @Test(expected = ParserException.class)
+    public void emptyFile() throws Exception {
+        newFactory().parse(folder.newFile("empty.xml").toPath());
+    }
+
+    @Test
+    public void parseChannelFromItsPosition() throws Exception {
+        final Path file = folder.newFile("feed.xml").toPath();
+        final byte[] feed = feedWithItems(3);
+        final byte[] bytes = new byte[feed.length + 5];
+        System.arraycopy(feed, 0, bytes, 5, feed.length);
+        Files.write(file, bytes);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            channel.position(5);
+            assertEquals(3, newFactory().parse(channel).getChannel().getItems().size());
+            assertEquals(5, channel.position());
+            assertTrue(channel.isOpen());
+        }
+    }
+
+    @Test
+    public void parseBuffer() throws ParserException {
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(1024);
+        buffer.put(feedWithItems(2)).flip();
+
+        assertEquals(2, newFactory().parse(buffer).getChannel().getItems().size());
+        assertEquals(0, buffer.position());
+        assertEquals(2, newFactory(Engine.EVENT).parse(buffer).getChannel().getItems().size());
+    }
+
+    private static byte[] feedWithItems(final int items) {
+        final StringBuilder sb = new StringBuilder(1024);
+        sb.append("<rss version=\"2.0\"><channel>")
+          .append("<title>feed ").append(items).append("</title>")
+          .append("<link>http://mircomacrelli.net</link>")
+          .append("<description>desc</description>");
+        for (int i = 0; i < items; i++) {
+            sb.append("<item>")
+              .append("<title>item ").append(i).append(" &amp; more</title>")
+              .append("<category>").append(i % 3).append("</category>")
+              .append("<guid isPermaLink=\"false\">item-").append(i).append("</guid>")
+              .append("<pubDate>Sat, 19 Oct 2013 11:09:03 +0000</pubDate>")
+              .append("</item>");
+        }
+        sb.append("</channel></rss>");
+        return sb.toString().getBytes(UTF_8);
+    }
+
+    private static final String INVALID_ITEM = "<rss version=\"2.0\"><channel>" +
+                                               "<title>first</title>" +
+                                               "<link>http://mircomacrelli.net</link>" +
+                                               "<description>desc</description>" +
+                                               "<item>" +
+                                               "<title>item</title>" +
+                                               "<link>http://mircomacrelli.net/a b</link>" +
+                                               "<pubDate>yesterday</pubDate>" +
+                                               "</item>" +
+                                               "</channel></rss>";
+
     private static final Charset UTF_8 = Charset.forName("UTF-8");
 
     private static InputStream toInputStream(final String arg) {
         return new ByteArrayInputStream(arg.getBytes(UTF_8));
     }
+
+    private static InputStream toInputStream(final String arg, final String charset) {
+        return new ByteArrayInputStream(arg.getBytes(Charset.forName(charset)));
+    }
 }
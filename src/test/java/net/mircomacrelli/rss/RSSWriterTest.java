@@ -0,0 +1,179 @@
+package net.mircomacrelli.rss;
+
+import net.mircomacrelli.rss.RSS.Version;
+import net.mircomacrelli.rss.RSSFactory.Engine;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+
+import static javax.xml.stream.XMLStreamConstants.START_ELEMENT;
+import static net.mircomacrelli.rss.RSSFactory.newFactory;
+import static net.mircomacrelli.rss.XmlTestBase.channel;
+import static net.mircomacrelli.rss.XmlTestBase.fullFeed;
+import static net.mircomacrelli.rss.XmlTestBase.itunesModule;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class RSSWriterTest {
+    private RSS feed;
+
+    @Before
+    public void setup() throws ParserException {
+        feed = fullFeed(newFactory());
+    }
+
+    @Test
+    public void roundTrip() throws Exception {
+        final RSS parsed = roundTrip(feed);
+
+        assertEquals(feed, parsed);
+        assertEquals(feed.getCharset(), parsed.getCharset());
+        assertEquals(feed.getChannel().getImage(), parsed.getChannel().getImage());
+        assertEquals(feed.getChannel().getCloud(), parsed.getChannel().getCloud());
+        assertEquals(feed.getChannel().getSkipDays(), parsed.getChannel().getSkipDays());
+        assertEquals(feed.getChannel().getSkipHours(), parsed.getChannel().getSkipHours());
+        assertEquals(feed.getChannel().getItems(), parsed.getChannel().getItems());
+    }
+
+    @Test
+    public void bothEnginesCanReadTheFeed() throws Exception {
+        final byte[] bytes = write(feed);
+
+        assertEquals(feed, newFactory(Engine.EVENT).parse(new ByteArrayInputStream(bytes)));
+        assertEquals(feed, newFactory(Engine.CURSOR).parse(new ByteArrayInputStream(bytes)));
+    }
+
+    @Test
+    public void modulesAreKept() throws Exception {
+        final Channel channel = roundTrip(feed).getChannel();
+
+        assertEquals(feed.getChannel().getModule(Syndication.class), channel.getModule(Syndication.class));
+        assertEquals(feed.getChannel().getModule(CreativeCommons.class), channel.getModule(CreativeCommons.class));
+        assertEquals(feed.getChannel().getItems().get(0).getModule(CreativeCommons.class),
+                     channel.getItems().get(0).getModule(CreativeCommons.class));
+    }
+
+    @Test
+    public void itunes() throws Exception {
+        final Itunes itunes = itunesModule();
+        final Item item = new Item(null, "episode", null, null, null, null, null, null, null, null);
+        item.addModule(Itunes.class, itunes);
+
+        final byte[] bytes = write(new RSS(Charset.forName("UTF-8"), Version.RSS_2_0, channel(Arrays.asList(item))));
+
+        // the items can't contain the iTunes module, so its elements are read directly
+        final XMLStreamReader reader = XMLInputFactory.newFactory().createXMLStreamReader(
+                new ByteArrayInputStream(bytes));
+        final Itunes.Builder builder = new Itunes.Builder();
+        while (reader.hasNext()) {
+            if ((reader.next() == START_ELEMENT) &&
+                "http://www.itunes.com/dtds/podcast-1.0.dtd".equals(reader.getNamespaceURI())) {
+                builder.parse(reader);
+            }
+        }
+        assertEquals(itunes, builder.build());
+    }
+
+    @Test
+    public void charactersOutsideTheCharsetAreEscaped() throws Exception {
+        final Item item = new Item(null, "5 € & <b>", null, null, null, null, null, null, null, null);
+        final RSS rss = new RSS(Charset.forName("ISO-8859-1"), Version.RSS_2_0, channel(Arrays.asList(item)));
+
+        assertEquals(item, roundTrip(rss).getChannel().getItems().get(0));
+    }
+
+    @Test
+    public void lazyValuesAreDecoded() throws Exception {
+        final RSS lazy = fullFeed(newFactory().withLazyDecoding(true));
+        assertEquals(feed, roundTrip(lazy));
+    }
+
+    @Test
+    public void itemsAreTakenFromTheIterator() throws Exception {
+        final int count = 10000;
+        final Iterator<Item> items = new Iterator<Item>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < count;
+            }
+
+            @Override
+            public Item next() {
+                return new Item(null, Integer.toString(next++), null, null, null, null, null, null, null, null);
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        RSSWriter.write(new RSS(Charset.forName("UTF-8"), Version.RSS_2_0, channel(null)), items, os);
+
+        final List<Item> parsed = newFactory().parse(new ByteArrayInputStream(os.toByteArray())).getChannel()
+                                              .getItems();
+        assertEquals(count, parsed.size());
+        assertEquals("9999", parsed.get(count - 1).getTitle());
+    }
+
+    @Test
+    public void itemsCanBeWrittenOneAtATime() throws Exception {
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        try (RSSWriter writer = RSSWriter.newWriter(os, feed.getCharset(), feed.getVersion(), feed.getChannel())) {
+            for (final Item item : feed.getChannel().getItems()) {
+                writer.write(item);
+            }
+        }
+
+        assertEquals(feed, newFactory().parse(new ByteArrayInputStream(os.toByteArray())));
+    }
+
+    @Test
+    public void skipHintsUseTheSpecNames() throws Exception {
+        final String xml = new String(write(feed), Charset.forName("UTF-8"));
+
+        assertTrue(xml.contains("<skipDays><day>Sunday</day></skipDays>"));
+        assertTrue(xml.contains("<hour>1</hour>"));
+        assertFalse(xml.contains("<Hour>"));
+    }
+
+    @Test
+    public void optionalValuesAreNotWritten() throws Exception {
+        final String xml = new String(write(new RSS(Charset.forName("UTF-8"), Version.RSS_0_91, channel(null))),
+                                      Charset.forName("UTF-8"));
+
+        assertTrue(xml.contains("<rss version=\"0.91\""));
+        assertTrue(xml.endsWith("<channel><title>title</title><link>http://mircomacrelli.net</link>" +
+                                "<description>description</description></channel></rss>"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void cantWriteAfterClose() throws Exception {
+        final RSSWriter writer = RSSWriter.newWriter(new ByteArrayOutputStream(), feed.getCharset(),
+                                                     feed.getVersion(), feed.getChannel());
+        writer.close();
+        writer.write(feed.getChannel().getItems().get(0));
+    }
+
+    private static byte[] write(final RSS rss) throws IOException {
+        final ByteArrayOutputStream os = new ByteArrayOutputStream();
+        RSSWriter.write(rss, os);
+        return os.toByteArray();
+    }
+
+    private static RSS roundTrip(final RSS rss) throws IOException, ParserException {
+        return newFactory().parse(new ByteArrayInputStream(write(rss)));
+    }
+}
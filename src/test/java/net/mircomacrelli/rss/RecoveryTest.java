@@ -0,0 +1,164 @@
+package net.mircomacrelli.rss;
+
+import org.junit.Test;
+
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.Charset;
+import java.util.List;
+
+import static net.mircomacrelli.rss.RSSFactory.newFactory;
+import static net.mircomacrelli.rss.Utils.PARSER;
+import static net.mircomacrelli.rss.Utils.nextChild;
+import static net.mircomacrelli.rss.XmlTestBase.parseStringWithCursor;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class RecoveryTest {
+    private static final String START = "<rss version=\"2.0\" " +
+                                        "xmlns:sy=\"http://purl.org/rss/1.0/modules/syndication/\"><channel>" +
+                                        "<title>feed</title>" +
+                                        "<link>http://mircomacrelli.net</link>" +
+                                        "<description>desc</description>";
+    private static final String END = "</channel></rss>";
+
+    private static ParseReport parse(final String items) throws ParserException {
+        return newFactory().parseLeniently(new ByteArrayInputStream(
+                (START + items + END).getBytes(Charset.forName("UTF-8"))));
+    }
+
+    @Test
+    public void validFeedsAreClean() throws ParserException {
+        final ParseReport report = newFactory().parseLeniently(new ByteArrayInputStream(
+                RSSFactoryTest.FULL_FEED.getBytes(Charset.forName("ISO-8859-1"))));
+
+        assertTrue(report.isClean());
+        assertEquals(newFactory().parse(new ByteArrayInputStream(
+                RSSFactoryTest.FULL_FEED.getBytes(Charset.forName("ISO-8859-1")))), report.getFeed());
+    }
+
+    @Test
+    public void invalidFieldsAreIgnored() throws ParserException {
+        final ParseReport report = parse("<item><title>first</title><pubDate>yesterday</pubDate>" +
+                                         "<link>http://</link></item>" +
+                                         "<item><title>second</title></item>");
+
+        final List<Item> items = report.getFeed().getChannel().getItems();
+        assertEquals(2, items.size());
+        assertEquals("first", items.get(0).getTitle());
+        assertNull(items.get(0).getPublishDate());
+        assertNull(items.get(0).getLink());
+        assertEquals("second", items.get(1).getTitle());
+
+        final List<Diagnostic> diagnostics = report.getDiagnostics();
+        assertEquals(2, diagnostics.size());
+        assertEquals("item/pubDate", diagnostics.get(0).getElement());
+        assertEquals("item/link", diagnostics.get(1).getElement());
+    }
+
+    @Test
+    public void duplicatedFieldsKeepTheFirstValue() throws ParserException {
+        final ParseReport report = parse("<item><title>first</title><title>again</title></item>");
+
+        assertEquals("first", report.getFeed().getChannel().getItems().get(0).getTitle());
+        assertEquals("field already set", report.getDiagnostics().get(0).getMessage());
+    }
+
+    @Test
+    public void invalidEnclosuresAreIgnored() throws ParserException {
+        final ParseReport report = parse("<item><title>podcast</title>" +
+                                         "<enclosure url=\"http://mircomacrelli.net/a.mp3\" length=\"-1\" " +
+                                         "type=\"audio/mpeg\"/></item>");
+
+        assertTrue(report.getFeed().getChannel().getItems().get(0).getEnclosures().isEmpty());
+        assertEquals("item/enclosure", report.getDiagnostics().get(0).getElement());
+    }
+
+    @Test
+    public void itemsThatCantBeBuiltAreDropped() throws ParserException {
+        final ParseReport report = parse("<item><link>http://mircomacrelli.net/1</link></item>" +
+                                         "<item><title>second</title></item>");
+
+        final List<Item> items = report.getFeed().getChannel().getItems();
+        assertEquals(1, items.size());
+        assertEquals("second", items.get(0).getTitle());
+        assertEquals("channel/item", report.getDiagnostics().get(0).getElement());
+    }
+
+    @Test
+    public void parsingContinuesAfterTheNestedElements() throws ParserException {
+        final ParseReport report = parse("<item><title><b>bold</b><i>nested</i></title>" +
+                                         "<description>still read</description></item>");
+
+        assertEquals("still read", report.getFeed().getChannel().getItems().get(0).getDescription());
+        assertEquals(1, report.getDiagnostics().size());
+    }
+
+    @Test
+    public void invalidModulesAreIgnored() throws ParserException {
+        final ParseReport report = newFactory().parseLeniently(new ByteArrayInputStream(
+                (START + "<sy:updatePeriod>sometimes</sy:updatePeriod><item><title>item</title></item>" + END).getBytes(
+                        Charset.forName("UTF-8"))));
+
+        assertEquals(1, report.getFeed().getChannel().getItems().size());
+        assertEquals("channel/sy:updatePeriod", report.getDiagnostics().get(0).getElement());
+    }
+
+    @Test
+    public void diagnosticsHaveTheLocation() throws ParserException {
+        final Diagnostic diagnostic = parse("<item><title>first</title><pubDate>yesterday</pubDate></item>")
+                .getDiagnostics().get(0);
+
+        assertEquals(1, diagnostic.getLine());
+        assertTrue(diagnostic.getColumn() > START.length());
+    }
+
+    @Test
+    public void badDatesDontFillTheStackTrace() {
+        assertNoStackTrace("<pubDate>yesterday</pubDate>");
+    }
+
+    @Test
+    public void badLinksDontFillTheStackTrace() {
+        assertNoStackTrace("<link>http://</link>");
+        assertNoStackTrace("<link>http://mircomacrelli.net/a b</link>");
+        assertNoStackTrace("<comments>http://mircomacrelli.net/%zz</comments>");
+    }
+
+    @Test
+    public void badNumbersDontFillTheStackTrace() {
+        assertNoStackTrace("<enclosure url=\"http://mircomacrelli.net/a.mp3\" length=\"big\" type=\"audio/mpeg\"/>");
+    }
+
+    /** parse a child of an item as the lenient parsing does, but without the recovery catching the exception */
+    private static void assertNoStackTrace(final String child) {
+        final ParseOptions options = ParseOptions.DEFAULT.withRecovery(new Recovery());
+        final XMLStreamReader reader = parseStringWithCursor("<item><title>title</title>" + child + "</item>");
+        final Item.Builder builder = new Item.Builder(PARSER, options);
+        try {
+            nextChild(reader);
+            builder.parseChild(reader);
+            nextChild(reader);
+            builder.parseChild(reader);
+            fail();
+        } catch (final ParserException cause) {
+            for (Throwable t = cause; t != null; t = t.getCause()) {
+                assertEquals(0, t.getStackTrace().length);
+            }
+        }
+    }
+
+    @Test(expected = ParserException.class)
+    public void malformedXmlIsNotRecovered() throws ParserException {
+        parse("<item><title>first</title><pubDate>yesterday</item>");
+    }
+
+    @Test(expected = ParserException.class)
+    public void theStrictParsingFails() throws ParserException {
+        newFactory().parse(new ByteArrayInputStream(
+                (START + "<item><title>first</title><pubDate>yesterday</pubDate></item>" + END).getBytes(
+                        Charset.forName("UTF-8"))));
+    }
+}
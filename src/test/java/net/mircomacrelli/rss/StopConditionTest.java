@@ -0,0 +1,76 @@
+package net.mircomacrelli.rss;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+
+import static net.mircomacrelli.rss.StopCondition.anyOf;
+import static net.mircomacrelli.rss.StopCondition.atLink;
+import static net.mircomacrelli.rss.StopCondition.atUniqueId;
+import static net.mircomacrelli.rss.StopCondition.notAfter;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class StopConditionTest {
+    private DateTime date;
+    private Item item;
+    private Item withoutFields;
+
+    @Before
+    public void setup() throws URISyntaxException {
+        date = new DateTime(2013, 10, 19, 11, 9, 3, DateTimeZone.UTC);
+        item = new Item(new URI("http://mircomacrelli.net/item"), "title", null, null, date, null, null, null, null,
+                        new UniqueId("abcde", false));
+        withoutFields = new Item(null, "title", null, null, null, null, null, null, null, null);
+    }
+
+    @Test
+    public void uniqueId() {
+        assertTrue(atUniqueId("abcde").matches(item));
+        assertFalse(atUniqueId("fghij").matches(item));
+        assertFalse(atUniqueId("abcde").matches(withoutFields));
+    }
+
+    @Test
+    public void link() throws URISyntaxException {
+        assertTrue(atLink(new URI("http://mircomacrelli.net/item")).matches(item));
+        assertFalse(atLink(new URI("http://mircomacrelli.net/other")).matches(item));
+        assertFalse(atLink(new URI("http://mircomacrelli.net/item")).matches(withoutFields));
+    }
+
+    @Test
+    public void cutoffIsInclusive() {
+        assertTrue(notAfter(date).matches(item));
+        assertTrue(notAfter(date.plusSeconds(1)).matches(item));
+        assertFalse(notAfter(date.minusSeconds(1)).matches(item));
+        assertFalse(notAfter(date).matches(withoutFields));
+    }
+
+    @Test
+    public void anyOfMatchesWhenOneMatches() {
+        assertTrue(anyOf(atUniqueId("fghij"), notAfter(date)).matches(item));
+        assertFalse(anyOf(atUniqueId("fghij"), notAfter(date.minusDays(1))).matches(item));
+        assertFalse(anyOf().matches(item));
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void uniqueIdIsRequired() {
+        atUniqueId(null);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void conditionsAreRequired() {
+        anyOf(atUniqueId("abcde"), null);
+    }
+
+    @Test
+    public void testToString() {
+        assertEquals("StopCondition{uniqueId='abcde'}", atUniqueId("abcde").toString());
+        assertEquals("StopCondition{anyOf=[StopCondition{uniqueId='abcde'}]}", anyOf(atUniqueId("abcde")).toString());
+    }
+}
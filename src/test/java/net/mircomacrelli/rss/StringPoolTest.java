@@ -0,0 +1,169 @@
+package net.mircomacrelli.rss;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.activation.MimeType;
+import javax.activation.MimeTypeParseException;
+import javax.xml.stream.XMLEventReader;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.events.XMLEvent;
+import java.io.ByteArrayInputStream;
+import java.nio.charset.Charset;
+
+import static javax.xml.stream.XMLStreamConstants.START_ELEMENT;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+public class StringPoolTest {
+    private StringPool pool;
+
+    @Before
+    public void setup() {
+        pool = StringPool.newPool(100);
+    }
+
+    @Test
+    public void equalStringsAreShared() {
+        final String first = pool.intern(new String("news"));
+        final String second = pool.intern(new String("news"));
+
+        assertSame(first, second);
+        assertEquals(1, pool.getHitCount());
+        assertEquals(1, pool.getMissCount());
+    }
+
+    @Test
+    public void charSequencesAreShared() {
+        final String pooled = pool.intern("news");
+
+        assertSame(pooled, pool.intern(new StringBuilder("news")));
+        assertEquals("other", pool.intern(new StringBuilder("other")));
+        assertSame(pool.intern(new StringBuilder("other")), pool.intern("other"));
+    }
+
+    @Test
+    public void nullIsNotPooled() {
+        assertNull(pool.intern((String)null));
+        assertEquals(0, pool.getMissCount());
+    }
+
+    @Test
+    public void longTextsAreNotPooled() {
+        final StringBuilder text = new StringBuilder(StringPool.MAX_LENGTH + 1);
+        for (int i = 0; i <= StringPool.MAX_LENGTH; i++) {
+            text.append('a');
+        }
+
+        assertNotSame(pool.intern(text), pool.intern(text));
+        assertEquals(0, pool.getHitCount() + pool.getMissCount());
+    }
+
+    @Test
+    public void poolIsBounded() {
+        pool = StringPool.newPool(4);
+        for (int i = 0; i < 1000; i++) {
+            pool.intern(Integer.toString(i));
+        }
+
+        assertEquals(4, pool.getCapacity());
+        assertEquals(1000, pool.getMissCount());
+        assertEquals(0, pool.getHitCount());
+    }
+
+    @Test
+    public void capacityIsRoundedUp() {
+        assertEquals(128, pool.getCapacity());
+        assertEquals(1, StringPool.newPool(1).getCapacity());
+    }
+
+    @Test
+    public void mimeTypesAreShared() throws MimeTypeParseException {
+        final MimeType first = pool.internMimeType(new String("audio/mpeg"));
+
+        assertSame(first, pool.internMimeType(new String("audio/mpeg")));
+        assertEquals("video/mp4", pool.internMimeType("video/mp4").getBaseType());
+    }
+
+    @Test(expected = MimeTypeParseException.class)
+    public void invalidMimeTypes() throws MimeTypeParseException {
+        pool.internMimeType("audio");
+    }
+
+    @Test
+    public void metrics() {
+        assertEquals(0, pool.getHitRate(), 0);
+
+        pool.intern("news");
+        pool.intern("news");
+        pool.intern("news");
+        pool.intern("sport");
+
+        assertEquals(0.5, pool.getHitRate(), 0);
+        assertEquals(2 * (40 + 8), pool.getBytesSaved());
+    }
+
+    @Test
+    public void itunesAuthorsAndOwnersAreShared() throws Exception {
+        for (final boolean cursor : new boolean[]{true, false}) {
+            final Itunes first = parseItunes(cursor);
+            final Itunes second = parseItunes(cursor);
+
+            assertEquals("Mirco Macrelli", first.getAuthor());
+            assertSame(first.getAuthor(), second.getAuthor());
+            assertEquals("The Owner", first.getOwnerName());
+            assertSame(first.getOwnerName(), second.getOwnerName());
+        }
+    }
+
+    /** the standard feeds can't contain the iTunes module, so its elements are read directly */
+    private Itunes parseItunes(final boolean cursor) throws Exception {
+        final String uri = ModuleInformation.ITUNES.getUri();
+        final byte[] xml = ("<podcast xmlns:itunes=\"" + uri + "\"><itunes:author>Mirco Macrelli</itunes:author>" +
+                            "<itunes:owner><itunes:name>The Owner</itunes:name>" +
+                            "<itunes:email>owner@mircomacrelli.net</itunes:email></itunes:owner></podcast>")
+                .getBytes(Charset.forName("UTF-8"));
+        final ModuleBuilder builder = ModuleInformation.ITUNES.newBuilder(null, pool);
+
+        if (cursor) {
+            final XMLStreamReader reader = XMLInputFactory.newFactory().createXMLStreamReader(
+                    new ByteArrayInputStream(xml));
+            while (reader.hasNext()) {
+                if ((reader.next() == START_ELEMENT) && uri.equals(reader.getNamespaceURI())) {
+                    builder.parse(reader);
+                }
+            }
+        } else {
+            final XMLEventReader reader = XMLInputFactory.newFactory().createXMLEventReader(
+                    new ByteArrayInputStream(xml));
+            while (reader.hasNext()) {
+                final XMLEvent event = reader.nextEvent();
+                if (event.isStartElement() && uri.equals(event.asStartElement().getName().getNamespaceURI())) {
+                    builder.parse(reader, event.asStartElement());
+                }
+            }
+        }
+        return (Itunes)builder.build();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void capacityMustBePositive() {
+        StringPool.newPool(0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void capacityIsLimited() {
+        StringPool.newPool(Integer.MAX_VALUE);
+    }
+
+    @Test
+    public void testToString() {
+        pool.intern("news");
+        pool.intern("news");
+
+        assertEquals("StringPool{capacity=128, hits=1, misses=1, bytesSaved=48}", pool.toString());
+    }
+}
@@ -0,0 +1,74 @@
+package net.mircomacrelli.rss;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import static net.mircomacrelli.rss.SymbolTable.UNKNOWN;
+import static org.junit.Assert.assertEquals;
+
+public class SymbolTableTest {
+    private SymbolTable table;
+
+    @Before
+    public void setup() {
+        table = new SymbolTable(3);
+        table.put("title", 1);
+        table.put("link", 2);
+        table.put("description", 3);
+    }
+
+    @Test
+    public void namesAreFound() {
+        assertEquals(1, table.get("title"));
+        assertEquals(2, table.get("link"));
+        assertEquals(3, table.get("description"));
+    }
+
+    @Test
+    public void namesAreComparedByValue() {
+        assertEquals(2, table.get(new String("link")));
+    }
+
+    @Test
+    public void unknownNames() {
+        assertEquals(UNKNOWN, table.get("guid"));
+        assertEquals(UNKNOWN, table.get(""));
+    }
+
+    @Test
+    public void nullIsUnknown() {
+        assertEquals(UNKNOWN, table.get(null));
+    }
+
+    @Test
+    public void collidingNamesAreFound() {
+        // "Aa" and "BB" have the same hash code
+        final SymbolTable colliding = new SymbolTable(2);
+        colliding.put("Aa", 1);
+        colliding.put("BB", 2);
+        assertEquals(1, colliding.get("Aa"));
+        assertEquals(2, colliding.get("BB"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void namesCantBeRepeated() {
+        table.put("title", 4);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownIdCantBeUsed() {
+        table.put("guid", UNKNOWN);
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void nameIsRequired() {
+        table.put(null, 4);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void tableCanBeFull() {
+        final SymbolTable small = new SymbolTable(1);
+        small.put("title", 1);
+        small.put("link", 2);
+    }
+}
@@ -0,0 +1,34 @@
+package net.mircomacrelli.rss;
+
+import org.junit.Test;
+
+import javax.xml.stream.XMLStreamReader;
+
+import static net.mircomacrelli.rss.XmlTestBase.parseStringWithCursor;
+import static org.junit.Assert.assertEquals;
+
+public class TagTest {
+    @Test
+    public void knownNames() {
+        assertEquals(Tag.TITLE, Tag.of("title"));
+        assertEquals(Tag.NEW_FEED_URL, Tag.of("new-feed-url"));
+        assertEquals(Tag.HOUR, Tag.of("hour"));
+        assertEquals(Tag.HOUR, Tag.of("Hour"));
+    }
+
+    @Test
+    public void namesAreCaseSensitive() {
+        assertEquals(Tag.UNKNOWN, Tag.of("pubdate"));
+    }
+
+    @Test
+    public void unknownNames() {
+        assertEquals(Tag.UNKNOWN, Tag.of("foo"));
+    }
+
+    @Test
+    public void elementOfTheReader() {
+        final XMLStreamReader reader = parseStringWithCursor("<rss><pubDate>now</pubDate></rss>");
+        assertEquals(Tag.PUB_DATE, Tag.of(reader));
+    }
+}
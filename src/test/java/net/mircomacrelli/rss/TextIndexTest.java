@@ -0,0 +1,109 @@
+package net.mircomacrelli.rss;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.Charset;
+import java.util.List;
+
+import static net.mircomacrelli.rss.RSSFactory.newFactory;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+public class TextIndexTest {
+    private TextIndex index;
+
+    @Before
+    public void setup() {
+        index = TextIndex.newIndex();
+        index.add(item("Java 8 is out", "The new version of the Java virtual machine"));
+        index.add(item("Android and Java", "<p>Java on the phones</p>"));
+        index.add(item("The JVM", "A virtual machine"));
+        index.add(item("Python 3", null));
+    }
+
+    private static Item item(final String title, final String description) {
+        return new Item(null, title, description, null, null, null, null, null, null, null);
+    }
+
+    @Test
+    public void terms() {
+        assertArrayEquals(new int[]{0, 1}, index.search(TextQuery.term("java")));
+        assertArrayEquals(new int[]{2}, index.search(TextQuery.term("JVM")));
+        assertArrayEquals(new int[0], index.search(TextQuery.term("ruby")));
+    }
+
+    @Test
+    public void phrases() {
+        assertArrayEquals(new int[]{0, 2}, index.search(TextQuery.phrase("virtual machine")));
+        assertArrayEquals(new int[0], index.search(TextQuery.phrase("machine virtual")));
+        assertArrayEquals(new int[]{1}, index.search(TextQuery.phrase("java on the phones")));
+    }
+
+    @Test
+    public void phrasesDontSpanTheTitleAndTheDescription() {
+        assertArrayEquals(new int[0], index.search(TextQuery.phrase("java the")));
+    }
+
+    @Test
+    public void tagsAreNotIndexed() {
+        assertArrayEquals(new int[0], index.search(TextQuery.term("p")));
+    }
+
+    @Test
+    public void titlesWithLessThan() {
+        final int document = index.add(item("Is 3 < 5 in Java? Why x <y matters", "<b>no</b>"));
+
+        assertArrayEquals(new int[]{document}, index.search(TextQuery.phrase("5 in java")));
+        assertArrayEquals(new int[]{document}, index.search(TextQuery.phrase("y matters")));
+        assertArrayEquals(new int[0], index.search(TextQuery.term("b")));
+    }
+
+    @Test
+    public void booleanQueries() {
+        assertArrayEquals(new int[]{0}, index.search("java -android"));
+        assertArrayEquals(new int[]{0, 1, 2}, index.search("java OR jvm"));
+        assertArrayEquals(new int[]{0, 2}, index.search("\"virtual machine\" OR python -python"));
+        assertArrayEquals(new int[]{0, 2, 3}, index.search("\"virtual machine\" OR python"));
+        assertArrayEquals(new int[]{1}, index.search("java phones"));
+    }
+
+    @Test
+    public void segmentsAreSearchedInOrder() {
+        final TextIndex small = TextIndex.newIndex(3);
+        for (int i = 0; i < 100; i++) {
+            small.add(item("item " + i, ((i % 2) == 0) ? "even number" : "odd number"));
+        }
+
+        // 33 segments of 3 items, merged ten at a time: three of 30 items, three of 3 and one item in the buffer
+        assertEquals(100, small.size());
+        assertEquals(6, small.getSegmentCount());
+        assertEquals(50, small.search("even").length);
+        assertArrayEquals(new int[]{42}, small.search("item 42"));
+        final int[] odd = small.search("\"odd number\"");
+        for (int i = 0; i < odd.length; i++) {
+            assertEquals((i * 2) + 1, odd[i]);
+        }
+    }
+
+    @Test
+    public void parsedItems() throws ParserException {
+        final List<Item> items = newFactory().parse(new ByteArrayInputStream(
+                RSSFactoryTest.FULL_FEED.getBytes(Charset.forName("ISO-8859-1")))).getChannel().getItems();
+        final int first = index.addAll(items);
+
+        assertEquals(4, first);
+        assertEquals(4 + items.size(), index.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void segmentSizeMustBePositive() {
+        TextIndex.newIndex(0);
+    }
+
+    @Test
+    public void testToString() {
+        assertEquals("TextIndex{items=4, segments=0, buffered=4}", index.toString());
+    }
+}
@@ -0,0 +1,53 @@
+package net.mircomacrelli.rss;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+public class TextQueryTest {
+    @Test
+    public void termsAreNormalized() {
+        assertEquals("java", TextQuery.term("Java").toString());
+        assertEquals("\"java 8\"", TextQuery.term("Java-8").toString());
+    }
+
+    @Test
+    public void combinedQueries() {
+        final TextQuery query = TextQuery.all(TextQuery.term("java"),
+                                              TextQuery.any(TextQuery.term("jvm"), TextQuery.phrase("virtual machine")))
+                                         .without(TextQuery.term("android"));
+
+        assertEquals("((java AND (jvm OR \"virtual machine\")) NOT android)", query.toString());
+    }
+
+    @Test
+    public void parse() {
+        assertEquals("((java AND (\"virtual machine\" OR jvm)) NOT (android OR \"google play\"))",
+                     TextQuery.parse("Java \"virtual machine\" OR jvm -android -\"Google Play\"").toString());
+    }
+
+    @Test
+    public void parseSingleWord() {
+        assertEquals("java", TextQuery.parse("  java ").toString());
+    }
+
+    @Test
+    public void parseIgnoresEmptyWords() {
+        assertEquals("(java OR jvm)", TextQuery.parse("java ... OR jvm \"\"").toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parseRequiresAWord() {
+        TextQuery.parse("-java");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void termsMustHaveLetters() {
+        TextQuery.term("!!");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void combinedQueriesMustHaveClauses() {
+        TextQuery.all();
+    }
+}
@@ -0,0 +1,141 @@
+package net.mircomacrelli.rss;
+
+import org.joda.time.DateTime;
+import org.joda.time.DateTimeZone;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TimelineTest {
+    private static final String BLOG = "http://mircomacrelli.net/feed.xml";
+    private static final String NEWS = "http://news.mircomacrelli.net/feed.xml";
+    private static final DateTime NOON = new DateTime(2014, 3, 10, 12, 0, DateTimeZone.UTC);
+
+    private Timeline timeline;
+
+    @Before
+    public void setup() {
+        timeline = Timeline.newTimeline();
+        timeline.update(BLOG, Arrays.asList(item("b1", 1), item("b5", 5), item("b3", 3)));
+        timeline.update(NEWS, Arrays.asList(item("n4", 4), item("n2", 2), item("n0", null), item("n6", 6)));
+    }
+
+    private static Item item(final String title, final Integer hour) {
+        return new Item(null, title, null, null, (hour == null) ? null : NOON.plusHours(hour), null, null, null, null,
+                        null);
+    }
+
+    private static List<String> titles(final Iterator<Timeline.Entry> entries) {
+        final List<String> titles = new ArrayList<>();
+        while (entries.hasNext()) {
+            titles.add(entries.next().getItem().getTitle());
+        }
+        return titles;
+    }
+
+    private static List<String> titles(final List<Timeline.Entry> entries) {
+        return titles(entries.iterator());
+    }
+
+    @Test
+    public void feedsAreMergedNewestFirst() {
+        assertEquals(Arrays.asList("n6", "b5", "n4", "b3", "n2", "b1", "n0"), titles(timeline.iterator()));
+        assertEquals(7, timeline.size());
+        assertEquals(2, timeline.getFeedCount());
+    }
+
+    @Test
+    public void entriesKeepTheirFeed() {
+        final List<Timeline.Entry> latest = timeline.latest(2);
+
+        assertEquals(NEWS, latest.get(0).getFeed());
+        assertEquals(BLOG, latest.get(1).getFeed());
+    }
+
+    @Test
+    public void latest() {
+        assertEquals(Arrays.asList("n6", "b5", "n4"), titles(timeline.latest(3)));
+        assertEquals(7, timeline.latest(100).size());
+        assertTrue(timeline.latest(0).isEmpty());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void countCantBeNegative() {
+        timeline.latest(-1);
+    }
+
+    @Test
+    public void between() {
+        assertEquals(Arrays.asList("b5", "n4", "b3", "n2"),
+                     titles(timeline.between(NOON.plusHours(2), NOON.plusHours(6))));
+        assertFalse(timeline.between(NOON.plusHours(7), NOON.plusHours(9)).hasNext());
+    }
+
+    @Test
+    public void updateReplacesTheFeed() {
+        timeline.update(BLOG, Arrays.asList(item("b7", 7), item("b8", 8)));
+
+        assertEquals(Arrays.asList("b8", "b7", "n6", "n4", "n2", "n0"), titles(timeline.iterator()));
+        assertEquals(6, timeline.size());
+    }
+
+    @Test
+    public void iteratorsReadASnapshot() {
+        final Iterator<Timeline.Entry> entries = timeline.iterator();
+        timeline.remove(NEWS);
+
+        assertEquals(7, titles(entries).size());
+        assertEquals(3, titles(timeline.iterator()).size());
+    }
+
+    @Test
+    public void remove() {
+        assertTrue(timeline.remove(NEWS));
+        assertFalse(timeline.remove(NEWS));
+
+        assertEquals(Arrays.asList("b5", "b3", "b1"), titles(timeline.iterator()));
+        assertEquals(3, timeline.size());
+    }
+
+    @Test
+    public void itemsWithTheSameDateKeepTheOrderOfTheFeed() {
+        final Timeline same = Timeline.newTimeline();
+        same.update(BLOG, Arrays.asList(item("first", 1), item("second", 1), item("third", 1)));
+
+        assertEquals(Arrays.asList("first", "second", "third"), titles(same.iterator()));
+    }
+
+    @Test
+    public void emptyTimeline() {
+        final Timeline empty = Timeline.newTimeline();
+        empty.update(BLOG, Collections.<Item>emptyList());
+
+        assertFalse(empty.iterator().hasNext());
+        assertEquals(1, empty.getFeedCount());
+    }
+
+    @Test(expected = NoSuchElementException.class)
+    public void nextAfterTheEnd() {
+        Timeline.newTimeline().iterator().next();
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void entriesCantBeRemoved() {
+        timeline.iterator().remove();
+    }
+
+    @Test
+    public void testToString() {
+        assertEquals("Timeline{feeds=2, items=7}", timeline.toString());
+    }
+}
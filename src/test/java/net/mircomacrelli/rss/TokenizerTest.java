@@ -0,0 +1,73 @@
+package net.mircomacrelli.rss;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+
+public class TokenizerTest {
+    @Test
+    public void wordsAreLowercase() {
+        assertEquals(Arrays.asList("java", "8", "è", "uscito"), Tokenizer.tokenize("Java 8 È uscito!"));
+    }
+
+    @Test
+    public void tagsAndEntitiesAreSkipped() {
+        assertEquals(Arrays.asList("rock", "roll", "link"),
+                     Tokenizer.tokenizeMarkup("<p>Rock &amp; roll</p> <a href=\"http://example.com\">link</a>" +
+                                              "&hellip;"));
+    }
+
+    @Test
+    public void ampersandsAreNotAlwaysEntities() {
+        assertEquals(Arrays.asList("a", "b", "c"), Tokenizer.tokenizeMarkup("a & b; c"));
+    }
+
+    @Test
+    public void entitiesAreShort() {
+        assertEquals(Arrays.asList("averylongwordhere", "x"), Tokenizer.tokenizeMarkup("&averylongwordhere; &x"));
+    }
+
+    @Test
+    public void manyAmpersandsWithoutSemicolons() {
+        final StringBuilder text = new StringBuilder(400000);
+        for (int i = 0; i < 100000; i++) {
+            text.append("a & ");
+        }
+        text.append(';');
+
+        assertEquals(100000, Tokenizer.tokenizeMarkup(text.toString()).size());
+    }
+
+    @Test
+    public void lessThanIsASeparatorInPlainText() {
+        assertEquals(Arrays.asList("why", "x", "y", "matters", "for", "java", "b"),
+                     Tokenizer.tokenize("Why x < y matters for Java <b>"));
+    }
+
+    @Test
+    public void lessThanThatDoesNotStartATagIsASeparator() {
+        assertEquals(Arrays.asList("3", "5", "and", "x", "y", "in", "java"),
+                     Tokenizer.tokenizeMarkup("3 <5 and x < y <i>in</i> Java"));
+    }
+
+    @Test
+    public void tagsWithoutTheEndAreNotSkipped() {
+        assertEquals(Arrays.asList("a", "b", "c"), Tokenizer.tokenizeMarkup("a <b c"));
+    }
+
+    @Test
+    public void longWordsAreDropped() {
+        final char[] chars = new char[Tokenizer.MAX_LENGTH + 1];
+        Arrays.fill(chars, 'a');
+
+        assertEquals(Arrays.asList("short"), Tokenizer.tokenize(new String(chars) + " short"));
+    }
+
+    @Test
+    public void nullHasNoWords() {
+        assertEquals(Collections.emptyList(), Tokenizer.tokenize(null));
+    }
+}
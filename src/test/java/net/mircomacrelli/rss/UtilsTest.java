@@ -9,6 +9,7 @@ import javax.activation.MimeType;
 import javax.activation.MimeTypeParseException;
 import javax.xml.stream.XMLEventReader;
 import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.stream.events.StartElement;
 import java.util.Arrays;
 import java.util.Collections;
@@ -21,16 +22,21 @@ import static net.mircomacrelli.rss.Utils.append;
 import static net.mircomacrelli.rss.Utils.crashIfAlreadySet;
 import static net.mircomacrelli.rss.Utils.formatDate;
 import static net.mircomacrelli.rss.Utils.getAllTagsValuesInside;
+import static net.mircomacrelli.rss.Utils.getAttributeValue;
 import static net.mircomacrelli.rss.Utils.getAttributesValues;
 import static net.mircomacrelli.rss.Utils.getText;
+import static net.mircomacrelli.rss.Utils.hasPrefix;
 import static net.mircomacrelli.rss.Utils.isEndOfTag;
 import static net.mircomacrelli.rss.Utils.isStartOfTag;
+import static net.mircomacrelli.rss.Utils.nextChild;
 import static net.mircomacrelli.rss.Utils.parseDate;
 import static net.mircomacrelli.rss.Utils.parseUri;
+import static net.mircomacrelli.rss.Utils.skipElement;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
 
@@ -138,12 +144,22 @@ public final class UtilsTest extends XmlTestBase {
         assertEquals("name=value", sb.toString());
     }
 
-    @Test(expected = IllegalStateException.class)
-    public void tryToWriteTwoValues() {
+    @Test(expected = ParserException.class)
+    public void tryToWriteTwoValues() throws ParserException {
         final String value = "12";
         crashIfAlreadySet(value);
     }
 
+    @Test
+    public void fieldsSetTwiceDontFillTheStackTrace() {
+        try {
+            crashIfAlreadySet("12");
+            fail();
+        } catch (final ParserException cause) {
+            assertEquals(0, cause.getStackTrace().length);
+        }
+    }
+
     @Test(expected = NullPointerException.class)
     public void firstModuleCantBeNull() {
         allowedModules(null);
@@ -306,4 +322,76 @@ public final class UtilsTest extends XmlTestBase {
         doThrow(new XMLStreamException("eccezione")).when(mock).nextEvent();
         getAllTagsValuesInside(mock, "tag");
     }
+
+    @Test
+    public void nextChildMovesToTheStartOfTheChildren() throws ParserException {
+        final XMLStreamReader reader = parseStringWithCursor("<tag>text<a>uno</a><!-- comment --><b/></tag>");
+        assertTrue(nextChild(reader));
+        assertEquals("a", reader.getLocalName());
+        skipElement(reader);
+        assertTrue(nextChild(reader));
+        assertEquals("b", reader.getLocalName());
+        skipElement(reader);
+        assertFalse(nextChild(reader));
+        assertEquals("tag", reader.getLocalName());
+    }
+
+    @Test
+    public void skipElementLeavesTheReaderOnTheEndOfTheElement() throws ParserException {
+        final XMLStreamReader reader = parseStringWithCursor("<tag><a><tag>x</tag></a><b/></tag>");
+        skipElement(reader);
+        assertEquals(XMLStreamReader.END_ELEMENT, reader.getEventType());
+        assertEquals("tag", reader.getLocalName());
+    }
+
+    @Test
+    public void getTextWithCursorReturnTheWholeText() throws ParserException {
+        final XMLStreamReader reader = parseStringWithCursor("<tag>testo &amp; completo</tag>");
+        assertEquals("testo & completo", getText(reader));
+        assertEquals(XMLStreamReader.END_ELEMENT, reader.getEventType());
+    }
+
+    @Test
+    public void getTextWithCursorReturnEmptyStringOnEmptyTags() throws ParserException {
+        assertEquals("", getText(parseStringWithCursor("<tag/>")));
+    }
+
+    @Test(expected = ParserException.class)
+    public void getTextWithCursorThrowAnExceptionIfCantFindText() throws ParserException {
+        getText(parseStringWithCursor("<tag><other>value</other></tag>"));
+    }
+
+    @Test
+    public void getAttributeValueWithCursor() {
+        final XMLStreamReader reader = parseStringWithCursor("<tag a=\"1\" b=\"2\">testo</tag>");
+        assertEquals("2", getAttributeValue(reader, "b"));
+        assertNull(getAttributeValue(reader, "c"));
+    }
+
+    @Test
+    public void getTagsWithCursorReturnMapsWithTwoValues() throws ParserException {
+        final XMLStreamReader reader = parseStringWithCursor("<tag><a>uno</a><b>due</b></tag>");
+        final Map<String, String> tags = getAllTagsValuesInside(reader);
+
+        assertEquals("uno", tags.get("a"));
+        assertEquals("due", tags.get("b"));
+        assertEquals("tag", reader.getLocalName());
+    }
+
+    @Test
+    public void hasPrefixIsFalseOnElementsWithoutNamespace() {
+        assertFalse(hasPrefix(parseStringWithCursor("<tag>testo</tag>")));
+    }
+
+    @Test
+    public void hasPrefixIsTrueOnElementsWithNamespace() {
+        assertTrue(hasPrefix(parseStringWithCursor("<rss xmlns:a=\"http://mircomacrelli.net\"><a:tag/></rss>")));
+    }
+
+    @Test(expected = ParserException.class)
+    public void nextChildCatchStreamException() throws XMLStreamException, ParserException {
+        final XMLStreamReader mock = mock(XMLStreamReader.class);
+        doThrow(new XMLStreamException("eccezione")).when(mock).next();
+        nextChild(mock);
+    }
 }
@@ -1,13 +1,23 @@
 package net.mircomacrelli.rss;
 
+import net.mircomacrelli.rss.Itunes.Explicit;
 import org.junit.BeforeClass;
 
+import javax.mail.internet.AddressException;
+import javax.mail.internet.InternetAddress;
 import javax.xml.stream.XMLEventReader;
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.stream.events.StartElement;
 import javax.xml.stream.events.XMLEvent;
+import java.io.ByteArrayInputStream;
 import java.io.StringReader;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 
 public abstract class XmlTestBase {
     private static XMLInputFactory factory;
@@ -29,6 +39,46 @@ public abstract class XmlTestBase {
         }
     }
 
+    static XMLStreamReader parseStringWithCursor(final String xml) {
+        try {
+            final XMLStreamReader reader = factory.createXMLStreamReader(new StringReader(xml));
+            while (reader.hasNext()) {
+                if ((reader.next() == XMLStreamReader.START_ELEMENT) && !reader.getLocalName().equals("rss")) {
+                    return reader;
+                }
+            }
+        } catch (XMLStreamException e) {
+            throw new AssertionError("error while parsing the string for the test", e);
+        }
+        throw new AssertionError("the test was expecting an element");
+    }
+
+    /** @return the feed of {@link RSSFactoryTest#FULL_FEED} parsed by the factory */
+    static RSS fullFeed(final RSSFactory factory) throws ParserException {
+        return factory.parse(new ByteArrayInputStream(
+                RSSFactoryTest.FULL_FEED.getBytes(Charset.forName("ISO-8859-1"))));
+    }
+
+    /** @return a channel with only the required fields */
+    static Channel channel(final List<Item> items) {
+        return new Channel("title", URI.create("http://mircomacrelli.net"), "description", null, null, null, null, null,
+                           null, null, null, null, null, null, null, null, null, null, null, items);
+    }
+
+    /** @return an iTunes module with most of the fields */
+    static Itunes itunesModule() {
+        final List<Itunes.Category> categories = new ArrayList<>(1);
+        final List<Itunes.Category> none = new ArrayList<>(0);
+        categories.add(new Itunes.Category("Technology", Arrays.asList(new Itunes.Category("Podcasting", none))));
+        try {
+            return new Itunes("author", true, URI.create("http://mircomacrelli.net/cover.png"), null, "summary", null,
+                              null, 3, false, "owner", new InternetAddress("owner@mircomacrelli.net"), Explicit.CLEAN,
+                              Itunes.Builder.DURATION.parsePeriod("1:02:03"), categories);
+        } catch (final AddressException e) {
+            throw new AssertionError("the address of the test is not valid", e);
+        }
+    }
+
     static StartElement getElement(final XMLEventReader reader) {
         while (reader.hasNext()) {
             final XMLEvent event;